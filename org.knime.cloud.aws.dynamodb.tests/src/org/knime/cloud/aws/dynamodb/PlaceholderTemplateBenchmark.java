@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBPlaceholderSettings;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.InvalidSettingsException;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Measures the time and the memory allocated per row by {@link PlaceholderTemplate#bindValues(DataRow)} and by the
+ * per-row substitution used before. It is not part of the test suite since timings depend on the machine, run it as
+ * Java application and pass the number of rows as optional argument.
+ *
+ * @author agent
+ */
+final class PlaceholderTemplateBenchmark {
+
+    private static final int DEFAULT_ROWS = 200_000;
+
+    private static final int ROUNDS = 5;
+
+    private PlaceholderTemplateBenchmark() {
+        // utility class
+    }
+
+    /**
+     * Runs the benchmark and prints the best round of each approach.
+     *
+     * @param args the number of rows, optional
+     * @throws InvalidSettingsException if the placeholders are invalid
+     */
+    public static void main(final String[] args) throws InvalidSettingsException {
+        final int numRows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        final DynamoDBPlaceholderSettings settings = PlaceholderTemplateTest.createSettings();
+        final List<DataRow> rows = PlaceholderTemplateTest.createRows(numRows);
+        final Map<String, AttributeValue> staticValues = PlaceholderTemplateTest.staticValues(settings);
+        final PlaceholderTemplate template = new PlaceholderTemplate(settings, PlaceholderTemplateTest.SPEC);
+
+        // The first rounds warm up the JIT, the best round of each approach is reported
+        final long[] perRow = run(rows,
+            row -> PlaceholderTemplateTest.bindPerRow(settings, staticValues, PlaceholderTemplateTest.SPEC, row));
+        final long[] bound = run(rows, template::bindValues);
+        print("Per-row substitution (before)", perRow, numRows);
+        print("Placeholder template (after)", bound, numRows);
+    }
+
+    /** @return the best time in nanoseconds and the bytes allocated in that round, -1 if not available */
+    private static long[] run(final List<DataRow> rows,
+        final Function<DataRow, Map<String, AttributeValue>> binder) {
+        long bestTime = Long.MAX_VALUE;
+        long bestAllocated = -1;
+        long sink = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            final long allocatedBefore = allocatedBytes();
+            final long start = System.nanoTime();
+            for (final DataRow row : rows) {
+                sink += binder.apply(row).size();
+            }
+            final long time = System.nanoTime() - start;
+            final long allocatedAfter = allocatedBytes();
+            if (time < bestTime) {
+                bestTime = time;
+                bestAllocated = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore);
+            }
+        }
+        if (sink == 0) {
+            throw new IllegalStateException("No values were bound.");
+        }
+        return new long[]{bestTime, bestAllocated};
+    }
+
+    private static void print(final String name, final long[] result, final int numRows) {
+        System.out.println(String.format("%-32s %8.1f ns/row %10s bytes/row", name, result[0] / (double)numRows, // NOSONAR
+            result[1] < 0 ? "n/a" : String.format("%.1f", result[1] / (double)numRows)));
+    }
+
+    /** @return the bytes allocated by the current thread, -1 if the JVM does not provide them */
+    private static long allocatedBytes() {
+        try {
+            final Method method = ClassLoader.getSystemClassLoader().loadClass("com.sun.management.ThreadMXBean")
+                .getMethod("getThreadAllocatedBytes", long.class);
+            return (Long)method.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        } catch (ReflectiveOperationException | IllegalArgumentException e) { // NOSONAR not available on this JVM
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBPlaceholderSettings;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Compares {@link PlaceholderTemplate} with the per-row substitution that was used before, which copied the
+ * static values and converted the bound cells with {@link KNIMEToDynamoDBUtil#dataCellToAttributeValue(DataCell)}
+ * for every row. The timing of both is compared by {@link PlaceholderTemplateBenchmark}.
+ *
+ * @author agent
+ */
+class PlaceholderTemplateTest {
+
+    private static final int ROWS = 1000;
+
+    static final DataTableSpec SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("name", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("price", DoubleCell.TYPE).createSpec());
+
+    /**
+     * @return placeholders with two static values and two values bound to the columns of {@link #SPEC}
+     */
+    static DynamoDBPlaceholderSettings createSettings() {
+        final DynamoDBPlaceholderSettings settings = new DynamoDBPlaceholderSettings();
+        settings.setValues(Arrays.asList(new ValueMapping(":status", DynamoDBUtil.STRING_TYPE, "active"),
+            new ValueMapping(":min", DynamoDBUtil.NUMBER_TYPE, "10"),
+            new ValueMapping(":name", ValueMapping.COLUMN_TYPE, "name"),
+            new ValueMapping(":price", ValueMapping.COLUMN_TYPE, "price")));
+        return settings;
+    }
+
+    /**
+     * @param numRows the number of rows
+     * @return rows of {@link #SPEC}
+     */
+    static List<DataRow> createRows(final int numRows) {
+        final List<DataRow> rows = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            rows.add(new DefaultRow("Row" + i, new StringCell("item" + i), new DoubleCell(i * 0.5)));
+        }
+        return rows;
+    }
+
+    /**
+     * The substitution for a single row as it was done before the template existed.
+     */
+    static Map<String, AttributeValue> bindPerRow(final DynamoDBPlaceholderSettings settings,
+        final Map<String, AttributeValue> staticValues, final DataTableSpec spec, final DataRow row) {
+        final Map<String, AttributeValue> values = new HashMap<>(staticValues);
+        for (final ValueMapping vm : settings.getValues()) {
+            if (vm.isColumnType()) {
+                final int col = spec.findColumnIndex(vm.getValue());
+                values.put(vm.getName(), KNIMEToDynamoDBUtil.dataCellToAttributeValue(row.getCell(col)));
+            }
+        }
+        return values;
+    }
+
+    static Map<String, AttributeValue> staticValues(final DynamoDBPlaceholderSettings settings)
+        throws InvalidSettingsException {
+        final Map<String, AttributeValue> values = new HashMap<>();
+        for (final ValueMapping vm : settings.getValues()) {
+            if (!vm.isColumnType()) {
+                values.put(vm.getName(), vm.getAttributeValue());
+            }
+        }
+        return values;
+    }
+
+    @Test
+    void testBindValuesMatchesPerRowSubstitution() throws InvalidSettingsException {
+        final DynamoDBPlaceholderSettings settings = createSettings();
+        final PlaceholderTemplate template = new PlaceholderTemplate(settings, SPEC);
+        final Map<String, AttributeValue> staticValues = staticValues(settings);
+        for (final DataRow row : createRows(ROWS)) {
+            assertEquals(bindPerRow(settings, staticValues, SPEC, row), template.bindValues(row),
+                "Values differ for row " + row.getKey());
+        }
+    }
+
+    @Test
+    void testStaticValuesMatchSettings() throws InvalidSettingsException {
+        final DynamoDBPlaceholderSettings settings = createSettings();
+        assertEquals(staticValues(settings), new PlaceholderTemplate(settings, SPEC).getStaticValues());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+
+/**
+ * Merges a recorded export with recorded stream records and compares the result with the expected snapshot,
+ * once in memory and once with every entry written to a temporary file.
+ *
+ * @author agent
+ */
+class SnapshotMergerTest {
+
+    private static final Path FILES = Paths.get("files", "snapshot");
+
+    private static final List<String> KEYS = Arrays.asList("customer", "order");
+
+    @Test
+    void testReadExport() throws Exception {
+        final ExportFileReader export = new ExportFileReader(FILES.resolve("export"));
+        assertEquals(Instant.parse("2026-10-18T10:00:00Z"), export.getExportTime());
+        assertEquals("arn:aws:dynamodb:eu-west-1:123456789012:table/orders", export.getTableArn());
+        assertEquals(2, export.getDataFiles().size());
+    }
+
+    @Test
+    void testMergeInMemory() throws Exception {
+        try (SnapshotMerger merger = new SnapshotMerger(KEYS)) {
+            assertSnapshot(readExpected(), merge(merger));
+            assertEquals(5, merger.getNumExported());
+            assertEquals(5, merger.getNumPut());
+            assertEquals(2, merger.getNumRemoved());
+            assertEquals(5, merger.size());
+        }
+    }
+
+    @Test
+    void testMergeSpilled() throws Exception {
+        final List<Map<String, AttributeValue>> inMemory;
+        try (SnapshotMerger merger = new SnapshotMerger(KEYS)) {
+            inMemory = merge(merger);
+        }
+        // Every entry exceeds the limit, so each one is written to its own file
+        try (SnapshotMerger merger = new SnapshotMerger(KEYS, 1)) {
+            final List<Map<String, AttributeValue>> spilled = merge(merger);
+            assertSnapshot(readExpected(), spilled);
+            assertEquals(inMemory, spilled, "Items are not in the same order");
+        }
+    }
+
+    /** Reads the export and applies the stream records, returns the items of the snapshot in order. */
+    private static List<Map<String, AttributeValue>> merge(final SnapshotMerger merger) throws Exception {
+        final ExportFileReader export = new ExportFileReader(FILES.resolve("export"));
+        for (final Path file : export.getDataFiles()) {
+            ExportFileReader.read(file, merger::addExported);
+        }
+        for (final Record record : readRecords(FILES.resolve("stream").resolve("records.json"))) {
+            merger.apply(record);
+        }
+        final List<Map<String, AttributeValue>> items = new ArrayList<>();
+        merger.forEach(items::add);
+        return items;
+    }
+
+    /** The expected items, keyed by customer and order, as the order of the snapshot depends on the encoding. */
+    private static Map<List<AttributeValue>, Map<String, AttributeValue>> readExpected() throws Exception {
+        final Map<List<AttributeValue>, Map<String, AttributeValue>> expected = new HashMap<>();
+        ExportFileReader.read(FILES.resolve("expected.json"), item -> expected.put(keyOf(item), item));
+        return expected;
+    }
+
+    private static Map<List<AttributeValue>, Map<String, AttributeValue>> byKey(
+        final List<Map<String, AttributeValue>> items) {
+        final Map<List<AttributeValue>, Map<String, AttributeValue>> byKey = new HashMap<>();
+        for (final Map<String, AttributeValue> item : items) {
+            assertNull(byKey.put(keyOf(item), item), "Duplicate item " + item);
+        }
+        return byKey;
+    }
+
+    private static void assertSnapshot(final Map<List<AttributeValue>, Map<String, AttributeValue>> expected,
+        final List<Map<String, AttributeValue>> actual) {
+        assertEquals(expected, byKey(actual));
+    }
+
+    private static List<AttributeValue> keyOf(final Map<String, AttributeValue> item) {
+        final List<AttributeValue> key = new ArrayList<>();
+        for (final String attribute : KEYS) {
+            key.add(item.get(attribute));
+        }
+        return key;
+    }
+
+    /** Reads stream records in the format of a GetRecords response. */
+    private static List<Record> readRecords(final Path file) throws IOException {
+        final JsonNode response;
+        try (InputStream in = Files.newInputStream(file)) {
+            response = new ObjectMapper().readTree(in);
+        }
+        final List<Record> records = new ArrayList<>();
+        for (final JsonNode record : response.get("Records")) {
+            final JsonNode change = record.get("dynamodb");
+            final StreamRecord.Builder streamRecord = StreamRecord.builder()
+                    .approximateCreationDateTime(
+                        Instant.ofEpochSecond(change.get("ApproximateCreationDateTime").asLong()))
+                    .keys(ExportFileReader.toItem(change.get("Keys")))
+                    .sequenceNumber(change.get("SequenceNumber").asText());
+            if (change.has("NewImage")) {
+                streamRecord.newImage(ExportFileReader.toItem(change.get("NewImage")));
+            }
+            records.add(Record.builder()
+                .eventID(record.get("eventID").asText())
+                .eventName(record.get("eventName").asText())
+                .dynamodb(streamRecord.build())
+                .build());
+        }
+        return records;
+    }
+}
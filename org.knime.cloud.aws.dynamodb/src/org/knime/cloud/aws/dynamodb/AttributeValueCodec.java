@@ -0,0 +1,244 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Compact binary encoding of DynamoDB items, used to keep items outside of the Java heap
+ * or write them to disk without converting them to KNIME cells first.
+ * @author agent
+ *
+ */
+public final class AttributeValueCodec {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_NUMBER = 2;
+    private static final byte TYPE_BINARY = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_STRING_SET = 5;
+    private static final byte TYPE_NUMBER_SET = 6;
+    private static final byte TYPE_BINARY_SET = 7;
+    private static final byte TYPE_LIST = 8;
+    private static final byte TYPE_MAP = 9;
+
+    private AttributeValueCodec() { }
+
+    /**
+     * Writes an item to the output.
+     * @param item the item to write
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public static void writeItem(final Map<String, AttributeValue> item, final DataOutput out) throws IOException {
+        out.writeInt(item.size());
+        for (final Entry<String, AttributeValue> e : item.entrySet()) {
+            writeString(e.getKey(), out);
+            writeValue(e.getValue(), out);
+        }
+    }
+
+    /**
+     * Reads an item written by {@link #writeItem(Map, DataOutput)}.
+     * @param in the input to read from
+     * @return the item
+     * @throws IOException if the input cannot be read or is corrupt
+     */
+    public static Map<String, AttributeValue> readItem(final DataInput in) throws IOException {
+        final int size = in.readInt();
+        final Map<String, AttributeValue> item = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            final String name = readString(in);
+            item.put(name, readValue(in));
+        }
+        return item;
+    }
+
+    /**
+     * Writes a single attribute value to the output.
+     * @param val the value to write
+     * @param out the output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public static void writeValue(final AttributeValue val, final DataOutput out) throws IOException {
+        if (val.nul() != null && val.nul()) {
+            out.writeByte(TYPE_NULL);
+        } else if (val.s() != null) {
+            out.writeByte(TYPE_STRING);
+            writeString(val.s(), out);
+        } else if (val.n() != null) {
+            out.writeByte(TYPE_NUMBER);
+            writeString(val.n(), out);
+        } else if (val.b() != null) {
+            out.writeByte(TYPE_BINARY);
+            writeBytes(val.b(), out);
+        } else if (val.bool() != null) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(val.bool());
+        } else if (DynamoDBUtil.isStringSet(val)) {
+            out.writeByte(TYPE_STRING_SET);
+            writeStrings(val.ss(), out);
+        } else if (DynamoDBUtil.isNumberSet(val)) {
+            out.writeByte(TYPE_NUMBER_SET);
+            writeStrings(val.ns(), out);
+        } else if (DynamoDBUtil.isBinarySet(val)) {
+            out.writeByte(TYPE_BINARY_SET);
+            out.writeInt(val.bs().size());
+            for (final SdkBytes b : val.bs()) {
+                writeBytes(b, out);
+            }
+        } else if (DynamoDBUtil.isList(val)) {
+            out.writeByte(TYPE_LIST);
+            out.writeInt(val.l().size());
+            for (final AttributeValue v : val.l()) {
+                writeValue(v, out);
+            }
+        } else if (DynamoDBUtil.isMap(val)) {
+            out.writeByte(TYPE_MAP);
+            writeItem(val.m(), out);
+        } else {
+            throw new IOException("Unsupported attribute value: " + val);
+        }
+    }
+
+    /**
+     * Reads a single attribute value written by {@link #writeValue(AttributeValue, DataOutput)}.
+     * @param in the input to read from
+     * @return the attribute value
+     * @throws IOException if the input cannot be read or is corrupt
+     */
+    public static AttributeValue readValue(final DataInput in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return AttributeValue.builder().nul(true).build();
+            case TYPE_STRING:
+                return AttributeValue.builder().s(readString(in)).build();
+            case TYPE_NUMBER:
+                return AttributeValue.builder().n(readString(in)).build();
+            case TYPE_BINARY:
+                return AttributeValue.builder().b(readBytes(in)).build();
+            case TYPE_BOOLEAN:
+                return AttributeValue.builder().bool(in.readBoolean()).build();
+            case TYPE_STRING_SET:
+                return AttributeValue.builder().ss(readStrings(in)).build();
+            case TYPE_NUMBER_SET:
+                return AttributeValue.builder().ns(readStrings(in)).build();
+            case TYPE_BINARY_SET:
+                final int numBytes = in.readInt();
+                final List<SdkBytes> bs = new ArrayList<>(numBytes);
+                for (int i = 0; i < numBytes; i++) {
+                    bs.add(readBytes(in));
+                }
+                return AttributeValue.builder().bs(bs).build();
+            case TYPE_LIST:
+                final int numValues = in.readInt();
+                final List<AttributeValue> l = new ArrayList<>(numValues);
+                for (int i = 0; i < numValues; i++) {
+                    l.add(readValue(in));
+                }
+                return AttributeValue.builder().l(l).build();
+            case TYPE_MAP:
+                return AttributeValue.builder().m(readItem(in)).build();
+            default:
+                throw new IOException("Unknown attribute type " + type);
+        }
+    }
+
+    // DataOutput.writeUTF is limited to 64KB, but DynamoDB strings can be up to 400KB
+    private static void writeString(final String s, final DataOutput out) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInput in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(final List<String> strings, final DataOutput out) throws IOException {
+        out.writeInt(strings.size());
+        for (final String s : strings) {
+            writeString(s, out);
+        }
+    }
+
+    private static List<String> readStrings(final DataInput in) throws IOException {
+        final int size = in.readInt();
+        final List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    private static void writeBytes(final SdkBytes b, final DataOutput out) throws IOException {
+        final byte[] bytes = b.asByteArrayUnsafe();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static SdkBytes readBytes(final DataInput in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return SdkBytes.fromByteArrayUnsafe(bytes);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * Collects put and delete requests into batches and sends them to DynamoDB with a number of concurrent
+ * BatchWriteItem calls. Unprocessed items are resent with exponential backoff, a batch whose items are still not
+ * processed after {@value #MAX_RETRIES} retries fails the writer.
+ * Requests can be added from multiple threads. If all concurrent calls are busy, adding a request
+ * blocks until a call finishes, so producers cannot run ahead of the table's write capacity.
+ * @author agent
+ *
+ */
+public final class BatchWriter implements AutoCloseable {
+
+    /** The maximum number of requests DynamoDB accepts in a single BatchWriteItem call. */
+    public static final int MAX_BATCH_SIZE = 25;
+
+    // Caps the backoff for unprocessed items at 2^9 * 100 ms
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+
+    // Retries of the unprocessed items of one batch before the writer fails, as in the Batch Put node
+    private static final int MAX_RETRIES = 20;
+
+    private final DynamoDbClient m_ddb;
+    private final String m_tableName;
+    private final int m_batchSize;
+    private final int m_concurrency;
+    private final boolean m_returnConsumedCapacity;
+
+    private final ExecutorService m_pool;
+    private final Semaphore m_inFlight;
+
+    private final DoubleAdder m_consumedCapacity = new DoubleAdder();
+    private final AtomicLong m_numWritten = new AtomicLong();
+    private final AtomicReference<Throwable> m_error = new AtomicReference<>();
+
+    private List<WriteRequest> m_batch;
+
+    private RateLimiter m_rateLimiter;
+
+    /**
+     * Creates a new instance of {@code BatchWriter}.
+     * @param ddb the client used for sending the batches, shared by all threads
+     * @param tableName the name of the table to write to
+     * @param batchSize the number of requests sent in one batch, at most {@link #MAX_BATCH_SIZE}
+     * @param concurrency the maximum number of batches sent at the same time
+     * @param returnConsumedCapacity whether the consumed capacity should be requested and summed up
+     */
+    public BatchWriter(final DynamoDbClient ddb, final String tableName, final int batchSize,
+            final int concurrency, final boolean returnConsumedCapacity) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The batch size must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent batches must be at least 1.");
+        }
+        m_ddb = ddb;
+        m_tableName = tableName;
+        m_batchSize = batchSize;
+        m_concurrency = concurrency;
+        m_returnConsumedCapacity = returnConsumedCapacity;
+        m_pool = Executors.newFixedThreadPool(concurrency);
+        m_inFlight = new Semaphore(concurrency);
+        m_batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Limits the write capacity consumed by all batches together. The writer has to be created with
+     * {@code returnConsumedCapacity} set for this to work.
+     * @param rateLimiter the limiter for write capacity units or {@code null} for no limit
+     */
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+        m_rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Adds a request. Sends the current batch if it is full.
+     * @param request the put or delete request
+     * @throws Exception if a previously sent batch failed
+     */
+    public void write(final WriteRequest request) throws Exception {
+        final List<WriteRequest> full;
+        synchronized (this) {
+            checkError();
+            m_batch.add(request);
+            if (m_batch.size() < m_batchSize) {
+                return;
+            }
+            full = m_batch;
+            m_batch = new ArrayList<>(m_batchSize);
+        }
+        submit(full);
+    }
+
+    /**
+     * Sends the remaining requests and waits until all batches are written.
+     * @param exec the monitor checked for cancellation while waiting
+     * @throws Exception if a batch failed or the execution was canceled
+     */
+    public void flush(final ExecutionMonitor exec) throws Exception {
+        final List<WriteRequest> rest;
+        synchronized (this) {
+            rest = m_batch;
+            m_batch = new ArrayList<>(m_batchSize);
+        }
+        if (!rest.isEmpty()) {
+            submit(rest);
+        }
+        // All permits are available again once every batch is done
+        while (!m_inFlight.tryAcquire(m_concurrency, 100, TimeUnit.MILLISECONDS)) {
+            exec.checkCanceled();
+        }
+        m_inFlight.release(m_concurrency);
+        checkError();
+    }
+
+    /**
+     * Stops all running batches without waiting for them. Call {@link #flush(ExecutionMonitor)} before to write all requests.
+     */
+    @Override
+    public void close() {
+        m_pool.shutdownNow();
+    }
+
+    /**
+     * @return the number of requests written successfully so far
+     */
+    public long getNumWritten() {
+        return m_numWritten.get();
+    }
+
+    /**
+     * @return the write capacity consumed so far, only available if it was requested
+     */
+    public double getConsumedCapacity() {
+        return m_consumedCapacity.sum();
+    }
+
+    private void submit(final List<WriteRequest> batch) throws Exception {
+        m_inFlight.acquire();
+        try {
+            m_pool.execute(() -> {
+                try {
+                    send(batch);
+                } catch (final Throwable t) {
+                    m_error.compareAndSet(null, t);
+                } finally {
+                    m_inFlight.release();
+                }
+            });
+        } catch (final RuntimeException e) {
+            m_inFlight.release();
+            throw e;
+        }
+    }
+
+    private void send(final List<WriteRequest> batch) throws InterruptedException, InvalidSettingsException {
+        List<WriteRequest> pending = batch;
+        int nRetry = 0;
+        while (!pending.isEmpty()) {
+            // if previously not all items could be written, we do exponential backoff
+            if (nRetry > 0) {
+                Thread.sleep((long)Math.pow(2, Math.min(nRetry, MAX_BACKOFF_EXPONENT) - 1) * 100);
+            } else if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (m_rateLimiter != null) {
+                m_rateLimiter.acquire();
+            }
+            final BatchWriteItemResponse response = m_ddb.batchWriteItem(BatchWriteItemRequest.builder()
+                .requestItems(Collections.singletonMap(m_tableName, pending))
+                .returnConsumedCapacity(m_returnConsumedCapacity
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE)
+                .build());
+            if (m_returnConsumedCapacity) {
+                final double consumed =
+                        response.consumedCapacity().stream().mapToDouble(ConsumedCapacity::capacityUnits).sum();
+                m_consumedCapacity.add(consumed);
+                if (m_rateLimiter != null) {
+                    m_rateLimiter.consume(consumed);
+                }
+            }
+            final Map<String, List<WriteRequest>> unprocessed = response.unprocessedItems();
+            final List<WriteRequest> next = unprocessed.containsKey(m_tableName)
+                    ? unprocessed.get(m_tableName) : Collections.emptyList();
+            m_numWritten.addAndGet(pending.size() - next.size());
+            pending = next;
+            nRetry = pending.isEmpty() ? 0 : nRetry + 1;
+            if (nRetry > MAX_RETRIES) {
+                throw new InvalidSettingsException(String.format("%s %d items were still not processed after %d "
+                    + "retries.", NodeConstants.THROUGHPUT_ERROR, pending.size(), MAX_RETRIES));
+            }
+        }
+    }
+
+    private void checkError() throws Exception {
+        final Throwable t = m_error.get();
+        if (t instanceof Exception) {
+            throw (Exception)t;
+        } else if (t instanceof Error) {
+            throw (Error)t;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter for byte keys. It answers whether a key has possibly been added before or
+ * has certainly not been added. Possible matches are wrong with about the false positive probability
+ * the filter was created with, as long as no more keys than expected are added.
+ * @author agent
+ *
+ */
+public final class BloomFilter {
+
+    private static final int MAGIC = 0x4b424c46;
+
+    private final AtomicLongArray m_bits;
+    private final long m_numBits;
+    private final int m_numHashes;
+
+    /**
+     * Creates a new, empty instance of {@code BloomFilter}.
+     * @param expectedKeys the number of keys that are expected to be added
+     * @param falsePositiveRate the acceptable probability of reporting a key that was never added as present,
+     *          between 0 and 1 exclusive
+     */
+    public BloomFilter(final long expectedKeys, final double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1.");
+        }
+        final long n = Math.max(1, expectedKeys);
+        // Optimal sizes, see e.g. Broder & Mitzenmacher, "Network Applications of Bloom Filters: A Survey"
+        final long bits = (long)Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        final int words = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        m_bits = new AtomicLongArray(words);
+        m_numBits = words * 64L;
+        m_numHashes = Math.max(1, (int)Math.round((double)m_numBits / n * Math.log(2)));
+    }
+
+    private BloomFilter(final AtomicLongArray bits, final int numHashes) {
+        m_bits = bits;
+        m_numBits = bits.length() * 64L;
+        m_numHashes = numHashes;
+    }
+
+    /**
+     * Adds a key.
+     * @param key the key to add
+     * @return {@code true} if a bit changed, i.e. the key has certainly not been added before
+     */
+    public boolean put(final byte[] key) {
+        final long[] h = hash(key);
+        long combined = h[0];
+        boolean changed = false;
+        for (int i = 0; i < m_numHashes; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % m_numBits;
+            final int word = (int)(bit >>> 6);
+            final long mask = 1L << bit;
+            long old;
+            do {
+                old = m_bits.get(word);
+            } while ((old & mask) == 0 && !m_bits.compareAndSet(word, old, old | mask));
+            changed |= (old & mask) == 0;
+            combined += h[1];
+        }
+        return changed;
+    }
+
+    /**
+     * @return the fraction of bits that are set. With the optimal number of hash functions, it is about one half
+     * when as many keys as expected have been added and grows beyond that when the filter is overfull.
+     */
+    public double getFillRatio() {
+        long set = 0;
+        for (int i = 0; i < m_bits.length(); i++) {
+            set += Long.bitCount(m_bits.get(i));
+        }
+        return set / (double)m_numBits;
+    }
+
+    /**
+     * @param key the key to check
+     * @return {@code false} if the key has certainly not been added, {@code true} if it possibly has
+     */
+    public boolean mightContain(final byte[] key) {
+        final long[] h = hash(key);
+        long combined = h[0];
+        for (int i = 0; i < m_numHashes; i++) {
+            final long bit = (combined & Long.MAX_VALUE) % m_numBits;
+            if ((m_bits.get((int)(bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += h[1];
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter so that it can be restored with {@link #readFrom(DataInput)}.
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(m_numHashes);
+        out.writeInt(m_bits.length());
+        for (int i = 0; i < m_bits.length(); i++) {
+            out.writeLong(m_bits.get(i));
+        }
+    }
+
+    /**
+     * Reads a filter written by {@link #writeTo(DataOutput)}.
+     * @param in the input to read from
+     * @return the filter
+     * @throws IOException if reading fails or the input does not contain a filter
+     */
+    public static BloomFilter readFrom(final DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("The file does not contain a key filter.");
+        }
+        final int numHashes = in.readInt();
+        final int words = in.readInt();
+        if (numHashes < 1 || words < 1) {
+            throw new IOException("The key filter is corrupt.");
+        }
+        final AtomicLongArray bits = new AtomicLongArray(words);
+        for (int i = 0; i < words; i++) {
+            bits.set(i, in.readLong());
+        }
+        return new BloomFilter(bits, numHashes);
+    }
+
+    /** The two 64 bit halves of the x64 128 bit variant of MurmurHash3 with seed 0. */
+    private static long[] hash(final byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        final int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        final int tail = blocks * 16;
+        for (int i = data.length - tail - 1; i >= 8; i--) {
+            k2 ^= (data[tail + i] & 0xffL) << ((i - 8) * 8);
+        }
+        for (int i = Math.min(7, data.length - tail - 1); i >= 0; i--) {
+            k1 ^= (data[tail + i] & 0xffL) << (i * 8);
+        }
+        if (data.length - tail > 8) {
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+        }
+        if (data.length - tail > 0) {
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] {h1, h2};
+    }
+
+    private static long getLong(final byte[] data, final int offset) {
+        long l = 0;
+        for (int i = 7; i >= 0; i--) {
+            l = (l << 8) | (data[offset + i] & 0xffL);
+        }
+        return l;
+    }
+
+    private static long fmix(final long k) {
+        long h = k;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
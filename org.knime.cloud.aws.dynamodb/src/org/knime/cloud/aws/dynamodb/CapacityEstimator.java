@@ -0,0 +1,209 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.Map;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+
+/**
+ * Estimates the capacity units, requests and duration of reading or writing a number of items
+ * from the sizes of a sample of these items. Item sizes are calculated with the same rules DynamoDB
+ * uses for capacity units, see {@link DynamoDBUtil#getItemSize(Map)}.
+ * <p>
+ * Writes to global secondary indexes consume additional capacity on the indexes and are not part of the estimate.
+ * </p>
+ * @author agent
+ *
+ */
+public final class CapacityEstimator {
+
+    private static final long WRITE_UNIT_SIZE = 1024;
+    private static final long READ_UNIT_SIZE = 4096;
+    // Maximum amount of data a single scan request reads
+    private static final long MAX_SCAN_PAGE_SIZE = 1024 * 1024;
+
+    private long m_numSampled = 0;
+    private long m_sampledSize = 0;
+    private long m_sampledWriteUnits = 0;
+
+    /**
+     * Adds an item to the sample.
+     * @param item the item
+     */
+    public void add(final Map<String, AttributeValue> item) {
+        final long size = DynamoDBUtil.getItemSize(item);
+        m_numSampled++;
+        m_sampledSize += size;
+        // Each item written is rounded up to the next write unit on its own
+        m_sampledWriteUnits += Math.max(1, (size + WRITE_UNIT_SIZE - 1) / WRITE_UNIT_SIZE);
+    }
+
+    /**
+     * @return the number of items in the sample
+     */
+    public long getNumSampled() {
+        return m_numSampled;
+    }
+
+    /**
+     * Estimates writing items one by one or with batch writes.
+     * @param numItems the total number of items written
+     * @param batchSize the number of items written per request
+     * @param capacityRate the write capacity units consumed per second, 0 if unknown
+     * @return the estimate
+     */
+    public Estimate estimateWrite(final long numItems, final int batchSize, final double capacityRate) {
+        final double units = m_numSampled == 0 ? 0 : (double)m_sampledWriteUnits / m_numSampled * numItems;
+        final long numRequests = (numItems + batchSize - 1) / batchSize;
+        return new Estimate(numItems, estimateSize(numItems), Math.ceil(units), numRequests, capacityRate);
+    }
+
+    /**
+     * Estimates scanning items. The capacity of a scan depends on the size of the items read,
+     * filters and projections do not reduce it.
+     * @param numItems the total number of items scanned
+     * @param consistentRead whether the scan is strongly consistent. Eventually consistent reads cost half as much.
+     * @param pageLimit the maximum number of items per request, 0 for no limit
+     * @param capacityRate the read capacity units consumed per second, 0 if unknown
+     * @return the estimate
+     */
+    public Estimate estimateScan(final long numItems, final boolean consistentRead, final int pageLimit,
+            final double capacityRate) {
+        final long size = estimateSize(numItems);
+        // Scans sum up the item sizes of a page and round to the next read unit, so we only round once
+        final long readUnits = (size + READ_UNIT_SIZE - 1) / READ_UNIT_SIZE;
+        final double units = consistentRead ? readUnits : Math.ceil(readUnits / 2.0);
+        long numRequests = Math.max(1, (size + MAX_SCAN_PAGE_SIZE - 1) / MAX_SCAN_PAGE_SIZE);
+        if (pageLimit > 0) {
+            numRequests = Math.max(numRequests, (numItems + pageLimit - 1) / pageLimit);
+        }
+        return new Estimate(numItems, size, units, numRequests, capacityRate);
+    }
+
+    private long estimateSize(final long numItems) {
+        return m_numSampled == 0 ? 0 : Math.round((double)m_sampledSize / m_numSampled * numItems);
+    }
+
+    /**
+     * Determines the rate at which capacity is consumed from the provisioned throughput of a table or index.
+     * @param throughput the provisioned throughput, may be {@code null}
+     * @param write true for the write capacity, false for the read capacity
+     * @return the capacity units per second or 0 if the table has no provisioned capacity
+     */
+    public static double getProvisionedRate(final ProvisionedThroughputDescription throughput, final boolean write) {
+        if (throughput == null) {
+            return 0;
+        }
+        final Long units = write ? throughput.writeCapacityUnits() : throughput.readCapacityUnits();
+        return units == null ? 0 : units;
+    }
+
+    /**
+     * The estimated cost of an operation.
+     */
+    public static final class Estimate {
+
+        private final long m_numItems;
+        private final long m_size;
+        private final double m_capacityUnits;
+        private final long m_numRequests;
+        private final double m_duration;
+
+        private Estimate(final long numItems, final long size, final double capacityUnits, final long numRequests,
+                final double capacityRate) {
+            m_numItems = numItems;
+            m_size = size;
+            m_capacityUnits = capacityUnits;
+            m_numRequests = numRequests;
+            m_duration = capacityRate > 0 ? capacityUnits / capacityRate : Double.NaN;
+        }
+
+        /**
+         * @return the number of items read or written
+         */
+        public long getNumItems() {
+            return m_numItems;
+        }
+
+        /**
+         * @return the estimated total size of the items in bytes
+         */
+        public long getSize() {
+            return m_size;
+        }
+
+        /**
+         * @return the estimated capacity units consumed
+         */
+        public double getCapacityUnits() {
+            return m_capacityUnits;
+        }
+
+        /**
+         * @return the estimated number of requests sent to DynamoDB
+         */
+        public long getNumRequests() {
+            return m_numRequests;
+        }
+
+        /**
+         * @return true if the duration could be estimated because the capacity rate is known
+         */
+        public boolean hasDuration() {
+            return !Double.isNaN(m_duration);
+        }
+
+        /**
+         * @return the estimated duration in seconds, {@code NaN} if the capacity rate is unknown
+         */
+        public double getDurationSeconds() {
+            return m_duration;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BillingMode;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexUpdate;
+import software.amazon.awssdk.services.dynamodb.model.IndexStatus;
+import software.amazon.awssdk.services.dynamodb.model.LimitExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+import software.amazon.awssdk.services.dynamodb.model.UpdateGlobalSecondaryIndexAction;
+import software.amazon.awssdk.services.dynamodb.model.UpdateTableRequest;
+
+/**
+ * Temporarily raises the capacity of a provisioned table and its global secondary indexes for a bulk job,
+ * either by increasing the provisioned capacity units or by switching the table to on-demand mode,
+ * and restores the original capacity afterwards.
+ * <p>
+ * DynamoDB allows only a limited number of capacity decreases per day, so the capacity is only raised
+ * if it can be decreased again right after the job. DynamoDB limits how often a table can be switched to on-demand
+ * mode, but it can be switched back to provisioned mode at any time. If that is rejected anyway, the table stays in
+ * on-demand mode and a message is returned.
+ * </p>
+ * @author agent
+ *
+ */
+public final class CapacityScaler {
+
+    /**
+     * How the capacity is raised.
+     */
+    public enum Mode {
+        /** The capacity is not changed. */
+        NONE,
+        /** The provisioned capacity units are raised to a target value. */
+        PROVISIONED,
+        /** The table is switched to on-demand mode. */
+        ON_DEMAND
+    }
+
+    // Decreases that are always allowed per UTC day, further ones need an hour without decreases before
+    private static final long FREE_DECREASES_PER_DAY = 4;
+    private static final long MAX_DECREASES_PER_DAY = 27;
+    private static final Duration DECREASE_INTERVAL = Duration.ofHours(1);
+
+    private static final long MAX_BACKOFF_MS = 10000;
+
+    private final DynamoDbClient m_ddb;
+    private final String m_tableName;
+    private final Mode m_mode;
+    private final long m_writeCapacity;
+    private final long m_readCapacity;
+
+    private TableDescription m_original;
+    private boolean m_raised = false;
+
+    /**
+     * Creates a new instance of {@code CapacityScaler}.
+     * @param ddb the client to update the table with
+     * @param tableName the name of the table
+     * @param mode how the capacity is raised
+     * @param writeCapacity the write capacity units the table and its indexes are raised to
+     * in {@link Mode#PROVISIONED} mode
+     * @param readCapacity the read capacity units the table and its indexes are raised to
+     * in {@link Mode#PROVISIONED} mode, 0 to keep the read capacity
+     */
+    public CapacityScaler(final DynamoDbClient ddb, final String tableName, final Mode mode,
+            final long writeCapacity, final long readCapacity) {
+        m_ddb = ddb;
+        m_tableName = tableName;
+        m_mode = mode;
+        m_writeCapacity = writeCapacity;
+        m_readCapacity = readCapacity;
+    }
+
+    /**
+     * Raises the capacity of the table and waits until the table and its indexes are active again.
+     * If the execution is canceled while waiting, the capacity is already being raised and has to be restored
+     * with {@link #restore(ExecutionMonitor)}.
+     * @param exec execution monitor for cancellation and status messages
+     * @return {@code null} if the capacity was raised or did not need to be raised,
+     * otherwise a message why the capacity was left as it is
+     * @throws CanceledExecutionException if the execution was canceled while waiting for the table
+     * @throws InterruptedException if the thread was interrupted while waiting for the table
+     */
+    public String raise(final ExecutionMonitor exec) throws CanceledExecutionException, InterruptedException {
+        if (m_mode == Mode.NONE) {
+            return null;
+        }
+        m_original = describe();
+        if (isOnDemand(m_original)) {
+            return null;
+        }
+
+        final UpdateTableRequest.Builder request = UpdateTableRequest.builder().tableName(m_tableName);
+        if (m_mode == Mode.ON_DEMAND) {
+            // Switching back to provisioned mode does not count as a decrease
+            request.billingMode(BillingMode.PAY_PER_REQUEST);
+        } else {
+            final Instant now = Instant.now();
+            final ProvisionedThroughput raised = raise(m_original.provisionedThroughput());
+            if (raised != null && !canDecrease(m_original.provisionedThroughput(), now)) {
+                return String.format("The capacity of table \"%s\" was not raised because it could not be "
+                    + "decreased again today.", m_tableName);
+            }
+            final List<GlobalSecondaryIndexUpdate> indexUpdates = new ArrayList<>();
+            for (final GlobalSecondaryIndexDescription gsi : m_original.globalSecondaryIndexes()) {
+                final ProvisionedThroughput raisedIndex = raise(gsi.provisionedThroughput());
+                if (raisedIndex == null) {
+                    continue;
+                }
+                if (!canDecrease(gsi.provisionedThroughput(), now)) {
+                    return String.format("The capacity of table \"%s\" was not raised because the capacity of "
+                        + "index \"%s\" could not be decreased again today.", m_tableName, gsi.indexName());
+                }
+                indexUpdates.add(createIndexUpdate(gsi.indexName(), raisedIndex));
+            }
+            if (raised == null && indexUpdates.isEmpty()) {
+                return null;
+            }
+            if (raised != null) {
+                request.provisionedThroughput(raised);
+            }
+            if (!indexUpdates.isEmpty()) {
+                request.globalSecondaryIndexUpdates(indexUpdates);
+            }
+        }
+
+        try {
+            m_ddb.updateTable(request.build());
+        } catch (final LimitExceededException e) {
+            return String.format("The capacity of table \"%s\" could not be raised: %s", m_tableName,
+                e.getMessage());
+        }
+        m_raised = true;
+        waitUntilActive(exec, "Raising capacity");
+        return null;
+    }
+
+    /**
+     * Restores the capacity the table had before {@link #raise(ExecutionMonitor)} was called
+     * and waits until the table and its indexes are active again. Does nothing if the capacity was not raised.
+     * The restore can only be sent once the table is active. If the execution is canceled before, the capacity is
+     * not restored and a message is returned. If it is canceled after the restore was sent, the method returns
+     * without waiting for the table.
+     * @param exec execution monitor for cancellation and status messages
+     * @return {@code null} if the capacity was restored, otherwise a message why it could not be restored
+     * @throws InterruptedException if the thread was interrupted while waiting for the table
+     */
+    public String restore(final ExecutionMonitor exec) throws InterruptedException {
+        if (!m_raised) {
+            return null;
+        }
+        // The raise may still be running if the job was canceled while waiting for it
+        try {
+            waitUntilActive(exec, "Waiting for table");
+        } catch (final CanceledExecutionException e) {
+            m_raised = false;
+            return m_mode == Mode.ON_DEMAND
+                    ? String.format("Table \"%s\" stays in on-demand mode because the execution was canceled while "
+                        + "the billing mode was being changed.", m_tableName)
+                    : String.format("The capacity of table \"%s\" was not restored because the execution was "
+                        + "canceled while it was being raised, please reduce it manually.", m_tableName);
+        }
+        final UpdateTableRequest.Builder request = UpdateTableRequest.builder().tableName(m_tableName);
+        final List<GlobalSecondaryIndexUpdate> indexUpdates = new ArrayList<>();
+        boolean tableChanged = true;
+        if (m_mode == Mode.ON_DEMAND) {
+            // Switching back to provisioned mode requires the capacity of the table and all indexes
+            request.billingMode(BillingMode.PROVISIONED);
+            request.provisionedThroughput(toThroughput(m_original.provisionedThroughput()));
+            for (final GlobalSecondaryIndexDescription gsi : m_original.globalSecondaryIndexes()) {
+                indexUpdates.add(createIndexUpdate(gsi.indexName(), toThroughput(gsi.provisionedThroughput())));
+            }
+        } else {
+            final TableDescription current = describe();
+            tableChanged = !sameCapacity(current.provisionedThroughput(), m_original.provisionedThroughput());
+            if (tableChanged) {
+                request.provisionedThroughput(toThroughput(m_original.provisionedThroughput()));
+            }
+            for (final GlobalSecondaryIndexDescription gsi : m_original.globalSecondaryIndexes()) {
+                final ProvisionedThroughputDescription now = current.globalSecondaryIndexes().stream()
+                        .filter(i -> i.indexName().equals(gsi.indexName()))
+                        .findFirst().map(GlobalSecondaryIndexDescription::provisionedThroughput).orElse(null);
+                if (now != null && !sameCapacity(now, gsi.provisionedThroughput())) {
+                    indexUpdates.add(createIndexUpdate(gsi.indexName(), toThroughput(gsi.provisionedThroughput())));
+                }
+            }
+        }
+        if (!indexUpdates.isEmpty()) {
+            request.globalSecondaryIndexUpdates(indexUpdates);
+        } else if (!tableChanged) {
+            // The capacity was already changed back by someone else
+            m_raised = false;
+            return null;
+        }
+
+        try {
+            m_ddb.updateTable(request.build());
+        } catch (final LimitExceededException e) {
+            m_raised = false;
+            if (m_mode == Mode.ON_DEMAND) {
+                return String.format("Table \"%s\" stays in on-demand mode, it could not be switched back to "
+                    + "provisioned capacity: %s", m_tableName, e.getMessage());
+            }
+            return String.format("The capacity of table \"%s\" could not be restored, please reduce it manually: %s",
+                m_tableName, e.getMessage());
+        }
+        m_raised = false;
+        try {
+            waitUntilActive(exec, "Restoring capacity");
+        } catch (final CanceledExecutionException e) {
+            // The restore was sent, DynamoDB completes it without us waiting
+        }
+        return null;
+    }
+
+    private ProvisionedThroughput raise(final ProvisionedThroughputDescription current) {
+        final long read = current.readCapacityUnits();
+        final long write = current.writeCapacityUnits();
+        final long raisedRead = Math.max(read, m_readCapacity);
+        final long raisedWrite = Math.max(write, m_writeCapacity);
+        if (raisedRead == read && raisedWrite == write) {
+            return null;
+        }
+        return ProvisionedThroughput.builder().readCapacityUnits(raisedRead).writeCapacityUnits(raisedWrite).build();
+    }
+
+    private void waitUntilActive(final ExecutionMonitor exec, final String message)
+            throws CanceledExecutionException, InterruptedException {
+        int retry = 0;
+        TableDescription descr = describe();
+        while (!isActive(descr)) {
+            exec.checkCanceled();
+            exec.setMessage(String.format("%s of table \"%s\"...", message, m_tableName));
+            // exponential backoff until table and indexes are active
+            Thread.sleep(Math.min(MAX_BACKOFF_MS, (long)Math.pow(2, retry++) * 100));
+            descr = describe();
+        }
+    }
+
+    private TableDescription describe() {
+        return m_ddb.describeTable(DescribeTableRequest.builder().tableName(m_tableName).build()).table();
+    }
+
+    private static boolean isActive(final TableDescription descr) {
+        return descr.tableStatus() == TableStatus.ACTIVE && descr.globalSecondaryIndexes().stream()
+                .allMatch(i -> i.indexStatus() == IndexStatus.ACTIVE);
+    }
+
+    private static boolean isOnDemand(final TableDescription descr) {
+        return descr.billingModeSummary() != null
+                && descr.billingModeSummary().billingMode() == BillingMode.PAY_PER_REQUEST;
+    }
+
+    /**
+     * Checks whether the capacity can still be decreased today. After the first decreases of a day,
+     * another one is only possible if there was none in the last hour. The job may take longer than that,
+     * but this cannot be known in advance.
+     */
+    private static boolean canDecrease(final ProvisionedThroughputDescription throughput, final Instant now) {
+        final Long decreases = throughput.numberOfDecreasesToday();
+        if (decreases == null || decreases < FREE_DECREASES_PER_DAY) {
+            return true;
+        }
+        if (decreases >= MAX_DECREASES_PER_DAY) {
+            return false;
+        }
+        final Instant lastDecrease = throughput.lastDecreaseDateTime();
+        return lastDecrease == null || lastDecrease.plus(DECREASE_INTERVAL).isBefore(now);
+    }
+
+    private static boolean sameCapacity(final ProvisionedThroughputDescription a,
+            final ProvisionedThroughputDescription b) {
+        return a.readCapacityUnits().equals(b.readCapacityUnits())
+                && a.writeCapacityUnits().equals(b.writeCapacityUnits());
+    }
+
+    private static ProvisionedThroughput toThroughput(final ProvisionedThroughputDescription descr) {
+        return ProvisionedThroughput.builder()
+                .readCapacityUnits(descr.readCapacityUnits())
+                .writeCapacityUnits(descr.writeCapacityUnits())
+                .build();
+    }
+
+    private static GlobalSecondaryIndexUpdate createIndexUpdate(final String indexName,
+            final ProvisionedThroughput throughput) {
+        return GlobalSecondaryIndexUpdate.builder()
+                .update(UpdateGlobalSecondaryIndexAction.builder()
+                    .indexName(indexName)
+                    .provisionedThroughput(throughput)
+                    .build())
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+/**
+ * Runs a DynamoDB scan as a parallel scan with a number of segments, each of them scanned by its own thread.
+ * The pages returned for the segments are handed to a {@link PageConsumer}, which is called concurrently
+ * from the scanning threads and therefore has to be thread safe.
+ * @author agent
+ *
+ */
+public final class ParallelScanner {
+
+    /** Interval in which the calling thread checks for cancellation while the segments are scanned. */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * Receives the items of a scan page.
+     */
+    @FunctionalInterface
+    public interface PageConsumer {
+        /**
+         * Processes the items of a page.
+         * @param segment the segment the page belongs to
+         * @param items the items of the page
+         * @throws Exception if the items cannot be processed. Stops the whole scan.
+         */
+        void accept(int segment, List<Map<String, AttributeValue>> items) throws Exception;
+    }
+
+    private final DynamoDbClient m_ddb;
+    private final ScanRequest m_request;
+    private final int m_totalSegments;
+    private int m_scannedSegments;
+
+    private final DoubleAdder m_consumedCapacity = new DoubleAdder();
+    private final AtomicLong m_numScanned = new AtomicLong();
+    private final AtomicLong m_numReturned = new AtomicLong();
+
+    private RateLimiter m_rateLimiter;
+
+    /**
+     * Creates a new instance of {@code ParallelScanner}.
+     * @param ddb the client to scan with, shared by all threads
+     * @param request the scan request, without segment information
+     * @param totalSegments the number of segments to split the table into
+     */
+    public ParallelScanner(final DynamoDbClient ddb, final ScanRequest request, final int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("The number of segments must be at least 1.");
+        }
+        m_ddb = ddb;
+        m_request = request;
+        m_totalSegments = totalSegments;
+        m_scannedSegments = totalSegments;
+    }
+
+    /**
+     * Only scans the first segments instead of all of them. As each segment covers a distinct range
+     * of the table's hash keys, this reads a sample of about {@code scannedSegments / totalSegments}
+     * of the items.
+     * @param scannedSegments the number of segments to scan, at most the total number of segments
+     */
+    public void setScannedSegments(final int scannedSegments) {
+        if (scannedSegments < 1 || scannedSegments > m_totalSegments) {
+            throw new IllegalArgumentException("The number of scanned segments must be between 1 and "
+                + m_totalSegments + ".");
+        }
+        m_scannedSegments = scannedSegments;
+    }
+
+    /**
+     * Limits the read capacity consumed by all segments together. The scan request has to return the
+     * total consumed capacity for this to work.
+     * @param rateLimiter the limiter for read capacity units or {@code null} for no limit
+     */
+    public void setRateLimiter(final RateLimiter rateLimiter) {
+        m_rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Scans all segments and blocks until all of them are done. If a segment fails or the execution is canceled,
+     * the other segments are interrupted and the method returns only after all of them stopped, so the consumer
+     * is never called after the method returned.
+     * @param consumer the consumer receiving the pages of all segments
+     * @param exec the execution monitor to check for cancellation and report progress to
+     * @throws CanceledExecutionException if the execution was canceled
+     * @throws Exception if a scan request or the consumer failed
+     */
+    public void scan(final PageConsumer consumer, final ExecutionMonitor exec) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(m_scannedSegments);
+        final CompletionService<Void> completion = new ExecutorCompletionService<>(pool);
+        try {
+            for (int i = 0; i < m_scannedSegments; i++) {
+                final int segment = i;
+                completion.submit(() -> {
+                    scanSegment(segment, consumer);
+                    return null;
+                });
+            }
+            int done = 0;
+            while (done < m_scannedSegments) {
+                exec.checkCanceled();
+                exec.setMessage(String.format("Scanned %d items (%d of %d segments done)",
+                    m_numScanned.get(), done, m_scannedSegments));
+                final Future<Void> f = completion.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (f != null) {
+                    // Fail fast, the remaining segments are interrupted in the finally block
+                    try {
+                        f.get();
+                    } catch (final ExecutionException e) {
+                        throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                    }
+                    done++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            awaitTermination(pool);
+        }
+    }
+
+    /** Waits for the interrupted segments, which stop after their current request or page. */
+    private static void awaitTermination(final ExecutorService pool) {
+        try {
+            while (!pool.awaitTermination(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                // keep waiting, requests time out eventually
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scanSegment(final int segment, final PageConsumer consumer) throws Exception {
+        final ScanRequest request = m_totalSegments == 1 ? m_request
+                : m_request.toBuilder().segment(segment).totalSegments(m_totalSegments).build();
+        // The paginator sends the next request when we ask for the next page, so we can wait before that
+        final Iterator<ScanResponse> pages = m_ddb.scanPaginator(request).iterator();
+        while (true) {
+            if (m_rateLimiter != null) {
+                m_rateLimiter.acquire();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            if (!pages.hasNext()) {
+                break;
+            }
+            final ScanResponse page = pages.next();
+            if (page.consumedCapacity() != null) {
+                m_consumedCapacity.add(page.consumedCapacity().capacityUnits());
+                if (m_rateLimiter != null) {
+                    m_rateLimiter.consume(page.consumedCapacity().capacityUnits());
+                }
+            }
+            m_numScanned.addAndGet(page.scannedCount());
+            m_numReturned.addAndGet(page.count());
+            consumer.accept(segment, page.items());
+        }
+    }
+
+    /**
+     * @return the read capacity consumed so far, only available if the request asks for it
+     */
+    public double getConsumedCapacity() {
+        return m_consumedCapacity.sum();
+    }
+
+    /**
+     * @return the number of items evaluated so far, before the filter expression is applied
+     */
+    public long getNumScanned() {
+        return m_numScanned.get();
+    }
+
+    /**
+     * @return the number of items returned so far, after the filter expression is applied
+     */
+    public long getNumReturned() {
+        return m_numReturned.get();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBPlaceholderSettings;
+import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.InvalidSettingsException;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Placeholders for expressions, prepared once for an input table so that the per-row work is reduced to
+ * converting the cells of the columns that are bound to value placeholders.
+ * Static names and values are kept in immutable maps that are shared by all requests, and each bound column
+ * gets a mapper for its type instead of checking the type of every cell.
+ * @author agent
+ *
+ */
+public final class PlaceholderTemplate {
+
+    private final Map<String, String> m_names;
+    private final Map<String, AttributeValue> m_staticValues;
+
+    private final String[] m_boundPlaceholders;
+    private final int[] m_boundColumns;
+    private final List<Function<DataCell, AttributeValue>> m_binders;
+
+    /**
+     * Creates a new template.
+     * @param placeholders the placeholder settings
+     * @param spec the spec of the input table, or {@code null} if there is no input table
+     * @throws InvalidSettingsException if a static value cannot be parsed or a bound column does not exist
+     */
+    public PlaceholderTemplate(final DynamoDBPlaceholderSettings placeholders, final DataTableSpec spec)
+            throws InvalidSettingsException {
+        m_names = placeholders.getNames().isEmpty()
+                ? null : Collections.unmodifiableMap(new LinkedHashMap<>(placeholders.getNames()));
+
+        final Map<String, AttributeValue> staticValues = new LinkedHashMap<>();
+        final List<String> boundPlaceholders = new ArrayList<>();
+        final List<Integer> boundColumns = new ArrayList<>();
+        m_binders = new ArrayList<>();
+        for (final ValueMapping vm : placeholders.getValues()) {
+            if (!vm.isColumnType()) {
+                staticValues.put(vm.getName(), vm.getAttributeValue());
+                continue;
+            }
+            final int col = spec == null ? -1 : spec.findColumnIndex(vm.getValue());
+            if (col < 0) {
+                throw new InvalidSettingsException(String.format(
+                    "The column \"%s\" for placeholder \"%s\" does not exist.", vm.getValue(), vm.getName()));
+            }
+            boundPlaceholders.add(vm.getName());
+            boundColumns.add(col);
+            m_binders.add(KNIMEToDynamoDBUtil.createMapper(spec.getColumnSpec(col).getType()));
+        }
+        m_staticValues = Collections.unmodifiableMap(staticValues);
+        m_boundPlaceholders = boundPlaceholders.toArray(new String[0]);
+        m_boundColumns = boundColumns.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return the name placeholders or {@code null} if there are none
+     */
+    public Map<String, String> getNames() {
+        return m_names;
+    }
+
+    /**
+     * @return whether any value placeholders are defined
+     */
+    public boolean hasValues() {
+        return !m_staticValues.isEmpty() || m_boundPlaceholders.length > 0;
+    }
+
+    /**
+     * @return whether the values depend on the row, i.e. whether {@link #bindValues(DataRow)} has to be called
+     * for every row
+     */
+    public boolean hasBoundValues() {
+        return m_boundPlaceholders.length > 0;
+    }
+
+    /**
+     * @return the values that do not depend on the row, as immutable map
+     */
+    public Map<String, AttributeValue> getStaticValues() {
+        return m_staticValues;
+    }
+
+    /**
+     * Creates the values for a row. If no placeholder is bound to a column, the shared static values are returned.
+     * @param row the row to take the values of bound placeholders from
+     * @return the values for all placeholders
+     */
+    public Map<String, AttributeValue> bindValues(final DataRow row) {
+        if (m_boundPlaceholders.length == 0) {
+            return m_staticValues;
+        }
+        final Map<String, AttributeValue> values =
+                new HashMap<>((int)((m_staticValues.size() + m_boundPlaceholders.length) / 0.75f) + 1);
+        values.putAll(m_staticValues);
+        for (int i = 0; i < m_boundPlaceholders.length; i++) {
+            values.put(m_boundPlaceholders[i], m_binders.get(i).apply(row.getCell(m_boundColumns[i])));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket limiting the capacity units consumed per second, shared by several threads.
+ * Since the capacity a DynamoDB request consumes is only known after it was sent, the consumed
+ * units are paid for afterwards: a request may overdraw the bucket, and the next caller waits until
+ * the debt is paid off. Over time this keeps the average consumption at the configured rate.
+ * @author agent
+ *
+ */
+public final class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double m_unitsPerSecond;
+
+    // Point in time at which the bucket is no longer overdrawn
+    private long m_nextFree;
+
+    /**
+     * Creates a new instance of {@code RateLimiter}.
+     * @param unitsPerSecond the number of units that may be consumed per second
+     */
+    public RateLimiter(final double unitsPerSecond) {
+        if (unitsPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate must be greater than 0.");
+        }
+        m_unitsPerSecond = unitsPerSecond;
+        m_nextFree = System.nanoTime();
+    }
+
+    /**
+     * @return the number of units that may be consumed per second
+     */
+    public double getUnitsPerSecond() {
+        return m_unitsPerSecond;
+    }
+
+    /**
+     * Waits until the units consumed so far are paid off. Call this before sending a request.
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long wait;
+        synchronized (this) {
+            wait = m_nextFree - System.nanoTime();
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Records consumed units. Call this after a request with the capacity it consumed.
+     * @param units the consumed units
+     */
+    public void consume(final double units) {
+        if (units <= 0) {
+            return;
+        }
+        synchronized (this) {
+            // Unused capacity is not saved up, so the bucket holds at most one second of units
+            final long now = System.nanoTime();
+            m_nextFree = Math.max(m_nextFree, now - NANOS_PER_SECOND)
+                    + (long)(units / m_unitsPerSecond * NANOS_PER_SECOND);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends single-item requests to DynamoDB with a fixed number of threads. Submitting blocks while
+ * all threads are busy, so the input is never read further ahead than the configured concurrency.
+ * The first failing request stops the execution; its exception is rethrown by the next call to
+ * {@link #submit(Request)} or {@link #await()}.
+ * @author agent
+ *
+ */
+public final class RequestExecutor implements AutoCloseable {
+
+    /**
+     * A request to send.
+     */
+    @FunctionalInterface
+    public interface Request {
+        /**
+         * Sends the request and processes the response.
+         * @throws Exception if the request fails
+         */
+        void send() throws Exception;
+    }
+
+    private final int m_concurrency;
+    private final ExecutorService m_pool;
+    private final Semaphore m_inFlight;
+    private final AtomicReference<Throwable> m_error = new AtomicReference<>();
+
+    /**
+     * Creates a new instance of {@code RequestExecutor}.
+     * @param concurrency the maximum number of requests sent at the same time
+     */
+    public RequestExecutor(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent requests must be at least 1.");
+        }
+        m_concurrency = concurrency;
+        m_pool = Executors.newFixedThreadPool(concurrency);
+        m_inFlight = new Semaphore(concurrency);
+    }
+
+    /**
+     * Submits a request, waiting until a thread is available.
+     * @param request the request to send
+     * @throws Exception if a previously submitted request failed
+     */
+    public void submit(final Request request) throws Exception {
+        checkError();
+        m_inFlight.acquire();
+        try {
+            m_pool.execute(() -> {
+                try {
+                    request.send();
+                } catch (final Throwable t) {
+                    m_error.compareAndSet(null, t);
+                } finally {
+                    m_inFlight.release();
+                }
+            });
+        } catch (final RuntimeException e) {
+            m_inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all submitted requests are done.
+     * @throws Exception if a request failed
+     */
+    public void await() throws Exception {
+        m_inFlight.acquire(m_concurrency);
+        m_inFlight.release(m_concurrency);
+        checkError();
+    }
+
+    /**
+     * Stops all running requests without waiting for them.
+     */
+    @Override
+    public void close() {
+        m_pool.shutdownNow();
+    }
+
+    private void checkError() throws Exception {
+        final Throwable t = m_error.get();
+        if (t instanceof Exception) {
+            throw (Exception)t;
+        } else if (t instanceof Error) {
+            throw (Error)t;
+        }
+    }
+}
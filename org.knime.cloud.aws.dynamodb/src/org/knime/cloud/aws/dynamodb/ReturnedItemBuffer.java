@@ -0,0 +1,294 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBToKNIMEUtil;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.util.FileUtil;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Collects the items returned by DynamoDB for the rows of an input table and creates a KNIME table from them.
+ * Items can be added concurrently and in any order; the table contains them in the order of the input rows.
+ * The items are stored in their binary encoding outside of the Java heap and spill to a temporary file once
+ * the memory limit is reached. Since all items are known when the table is created, the table spec is
+ * determined once instead of being extended while rows are added, as {@link DynamicDataContainer} does.
+ * @author agent
+ *
+ */
+public final class ReturnedItemBuffer implements AutoCloseable {
+
+    /** Default number of bytes kept in memory before spilling to disk. */
+    public static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final long NO_ITEM = -1;
+
+    private final long m_memoryLimit;
+    private final List<ByteBuffer> m_chunks = new ArrayList<>();
+    // Position of each row's record, either in memory (< memory limit) or in the spill file
+    private final long[] m_positions;
+
+    private long m_size = 0;
+    private File m_spillFile;
+    private FileChannel m_spill;
+
+    /**
+     * Creates a new buffer with the default memory limit.
+     * @param numRows the number of rows in the input table
+     */
+    public ReturnedItemBuffer(final long numRows) {
+        this(numRows, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Creates a new buffer.
+     * @param numRows the number of rows in the input table
+     * @param memoryLimit the number of bytes kept off-heap before items are written to a temporary file
+     */
+    public ReturnedItemBuffer(final long numRows, final long memoryLimit) {
+        if (numRows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tables with more than " + Integer.MAX_VALUE
+                + " rows are not supported.");
+        }
+        m_memoryLimit = memoryLimit;
+        m_positions = new long[(int)numRows];
+        Arrays.fill(m_positions, NO_ITEM);
+    }
+
+    /**
+     * Adds the item returned for an input row. Rows without an item are missing in the resulting table.
+     * This method can be called from multiple threads.
+     * @param index the index of the input row
+     * @param key the key of the input row
+     * @param item the returned attributes
+     * @throws IOException if the item cannot be written to the spill file
+     */
+    public void put(final int index, final RowKey key, final Map<String, AttributeValue> item) throws IOException {
+        // Encode outside of the lock, only copying the bytes is synchronized
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeUTF(key.getString());
+            AttributeValueCodec.writeItem(item, out);
+        }
+        final ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+        synchronized (this) {
+            if (m_size < m_memoryLimit && m_size + record.remaining() > m_memoryLimit) {
+                // Records are not split between memory and disk, everything from here on goes to the file
+                m_size = m_memoryLimit;
+            }
+            m_positions[index] = m_size;
+            if (m_size < m_memoryLimit) {
+                writeToMemory(record, m_size);
+            } else {
+                writeToFile(record, m_size - m_memoryLimit);
+            }
+            m_size += record.capacity();
+        }
+    }
+
+    /**
+     * Creates a table from all items added so far, ordered by the index of the input row.
+     * @param exec the execution context to create the table and report progress with
+     * @return a table with a column for every attribute name occurring in the returned items
+     * @throws IOException if the items cannot be read back
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    public synchronized BufferedDataTable createTable(final ExecutionContext exec)
+            throws IOException, CanceledExecutionException {
+        // First pass: collect the columns and their common types in the order of the input rows
+        final ExecutionContext specExec = exec.createSubExecutionContext(0.5);
+        final Map<String, DataType> columns = new LinkedHashMap<>();
+        for (int i = 0; i < m_positions.length; i++) {
+            specExec.checkCanceled();
+            specExec.setProgress(i / (double)m_positions.length);
+            if (m_positions[i] == NO_ITEM) {
+                continue;
+            }
+            final DataInputStream in = read(m_positions[i]);
+            in.readUTF();
+            for (final Entry<String, AttributeValue> e : AttributeValueCodec.readItem(in).entrySet()) {
+                columns.merge(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()).getType(),
+                    DataType::getCommonSuperType);
+            }
+        }
+        final DataTableSpecCreator specCreator = new DataTableSpecCreator();
+        for (final Entry<String, DataType> col : columns.entrySet()) {
+            specCreator.addColumns(new DataColumnSpecCreator(col.getKey(), col.getValue()).createSpec());
+        }
+        final DataTableSpec spec = specCreator.createSpec();
+
+        // Second pass: write the rows
+        final ExecutionContext rowExec = exec.createSubExecutionContext(0.5);
+        final BufferedDataContainer dc = exec.createDataContainer(spec);
+        for (int i = 0; i < m_positions.length; i++) {
+            rowExec.checkCanceled();
+            rowExec.setProgress(i / (double)m_positions.length);
+            if (m_positions[i] == NO_ITEM) {
+                continue;
+            }
+            final DataInputStream in = read(m_positions[i]);
+            final RowKey key = new RowKey(in.readUTF());
+            final Map<String, AttributeValue> item = AttributeValueCodec.readItem(in);
+            final DataCell[] cells = new DataCell[spec.getNumColumns()];
+            for (int c = 0; c < cells.length; c++) {
+                final AttributeValue val = item.get(spec.getColumnSpec(c).getName());
+                cells[c] = val == null ? DataType.getMissingCell() : DynamoDBToKNIMEUtil.attributeValueToDataCell(val);
+            }
+            dc.addRowToTable(new DefaultRow(key, cells));
+        }
+        dc.close();
+        return dc.getTable();
+    }
+
+    /**
+     * Releases the off-heap memory and deletes the spill file.
+     */
+    @Override
+    public synchronized void close() {
+        m_chunks.clear();
+        if (m_spill != null) {
+            try {
+                m_spill.close();
+            } catch (final IOException e) {
+                // Nothing we can do, the file is deleted anyway
+            }
+            m_spill = null;
+        }
+        if (m_spillFile != null) {
+            FileUtil.deleteRecursively(m_spillFile);
+            m_spillFile = null;
+        }
+    }
+
+    private void writeToMemory(final ByteBuffer record, final long position) {
+        long pos = position;
+        while (record.hasRemaining()) {
+            final int chunk = (int)(pos / CHUNK_SIZE);
+            while (m_chunks.size() <= chunk) {
+                m_chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE));
+            }
+            final ByteBuffer target = m_chunks.get(chunk).duplicate();
+            target.position((int)(pos % CHUNK_SIZE));
+            final int n = Math.min(target.remaining(), record.remaining());
+            final ByteBuffer part = record.slice();
+            part.limit(n);
+            target.put(part);
+            record.position(record.position() + n);
+            pos += n;
+        }
+    }
+
+    private void writeToFile(final ByteBuffer record, final long position) throws IOException {
+        if (m_spill == null) {
+            m_spillFile = FileUtil.createTempFile("knime_dynamodb_items_", ".bin");
+            m_spill = FileChannel.open(m_spillFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        long pos = position;
+        while (record.hasRemaining()) {
+            pos += m_spill.write(record, pos);
+        }
+    }
+
+    private DataInputStream read(final long position) throws IOException {
+        final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readInto(length, position);
+        final ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+        readInto(record, position + Integer.BYTES);
+        return new DataInputStream(new ByteArrayInputStream(record.array()));
+    }
+
+    private void readInto(final ByteBuffer dst, final long position) throws IOException {
+        long pos = position;
+        if (pos >= m_memoryLimit) {
+            pos -= m_memoryLimit;
+            while (dst.hasRemaining()) {
+                final int n = m_spill.read(dst, pos);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of spill file");
+                }
+                pos += n;
+            }
+            return;
+        }
+        while (dst.hasRemaining()) {
+            final ByteBuffer src = m_chunks.get((int)(pos / CHUNK_SIZE)).duplicate();
+            src.position((int)(pos % CHUNK_SIZE));
+            src.limit(Math.min(CHUNK_SIZE, src.position() + dst.remaining()));
+            pos += src.remaining();
+            dst.put(src);
+        }
+    }
+}
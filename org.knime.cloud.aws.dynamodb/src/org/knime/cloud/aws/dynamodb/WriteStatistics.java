@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb;
+
+import org.knime.core.node.config.Config;
+import org.knime.core.node.streamable.MergeOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
+import org.knime.core.node.streamable.simple.SimpleStreamableOperatorInternals;
+
+/**
+ * Statistics of a node writing items to DynamoDB. In distributed streaming execution, every partition collects
+ * its own statistics, which are passed to the node as operator internals and summed up by a merge operator.
+ * @author agent
+ *
+ */
+public final class WriteStatistics {
+
+    private static final String CFG_CONSUMED_CAPACITY = "consumedCapacity";
+    private static final String CFG_NUM_WRITTEN = "numWritten";
+    private static final String CFG_NUM_RETRIED = "numRetried";
+
+    private double m_consumedCapacity = 0;
+    private long m_numWritten = 0;
+    private long m_numRetried = 0;
+
+    /**
+     * Adds the result of a request.
+     * @param consumedCapacity the capacity consumed by the request
+     * @param numWritten the number of items that were written
+     * @param numRetried the number of items that were not processed and have to be sent again
+     */
+    public void add(final double consumedCapacity, final long numWritten, final long numRetried) {
+        m_consumedCapacity += consumedCapacity;
+        m_numWritten += numWritten;
+        m_numRetried += numRetried;
+    }
+
+    /**
+     * Adds the statistics of another writer.
+     * @param other the statistics to add
+     */
+    public void add(final WriteStatistics other) {
+        add(other.m_consumedCapacity, other.m_numWritten, other.m_numRetried);
+    }
+
+    /**
+     * @return the capacity consumed by all requests
+     */
+    public double getConsumedCapacity() {
+        return m_consumedCapacity;
+    }
+
+    /**
+     * @return the number of written items
+     */
+    public long getNumWritten() {
+        return m_numWritten;
+    }
+
+    /**
+     * @return how often items were not processed, usually due to throttling, and had to be sent again
+     */
+    public long getNumRetried() {
+        return m_numRetried;
+    }
+
+    /**
+     * @return the statistics as operator internals
+     */
+    public StreamableOperatorInternals toInternals() {
+        final SimpleStreamableOperatorInternals internals = new SimpleStreamableOperatorInternals();
+        final Config config = internals.getConfig();
+        config.addDouble(CFG_CONSUMED_CAPACITY, m_consumedCapacity);
+        config.addLong(CFG_NUM_WRITTEN, m_numWritten);
+        config.addLong(CFG_NUM_RETRIED, m_numRetried);
+        return internals;
+    }
+
+    /**
+     * Reads statistics from operator internals.
+     * @param internals internals created by {@link #toInternals()}
+     * @return the statistics, all zero if the internals do not contain any
+     */
+    public static WriteStatistics fromInternals(final StreamableOperatorInternals internals) {
+        final WriteStatistics stats = new WriteStatistics();
+        if (internals instanceof SimpleStreamableOperatorInternals) {
+            final Config config = ((SimpleStreamableOperatorInternals)internals).getConfig();
+            stats.add(config.getDouble(CFG_CONSUMED_CAPACITY, 0), config.getLong(CFG_NUM_WRITTEN, 0),
+                config.getLong(CFG_NUM_RETRIED, 0));
+        }
+        return stats;
+    }
+
+    /**
+     * @return a merge operator summing up the statistics of all partitions
+     */
+    public static MergeOperator createMergeOperator() {
+        return new MergeOperator() {
+            @Override
+            public StreamableOperatorInternals mergeFinal(final StreamableOperatorInternals[] operators) {
+                final WriteStatistics total = new WriteStatistics();
+                for (final StreamableOperatorInternals op : operators) {
+                    total.add(fromInternals(op));
+                }
+                return total.toInternals();
+            }
+        };
+    }
+}
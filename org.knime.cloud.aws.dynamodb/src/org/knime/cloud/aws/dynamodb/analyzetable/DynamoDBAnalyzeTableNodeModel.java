@@ -0,0 +1,388 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.analyzetable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.ParallelScanner;
+import org.knime.cloud.aws.dynamodb.RateLimiter;
+import org.knime.cloud.aws.dynamodb.analyzetable.ItemCollectionSketch.ItemCollectionStats;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+
+/**
+ * The {@code NodeModel} for the DynamoDB Analyze Table node.
+ * Only some of the segments of a parallel scan are read. Because the segments split the table by the hash of
+ * the partition key, each partition key lies in exactly one segment, so the statistics of the item collections
+ * in the sample are exact while table-wide numbers are extrapolated.
+ *
+ * @author agent
+ */
+final class DynamoDBAnalyzeTableNodeModel extends NodeModel {
+
+    private static final String READ_CAPACITY_UNITS_FLOW_VAR = "analyzeTableConsumedReadCapacity";
+    private static final String ITEM_COUNT_FLOW_VAR = "analyzeTableEstimatedItemCount";
+    private static final String SIZE_FLOW_VAR = "analyzeTableEstimatedSizeBytes";
+    private static final String PARTITIONS_FLOW_VAR = "analyzeTableEstimatedPartitions";
+
+    /** The first bucket holds items below 2^7 bytes, the last one ends at 2^19 bytes, above the 400KB limit. */
+    private static final int MIN_BUCKET_EXP = 7;
+    private static final int NUM_SIZE_BUCKETS = 13;
+
+    /** A partition holds at most 10GB and serves at most 3000 RCUs and 1000 WCUs. */
+    private static final double PARTITION_SIZE = 10d * 1024 * 1024 * 1024;
+    private static final double PARTITION_READ_CAPACITY = 3000;
+    private static final double PARTITION_WRITE_CAPACITY = 1000;
+
+    /** The sketch of the largest item collections tracks this many times the number of keys in the output. */
+    private static final int SKETCH_FACTOR = 10;
+    private static final int MIN_SKETCH_CAPACITY = 1000;
+
+    private final DynamoDBAnalyzeTableSettings m_settings = new DynamoDBAnalyzeTableSettings();
+
+    /**
+     * Default Constructor.
+     */
+    DynamoDBAnalyzeTableNodeModel() {
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE},
+                new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE,
+                    BufferedDataTable.TYPE, BufferedDataTable.TYPE});
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getTableName().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify a table.");
+        }
+        return new PortObjectSpec[] {inSpecs[0], createSizeHistogramSpec(), createHashKeySpec(),
+                createSegmentSpec()};
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final CloudConnectionInformation conInfo = inObjects[0] == null
+                ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
+        final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
+
+        final TableDescription table;
+        try {
+            table = ddb.describeTable(
+                DescribeTableRequest.builder().tableName(m_settings.getTableName()).build()).table();
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+        }
+        String hashKeyName = null;
+        for (final KeySchemaElement key : table.keySchema()) {
+            if (key.keyType() == KeyType.HASH) {
+                hashKeyName = key.attributeName();
+            }
+        }
+        final String hashKey = hashKeyName;
+
+        final RateLimiter readLimiter = m_settings.getReadCapacityLimit() > 0
+                ? new RateLimiter(m_settings.getReadCapacityLimit()) : null;
+        final ScanRequest request = ScanRequest.builder()
+                .tableName(m_settings.getTableName())
+                .consistentRead(m_settings.isConsistentRead())
+                .returnConsumedCapacity(m_settings.publishConsumedCapUnits() || readLimiter != null
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE)
+                .build();
+        final int scannedSegments = m_settings.getScannedSegments();
+        final ParallelScanner scanner = new ParallelScanner(ddb, request, m_settings.getTotalSegments());
+        scanner.setScannedSegments(scannedSegments);
+        scanner.setRateLimiter(readLimiter);
+
+        final AtomicLongArray sizeHistogram = new AtomicLongArray(NUM_SIZE_BUCKETS);
+        final AtomicLongArray segmentItems = new AtomicLongArray(scannedSegments);
+        final AtomicLongArray segmentSizes = new AtomicLongArray(scannedSegments);
+        // Only a bounded number of collections is kept, tables can have billions of partition keys
+        final ItemCollectionSketch collections = new ItemCollectionSketch(
+            (int)Math.min(Integer.MAX_VALUE, Math.max(MIN_SKETCH_CAPACITY,
+                (long)m_settings.getTopHashKeys() * SKETCH_FACTOR)));
+        try {
+            scanner.scan((segment, items) -> {
+                // Aggregate the page first to keep the time spent holding the lock of the sketch short
+                final Map<String, ItemCollectionStats> pageCollections = new HashMap<>();
+                long pageSize = 0;
+                for (final Map<String, AttributeValue> item : items) {
+                    final long size = DynamoDBUtil.getItemSize(item);
+                    sizeHistogram.incrementAndGet(getSizeBucket(size));
+                    pageSize += size;
+                    pageCollections.computeIfAbsent(keyToString(item.get(hashKey)),
+                        k -> new ItemCollectionStats(k, segment)).add(size);
+                }
+                segmentItems.addAndGet(segment, items.size());
+                segmentSizes.addAndGet(segment, pageSize);
+                pageCollections.values().forEach(collections::add);
+            }, exec);
+        } catch (final ProvisionedThroughputExceededException e) {
+            throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+        }
+
+        long sampledItems = 0;
+        long sampledSize = 0;
+        for (int i = 0; i < scannedSegments; i++) {
+            sampledItems += segmentItems.get(i);
+            sampledSize += segmentSizes.get(i);
+        }
+        final double scale = m_settings.getTotalSegments() / (double)scannedSegments;
+        final double estimatedItems = sampledItems * scale;
+        final double estimatedSize = sampledSize * scale;
+        final int estimatedPartitions = estimatePartitions(estimatedSize, table.provisionedThroughput());
+        final double partitionSize = estimatedSize / estimatedPartitions;
+
+        final DataContainer histogram = exec.createDataContainer(createSizeHistogramSpec());
+        long cumulative = 0;
+        for (int i = 0; i < NUM_SIZE_BUCKETS; i++) {
+            final long count = sizeHistogram.get(i);
+            cumulative += count;
+            histogram.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i),
+                new LongCell(i == 0 ? 0 : 1L << (i + MIN_BUCKET_EXP - 1)),
+                new LongCell(1L << (i + MIN_BUCKET_EXP)),
+                new LongCell(count),
+                new DoubleCell(fraction(count, sampledItems)),
+                new DoubleCell(fraction(cumulative, sampledItems))));
+        }
+        histogram.close();
+
+        final DataContainer hashKeys = exec.createDataContainer(createHashKeySpec());
+        long row = 0;
+        for (final ItemCollectionStats stats : collections.getLargest(m_settings.getTopHashKeys())) {
+            hashKeys.addRowToTable(new DefaultRow(RowKey.createRowKey(row++),
+                new StringCell(stats.m_key),
+                new IntCell(stats.m_segment),
+                new LongCell(stats.m_numItems),
+                new LongCell(stats.m_size),
+                new LongCell(stats.m_sizeError),
+                new LongCell(stats.m_maxItemSize),
+                new DoubleCell(fraction(stats.m_size, sampledSize)),
+                new DoubleCell(partitionSize > 0 ? stats.m_size / partitionSize : 0)));
+        }
+        hashKeys.close();
+
+        final double meanSegmentSize = sampledSize / (double)scannedSegments;
+        final DataContainer segments = exec.createDataContainer(createSegmentSpec());
+        for (int i = 0; i < scannedSegments; i++) {
+            segments.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i),
+                new IntCell(i),
+                new LongCell(segmentItems.get(i)),
+                new LongCell(segmentSizes.get(i)),
+                new DoubleCell(meanSegmentSize > 0 ? segmentSizes.get(i) / meanSegmentSize : 0)));
+        }
+        segments.close();
+
+        pushFlowVariableInt(ITEM_COUNT_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, Math.round(estimatedItems)));
+        pushFlowVariableDouble(SIZE_FLOW_VAR, estimatedSize);
+        pushFlowVariableInt(PARTITIONS_FLOW_VAR, estimatedPartitions);
+        if (m_settings.publishConsumedCapUnits()) {
+            pushFlowVariableDouble(READ_CAPACITY_UNITS_FLOW_VAR, scanner.getConsumedCapacity());
+        }
+
+        return new PortObject[] {inObjects[0], (BufferedDataTable)histogram.getTable(),
+            (BufferedDataTable)hashKeys.getTable(), (BufferedDataTable)segments.getTable()};
+    }
+
+    /**
+     * Tables get at least one partition per 10GB of data and per 3000 RCUs or 1000 WCUs of provisioned capacity.
+     * On-demand tables report no provisioned capacity, so only their size is taken into account.
+     */
+    private static int estimatePartitions(final double size, final ProvisionedThroughputDescription throughput) {
+        double capacityPartitions = 0;
+        if (throughput != null) {
+            final Long rcu = throughput.readCapacityUnits();
+            final Long wcu = throughput.writeCapacityUnits();
+            capacityPartitions = (rcu == null ? 0 : rcu / PARTITION_READ_CAPACITY)
+                    + (wcu == null ? 0 : wcu / PARTITION_WRITE_CAPACITY);
+        }
+        return (int)Math.max(1, Math.ceil(Math.max(size / PARTITION_SIZE, capacityPartitions)));
+    }
+
+    private static int getSizeBucket(final long size) {
+        return Math.min(NUM_SIZE_BUCKETS - 1, Math.max(0, 64 - Long.numberOfLeadingZeros(size) - MIN_BUCKET_EXP));
+    }
+
+    private static double fraction(final long part, final long total) {
+        return total == 0 ? 0 : part / (double)total;
+    }
+
+    private static String keyToString(final AttributeValue key) {
+        if (DynamoDBUtil.isString(key)) {
+            return key.s();
+        } else if (DynamoDBUtil.isNumber(key)) {
+            return key.n();
+        } else if (DynamoDBUtil.isBinary(key)) {
+            return Base64.getEncoder().encodeToString(key.b().asByteArray());
+        }
+        // Keys can only be strings, numbers or binary
+        return String.valueOf(key);
+    }
+
+    private static DataTableSpec createSizeHistogramSpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+            new DataColumnSpecCreator("lowerBound", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("upperBound", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("fraction", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("cumulativeFraction", DoubleCell.TYPE).createSpec());
+        return c.createSpec();
+    }
+
+    private static DataTableSpec createHashKeySpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+            new DataColumnSpecCreator("hashKey", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("segment", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("collectionSize", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("collectionSizeError", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("maxItemSize", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("shareOfSample", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("partitionHeat", DoubleCell.TYPE).createSpec());
+        return c.createSpec();
+    }
+
+    private static DataTableSpec createSegmentSpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+            new DataColumnSpecCreator("segment", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("size", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("relativeLoad", DoubleCell.TYPE).createSpec());
+        return c.createSpec();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final DynamoDBAnalyzeTableSettings s = new DynamoDBAnalyzeTableSettings();
+        s.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+    }
+}
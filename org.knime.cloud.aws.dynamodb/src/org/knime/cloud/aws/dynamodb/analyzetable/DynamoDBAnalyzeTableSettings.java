@@ -0,0 +1,203 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.analyzetable;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBWriterSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for the DynamoDB Analyze Table node.
+ * @author agent
+ *
+ */
+final class DynamoDBAnalyzeTableSettings extends DynamoDBWriterSettings {
+
+    private static final String CFG_TOTAL_SEGMENTS = "totalSegments";
+    private static final String CFG_SCANNED_SEGMENTS = "scannedSegments";
+    private static final String CFG_TOP_HASH_KEYS = "topHashKeys";
+    private static final String CFG_CONSISTENT_READ = "consistentRead";
+    private static final String CFG_READ_CAPACITY_LIMIT = "readCapacityLimit";
+
+    private static final int DEFAULT_TOTAL_SEGMENTS = 100;
+    private static final int DEFAULT_SCANNED_SEGMENTS = 8;
+    private static final int DEFAULT_TOP_HASH_KEYS = 100;
+    private static final double UNLIMITED = 0;
+
+    private int m_totalSegments = DEFAULT_TOTAL_SEGMENTS;
+    private int m_scannedSegments = DEFAULT_SCANNED_SEGMENTS;
+    private int m_topHashKeys = DEFAULT_TOP_HASH_KEYS;
+    private boolean m_consistentRead = false;
+    private double m_readCapacityLimit = UNLIMITED;
+
+    /**
+     * @return the number of segments the table is split into
+     */
+    int getTotalSegments() {
+        return m_totalSegments;
+    }
+
+    /**
+     * @param totalSegments the number of segments the table is split into
+     */
+    void setTotalSegments(final int totalSegments) {
+        m_totalSegments = totalSegments;
+    }
+
+    /**
+     * @return the number of segments that are actually scanned, which determines the sample size
+     */
+    int getScannedSegments() {
+        return m_scannedSegments;
+    }
+
+    /**
+     * @param scannedSegments the number of segments that are actually scanned, which determines the sample size
+     */
+    void setScannedSegments(final int scannedSegments) {
+        m_scannedSegments = scannedSegments;
+    }
+
+    /**
+     * @return the maximum number of hash keys in the output, the ones with the largest item collections first
+     */
+    int getTopHashKeys() {
+        return m_topHashKeys;
+    }
+
+    /**
+     * @param topHashKeys the maximum number of hash keys in the output,
+     * the ones with the largest item collections first
+     */
+    void setTopHashKeys(final int topHashKeys) {
+        m_topHashKeys = topHashKeys;
+    }
+
+    /**
+     * @return whether the table is read with strongly consistent reads (more expensive)
+     */
+    boolean isConsistentRead() {
+        return m_consistentRead;
+    }
+
+    /**
+     * @param consistentRead whether the table is read with strongly consistent reads (more expensive)
+     */
+    void setConsistentRead(final boolean consistentRead) {
+        m_consistentRead = consistentRead;
+    }
+
+    /**
+     * @return the maximum read capacity units consumed per second, 0 for no limit
+     */
+    double getReadCapacityLimit() {
+        return m_readCapacityLimit;
+    }
+
+    /**
+     * @param readCapacityLimit the maximum read capacity units consumed per second, 0 for no limit
+     */
+    void setReadCapacityLimit(final double readCapacityLimit) {
+        m_readCapacityLimit = readCapacityLimit;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        settings.addInt(CFG_TOTAL_SEGMENTS, m_totalSegments);
+        settings.addInt(CFG_SCANNED_SEGMENTS, m_scannedSegments);
+        settings.addInt(CFG_TOP_HASH_KEYS, m_topHashKeys);
+        settings.addBoolean(CFG_CONSISTENT_READ, m_consistentRead);
+        settings.addDouble(CFG_READ_CAPACITY_LIMIT, m_readCapacityLimit);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_totalSegments = settings.getInt(CFG_TOTAL_SEGMENTS);
+        m_scannedSegments = settings.getInt(CFG_SCANNED_SEGMENTS);
+        m_topHashKeys = settings.getInt(CFG_TOP_HASH_KEYS);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT);
+        if (m_scannedSegments < 1 || m_scannedSegments > m_totalSegments) {
+            throw new InvalidSettingsException(
+                "The number of scanned segments must be between 1 and the total number of segments.");
+        }
+        if (m_topHashKeys < 1) {
+            throw new InvalidSettingsException("The number of hash keys in the output must be at least 1.");
+        }
+        if (m_readCapacityLimit < 0) {
+            throw new InvalidSettingsException("The capacity limit must not be negative.");
+        }
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_totalSegments = settings.getInt(CFG_TOTAL_SEGMENTS, DEFAULT_TOTAL_SEGMENTS);
+        m_scannedSegments = settings.getInt(CFG_SCANNED_SEGMENTS, DEFAULT_SCANNED_SEGMENTS);
+        m_topHashKeys = settings.getInt(CFG_TOP_HASH_KEYS, DEFAULT_TOP_HASH_KEYS);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ, false);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT, UNLIMITED);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.analyzetable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Keeps the item collections with the largest sizes in a bounded amount of memory, using the Space-Saving
+ * algorithm of Metwally et al., "Efficient Computation of Frequent and Top-k Elements in Data Streams", weighted by
+ * the size of the items. At most {@code capacity} collections are tracked. When a new collection arrives and the
+ * sketch is full, the smallest tracked collection is replaced and its size is taken over as error, so the size of a
+ * collection is never underestimated and every collection holding more than {@code 1 / capacity} of the data
+ * is guaranteed to be tracked.
+ * The sketch is thread-safe.
+ *
+ * @author agent
+ */
+final class ItemCollectionSketch {
+
+    private static final Comparator<ItemCollectionStats> ORDER =
+            Comparator.comparingLong((final ItemCollectionStats s) -> s.m_size).thenComparing(s -> s.m_key);
+
+    private final int m_capacity;
+
+    private final Map<String, ItemCollectionStats> m_collections = new HashMap<>();
+
+    private final TreeSet<ItemCollectionStats> m_bySize = new TreeSet<>(ORDER);
+
+    /**
+     * @param capacity the maximum number of tracked collections
+     */
+    ItemCollectionSketch(final int capacity) {
+        m_capacity = capacity;
+    }
+
+    /**
+     * Adds the items of a collection seen in a page of the scan.
+     * @param stats the items of one collection in the page
+     */
+    synchronized void add(final ItemCollectionStats stats) {
+        final ItemCollectionStats tracked = m_collections.get(stats.m_key);
+        if (tracked != null) {
+            m_bySize.remove(tracked);
+            tracked.merge(stats);
+            m_bySize.add(tracked);
+            return;
+        }
+        if (m_collections.size() >= m_capacity) {
+            final ItemCollectionStats smallest = m_bySize.pollFirst();
+            m_collections.remove(smallest.m_key);
+            stats.m_size += smallest.m_size;
+            stats.m_sizeError = smallest.m_size;
+        }
+        m_collections.put(stats.m_key, stats);
+        m_bySize.add(stats);
+    }
+
+    /**
+     * @param k the maximum number of collections to return
+     * @return the largest tracked collections, the largest first
+     */
+    synchronized List<ItemCollectionStats> getLargest(final int k) {
+        final List<ItemCollectionStats> largest = new ArrayList<>(Math.min(k, m_bySize.size()));
+        for (final ItemCollectionStats stats : m_bySize.descendingSet()) {
+            if (largest.size() >= k) {
+                break;
+            }
+            largest.add(stats);
+        }
+        return largest;
+    }
+
+    /**
+     * Number and size of the items sharing a partition key. If the collection replaced another one in the sketch,
+     * the size includes the size of the replaced collection, which is given as error, while the number of items and
+     * the maximum item size only cover the items seen since.
+     */
+    static final class ItemCollectionStats {
+        final String m_key;
+        final int m_segment;
+        long m_numItems;
+        long m_size;
+        long m_sizeError;
+        long m_maxItemSize;
+
+        ItemCollectionStats(final String key, final int segment) {
+            m_key = key;
+            m_segment = segment;
+        }
+
+        void add(final long itemSize) {
+            m_numItems++;
+            m_size += itemSize;
+            m_maxItemSize = Math.max(m_maxItemSize, itemSize);
+        }
+
+        void merge(final ItemCollectionStats other) {
+            m_numItems += other.m_numItems;
+            m_size += other.m_size;
+            m_maxItemSize = Math.max(m_maxItemSize, other.m_maxItemSize);
+        }
+    }
+}
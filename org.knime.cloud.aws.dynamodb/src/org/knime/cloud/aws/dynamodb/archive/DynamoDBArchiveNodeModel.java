@@ -0,0 +1,282 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.ParallelScanner;
+import org.knime.cloud.aws.dynamodb.RateLimiter;
+import org.knime.cloud.aws.dynamodb.archive.SegmentArchiver.ArchivedFile;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.util.FileUtil;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+
+/**
+ * The {@code NodeModel} for the DynamoDB Archive Expiring Items node.
+ * Items are written to files while the table is scanned, so only the current page of each segment is in memory.
+ *
+ * @author agent
+ */
+final class DynamoDBArchiveNodeModel extends NodeModel {
+
+    private static final String READ_CAPACITY_UNITS_FLOW_VAR = "archiveConsumedReadCapacity";
+    private static final String NUM_ITEMS_FLOW_VAR = "archiveNumItems";
+
+    private static final String TTL_NAME_PLACEHOLDER = "#knimeTtlKNIME";
+    private static final String TTL_VALUE_PLACEHOLDER = ":knimeExpiresBeforeKNIME";
+    private static final long SECONDS_PER_HOUR = 3600;
+
+    private final DynamoDBArchiveSettings m_settings = new DynamoDBArchiveSettings();
+
+    /**
+     * Default Constructor.
+     */
+    DynamoDBArchiveNodeModel() {
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE},
+                new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE});
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getTableName().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify a table.");
+        }
+        if (m_settings.getTtlAttribute().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify the TTL attribute.");
+        }
+        if (m_settings.getOutputDirectory().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify an output directory.");
+        }
+        return new PortObjectSpec[] {inSpecs[0], createFilesSpec()};
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final CloudConnectionInformation conInfo = inObjects[0] == null
+                ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
+        final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
+
+        final Path directory = resolveDirectory(m_settings.getOutputDirectory());
+        Files.createDirectories(directory);
+
+        final Instant now = Instant.now();
+        final long expiresBefore = now.getEpochSecond() + m_settings.getExpiresWithinHours() * SECONDS_PER_HOUR;
+        final RateLimiter readLimiter = m_settings.getReadCapacityLimit() > 0
+                ? new RateLimiter(m_settings.getReadCapacityLimit()) : null;
+        // The comparison only matches numbers, so items without a valid expiry time are skipped
+        final ScanRequest request = ScanRequest.builder()
+                .tableName(m_settings.getTableName())
+                .consistentRead(m_settings.isConsistentRead())
+                .filterExpression(TTL_NAME_PLACEHOLDER + " <= " + TTL_VALUE_PLACEHOLDER)
+                .expressionAttributeNames(Collections.singletonMap(
+                    TTL_NAME_PLACEHOLDER, m_settings.getTtlAttribute()))
+                .expressionAttributeValues(Collections.singletonMap(TTL_VALUE_PLACEHOLDER,
+                    AttributeValue.builder().n(Long.toString(expiresBefore)).build()))
+                .returnConsumedCapacity(m_settings.publishConsumedCapUnits() || readLimiter != null
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE)
+                .build();
+        final ParallelScanner scanner = new ParallelScanner(ddb, request, m_settings.getScanSegments());
+        scanner.setRateLimiter(readLimiter);
+
+        // Files of different runs must not collide, as items expiring on the same day may be archived twice
+        final String filePrefix = m_settings.getTableName() + "-" + now.toEpochMilli();
+        final SegmentArchiver[] archivers = new SegmentArchiver[m_settings.getScanSegments()];
+        for (int i = 0; i < archivers.length; i++) {
+            archivers[i] = new SegmentArchiver(directory, filePrefix, i, m_settings.getTtlAttribute(),
+                m_settings.isPartitionByExpiryDate(), m_settings.getMaxItemsPerFile());
+        }
+
+        try {
+            scanner.scan((segment, items) -> archivers[segment].write(items), exec);
+            for (final SegmentArchiver archiver : archivers) {
+                archiver.close();
+            }
+        } catch (final Exception e) {
+            // The scanner only returns after all segments stopped, so no archiver is written to anymore
+            for (final SegmentArchiver archiver : archivers) {
+                archiver.abort();
+            }
+            if (e instanceof ProvisionedThroughputExceededException) {
+                throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+            } else if (e instanceof ResourceNotFoundException) {
+                throw new InvalidSettingsException(
+                    String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+            }
+            throw e;
+        }
+
+        final List<ArchivedFile> files = new ArrayList<>();
+        for (final SegmentArchiver archiver : archivers) {
+            files.addAll(archiver.getArchivedFiles());
+        }
+        final DataContainer dc = exec.createDataContainer(createFilesSpec());
+        long numItems = 0;
+        long row = 0;
+        for (final ArchivedFile f : files) {
+            numItems += f.getNumItems();
+            dc.addRowToTable(new DefaultRow(RowKey.createRowKey(row++),
+                new StringCell(f.getPath().toString()),
+                new StringCell(f.getPartition()),
+                new IntCell(f.getSegment()),
+                new LongCell(f.getNumItems())));
+        }
+        dc.close();
+
+        pushFlowVariableInt(NUM_ITEMS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, numItems));
+        if (m_settings.publishConsumedCapUnits()) {
+            pushFlowVariableDouble(READ_CAPACITY_UNITS_FLOW_VAR, scanner.getConsumedCapacity());
+        }
+
+        return new PortObject[] {inObjects[0], (BufferedDataTable)dc.getTable()};
+    }
+
+    private static Path resolveDirectory(final String directory) throws InvalidSettingsException {
+        final Path p;
+        try {
+            p = FileUtil.resolveToPath(FileUtil.toURL(directory.trim()));
+        } catch (final Exception e) {
+            throw new InvalidSettingsException("The output directory \"" + directory + "\" is not a valid path.", e);
+        }
+        if (p == null) {
+            throw new InvalidSettingsException(
+                "The output directory \"" + directory + "\" is not on a local file system.");
+        }
+        return p;
+    }
+
+    private static DataTableSpec createFilesSpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+            new DataColumnSpecCreator("path", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("partition", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("segment", IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec());
+        return c.createSpec();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final DynamoDBArchiveSettings s = new DynamoDBArchiveSettings();
+        s.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+    }
+}
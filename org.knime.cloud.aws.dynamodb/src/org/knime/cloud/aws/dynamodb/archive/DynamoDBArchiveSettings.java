@@ -0,0 +1,259 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.archive;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBWriterSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for the DynamoDB Archive Expiring Items node.
+ * @author agent
+ *
+ */
+final class DynamoDBArchiveSettings extends DynamoDBWriterSettings {
+
+    private static final String CFG_TTL_ATTRIBUTE = "ttlAttribute";
+    private static final String CFG_EXPIRES_WITHIN_HOURS = "expiresWithinHours";
+    private static final String CFG_OUTPUT_DIRECTORY = "outputDirectory";
+    private static final String CFG_PARTITION_BY_EXPIRY_DATE = "partitionByExpiryDate";
+    private static final String CFG_MAX_ITEMS_PER_FILE = "maxItemsPerFile";
+    private static final String CFG_SCAN_SEGMENTS = "scanSegments";
+    private static final String CFG_CONSISTENT_READ = "consistentRead";
+    private static final String CFG_READ_CAPACITY_LIMIT = "readCapacityLimit";
+
+    private static final int DEFAULT_EXPIRES_WITHIN_HOURS = 24;
+    private static final int DEFAULT_MAX_ITEMS_PER_FILE = 100000;
+    private static final int DEFAULT_SCAN_SEGMENTS = 4;
+    private static final double UNLIMITED = 0;
+
+    private String m_ttlAttribute = "";
+    private int m_expiresWithinHours = DEFAULT_EXPIRES_WITHIN_HOURS;
+    private String m_outputDirectory = "";
+    private boolean m_partitionByExpiryDate = true;
+    private int m_maxItemsPerFile = DEFAULT_MAX_ITEMS_PER_FILE;
+    private int m_scanSegments = DEFAULT_SCAN_SEGMENTS;
+    private boolean m_consistentRead = false;
+    private double m_readCapacityLimit = UNLIMITED;
+
+    /**
+     * @return the name of the attribute holding the expiry time in seconds since the epoch
+     */
+    String getTtlAttribute() {
+        return m_ttlAttribute;
+    }
+
+    /**
+     * @param ttlAttribute the name of the attribute holding the expiry time in seconds since the epoch
+     */
+    void setTtlAttribute(final String ttlAttribute) {
+        m_ttlAttribute = ttlAttribute;
+    }
+
+    /**
+     * @return items expiring within this many hours from now are archived, as well as already expired ones
+     */
+    int getExpiresWithinHours() {
+        return m_expiresWithinHours;
+    }
+
+    /**
+     * @param expiresWithinHours items expiring within this many hours from now are archived,
+     * as well as already expired ones
+     */
+    void setExpiresWithinHours(final int expiresWithinHours) {
+        m_expiresWithinHours = expiresWithinHours;
+    }
+
+    /**
+     * @return the path or URL of the directory the archive files are written to
+     */
+    String getOutputDirectory() {
+        return m_outputDirectory;
+    }
+
+    /**
+     * @param outputDirectory the path or URL of the directory the archive files are written to
+     */
+    void setOutputDirectory(final String outputDirectory) {
+        m_outputDirectory = outputDirectory;
+    }
+
+    /**
+     * @return whether the files are put into one sub directory per expiry date
+     */
+    boolean isPartitionByExpiryDate() {
+        return m_partitionByExpiryDate;
+    }
+
+    /**
+     * @param partitionByExpiryDate whether the files are put into one sub directory per expiry date
+     */
+    void setPartitionByExpiryDate(final boolean partitionByExpiryDate) {
+        m_partitionByExpiryDate = partitionByExpiryDate;
+    }
+
+    /**
+     * @return the number of items after which a new file is started
+     */
+    int getMaxItemsPerFile() {
+        return m_maxItemsPerFile;
+    }
+
+    /**
+     * @param maxItemsPerFile the number of items after which a new file is started
+     */
+    void setMaxItemsPerFile(final int maxItemsPerFile) {
+        m_maxItemsPerFile = maxItemsPerFile;
+    }
+
+    /**
+     * @return the number of segments the table is split into for scanning it in parallel
+     */
+    int getScanSegments() {
+        return m_scanSegments;
+    }
+
+    /**
+     * @param scanSegments the number of segments the table is split into for scanning it in parallel
+     */
+    void setScanSegments(final int scanSegments) {
+        m_scanSegments = scanSegments;
+    }
+
+    /**
+     * @return whether the table is read with strongly consistent reads (more expensive)
+     */
+    boolean isConsistentRead() {
+        return m_consistentRead;
+    }
+
+    /**
+     * @param consistentRead whether the table is read with strongly consistent reads (more expensive)
+     */
+    void setConsistentRead(final boolean consistentRead) {
+        m_consistentRead = consistentRead;
+    }
+
+    /**
+     * @return the maximum read capacity units consumed per second, 0 for no limit
+     */
+    double getReadCapacityLimit() {
+        return m_readCapacityLimit;
+    }
+
+    /**
+     * @param readCapacityLimit the maximum read capacity units consumed per second, 0 for no limit
+     */
+    void setReadCapacityLimit(final double readCapacityLimit) {
+        m_readCapacityLimit = readCapacityLimit;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        settings.addString(CFG_TTL_ATTRIBUTE, m_ttlAttribute);
+        settings.addInt(CFG_EXPIRES_WITHIN_HOURS, m_expiresWithinHours);
+        settings.addString(CFG_OUTPUT_DIRECTORY, m_outputDirectory);
+        settings.addBoolean(CFG_PARTITION_BY_EXPIRY_DATE, m_partitionByExpiryDate);
+        settings.addInt(CFG_MAX_ITEMS_PER_FILE, m_maxItemsPerFile);
+        settings.addInt(CFG_SCAN_SEGMENTS, m_scanSegments);
+        settings.addBoolean(CFG_CONSISTENT_READ, m_consistentRead);
+        settings.addDouble(CFG_READ_CAPACITY_LIMIT, m_readCapacityLimit);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_ttlAttribute = settings.getString(CFG_TTL_ATTRIBUTE);
+        m_expiresWithinHours = settings.getInt(CFG_EXPIRES_WITHIN_HOURS);
+        m_outputDirectory = settings.getString(CFG_OUTPUT_DIRECTORY);
+        m_partitionByExpiryDate = settings.getBoolean(CFG_PARTITION_BY_EXPIRY_DATE);
+        m_maxItemsPerFile = settings.getInt(CFG_MAX_ITEMS_PER_FILE);
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT);
+        if (m_expiresWithinHours < 0) {
+            throw new InvalidSettingsException("The expiry window must not be negative.");
+        }
+        if (m_maxItemsPerFile < 1 || m_scanSegments < 1) {
+            throw new InvalidSettingsException("The number of items per file and scan segments must be at least 1.");
+        }
+        if (m_readCapacityLimit < 0) {
+            throw new InvalidSettingsException("The capacity limit must not be negative.");
+        }
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_ttlAttribute = settings.getString(CFG_TTL_ATTRIBUTE, "");
+        m_expiresWithinHours = settings.getInt(CFG_EXPIRES_WITHIN_HOURS, DEFAULT_EXPIRES_WITHIN_HOURS);
+        m_outputDirectory = settings.getString(CFG_OUTPUT_DIRECTORY, "");
+        m_partitionByExpiryDate = settings.getBoolean(CFG_PARTITION_BY_EXPIRY_DATE, true);
+        m_maxItemsPerFile = settings.getInt(CFG_MAX_ITEMS_PER_FILE, DEFAULT_MAX_ITEMS_PER_FILE);
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ, false);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT, UNLIMITED);
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.GZIPOutputStream;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Writes the items of one scan segment to gzipped files with one item per line in DynamoDB JSON,
+ * the format of the DynamoDB export to S3. Each segment has its own archiver, so no synchronization is needed
+ * and only one file per expiry date partition is open at a time.
+ *
+ * @author agent
+ */
+final class SegmentArchiver implements Closeable {
+
+    private static final String ITEM_FIELD = "Item";
+    private static final String PARTITION_PREFIX = "expiryDate=";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * A file that was completely written.
+     */
+    static final class ArchivedFile {
+        private final Path m_path;
+        private final String m_partition;
+        private final int m_segment;
+        private final long m_numItems;
+
+        private ArchivedFile(final Path path, final String partition, final int segment, final long numItems) {
+            m_path = path;
+            m_partition = partition;
+            m_segment = segment;
+            m_numItems = numItems;
+        }
+
+        /**
+         * @return the path of the file
+         */
+        Path getPath() {
+            return m_path;
+        }
+
+        /**
+         * @return the expiry date partition of the file, empty if the files are not partitioned
+         */
+        String getPartition() {
+            return m_partition;
+        }
+
+        /**
+         * @return the scan segment the items were read from
+         */
+        int getSegment() {
+            return m_segment;
+        }
+
+        /**
+         * @return the number of items in the file
+         */
+        long getNumItems() {
+            return m_numItems;
+        }
+    }
+
+    private static final class OpenFile {
+        private final Path m_path;
+        private final JsonGenerator m_generator;
+        private long m_numItems;
+
+        private OpenFile(final Path path, final JsonGenerator generator) {
+            m_path = path;
+            m_generator = generator;
+        }
+    }
+
+    private final Path m_directory;
+    private final String m_filePrefix;
+    private final int m_segment;
+    private final String m_ttlAttribute;
+    private final boolean m_partitionByExpiryDate;
+    private final long m_maxItemsPerFile;
+
+    private final Map<String, OpenFile> m_openFiles = new HashMap<>();
+    private final Map<String, Integer> m_nextPart = new HashMap<>();
+    private final List<ArchivedFile> m_archivedFiles = new ArrayList<>();
+    private final List<Path> m_createdFiles = new ArrayList<>();
+
+    /**
+     * Creates a new archiver for a scan segment.
+     * @param directory the directory to write the files to
+     * @param filePrefix the prefix of the file names, which should be unique for each run
+     * @param segment the segment the items are read from
+     * @param ttlAttribute the name of the attribute holding the expiry time in seconds since the epoch
+     * @param partitionByExpiryDate whether the files are put into one sub directory per expiry date
+     * @param maxItemsPerFile the number of items after which a new file is started
+     */
+    SegmentArchiver(final Path directory, final String filePrefix, final int segment, final String ttlAttribute,
+        final boolean partitionByExpiryDate, final long maxItemsPerFile) {
+        m_directory = directory;
+        m_filePrefix = filePrefix;
+        m_segment = segment;
+        m_ttlAttribute = ttlAttribute;
+        m_partitionByExpiryDate = partitionByExpiryDate;
+        m_maxItemsPerFile = maxItemsPerFile;
+    }
+
+    /**
+     * Appends items to the file of their partition.
+     * @param items the items to write
+     * @throws IOException if a file cannot be written
+     */
+    void write(final List<Map<String, AttributeValue>> items) throws IOException {
+        for (final Map<String, AttributeValue> item : items) {
+            final String partition = m_partitionByExpiryDate ? getPartition(item.get(m_ttlAttribute)) : "";
+            OpenFile file = m_openFiles.get(partition);
+            if (file == null) {
+                file = open(partition);
+                m_openFiles.put(partition, file);
+            }
+            final JsonGenerator g = file.m_generator;
+            g.writeStartObject();
+            g.writeFieldName(ITEM_FIELD);
+            writeItem(g, item);
+            g.writeEndObject();
+            g.writeRaw('\n');
+            if (++file.m_numItems >= m_maxItemsPerFile) {
+                m_openFiles.remove(partition);
+                finish(partition, file);
+            }
+        }
+    }
+
+    /**
+     * @return the files that were completely written, available after {@link #close()}
+     */
+    List<ArchivedFile> getArchivedFiles() {
+        return m_archivedFiles;
+    }
+
+    /**
+     * Closes all open files and deletes every file this archiver created. Used when the archival fails,
+     * so that no partial archive is left behind.
+     */
+    void abort() {
+        for (final OpenFile file : m_openFiles.values()) {
+            try {
+                file.m_generator.close();
+            } catch (final IOException e) {
+                // The file is deleted anyway
+            }
+        }
+        m_openFiles.clear();
+        m_archivedFiles.clear();
+        for (final Path p : m_createdFiles) {
+            try {
+                Files.deleteIfExists(p);
+            } catch (final IOException e) {
+                // Best effort, the node fails anyway
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final Entry<String, OpenFile> e : m_openFiles.entrySet()) {
+            finish(e.getKey(), e.getValue());
+        }
+        m_openFiles.clear();
+    }
+
+    private OpenFile open(final String partition) throws IOException {
+        final Path dir = partition.isEmpty() ? m_directory : m_directory.resolve(PARTITION_PREFIX + partition);
+        Files.createDirectories(dir);
+        final int part = m_nextPart.merge(partition, 1, Integer::sum) - 1;
+        final Path path = dir.resolve(
+            String.format("%s-segment-%05d-part-%05d.json.gz", m_filePrefix, m_segment, part));
+        // Never overwrite existing archives
+        final OutputStream out = new GZIPOutputStream(
+            Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), BUFFER_SIZE);
+        m_createdFiles.add(path);
+        final JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        // Items are separated by line breaks written after each item instead of the default space
+        generator.setRootValueSeparator(null);
+        return new OpenFile(path, generator);
+    }
+
+    private void finish(final String partition, final OpenFile file) throws IOException {
+        file.m_generator.close();
+        m_archivedFiles.add(new ArchivedFile(file.m_path, partition, m_segment, file.m_numItems));
+    }
+
+    private static String getPartition(final AttributeValue ttl) {
+        // The scan filter only returns items with a numeric expiry time
+        final long epochSeconds = new BigDecimal(ttl.n()).longValue();
+        return PARTITION_FORMAT.format(Instant.ofEpochSecond(epochSeconds));
+    }
+
+    private static void writeItem(final JsonGenerator g, final Map<String, AttributeValue> item) throws IOException {
+        g.writeStartObject();
+        for (final Entry<String, AttributeValue> e : item.entrySet()) {
+            g.writeFieldName(e.getKey());
+            writeValue(g, e.getValue());
+        }
+        g.writeEndObject();
+    }
+
+    private static void writeValue(final JsonGenerator g, final AttributeValue val) throws IOException {
+        g.writeStartObject();
+        if (DynamoDBUtil.isString(val)) {
+            g.writeStringField(DynamoDBUtil.STRING_TYPE, val.s());
+        } else if (DynamoDBUtil.isNumber(val)) {
+            // Numbers are kept as strings so no precision is lost
+            g.writeStringField(DynamoDBUtil.NUMBER_TYPE, val.n());
+        } else if (DynamoDBUtil.isBinary(val)) {
+            g.writeFieldName(DynamoDBUtil.BINARY_TYPE);
+            g.writeBinary(val.b().asByteArray());
+        } else if (DynamoDBUtil.isBoolean(val)) {
+            g.writeBooleanField(DynamoDBUtil.BOOLEAN_TYPE, val.bool());
+        } else if (DynamoDBUtil.isNul(val)) {
+            g.writeBooleanField(DynamoDBUtil.NULL_TYPE, true);
+        } else if (DynamoDBUtil.isStringSet(val)) {
+            g.writeArrayFieldStart(DynamoDBUtil.STRING_SET_TYPE);
+            for (final String s : val.ss()) {
+                g.writeString(s);
+            }
+            g.writeEndArray();
+        } else if (DynamoDBUtil.isNumberSet(val)) {
+            g.writeArrayFieldStart(DynamoDBUtil.NUMBER_SET_TYPE);
+            for (final String n : val.ns()) {
+                g.writeString(n);
+            }
+            g.writeEndArray();
+        } else if (DynamoDBUtil.isBinarySet(val)) {
+            g.writeArrayFieldStart(DynamoDBUtil.BINARY_SET_TYPE);
+            for (final SdkBytes b : val.bs()) {
+                g.writeBinary(b.asByteArray());
+            }
+            g.writeEndArray();
+        } else if (DynamoDBUtil.isList(val)) {
+            g.writeArrayFieldStart(DynamoDBUtil.LIST_TYPE);
+            for (final AttributeValue element : val.l()) {
+                writeValue(g, element);
+            }
+            g.writeEndArray();
+        } else if (DynamoDBUtil.isMap(val)) {
+            g.writeFieldName(DynamoDBUtil.MAP_TYPE);
+            writeItem(g, val.m());
+        }
+        g.writeEndObject();
+    }
+}
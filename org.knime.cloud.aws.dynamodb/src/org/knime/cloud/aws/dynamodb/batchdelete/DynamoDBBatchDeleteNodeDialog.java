@@ -54,13 +54,18 @@
 import java.util.List;
 
 import javax.swing.BorderFactory;
+import javax.swing.ButtonGroup;
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JRadioButton;
 import javax.swing.JSpinner;
+import javax.swing.JTextField;
 import javax.swing.SpinnerNumberModel;
 
+import org.knime.cloud.aws.dynamodb.batchdelete.DynamoDBBatchDeleteSettings.DeleteMode;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.cloud.aws.dynamodb.ui.DynamoDBPlaceholderPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBTablePanel;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEUtil;
@@ -70,6 +75,7 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.StringValue;
+import org.knime.core.data.blob.BinaryObjectDataValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeDialogPane;
 import org.knime.core.node.NodeSettingsRO;
@@ -97,12 +103,13 @@ final class DynamoDBBatchDeleteNodeDialog extends NodeDialogPane {
         @Override
         public boolean includeColumn(final DataColumnSpec colSpec) {
             return colSpec.getType().isCompatible(StringValue.class)
-                    || colSpec.getType().isCompatible(DoubleValue.class);
+                    || colSpec.getType().isCompatible(DoubleValue.class)
+                    || colSpec.getType().isCompatible(BinaryObjectDataValue.class);
         }
 
         @Override
         public String allFilteredMsg() {
-            return "No string or number column found";
+            return "No string, number or binary column found";
         }
     };
 
@@ -117,11 +124,21 @@ public String allFilteredMsg() {
     private final JCheckBox m_hashKeyBinary = new JCheckBox("as Base64 binary");
     private final JCheckBox m_rangeKeyBinary = new JCheckBox("as Base64 binary");
 
+    private final JRadioButton m_modeTable = new JRadioButton("Delete items with keys from the input table");
+    private final JRadioButton m_modeMatching = new JRadioButton("Delete items matching a scan or query");
+    private final JSpinner m_writeConcurrency = new JSpinner(new SpinnerNumberModel(4, 1, 64, 1));
+    private final JSpinner m_scanSegments = new JSpinner(new SpinnerNumberModel(4, 1, 1000, 1));
+    private final JTextField m_keyCondition = new JTextField();
+    private final JTextField m_filter = new JTextField();
+    private final DynamoDBPlaceholderPanel m_placeholders = new DynamoDBPlaceholderPanel();
+    private boolean m_hasInputTable;
+
     /**
      * Creates a new instance of the dialog.
      */
     DynamoDBBatchDeleteNodeDialog() {
         addTab("Standard Settings", createStdSettingsTab());
+        addTab("Matching Items", createMatchingItemsTab());
     }
 
     private JPanel createStdSettingsTab() {
@@ -137,6 +154,16 @@ private JPanel createStdSettingsTab() {
                 this::getTableNames);
         stdSettings.add(m_table, c);
 
+        final ButtonGroup modes = new ButtonGroup();
+        modes.add(m_modeTable);
+        modes.add(m_modeMatching);
+        m_modeTable.addActionListener(e -> updateEnabledState());
+        m_modeMatching.addActionListener(e -> updateEnabledState());
+        c.gridy++;
+        stdSettings.add(m_modeTable, c);
+        c.gridy++;
+        stdSettings.add(m_modeMatching, c);
+
         c.gridy++;
         stdSettings.add(createBatchWriteSettingsPanel(), c);
 
@@ -204,9 +231,70 @@ private JPanel createBatchWriteSettingsPanel() {
         c.weightx = 0;
         c.gridx++;
         panel.add(m_batchSize, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.weightx = 1;
+        panel.add(new JLabel("Concurrent batches"), c);
+
+        c.weightx = 0;
+        c.gridx++;
+        panel.add(m_writeConcurrency, c);
         return panel;
     }
 
+    private JPanel createMatchingItemsTab() {
+        final JPanel panel = new JPanel(new GridBagLayout());
+        final GridBagConstraints c = new GridBagConstraints();
+        c.anchor = GridBagConstraints.WEST;
+        c.insets = new Insets(2, 2, 2, 2);
+        c.gridx = 0;
+        c.gridy = 0;
+        c.weightx = 0;
+        panel.add(new JLabel("Key Condition"), c);
+        c.gridx++;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        panel.add(m_keyCondition, c);
+
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        c.gridx = 0;
+        c.gridy++;
+        panel.add(new JLabel("Filter"), c);
+        c.gridx++;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        panel.add(m_filter, c);
+
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        c.gridx = 0;
+        c.gridy++;
+        panel.add(new JLabel("Scan segments"), c);
+        c.gridx++;
+        panel.add(m_scanSegments, c);
+
+        c.gridy++;
+        c.gridx = 0;
+        c.fill = GridBagConstraints.BOTH;
+        c.gridwidth = 2;
+        c.weightx = 1;
+        panel.add(m_placeholders, c);
+        return panel;
+    }
+
+    private void updateEnabledState() {
+        final boolean fromTable = m_modeTable.isSelected();
+        m_hashColumn.setEnabled(fromTable);
+        m_rangeColumn.setEnabled(fromTable);
+        m_hashKeyBinary.setEnabled(fromTable && mayBeBinaryColumn(m_hashColumn.getSelectedColumnAsSpec()));
+        m_rangeKeyBinary.setEnabled(fromTable && mayBeBinaryColumn(m_rangeColumn.getSelectedColumnAsSpec()));
+        m_keyCondition.setEnabled(!fromTable);
+        m_filter.setEnabled(!fromTable);
+        m_scanSegments.setEnabled(!fromTable);
+    }
+
     private List<String> getTableNames() {
         try {
             return DynamoDBUtil.getTableNames(m_conCredentials, 20);
@@ -226,12 +314,22 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
         m_batchSize.setValue(m_settings.getBatchSize());
 
-        m_hashColumn.update((DataTableSpec)specs[1], m_settings.getKeyColumns().getHashKeyColumn());
-        m_rangeColumn.update((DataTableSpec)specs[1], m_settings.getKeyColumns().getRangeKeyColumn());
+        // The table is optional in the purge mode, so there may be no spec to select key columns from
+        m_hasInputTable = specs[1] != null;
+        final DataTableSpec inSpec = m_hasInputTable ? (DataTableSpec)specs[1] : new DataTableSpec();
+        m_hashColumn.update(inSpec, m_settings.getKeyColumns().getHashKeyColumn(), false, !m_hasInputTable);
+        m_rangeColumn.update(inSpec, m_settings.getKeyColumns().getRangeKeyColumn(), false, !m_hasInputTable);
         m_hashKeyBinary.setSelected(m_settings.getKeyColumns().isHashKeyBinary());
         m_rangeKeyBinary.setSelected(m_settings.getKeyColumns().isRangeKeyBinary());
-        m_hashKeyBinary.setEnabled(mayBeBinaryColumn(m_hashColumn.getSelectedColumnAsSpec()));
-        m_rangeKeyBinary.setEnabled(mayBeBinaryColumn(m_rangeColumn.getSelectedColumnAsSpec()));
+
+        m_writeConcurrency.setValue(m_settings.getWriteConcurrency());
+        m_scanSegments.setValue(m_settings.getScanSegments());
+        m_keyCondition.setText(m_settings.getKeyCondition());
+        m_filter.setText(m_settings.getFilterExpr());
+        m_placeholders.updateFromSettings(m_settings.getPlaceholderSettings());
+        m_modeTable.setSelected(m_settings.getDeleteMode() == DeleteMode.INPUT_TABLE);
+        m_modeMatching.setSelected(m_settings.getDeleteMode() == DeleteMode.MATCHING_ITEMS);
+        updateEnabledState();
 
         m_conCredentials = KNIMEUtil.getConnectionInformationInDialog(specs);
 
@@ -250,6 +348,16 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.getKeyColumns().setHashKeyBinary(m_hashKeyBinary.isSelected());
         m_settings.getKeyColumns().setRangeKeyBinary(m_rangeKeyBinary.isSelected());
 
+        m_settings.setDeleteMode(m_modeTable.isSelected() ? DeleteMode.INPUT_TABLE : DeleteMode.MATCHING_ITEMS);
+        if (m_settings.getDeleteMode() == DeleteMode.INPUT_TABLE && !m_hasInputTable) {
+            throw new InvalidSettingsException("Connect an input table to delete the items with keys from its columns.");
+        }
+        m_settings.setWriteConcurrency((int)m_writeConcurrency.getValue());
+        m_settings.setScanSegments((int)m_scanSegments.getValue());
+        m_settings.setKeyCondition(m_keyCondition.getText());
+        m_settings.setFilterExpr(m_filter.getText());
+        m_placeholders.saveToSettings(m_settings.getPlaceholderSettings());
+
         m_settings.saveSettings(settings);
     }
 
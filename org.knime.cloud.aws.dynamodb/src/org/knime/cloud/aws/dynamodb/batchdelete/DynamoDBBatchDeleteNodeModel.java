@@ -47,13 +47,19 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import org.knime.cloud.aws.dynamodb.BatchOperationResult;
+import org.knime.cloud.aws.dynamodb.BatchWriter;
 import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.ParallelScanner;
+import org.knime.cloud.aws.dynamodb.ValueMapping;
+import org.knime.cloud.aws.dynamodb.batchdelete.DynamoDBBatchDeleteSettings.DeleteMode;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
@@ -76,13 +82,15 @@
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
-import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
 import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 /**
@@ -93,6 +101,13 @@
 final class DynamoDBBatchDeleteNodeModel extends NodeModel {
 
     private static final String CAPACITY_UNITS_FLOW_VAR = "batchDeleteConsumedCapacity";
+    private static final String READ_CAPACITY_UNITS_FLOW_VAR = "batchDeleteConsumedReadCapacity";
+
+    // Prefix for the placeholders of the key attributes in the projection of the purge scan
+    private static final String KEY_NAME_PLACEHOLDER = "#__key";
+
+    /** Matches name and value placeholders such as #name or :value in an expression. */
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("[#:][A-Za-z0-9_]+");
 
     private final DynamoDBBatchDeleteSettings m_settings = new DynamoDBBatchDeleteSettings();
 
@@ -100,25 +115,53 @@ final class DynamoDBBatchDeleteNodeModel extends NodeModel {
      * Default Constructor.
      */
     DynamoDBBatchDeleteNodeModel() {
-        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE},
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE_OPTIONAL},
                 new PortType[] {AmazonConnectionInformationPortObject.TYPE});
     }
 
     @Override
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getDeleteMode() == DeleteMode.INPUT_TABLE && inSpecs[1] == null) {
+            throw new InvalidSettingsException("An input table with the keys of the items to delete is required.");
+        }
         return new PortObjectSpec[] {inSpecs[0]};
     }
 
     @Override
     protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
-        final BufferedDataTable table = (BufferedDataTable)inObjects[1];
-        final DataTableSpec inSpec = table.getDataTableSpec();
         final CloudConnectionInformation conInfo = inObjects[0] == null
                 ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
         final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
 
-        int nRetry = 0;
+        try (BatchWriter writer = new BatchWriter(ddb, m_settings.getTableName(), m_settings.getBatchSize(),
+                m_settings.getWriteConcurrency(), m_settings.publishConsumedCapUnits())) {
+            if (m_settings.getDeleteMode() == DeleteMode.INPUT_TABLE) {
+                deleteFromTable((BufferedDataTable)inObjects[1], writer, exec);
+            } else {
+                deleteMatching(ddb, writer, exec);
+            }
+            writer.flush(exec);
+            if (m_settings.publishConsumedCapUnits()) {
+                pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, writer.getConsumedCapacity());
+            }
+        } catch (final ProvisionedThroughputExceededException e) {
+            throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                    String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+        }
+
+        return new PortObject[] {inObjects[0]};
+    }
+
+    private void deleteFromTable(final BufferedDataTable table, final BatchWriter writer,
+            final ExecutionContext exec) throws Exception {
+        final DataTableSpec inSpec = table.getDataTableSpec();
         final int hashIndex = inSpec.findColumnIndex(m_settings.getKeyColumns().getHashKeyColumn());
+        if (hashIndex < 0) {
+            throw new InvalidSettingsException("The hash key column \""
+                    + m_settings.getKeyColumns().getHashKeyColumn() + "\" does not exist in the input table.");
+        }
         final DataColumnSpec hashCol = inSpec.getColumnSpec(hashIndex);
 
         int rangeIndex = -1;
@@ -128,8 +171,6 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
             rangeCol = inSpec.getColumnSpec(rangeIndex);
         }
 
-        final List<WriteRequest> batch = new ArrayList<>();
-        double consumedCap = 0.0;
         double count = 0.0;
         for (final DataRow row : table) {
             exec.checkCanceled();
@@ -151,77 +192,105 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 data.put(rangeCol.getName(), KNIMEToDynamoDBUtil.cellToKeyAttributeValue(
                         range, rangeCol, m_settings.getKeyColumns().isRangeKeyBinary()));
             }
-
-            final DeleteRequest req = DeleteRequest.builder().key(data).build();
-            batch.add(WriteRequest.builder().deleteRequest(req).build());
-            if (batch.size() == m_settings.getBatchSize()) {
-                BatchOperationResult res;
-                try {
-                    res = sendBatch(ddb, batch, nRetry);
-                } catch (final ProvisionedThroughputExceededException e) {
-                    throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
-                } catch (final ResourceNotFoundException e) {
-                    throw new InvalidSettingsException(
-                            String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
-                }
-                consumedCap += res.getConsumedCapacity();
-                if (res.getNumUnprocessed() > 0) {
-                    nRetry++;
-                }
-            }
+            writer.write(deleteRequest(data));
         }
-        // Handle last items in batch
-        while (!batch.isEmpty()) {
-            BatchOperationResult res;
-            try {
-                res = sendBatch(ddb, batch, nRetry);
-            } catch (final ProvisionedThroughputExceededException e) {
-                throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
-            } catch (final ResourceNotFoundException e) {
-                throw new InvalidSettingsException(
-                        String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
-            }
-            consumedCap += res.getConsumedCapacity();
-            if (res.getNumUnprocessed() > 0) {
-                nRetry++;
+    }
+
+    private static Set<String> findPlaceholders(final String... expressions) {
+        final Set<String> placeholders = new HashSet<>();
+        for (final String expr : expressions) {
+            final Matcher m = PLACEHOLDER_PATTERN.matcher(expr);
+            while (m.find()) {
+                placeholders.add(m.group());
             }
         }
+        return placeholders;
+    }
 
-        if (m_settings.publishConsumedCapUnits()) {
-            pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, consumedCap);
+    private void deleteMatching(final DynamoDbClient ddb, final BatchWriter writer,
+            final ExecutionContext exec) throws Exception {
+        // Only the key attributes are retrieved, everything else would just cost read capacity
+        final List<KeySchemaElement> keySchema = ddb.describeTable(
+                DescribeTableRequest.builder().tableName(m_settings.getTableName()).build()).table().keySchema();
+        // DynamoDB rejects placeholders the expressions do not use, so only the used ones are sent
+        final Set<String> used = findPlaceholders(m_settings.getFilterExpr(), m_settings.getKeyCondition());
+        final Map<String, String> names = new HashMap<>();
+        m_settings.getPlaceholderSettings().getNames().forEach((name, attr) -> {
+            if (used.contains(name)) {
+                names.put(name, attr);
+            }
+        });
+        final StringBuilder projection = new StringBuilder();
+        for (int i = 0; i < keySchema.size(); i++) {
+            final String placeholder = KEY_NAME_PLACEHOLDER + i;
+            names.put(placeholder, keySchema.get(i).attributeName());
+            projection.append(i == 0 ? "" : ", ").append(placeholder);
         }
 
-        return new PortObject[] {inObjects[0]};
-    }
-
-    private BatchOperationResult sendBatch(final DynamoDbClient ddb, final List<WriteRequest> batch, final int nRetry)
-            throws InterruptedException {
-        // if previously not all items could be deleted, we do exponential backoff
-        if (nRetry > 0) {
-            Thread.sleep((long)Math.pow(2, nRetry - 1) * 100);
+        final Map<String, AttributeValue> valueMap = new HashMap<>();
+        for (final ValueMapping vm : m_settings.getPlaceholderSettings().getValues()) {
+            if (used.contains(vm.getName())) {
+                valueMap.put(vm.getName(), vm.getAttributeValue());
+            }
         }
-        final Map<String, List<WriteRequest>> req = new HashMap<>();
-        req.put(m_settings.getTableName(), batch);
-        final BatchWriteItemResponse response = ddb.batchWriteItem(
-                BatchWriteItemRequest.builder()
-                .requestItems(req)
-                .returnConsumedCapacity(m_settings.publishConsumedCapUnits()
-                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE)
-                .build());
-        batch.clear();
+        final boolean hasFilter = m_settings.getFilterExpr().trim().length() > 0;
+        final ReturnConsumedCapacity rcc = m_settings.publishConsumedCapUnits()
+                ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE;
 
-        // If the batch size is too large, we add items them to the beginning of next batch
-        if (!response.unprocessedItems().isEmpty()) {
-            batch.addAll(response.unprocessedItems().get(m_settings.getTableName()));
+        double readCapacity = 0.0;
+        if (m_settings.getKeyCondition().trim().isEmpty()) {
+            final ScanRequest.Builder builder = ScanRequest.builder()
+                    .tableName(m_settings.getTableName())
+                    .projectionExpression(projection.toString())
+                    .expressionAttributeNames(names)
+                    .returnConsumedCapacity(rcc);
+            if (hasFilter) {
+                builder.filterExpression(m_settings.getFilterExpr());
+            }
+            if (!valueMap.isEmpty()) {
+                builder.expressionAttributeValues(valueMap);
+            }
+            final ParallelScanner scanner = new ParallelScanner(ddb, builder.build(), m_settings.getScanSegments());
+            scanner.scan((segment, items) -> {
+                for (final Map<String, AttributeValue> key : items) {
+                    writer.write(deleteRequest(key));
+                }
+            }, exec);
+            readCapacity = scanner.getConsumedCapacity();
+        } else {
+            final QueryRequest.Builder builder = QueryRequest.builder()
+                    .tableName(m_settings.getTableName())
+                    .keyConditionExpression(m_settings.getKeyCondition())
+                    .projectionExpression(projection.toString())
+                    .expressionAttributeNames(names)
+                    .returnConsumedCapacity(rcc);
+            if (hasFilter) {
+                builder.filterExpression(m_settings.getFilterExpr());
+            }
+            if (!valueMap.isEmpty()) {
+                builder.expressionAttributeValues(valueMap);
+            }
+            long count = 0;
+            for (final QueryResponse page : ddb.queryPaginator(builder.build())) {
+                if (page.consumedCapacity() != null) {
+                    readCapacity += page.consumedCapacity().capacityUnits();
+                }
+                for (final Map<String, AttributeValue> key : page.items()) {
+                    exec.checkCanceled();
+                    writer.write(deleteRequest(key));
+                }
+                count += page.count();
+                exec.setMessage(String.format("Found %d items to delete", count));
+            }
         }
 
-        double consumedCapacity = 0.0;
         if (m_settings.publishConsumedCapUnits()) {
-            consumedCapacity = response.consumedCapacity().stream().mapToDouble(ConsumedCapacity::capacityUnits).sum();
+            pushFlowVariableDouble(READ_CAPACITY_UNITS_FLOW_VAR, readCapacity);
         }
+    }
 
-        final int numUnprocessed = response.unprocessedItems().size();
-        return new BatchOperationResult(numUnprocessed, consumedCapacity);
+    private static WriteRequest deleteRequest(final Map<String, AttributeValue> key) {
+        return WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build();
     }
 
     /**
@@ -49,6 +49,7 @@
 package org.knime.cloud.aws.dynamodb.batchdelete;
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBKeyColumnsSettings;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBPlaceholderSettings;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBWriterSettings;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -60,13 +61,37 @@
  */
 final class DynamoDBBatchDeleteSettings extends DynamoDBWriterSettings {
 
+    /**
+     * Determines where the keys of the items to delete come from.
+     */
+    enum DeleteMode {
+        /** Keys are read from the columns of the input table. */
+        INPUT_TABLE,
+        /** Keys are retrieved by scanning or querying the table itself. */
+        MATCHING_ITEMS
+    }
+
     private static final String CFG_BATCH_SIZE = "batchSize";
+    private static final String CFG_DELETE_MODE = "deleteMode";
+    private static final String CFG_KEY_CONDITION = "keyCondition";
+    private static final String CFG_FILTER = "filter";
+    private static final String CFG_SCAN_SEGMENTS = "scanSegments";
+    private static final String CFG_WRITE_CONCURRENCY = "writeConcurrency";
     
     private static final int DEFAULT_BATCH_SIZE = 25;
+    private static final int DEFAULT_SCAN_SEGMENTS = 4;
+    private static final int DEFAULT_WRITE_CONCURRENCY = 4;
     
     private int m_batchSize = DEFAULT_BATCH_SIZE;
 
     private DynamoDBKeyColumnsSettings m_keyColumns = new DynamoDBKeyColumnsSettings();
+
+    private DeleteMode m_deleteMode = DeleteMode.INPUT_TABLE;
+    private String m_keyCondition = "";
+    private String m_filterExpr = "";
+    private DynamoDBPlaceholderSettings m_placeholderSettings = new DynamoDBPlaceholderSettings();
+    private int m_scanSegments = DEFAULT_SCAN_SEGMENTS;
+    private int m_writeConcurrency = DEFAULT_WRITE_CONCURRENCY;
     
     /**
      * @return settings indicating which columns are used as keys when deleting items
@@ -92,6 +117,91 @@ void setBatchSize(final int batchSize) {
         m_batchSize = batchSize;
     }
     
+    /**
+     * @return where the keys of the items to delete come from
+     */
+    DeleteMode getDeleteMode() {
+        return m_deleteMode;
+    }
+
+    /**
+     * @param deleteMode where the keys of the items to delete come from
+     */
+    void setDeleteMode(final DeleteMode deleteMode) {
+        m_deleteMode = deleteMode;
+    }
+
+    /**
+     * @return the key condition used to query for the items to delete,
+     * or empty if the whole table is scanned
+     */
+    String getKeyCondition() {
+        return m_keyCondition;
+    }
+
+    /**
+     * @param keyCondition the key condition used to query for the items to delete,
+     * or empty if the whole table is scanned
+     */
+    void setKeyCondition(final String keyCondition) {
+        m_keyCondition = keyCondition;
+    }
+
+    /**
+     * @return a filter expression items must match to be deleted, or empty to delete all scanned items
+     */
+    String getFilterExpr() {
+        return m_filterExpr;
+    }
+
+    /**
+     * @param filterExpr a filter expression items must match to be deleted, or empty to delete all scanned items
+     */
+    void setFilterExpr(final String filterExpr) {
+        m_filterExpr = filterExpr;
+    }
+
+    /**
+     * @return settings for placeholders in the key condition and filter expression
+     */
+    DynamoDBPlaceholderSettings getPlaceholderSettings() {
+        return m_placeholderSettings;
+    }
+
+    /**
+     * @return the number of segments the table is split into when it is scanned in parallel
+     */
+    int getScanSegments() {
+        return m_scanSegments;
+    }
+
+    /**
+     * @param scanSegments the number of segments the table is split into when it is scanned in parallel
+     */
+    void setScanSegments(final int scanSegments) {
+        if (scanSegments < 1) {
+            throw new IllegalArgumentException("The number of scan segments must be at least 1.");
+        }
+        m_scanSegments = scanSegments;
+    }
+
+    /**
+     * @return the number of batches sent to DynamoDB at the same time
+     */
+    int getWriteConcurrency() {
+        return m_writeConcurrency;
+    }
+
+    /**
+     * @param writeConcurrency the number of batches sent to DynamoDB at the same time
+     */
+    void setWriteConcurrency(final int writeConcurrency) {
+        if (writeConcurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent batches must be at least 1.");
+        }
+        m_writeConcurrency = writeConcurrency;
+    }
+
     /**
      * Saves this settings object to node settings.
      * @param settings the node settings to save to
@@ -101,6 +211,12 @@ public void saveSettings(final NodeSettingsWO settings) {
         super.saveSettings(settings);
         settings.addInt(CFG_BATCH_SIZE, m_batchSize);
         m_keyColumns.saveSettings(settings);
+        settings.addString(CFG_DELETE_MODE, m_deleteMode.toString());
+        settings.addString(CFG_KEY_CONDITION, m_keyCondition);
+        settings.addString(CFG_FILTER, m_filterExpr);
+        settings.addInt(CFG_SCAN_SEGMENTS, m_scanSegments);
+        settings.addInt(CFG_WRITE_CONCURRENCY, m_writeConcurrency);
+        m_placeholderSettings.saveSettings(settings);
     }
 
     /**
@@ -113,6 +229,24 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         super.loadSettings(settings);
         m_batchSize = settings.getInt(CFG_BATCH_SIZE);
         m_keyColumns.loadSettings(settings);
+        // Added later, workflows created before only delete keys from the input table, one batch at a time
+        try {
+            m_deleteMode = DeleteMode.valueOf(settings.getString(CFG_DELETE_MODE, DeleteMode.INPUT_TABLE.toString()));
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unknown delete mode: " + settings.getString(CFG_DELETE_MODE), e);
+        }
+        m_keyCondition = settings.getString(CFG_KEY_CONDITION, "");
+        m_filterExpr = settings.getString(CFG_FILTER, "");
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS);
+        m_writeConcurrency = settings.getInt(CFG_WRITE_CONCURRENCY, 1);
+        if (m_scanSegments < 1 || m_writeConcurrency < 1) {
+            throw new InvalidSettingsException("The number of scan segments and concurrent batches must be at least 1.");
+        }
+        if (settings.containsKey(CFG_DELETE_MODE)) {
+            m_placeholderSettings.loadSettings(settings);
+        } else {
+            m_placeholderSettings = new DynamoDBPlaceholderSettings();
+        }
     }
 
     /**
@@ -124,5 +258,15 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         super.loadSettingsForDialog(settings);
         m_batchSize = settings.getInt(CFG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
         m_keyColumns.loadSettingsForDialog(settings);
+        try {
+            m_deleteMode = DeleteMode.valueOf(settings.getString(CFG_DELETE_MODE, DeleteMode.INPUT_TABLE.toString()));
+        } catch (final IllegalArgumentException e) {
+            m_deleteMode = DeleteMode.INPUT_TABLE;
+        }
+        m_keyCondition = settings.getString(CFG_KEY_CONDITION, "");
+        m_filterExpr = settings.getString(CFG_FILTER, "");
+        m_scanSegments = Math.max(1, settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS));
+        m_writeConcurrency = Math.max(1, settings.getInt(CFG_WRITE_CONCURRENCY, DEFAULT_WRITE_CONCURRENCY));
+        m_placeholderSettings.loadSettingsForDialog(settings);
     }
 }
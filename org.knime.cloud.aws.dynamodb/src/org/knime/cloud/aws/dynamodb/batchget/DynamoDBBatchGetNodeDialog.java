@@ -53,6 +53,7 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 
@@ -70,6 +71,7 @@
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
 import org.knime.cloud.aws.dynamodb.ui.AddEmptyRowTableModelListener;
+import org.knime.cloud.aws.dynamodb.ui.DynamoDBAttributeSelectionPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBKeyColumnsPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBTablePanel;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
@@ -94,6 +96,9 @@
  */
 final class DynamoDBBatchGetNodeDialog extends NodeDialogPane {
 
+    /** Number of items looked at to find the attributes that can be picked for the projection. */
+    private static final int ATTRIBUTE_SAMPLE_SIZE = 100;
+
     private CloudConnectionInformation m_conCredentials = null;
 
     private final DynamoDBBatchGetSettings m_settings = new DynamoDBBatchGetSettings();
@@ -102,8 +107,11 @@ final class DynamoDBBatchGetNodeDialog extends NodeDialogPane {
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
     private final DynamoDBKeyColumnsPanel m_keys = new DynamoDBKeyColumnsPanel();
     private final JCheckBox m_consistentRead = new JCheckBox("Consistent Read");
+    private final JCheckBox m_binaryAsBinaryObject = new JCheckBox("Read binary attributes as binary objects");
 
     private final JTextField m_projection = new JTextField();
+    private final DynamoDBAttributeSelectionPanel m_attributes =
+            new DynamoDBAttributeSelectionPanel(this::sampleAttributeNames);
     private final DefaultTableModel m_namesTblModel = new DefaultTableModel(0, 2);
 
     /**
@@ -132,6 +140,11 @@ private JPanel createProjectionTab() {
 
         c.gridx = 0;
         c.gridy++;
+        c.gridwidth = 2;
+        panel.add(m_attributes, c);
+
+        c.gridy++;
+        c.gridwidth = 1;
         panel.add(new JLabel("Name Mapping"), c);
 
         c.gridy++;
@@ -217,9 +230,21 @@ private JPanel createReadSettingsPanel() {
         c.gridy++;
         panel.add(m_consistentRead, c);
 
+        c.gridy++;
+        panel.add(m_binaryAsBinaryObject, c);
+
         return panel;
     }
 
+    private Collection<String> sampleAttributeNames() throws Exception {
+        if (m_conCredentials == null) {
+            throw new InvalidSettingsException("The node must be connected to an Amazon Authentication node.");
+        }
+        final DynamoDBTableSettings table = new DynamoDBTableSettings();
+        m_table.saveToSettings(table);
+        return DynamoDBUtil.sampleAttributeNames(table, m_conCredentials, ATTRIBUTE_SAMPLE_SIZE);
+    }
+
     private List<String> getTableNames() {
         try {
             return DynamoDBUtil.getTableNames(m_conCredentials, 20);
@@ -239,10 +264,12 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_batchSize.setValue(m_settings.getBatchSize());
 
         m_consistentRead.setSelected(m_settings.isConsistentRead());
+        m_binaryAsBinaryObject.setSelected(m_settings.isBinaryAsBinaryObject());
 
         m_keys.updateFromSettings((DataTableSpec)specs[1], m_settings.getKeyColumns());
 
         m_projection.setText(m_settings.getProjectionExpression());
+        m_attributes.setAttributes(m_settings.getProjectedAttributes());
         m_namesTblModel.setRowCount(m_settings.getNames().isEmpty() ? 1 : 0);
         for (final Entry<String, String> e : m_settings.getNames().entrySet()) {
             if (m_namesTblModel.getRowCount() > 0) {
@@ -262,12 +289,14 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_table.saveToSettings(m_settings);
 
         m_settings.setConsistentRead(m_consistentRead.isSelected());
+        m_settings.setBinaryAsBinaryObject(m_binaryAsBinaryObject.isSelected());
         m_settings.setPublishConsumedCapUnits(m_flowVars.isSelected());
         m_settings.setBatchSize((int)m_batchSize.getValue());
 
         m_keys.saveToSettings(m_settings.getKeyColumns());
 
         m_settings.setProjectionExpression(m_projection.getText());
+        m_settings.setProjectedAttributes(m_attributes.getAttributes());
         m_settings.getNames().clear();
         for (int i = 0; i < m_namesTblModel.getRowCount(); i++) {
             final String name = (String)m_namesTblModel.getValueAt(i, 0);
@@ -66,6 +66,7 @@
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.blob.BinaryObjectCellFactory;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -130,6 +131,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final DataColumnSpec rangeCol = rangeIndex == -1 ? null : inSpec.getColumnSpec(rangeIndex);
 
         final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        final BinaryObjectCellFactory binaryFactory =
+                m_settings.isBinaryAsBinaryObject() ? new BinaryObjectCellFactory(exec) : null;
 
         final List<Map<String, AttributeValue>> batch = new ArrayList<>();
         double consumedCap = 0.0;
@@ -168,7 +171,7 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                             String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
                 }
                 // Get items and write them to the output
-                counter = addResponseItemsToContainer(response, dc, counter);
+                counter = addResponseItemsToContainer(response, dc, binaryFactory, counter);
                 // Handle unprocessed keys and other information
                 final BatchOperationResult res = handleResponse(response, batch);
                 consumedCap += res.getConsumedCapacity();
@@ -190,7 +193,7 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 throw new InvalidSettingsException(
                         String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
             }
-            counter = addResponseItemsToContainer(response, dc, counter);
+            counter = addResponseItemsToContainer(response, dc, binaryFactory, counter);
             // Handle unprocessed keys and other information
             final BatchOperationResult res = handleResponse(response, batch);
             consumedCap += res.getConsumedCapacity();
@@ -208,13 +211,13 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
     }
 
     private long addResponseItemsToContainer(final BatchGetItemResponse response,
-            final DynamicDataContainer dc, final long counter) {
+            final DynamicDataContainer dc, final BinaryObjectCellFactory binaryFactory, final long counter) {
         final List<Map<String, AttributeValue>> items = response.responses().get(m_settings.getTableName());
         long count = counter;
         for (final Map<String, AttributeValue> item : items) {
             final HashMap<String, DataCell> cells = new HashMap<>();
             for (final Entry<String, AttributeValue> e : item.entrySet()) {
-                cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()));
+                cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue(), binaryFactory));
             }
             dc.addRow(new RowKey(String.format("Row%d", count++)), cells);
         }
@@ -230,10 +233,13 @@ private BatchGetItemResponse sendRequest(final DynamoDbClient ddb, final List<Ma
         final Map<String, KeysAndAttributes> req = new HashMap<>();
         final Builder kaBuilder = KeysAndAttributes.builder().keys(batch)
         .consistentRead(m_settings.isConsistentRead());
-        if (!StringUtils.isBlank(m_settings.getProjectionExpression())) {
-            kaBuilder.projectionExpression(m_settings.getProjectionExpression());
-            if (!m_settings.getNames().isEmpty()) {
-                kaBuilder.expressionAttributeNames(m_settings.getNames());
+        final Map<String, String> names = new HashMap<>(m_settings.getNames());
+        final String projection = DynamoDBUtil.createProjectionExpression(
+            m_settings.getProjectionExpression(), m_settings.getProjectedAttributes(), names);
+        if (!StringUtils.isBlank(projection)) {
+            kaBuilder.projectionExpression(projection);
+            if (!names.isEmpty()) {
+                kaBuilder.expressionAttributeNames(names);
             }
         }
         req.put(m_settings.getTableName(), kaBuilder.build());
@@ -72,6 +72,8 @@ final class DynamoDBBatchGetSettings extends DynamoDBWriterSettings {
     private static final String CFG_CONSISTENT_READ = "consistentRead";
     private static final String CFG_NAMES = "names";
     private static final String CFG_PROJECTION = "projection";
+    private static final String CFG_PROJECTED_ATTRIBUTES = "projectedAttributes";
+    private static final String CFG_BINARY_AS_BINARY_OBJECT = "binaryAsBinaryObject";
     
     private static final int DEFAULT_BATCH_SIZE = 100;
     
@@ -81,6 +83,9 @@ final class DynamoDBBatchGetSettings extends DynamoDBWriterSettings {
     private Map<String, String> m_names = new LinkedHashMap<String, String>();
     private boolean m_consistentRead = false;
     private String m_projectionExpression = "";
+    private String[] m_projectedAttributes = new String[0];
+    // New nodes read binaries as binary objects, old nodes keep reading them as strings
+    private boolean m_binaryAsBinaryObject = true;
     
     /**
      * @return an expression determining which attributes to retrieve
@@ -96,6 +101,20 @@ void setProjectionExpression(final String projection) {
         m_projectionExpression = projection;
     }
     
+    /**
+     * @return names of attributes to retrieve in addition to the projection expression
+     */
+    String[] getProjectedAttributes() {
+        return m_projectedAttributes;
+    }
+
+    /**
+     * @param projectedAttributes names of attributes to retrieve in addition to the projection expression
+     */
+    void setProjectedAttributes(final String[] projectedAttributes) {
+        m_projectedAttributes = projectedAttributes;
+    }
+
     /**
      * @return whether the read item state should be consistent
      */
@@ -110,6 +129,21 @@ void setConsistentRead(final boolean consistentRead) {
         m_consistentRead = consistentRead;
     }
     
+    /**
+     * @return whether binary attributes are read as binary objects instead of being decoded to strings
+     */
+    boolean isBinaryAsBinaryObject() {
+        return m_binaryAsBinaryObject;
+    }
+
+    /**
+     * @param binaryAsBinaryObject whether binary attributes are read as binary objects
+     * instead of being decoded to strings
+     */
+    void setBinaryAsBinaryObject(final boolean binaryAsBinaryObject) {
+        m_binaryAsBinaryObject = binaryAsBinaryObject;
+    }
+    
     /**
      * @return settings indicating which columns are used as keys when deleting items
      */
@@ -161,6 +195,8 @@ public void saveSettings(final NodeSettingsWO settings) {
         settings.addBoolean(CFG_CONSISTENT_READ, m_consistentRead);
         m_keyColumns.saveSettings(settings);
         settings.addString(CFG_PROJECTION, m_projectionExpression);
+        settings.addStringArray(CFG_PROJECTED_ATTRIBUTES, m_projectedAttributes);
+        settings.addBoolean(CFG_BINARY_AS_BINARY_OBJECT, m_binaryAsBinaryObject);
         
         Config names = settings.addConfig(CFG_NAMES);
         for (Entry<String, String> name : m_names.entrySet()) {
@@ -180,6 +216,10 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ);
         m_keyColumns.loadSettings(settings);
         m_projectionExpression = settings.getString(CFG_PROJECTION);
+        // Added later, workflows created before only have the projection expression
+        m_projectedAttributes = settings.getStringArray(CFG_PROJECTED_ATTRIBUTES, new String[0]);
+        // Added later, workflows created before read binaries as strings
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT, false);
         
         m_names = new LinkedHashMap<String, String>();
         Config names = settings.getConfig(CFG_NAMES);
@@ -199,6 +239,8 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ, false);
         m_keyColumns.loadSettingsForDialog(settings);
         m_projectionExpression = settings.getString(CFG_PROJECTION, "");
+        m_projectedAttributes = settings.getStringArray(CFG_PROJECTED_ATTRIBUTES, new String[0]);
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT, false);
         
         m_names = new LinkedHashMap<String, String>();
         if (settings.containsKey(CFG_NAMES)) {
@@ -53,13 +53,17 @@
 import java.awt.Insets;
 import java.util.List;
 
+import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 
+import org.knime.cloud.aws.dynamodb.CapacityScaler;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.cloud.aws.dynamodb.ui.DynamoDBDryRunPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBTablePanel;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEUtil;
@@ -87,6 +91,14 @@ final class DynamoDBBatchPutNodeDialog extends NodeDialogPane {
     private DynamoDBTablePanel m_table;
     private final JSpinner m_batchSize = new JSpinner(new SpinnerNumberModel(25, 1, 25, 1));
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
+    // Same order as CapacityScaler.Mode
+    private final JComboBox<String> m_capacityScaling = new JComboBox<>(
+            new String[] {"Keep capacity", "Raise provisioned capacity", "Switch to on-demand"});
+    private final JSpinner m_scaledWriteCapacity = new JSpinner(new SpinnerNumberModel(
+            Long.valueOf(1000), Long.valueOf(1), Long.valueOf(Long.MAX_VALUE), Long.valueOf(100)));
+    private final JSpinner m_scaledReadCapacity = new JSpinner(new SpinnerNumberModel(
+            Long.valueOf(0), Long.valueOf(0), Long.valueOf(Long.MAX_VALUE), Long.valueOf(100)));
+    private final DynamoDBDryRunPanel m_dryRun = new DynamoDBDryRunPanel();
 
     /**
      * Creates a new instance of the dialog.
@@ -111,6 +123,12 @@ private JPanel createStdSettingsTab() {
         c.gridy++;
         stdSettings.add(createBatchWriteSettingsPanel(), c);
 
+        c.gridy++;
+        stdSettings.add(createCapacityPanel(), c);
+
+        c.gridy++;
+        stdSettings.add(m_dryRun, c);
+
         c.gridy++;
         stdSettings.add(m_flowVars, c);
 
@@ -133,6 +151,42 @@ private JPanel createBatchWriteSettingsPanel() {
         return panel;
     }
 
+    private JPanel createCapacityPanel() {
+        final JPanel panel = new JPanel(new GridBagLayout());
+        final GridBagConstraints c = new GridBagConstraints();
+        c.anchor = GridBagConstraints.WEST;
+        c.insets = new Insets(2, 2, 2, 2);
+        c.gridx = 0;
+        c.gridy = 0;
+        c.weightx = 1;
+
+        panel.add(new JLabel("During the load"), c);
+        c.gridx++;
+        panel.add(m_capacityScaling, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        panel.add(new JLabel("Write capacity units"), c);
+        c.gridx++;
+        panel.add(m_scaledWriteCapacity, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        panel.add(new JLabel("Read capacity units (0 = unchanged)"), c);
+        c.gridx++;
+        panel.add(m_scaledReadCapacity, c);
+
+        m_capacityScaling.addActionListener(e -> updateCapacityEnabled());
+        panel.setBorder(BorderFactory.createTitledBorder("Capacity"));
+        return panel;
+    }
+
+    private void updateCapacityEnabled() {
+        final boolean provisioned = m_capacityScaling.getSelectedIndex() == CapacityScaler.Mode.PROVISIONED.ordinal();
+        m_scaledWriteCapacity.setEnabled(provisioned);
+        m_scaledReadCapacity.setEnabled(provisioned);
+    }
+
     private List<String> getTableNames() {
         try {
             return DynamoDBUtil.getTableNames(m_conCredentials, 20);
@@ -150,6 +204,11 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
         m_batchSize.setValue(m_settings.getBatchSize());
+        m_capacityScaling.setSelectedIndex(m_settings.getCapacityScaling().ordinal());
+        m_scaledWriteCapacity.setValue(m_settings.getScaledWriteCapacity());
+        m_scaledReadCapacity.setValue(m_settings.getScaledReadCapacity());
+        updateCapacityEnabled();
+        m_dryRun.updateFromSettings(m_settings.getDryRunSettings());
 
         m_conCredentials = KNIMEUtil.getConnectionInformationInDialog(specs);
 
@@ -166,6 +225,10 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.setRegion(m_table.getRegion());
 
         m_settings.setBatchSize((int)m_batchSize.getValue());
+        m_settings.setCapacityScaling(CapacityScaler.Mode.values()[m_capacityScaling.getSelectedIndex()]);
+        m_settings.setScaledWriteCapacity((long)m_scaledWriteCapacity.getValue());
+        m_settings.setScaledReadCapacity((long)m_scaledReadCapacity.getValue());
+        m_dryRun.saveToSettings(m_settings.getDryRunSettings());
 
         m_settings.saveSettings(settings);
     }
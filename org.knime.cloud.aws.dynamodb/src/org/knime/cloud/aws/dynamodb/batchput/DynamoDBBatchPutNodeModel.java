@@ -57,7 +57,11 @@
 import java.util.function.Function;
 
 import org.knime.cloud.aws.dynamodb.BatchOperationResult;
+import org.knime.cloud.aws.dynamodb.CapacityEstimator;
+import org.knime.cloud.aws.dynamodb.CapacityScaler;
 import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.WriteStatistics;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBDryRunSettings;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
@@ -76,16 +80,28 @@
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.MergeOperator;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectInput;
+import org.knime.core.node.streamable.PortObjectOutput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
 import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 /**
@@ -96,9 +112,24 @@
 final class DynamoDBBatchPutNodeModel extends NodeModel {
 
     private static final String CAPACITY_UNITS_FLOW_VAR = "batchPutConsumedCapacity";
+    private static final String NUM_ITEMS_FLOW_VAR = "batchPutNumItems";
+    private static final String NUM_RETRIED_FLOW_VAR = "batchPutNumRetriedItems";
+    private static final String EST_CAPACITY_UNITS_FLOW_VAR = "batchPutEstimatedCapacityUnits";
+    private static final String EST_REQUESTS_FLOW_VAR = "batchPutEstimatedRequests";
+    private static final String EST_SIZE_FLOW_VAR = "batchPutEstimatedSizeBytes";
+    private static final String EST_DURATION_FLOW_VAR = "batchPutEstimatedDurationSeconds";
+
+    // Batches with unprocessed items in a row before the node fails, and the maximum wait between them
+    private static final int MAX_RETRIES = 20;
+    private static final long MAX_BACKOFF_MS = 10000;
 
     private final DynamoDBBatchPutSettings m_settings = new DynamoDBBatchPutSettings();
 
+    // The connection passed on by the streaming operator, set as output when the streaming execution finishes
+    private volatile PortObject m_connection;
+    // The estimate of a dry run in streaming execution, published when the streaming execution finishes
+    private volatile CapacityEstimator.Estimate m_estimate;
+
     /**
      * Default Constructor.
      */
@@ -115,70 +146,324 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
     @Override
     protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
         final BufferedDataTable table = (BufferedDataTable)inObjects[1];
-        final DataTableSpec inSpec = table.getDataTableSpec();
 
         final CloudConnectionInformation conInfo = inObjects[0] == null
                 ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
         final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
-        int nRetry = 0;
-        final Function<DataCell, AttributeValue>[] mappers = KNIMEToDynamoDBUtil.createMappers(inSpec);
-
-        final List<WriteRequest> batch = new ArrayList<>();
-        double consumedCap = 0.0;
-        double count = 0;
-        for (final DataRow row : table) {
-            exec.checkCanceled();
-            exec.setProgress(count++ / table.size());
-            final Map<String, AttributeValue> data = new HashMap<>();
-            for (int i = 0; i < inSpec.getNumColumns(); i++) {
-                data.put(inSpec.getColumnSpec(i).getName(), mappers[i].apply(row.getCell(i)));
+
+        if (m_settings.getDryRunSettings().isDryRun()) {
+            final ItemSampler sampler = new ItemSampler(table.getDataTableSpec());
+            for (final DataRow row : table) {
+                if (!sampler.needsMore()) {
+                    break;
+                }
+                exec.checkCanceled();
+                sampler.add(row);
+            }
+            publishEstimate(estimateWrite(ddb, sampler.getEstimator(), table.size()));
+            return new PortObject[] {inObjects[0]};
+        }
+
+        final CapacityScaler scaler = new CapacityScaler(ddb, m_settings.getTableName(),
+            m_settings.getCapacityScaling(), m_settings.getScaledWriteCapacity(), m_settings.getScaledReadCapacity());
+        final WriteStatistics statistics = new WriteStatistics();
+        try {
+            // Inside the try, so a raise that is canceled while waiting for the table is restored as well
+            raiseCapacity(scaler, exec);
+            final ItemPutter putter = new ItemPutter(ddb, table.getDataTableSpec(), statistics);
+            double count = 0;
+            for (final DataRow row : table) {
+                exec.checkCanceled();
+                exec.setProgress(count++ / table.size());
+                putter.put(row);
             }
-            batch.add(WriteRequest.builder().putRequest(PutRequest.builder().item(data).build()).build());
-            if (batch.size() == m_settings.getBatchSize()) {
-                BatchOperationResult res;
+            putter.flush(exec);
+        } finally {
+            restoreCapacity(scaler, exec);
+        }
+        publishStatistics(statistics);
+
+        return new PortObject[] {inObjects[0]};
+    }
+
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        // A dry run needs to see all rows to count them
+        if (m_settings.getDryRunSettings().isDryRun()) {
+            return new InputPortRole[] {
+                InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.NONDISTRIBUTED_STREAMABLE};
+        }
+        return new InputPortRole[] {InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.DISTRIBUTED_STREAMABLE};
+    }
+
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+            final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        // Raising the capacity in every partition would restore it while other partitions are still writing
+        final boolean scaleCapacity = partitionInfo.getPartitionCount() == 1;
+        if (!scaleCapacity && m_settings.getCapacityScaling() != CapacityScaler.Mode.NONE) {
+            setWarningMessage("The capacity is not changed in distributed execution.");
+        }
+        return new StreamableOperator() {
+
+            private final WriteStatistics m_statistics = new WriteStatistics();
+
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                    throws Exception {
+                final PortObject connection = ((PortObjectInput)inputs[0]).getPortObject();
+                final CloudConnectionInformation conInfo = connection == null
+                        ? null : ((AmazonConnectionInformationPortObject)connection).getConnectionInformation();
+                final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
+                final RowInput input = (RowInput)inputs[1];
+
+                if (m_settings.getDryRunSettings().isDryRun()) {
+                    final ItemSampler sampler = new ItemSampler(input.getDataTableSpec());
+                    long numRows = 0;
+                    DataRow row;
+                    while ((row = input.poll()) != null) {
+                        exec.checkCanceled();
+                        numRows++;
+                        if (sampler.needsMore()) {
+                            sampler.add(row);
+                        }
+                    }
+                    input.close();
+                    m_estimate = estimateWrite(ddb, sampler.getEstimator(), numRows);
+                    m_connection = connection;
+                    if (outputs[0] != null) {
+                        ((PortObjectOutput)outputs[0]).setPortObject(connection);
+                    }
+                    return;
+                }
+
+                final CapacityScaler scaler = new CapacityScaler(ddb, m_settings.getTableName(),
+                    scaleCapacity ? m_settings.getCapacityScaling() : CapacityScaler.Mode.NONE,
+                    m_settings.getScaledWriteCapacity(), m_settings.getScaledReadCapacity());
                 try {
-                    res = sendBatch(ddb, batch, nRetry);
-                } catch (final ProvisionedThroughputExceededException e) {
-                    throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
-                } catch (final ResourceNotFoundException e) {
-                    throw new InvalidSettingsException(
-                            String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+                    raiseCapacity(scaler, exec);
+                    final ItemPutter putter = new ItemPutter(ddb, input.getDataTableSpec(), m_statistics);
+                    DataRow row;
+                    while ((row = input.poll()) != null) {
+                        exec.checkCanceled();
+                        putter.put(row);
+                    }
+                    putter.flush(exec);
+                } finally {
+                    input.close();
+                    restoreCapacity(scaler, exec);
                 }
-                consumedCap += res.getConsumedCapacity();
-                if (res.getNumUnprocessed() > 0) {
-                    nRetry++;
+                m_connection = connection;
+                if (outputs[0] != null) {
+                    ((PortObjectOutput)outputs[0]).setPortObject(connection);
                 }
             }
+
+            @Override
+            public StreamableOperatorInternals saveInternals() {
+                return m_statistics.toInternals();
+            }
+        };
+    }
+
+    @Override
+    public StreamableOperatorInternals createInitialStreamableOperatorInternals() {
+        return new WriteStatistics().toInternals();
+    }
+
+    @Override
+    public MergeOperator createMergeOperator() {
+        return WriteStatistics.createMergeOperator();
+    }
+
+    @Override
+    public void finishStreamableExecution(final StreamableOperatorInternals internals, final ExecutionContext exec,
+            final PortOutput[] output) throws Exception {
+        if (m_estimate != null) {
+            publishEstimate(m_estimate);
+        } else {
+            publishStatistics(WriteStatistics.fromInternals(internals));
+        }
+        if (output != null && output[0] != null) {
+            ((PortObjectOutput)output[0]).setPortObject(m_connection);
         }
+    }
 
-        if (!batch.isEmpty()) {
-            BatchOperationResult res;
+    private void publishStatistics(final WriteStatistics statistics) {
+        pushFlowVariableInt(NUM_ITEMS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, statistics.getNumWritten()));
+        pushFlowVariableInt(NUM_RETRIED_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, statistics.getNumRetried()));
+        if (m_settings.publishConsumedCapUnits()) {
+            pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, statistics.getConsumedCapacity());
+        }
+    }
+
+    private CapacityEstimator.Estimate estimateWrite(final DynamoDbClient ddb, final CapacityEstimator estimator,
+            final long numItems) throws InvalidSettingsException {
+        final DynamoDBDryRunSettings dryRun = m_settings.getDryRunSettings();
+        double rate = dryRun.getCapacityRate();
+        if (rate == 0) {
+            final TableDescription table;
             try {
-                res = sendBatch(ddb, batch, nRetry);
-            } catch (final ProvisionedThroughputExceededException e) {
-                throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+                table = ddb.describeTable(DescribeTableRequest.builder().tableName(m_settings.getTableName()).build())
+                    .table();
             } catch (final ResourceNotFoundException e) {
                 throw new InvalidSettingsException(
                         String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
             }
-            consumedCap += res.getConsumedCapacity();
-            if (res.getNumUnprocessed() > 0) {
-                nRetry++;
+            rate = CapacityEstimator.getProvisionedRate(table.provisionedThroughput(), true);
+            // The capacity would be raised before writing
+            if (m_settings.getCapacityScaling() == CapacityScaler.Mode.PROVISIONED) {
+                rate = Math.max(rate, m_settings.getScaledWriteCapacity());
+            } else if (m_settings.getCapacityScaling() == CapacityScaler.Mode.ON_DEMAND) {
+                rate = 0;
             }
         }
+        return estimator.estimateWrite(numItems, m_settings.getBatchSize(), rate);
+    }
 
-        if (m_settings.publishConsumedCapUnits()) {
-            pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, consumedCap);
+    private void publishEstimate(final CapacityEstimator.Estimate estimate) {
+        pushFlowVariableDouble(EST_CAPACITY_UNITS_FLOW_VAR, estimate.getCapacityUnits());
+        pushFlowVariableInt(EST_REQUESTS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, estimate.getNumRequests()));
+        pushFlowVariableDouble(EST_SIZE_FLOW_VAR, estimate.getSize());
+        if (estimate.hasDuration()) {
+            pushFlowVariableDouble(EST_DURATION_FLOW_VAR, estimate.getDurationSeconds());
+        } else {
+            setWarningMessage("The duration can only be estimated for tables with provisioned capacity. "
+                + "Set the capacity units per second to estimate it for on-demand tables.");
         }
+    }
 
-        return new PortObject[] {inObjects[0]};
+    private void raiseCapacity(final CapacityScaler scaler, final ExecutionMonitor exec)
+            throws InvalidSettingsException, CanceledExecutionException, InterruptedException {
+        final String warning;
+        try {
+            warning = scaler.raise(exec);
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                    String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+        }
+        if (warning != null) {
+            setWarningMessage(warning);
+        }
+    }
+
+    /**
+     * Restores the capacity even if writing failed. Problems only cause a warning, so that they do not hide
+     * the result or the exception of writing the items.
+     */
+    private void restoreCapacity(final CapacityScaler scaler, final ExecutionMonitor exec) {
+        String warning;
+        try {
+            warning = scaler.restore(exec);
+        } catch (final Exception e) {
+            warning = String.format("The capacity of table \"%s\" could not be restored, please reduce it "
+                + "manually: %s", m_settings.getTableName(), e.getMessage());
+        }
+        if (warning != null) {
+            setWarningMessage(warning);
+        }
+    }
+
+    /**
+     * Converts rows into items and adds them to a capacity estimate until the sample is complete.
+     */
+    private final class ItemSampler {
+
+        private final DataTableSpec m_spec;
+        private final Function<DataCell, AttributeValue>[] m_mappers;
+        private final CapacityEstimator m_estimator = new CapacityEstimator();
+
+        ItemSampler(final DataTableSpec spec) throws InvalidSettingsException {
+            m_spec = spec;
+            m_mappers = KNIMEToDynamoDBUtil.createMappers(spec);
+        }
+
+        boolean needsMore() {
+            return m_estimator.getNumSampled() < m_settings.getDryRunSettings().getSampleSize();
+        }
+
+        void add(final DataRow row) {
+            m_estimator.add(toItem(m_spec, m_mappers, row));
+        }
+
+        CapacityEstimator getEstimator() {
+            return m_estimator;
+        }
+    }
+
+    private static Map<String, AttributeValue> toItem(final DataTableSpec spec,
+            final Function<DataCell, AttributeValue>[] mappers, final DataRow row) {
+        final Map<String, AttributeValue> data = new HashMap<>();
+        for (int i = 0; i < spec.getNumColumns(); i++) {
+            data.put(spec.getColumnSpec(i).getName(), mappers[i].apply(row.getCell(i)));
+        }
+        return data;
+    }
+
+    /**
+     * Converts rows into put requests and sends them in batches. Used by the normal and the streaming execution.
+     */
+    private final class ItemPutter {
+
+        private final DynamoDbClient m_ddb;
+        private final DataTableSpec m_spec;
+        private final Function<DataCell, AttributeValue>[] m_mappers;
+        private final WriteStatistics m_statistics;
+        private final List<WriteRequest> m_batch = new ArrayList<>();
+        private int m_nRetry = 0;
+
+        ItemPutter(final DynamoDbClient ddb, final DataTableSpec spec, final WriteStatistics statistics)
+                throws InvalidSettingsException {
+            m_ddb = ddb;
+            m_spec = spec;
+            m_mappers = KNIMEToDynamoDBUtil.createMappers(spec);
+            m_statistics = statistics;
+        }
+
+        void put(final DataRow row) throws InvalidSettingsException, InterruptedException {
+            final Map<String, AttributeValue> data = toItem(m_spec, m_mappers, row);
+            m_batch.add(WriteRequest.builder().putRequest(PutRequest.builder().item(data).build()).build());
+            if (m_batch.size() == m_settings.getBatchSize()) {
+                send();
+            }
+        }
+
+        void flush(final ExecutionMonitor exec)
+                throws InvalidSettingsException, InterruptedException, CanceledExecutionException {
+            // Items not processed in the last batch are sent again until none are left
+            while (!m_batch.isEmpty()) {
+                exec.checkCanceled();
+                send();
+            }
+        }
+
+        private void send() throws InvalidSettingsException, InterruptedException {
+            final int size = m_batch.size();
+            final BatchOperationResult res;
+            try {
+                res = sendBatch(m_ddb, m_batch, m_nRetry);
+            } catch (final ProvisionedThroughputExceededException e) {
+                throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+            } catch (final ResourceNotFoundException e) {
+                throw new InvalidSettingsException(
+                        String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+            }
+            // Unprocessed items are left in the batch
+            m_statistics.add(res.getConsumedCapacity(), size - m_batch.size(), m_batch.size());
+            if (res.getNumUnprocessed() == 0) {
+                m_nRetry = 0;
+            } else if (++m_nRetry > MAX_RETRIES) {
+                throw new InvalidSettingsException(String.format("%s %d items were still not processed after %d "
+                    + "retries.", NodeConstants.THROUGHPUT_ERROR, m_batch.size(), MAX_RETRIES));
+            }
+        }
     }
 
     private BatchOperationResult sendBatch(final DynamoDbClient ddb, final List<WriteRequest> batch, final int nRetry)
             throws InterruptedException {
         // if previously not all items could be written, we do exponential backoff
         if (nRetry > 0) {
-            Thread.sleep((long)Math.pow(2, nRetry - 1) * 100);
+            Thread.sleep(Math.min(MAX_BACKOFF_MS, (long)Math.pow(2, nRetry - 1) * 100));
         }
         final Map<String, List<WriteRequest>> req = new HashMap<>();
         req.put(m_settings.getTableName(), batch);
@@ -250,5 +535,7 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
      */
     @Override
     protected void reset() {
+        m_connection = null;
+        m_estimate = null;
     }
 }
@@ -48,6 +48,8 @@
  */
 package org.knime.cloud.aws.dynamodb.batchput;
 
+import org.knime.cloud.aws.dynamodb.CapacityScaler;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBDryRunSettings;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBWriterSettings;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -62,9 +64,18 @@ final class DynamoDBBatchPutSettings extends DynamoDBWriterSettings {
     private static final int MAX_BATCH_SIZE = 25;
     private static final int DEFAULT_BATCH_SIZE = 25;
 
+    private static final long DEFAULT_SCALED_WRITE_CAPACITY = 1000;
+
     private static final String CFG_BATCH_SIZE = "batchSize";
+    private static final String CFG_CAPACITY_SCALING = "capacityScaling";
+    private static final String CFG_SCALED_WRITE_CAPACITY = "scaledWriteCapacity";
+    private static final String CFG_SCALED_READ_CAPACITY = "scaledReadCapacity";
     
     private int m_batchSize = DEFAULT_BATCH_SIZE;
+    private CapacityScaler.Mode m_capacityScaling = CapacityScaler.Mode.NONE;
+    private long m_scaledWriteCapacity = DEFAULT_SCALED_WRITE_CAPACITY;
+    private long m_scaledReadCapacity = 0;
+    private final DynamoDBDryRunSettings m_dryRunSettings = new DynamoDBDryRunSettings();
     
     /**
      * @return the number of rows to be sent to DynamoDB in one batch. Maximum is 25.
@@ -82,7 +93,59 @@ void setBatchSize(final int batchSize) {
         }
         m_batchSize = batchSize;
     }
-    
+
+    /**
+     * @return how the capacity of a provisioned table is raised while the items are written
+     */
+    CapacityScaler.Mode getCapacityScaling() {
+        return m_capacityScaling;
+    }
+
+    /**
+     * @param capacityScaling how the capacity of a provisioned table is raised while the items are written
+     */
+    void setCapacityScaling(final CapacityScaler.Mode capacityScaling) {
+        m_capacityScaling = capacityScaling;
+    }
+
+    /**
+     * @return the write capacity units the table and its indexes are raised to while the items are written
+     */
+    long getScaledWriteCapacity() {
+        return m_scaledWriteCapacity;
+    }
+
+    /**
+     * @param scaledWriteCapacity the write capacity units the table and its indexes are raised to
+     * while the items are written
+     */
+    void setScaledWriteCapacity(final long scaledWriteCapacity) {
+        m_scaledWriteCapacity = scaledWriteCapacity;
+    }
+
+    /**
+     * @return the read capacity units the table and its indexes are raised to while the items are written,
+     * 0 to keep the read capacity
+     */
+    long getScaledReadCapacity() {
+        return m_scaledReadCapacity;
+    }
+
+    /**
+     * @param scaledReadCapacity the read capacity units the table and its indexes are raised to
+     * while the items are written, 0 to keep the read capacity
+     */
+    void setScaledReadCapacity(final long scaledReadCapacity) {
+        m_scaledReadCapacity = scaledReadCapacity;
+    }
+
+    /**
+     * @return settings for estimating the consumed capacity instead of writing the items
+     */
+    DynamoDBDryRunSettings getDryRunSettings() {
+        return m_dryRunSettings;
+    }
+
     /**
      * Saves this settings object to node settings.
      * @param settings the node settings to save to
@@ -91,6 +154,10 @@ void setBatchSize(final int batchSize) {
     public void saveSettings(final NodeSettingsWO settings) {
         super.saveSettings(settings);
         settings.addInt(CFG_BATCH_SIZE, m_batchSize);
+        settings.addString(CFG_CAPACITY_SCALING, m_capacityScaling.name());
+        settings.addLong(CFG_SCALED_WRITE_CAPACITY, m_scaledWriteCapacity);
+        settings.addLong(CFG_SCALED_READ_CAPACITY, m_scaledReadCapacity);
+        m_dryRunSettings.saveSettings(settings);
     }
 
     /**
@@ -102,6 +169,20 @@ public void saveSettings(final NodeSettingsWO settings) {
     public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
         super.loadSettings(settings);
         m_batchSize = settings.getInt(CFG_BATCH_SIZE);
+        // Added later, older nodes do not change the capacity
+        try {
+            m_capacityScaling = CapacityScaler.Mode.valueOf(
+                settings.getString(CFG_CAPACITY_SCALING, CapacityScaler.Mode.NONE.name()));
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unknown capacity scaling mode.", e);
+        }
+        m_scaledWriteCapacity = settings.getLong(CFG_SCALED_WRITE_CAPACITY, DEFAULT_SCALED_WRITE_CAPACITY);
+        m_scaledReadCapacity = settings.getLong(CFG_SCALED_READ_CAPACITY, 0);
+        if (m_scaledWriteCapacity < 1 || m_scaledReadCapacity < 0) {
+            throw new InvalidSettingsException("The raised write capacity must be at least 1 and the read capacity "
+                + "must not be negative.");
+        }
+        m_dryRunSettings.loadSettings(settings);
     }
 
     /**
@@ -112,5 +193,14 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
     public void loadSettingsForDialog(final NodeSettingsRO settings) {
         super.loadSettingsForDialog(settings);
         m_batchSize = settings.getInt(CFG_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        try {
+            m_capacityScaling = CapacityScaler.Mode.valueOf(
+                settings.getString(CFG_CAPACITY_SCALING, CapacityScaler.Mode.NONE.name()));
+        } catch (final IllegalArgumentException e) {
+            m_capacityScaling = CapacityScaler.Mode.NONE;
+        }
+        m_scaledWriteCapacity = settings.getLong(CFG_SCALED_WRITE_CAPACITY, DEFAULT_SCALED_WRITE_CAPACITY);
+        m_scaledReadCapacity = settings.getLong(CFG_SCALED_READ_CAPACITY, 0);
+        m_dryRunSettings.loadSettingsForDialog(settings);
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.copytable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.knime.cloud.aws.dynamodb.BatchWriter;
+import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.ParallelScanner;
+import org.knime.cloud.aws.dynamodb.RateLimiter;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * The {@code NodeModel} for the DynamoDB Copy Table node.
+ * Items are passed from the source to the target table as they are, without converting them to KNIME cells.
+ *
+ * @author agent
+ */
+final class DynamoDBCopyTableNodeModel extends NodeModel {
+
+    private static final String READ_CAPACITY_UNITS_FLOW_VAR = "copyTableConsumedReadCapacity";
+    private static final String WRITE_CAPACITY_UNITS_FLOW_VAR = "copyTableConsumedWriteCapacity";
+    private static final String NUM_ITEMS_FLOW_VAR = "copyTableNumItems";
+
+    private final DynamoDBCopyTableSettings m_settings = new DynamoDBCopyTableSettings();
+
+    /**
+     * Default Constructor.
+     */
+    DynamoDBCopyTableNodeModel() {
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE},
+                new PortType[] {AmazonConnectionInformationPortObject.TYPE});
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getTableName().trim().isEmpty() || m_settings.getTarget().getTableName().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify a source and a target table.");
+        }
+        return new PortObjectSpec[] {inSpecs[0]};
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final CloudConnectionInformation conInfo = inObjects[0] == null
+                ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
+        final DynamoDbClient source = DynamoDBUtil.createClient(m_settings, conInfo);
+
+        final DynamoDBTableSettings target = m_settings.getTarget();
+        final Region sourceRegion = Region.of(conInfo.getHost());
+        final boolean sameDatabase = target.getRegion().equals(sourceRegion)
+                && target.getEndpoint().trim().equals(m_settings.getEndpoint().trim());
+        if (sameDatabase && target.getTableName().equals(m_settings.getTableName())) {
+            throw new InvalidSettingsException("The source and target table must not be the same.");
+        }
+        final DynamoDbClient targetClient = sameDatabase
+                ? source : DynamoDBUtil.createClient(conInfo, target.getEndpoint(), target.getRegion());
+
+        final RateLimiter readLimiter = m_settings.getReadCapacityLimit() > 0
+                ? new RateLimiter(m_settings.getReadCapacityLimit()) : null;
+        final RateLimiter writeLimiter = m_settings.getWriteCapacityLimit() > 0
+                ? new RateLimiter(m_settings.getWriteCapacityLimit()) : null;
+
+        // Limiting the rate requires the consumed capacity of each request
+        final ScanRequest request = ScanRequest.builder()
+                .tableName(m_settings.getTableName())
+                .consistentRead(m_settings.isConsistentRead())
+                .returnConsumedCapacity(m_settings.publishConsumedCapUnits() || readLimiter != null
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE)
+                .build();
+        final ParallelScanner scanner = new ParallelScanner(source, request, m_settings.getScanSegments());
+        scanner.setRateLimiter(readLimiter);
+
+        try (BatchWriter writer = new BatchWriter(targetClient, target.getTableName(), m_settings.getBatchSize(),
+                m_settings.getWriteConcurrency(), m_settings.publishConsumedCapUnits() || writeLimiter != null)) {
+            writer.setRateLimiter(writeLimiter);
+            scanner.scan((segment, items) -> {
+                for (final Map<String, AttributeValue> item : items) {
+                    writer.write(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+                }
+            }, exec);
+            writer.flush(exec);
+
+            pushFlowVariableInt(NUM_ITEMS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, writer.getNumWritten()));
+            if (m_settings.publishConsumedCapUnits()) {
+                pushFlowVariableDouble(READ_CAPACITY_UNITS_FLOW_VAR, scanner.getConsumedCapacity());
+                pushFlowVariableDouble(WRITE_CAPACITY_UNITS_FLOW_VAR, writer.getConsumedCapacity());
+            }
+        } catch (final ProvisionedThroughputExceededException e) {
+            throw new InvalidSettingsException(NodeConstants.THROUGHPUT_ERROR, e);
+        } catch (final ResourceNotFoundException e) {
+            // The exception does not tell which of the tables is missing
+            throw new InvalidSettingsException(String.format(NodeConstants.TABLE_MISSING_ERROR,
+                m_settings.getTableName() + "\" or \"" + target.getTableName()), e);
+        } finally {
+            if (targetClient != source) {
+                targetClient.close();
+            }
+        }
+
+        return new PortObject[] {inObjects[0]};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final DynamoDBCopyTableSettings s = new DynamoDBCopyTableSettings();
+        s.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.copytable;
+
+import org.knime.cloud.aws.dynamodb.BatchWriter;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBWriterSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for the DynamoDB Copy Table node. The inherited table settings describe the source table.
+ * @author agent
+ *
+ */
+final class DynamoDBCopyTableSettings extends DynamoDBWriterSettings {
+
+    /**
+     * Config key for the settings of the target table.
+     */
+    static final String CFG_TARGET = "target";
+
+    private static final String CFG_BATCH_SIZE = "batchSize";
+    private static final String CFG_SCAN_SEGMENTS = "scanSegments";
+    private static final String CFG_WRITE_CONCURRENCY = "writeConcurrency";
+    private static final String CFG_CONSISTENT_READ = "consistentRead";
+    private static final String CFG_READ_CAPACITY_LIMIT = "readCapacityLimit";
+    private static final String CFG_WRITE_CAPACITY_LIMIT = "writeCapacityLimit";
+
+    private static final int DEFAULT_SCAN_SEGMENTS = 4;
+    private static final int DEFAULT_WRITE_CONCURRENCY = 4;
+    private static final double UNLIMITED = 0;
+
+    private DynamoDBTableSettings m_target = new DynamoDBTableSettings();
+    private int m_batchSize = BatchWriter.MAX_BATCH_SIZE;
+    private int m_scanSegments = DEFAULT_SCAN_SEGMENTS;
+    private int m_writeConcurrency = DEFAULT_WRITE_CONCURRENCY;
+    private boolean m_consistentRead = false;
+    private double m_readCapacityLimit = UNLIMITED;
+    private double m_writeCapacityLimit = UNLIMITED;
+
+    /**
+     * @return the settings of the table the items are copied to
+     */
+    DynamoDBTableSettings getTarget() {
+        return m_target;
+    }
+
+    /**
+     * @return the number of items written in one batch. Maximum is 25.
+     */
+    int getBatchSize() {
+        return m_batchSize;
+    }
+
+    /**
+     * @param batchSize the number of items written in one batch. Maximum is 25.
+     */
+    void setBatchSize(final int batchSize) {
+        if (batchSize < 1 || batchSize > BatchWriter.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The batch size must be between 1 and 25.");
+        }
+        m_batchSize = batchSize;
+    }
+
+    /**
+     * @return the number of segments the source table is split into for scanning it in parallel
+     */
+    int getScanSegments() {
+        return m_scanSegments;
+    }
+
+    /**
+     * @param scanSegments the number of segments the source table is split into for scanning it in parallel
+     */
+    void setScanSegments(final int scanSegments) {
+        m_scanSegments = scanSegments;
+    }
+
+    /**
+     * @return the number of batches written to the target table at the same time
+     */
+    int getWriteConcurrency() {
+        return m_writeConcurrency;
+    }
+
+    /**
+     * @param writeConcurrency the number of batches written to the target table at the same time
+     */
+    void setWriteConcurrency(final int writeConcurrency) {
+        m_writeConcurrency = writeConcurrency;
+    }
+
+    /**
+     * @return whether the source table is read with strongly consistent reads (more expensive)
+     */
+    boolean isConsistentRead() {
+        return m_consistentRead;
+    }
+
+    /**
+     * @param consistentRead whether the source table is read with strongly consistent reads (more expensive)
+     */
+    void setConsistentRead(final boolean consistentRead) {
+        m_consistentRead = consistentRead;
+    }
+
+    /**
+     * @return the maximum read capacity units consumed per second on the source table, 0 for no limit
+     */
+    double getReadCapacityLimit() {
+        return m_readCapacityLimit;
+    }
+
+    /**
+     * @param readCapacityLimit the maximum read capacity units consumed per second on the source table,
+     * 0 for no limit
+     */
+    void setReadCapacityLimit(final double readCapacityLimit) {
+        m_readCapacityLimit = readCapacityLimit;
+    }
+
+    /**
+     * @return the maximum write capacity units consumed per second on the target table, 0 for no limit
+     */
+    double getWriteCapacityLimit() {
+        return m_writeCapacityLimit;
+    }
+
+    /**
+     * @param writeCapacityLimit the maximum write capacity units consumed per second on the target table,
+     * 0 for no limit
+     */
+    void setWriteCapacityLimit(final double writeCapacityLimit) {
+        m_writeCapacityLimit = writeCapacityLimit;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        m_target.saveSettings(settings.addNodeSettings(CFG_TARGET));
+        settings.addInt(CFG_BATCH_SIZE, m_batchSize);
+        settings.addInt(CFG_SCAN_SEGMENTS, m_scanSegments);
+        settings.addInt(CFG_WRITE_CONCURRENCY, m_writeConcurrency);
+        settings.addBoolean(CFG_CONSISTENT_READ, m_consistentRead);
+        settings.addDouble(CFG_READ_CAPACITY_LIMIT, m_readCapacityLimit);
+        settings.addDouble(CFG_WRITE_CAPACITY_LIMIT, m_writeCapacityLimit);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_target.loadSettings(settings.getNodeSettings(CFG_TARGET));
+        m_batchSize = settings.getInt(CFG_BATCH_SIZE);
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS);
+        m_writeConcurrency = settings.getInt(CFG_WRITE_CONCURRENCY);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT);
+        m_writeCapacityLimit = settings.getDouble(CFG_WRITE_CAPACITY_LIMIT);
+        if (m_batchSize < 1 || m_batchSize > BatchWriter.MAX_BATCH_SIZE) {
+            throw new InvalidSettingsException("The batch size must be between 1 and 25.");
+        }
+        if (m_scanSegments < 1 || m_writeConcurrency < 1) {
+            throw new InvalidSettingsException("The number of scan segments and concurrent batches must be at least 1.");
+        }
+        if (m_readCapacityLimit < 0 || m_writeCapacityLimit < 0) {
+            throw new InvalidSettingsException("Capacity limits must not be negative.");
+        }
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_target = new DynamoDBTableSettings();
+        try {
+            m_target.loadSettingsForDialog(settings.getNodeSettings(CFG_TARGET));
+        } catch (final InvalidSettingsException e) {
+            // Node was not configured yet, keep the defaults
+        }
+        m_batchSize = settings.getInt(CFG_BATCH_SIZE, BatchWriter.MAX_BATCH_SIZE);
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS);
+        m_writeConcurrency = settings.getInt(CFG_WRITE_CONCURRENCY, DEFAULT_WRITE_CONCURRENCY);
+        m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ, false);
+        m_readCapacityLimit = settings.getDouble(CFG_READ_CAPACITY_LIMIT, UNLIMITED);
+        m_writeCapacityLimit = settings.getDouble(CFG_WRITE_CAPACITY_LIMIT, UNLIMITED);
+    }
+}
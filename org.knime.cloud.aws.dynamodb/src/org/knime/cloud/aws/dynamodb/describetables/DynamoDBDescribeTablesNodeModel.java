@@ -0,0 +1,378 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.describetables;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.dynamodb.utils.TableDescriptionUtil;
+import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.DataContainer;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.json.JSONCell;
+import org.knime.core.data.json.JSONCellFactory;
+import org.knime.core.data.time.zoneddatetime.ZonedDateTimeCellFactory;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.util.JsonUtil;
+
+import jakarta.json.JsonObjectBuilder;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ContinuousBackupsDescription;
+import software.amazon.awssdk.services.dynamodb.model.DescribeContinuousBackupsRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTimeToLiveRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
+import software.amazon.awssdk.services.dynamodb.model.ListTagsOfResourceRequest;
+import software.amazon.awssdk.services.dynamodb.model.ListTagsOfResourceResponse;
+import software.amazon.awssdk.services.dynamodb.model.LocalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.PointInTimeRecoveryDescription;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.Tag;
+import software.amazon.awssdk.services.dynamodb.model.TimeToLiveDescription;
+
+/**
+ * The {@code NodeModel} for the DynamoDB Describe Tables node.
+ * Lists all tables of the account and region and describes them concurrently using a bounded thread pool.
+ *
+ * @author agent
+ */
+final class DynamoDBDescribeTablesNodeModel extends NodeModel {
+
+    private final DynamoDBDescribeTablesSettings m_settings = new DynamoDBDescribeTablesSettings();
+
+    /**
+     * Default Constructor.
+     */
+    DynamoDBDescribeTablesNodeModel() {
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE},
+                new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE,
+                        BufferedDataTable.TYPE});
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        return new PortObjectSpec[] {inSpecs[0], createTableInfoSpec(), createIndexInfoSpec()};
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+
+        final CloudConnectionInformation con = inObjects[0] == null
+                ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
+
+        final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, con);
+
+        exec.setMessage("Listing tables");
+        final List<String> tableNames = new ArrayList<>();
+        for (final ListTablesResponse response : ddb.listTablesPaginator(ListTablesRequest.builder().build())) {
+            exec.checkCanceled();
+            tableNames.addAll(response.tableNames());
+        }
+
+        final DataContainer tableInfoContainer = exec.createDataContainer(createTableInfoSpec());
+        final DataContainer indexInfoContainer = exec.createDataContainer(createIndexInfoSpec());
+
+        // The client is thread safe, so all workers share it
+        final ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(m_settings.getParallelism(), Math.max(tableNames.size(), 1)));
+        final List<String> missingTables = new ArrayList<>();
+        try {
+            final List<Future<TableMetadata>> futures = new ArrayList<>(tableNames.size());
+            for (final String tableName : tableNames) {
+                futures.add(pool.submit(() -> describe(ddb, tableName)));
+            }
+
+            long tableCounter = 0;
+            long indexCounter = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                final TableMetadata meta;
+                try {
+                    meta = await(futures.get(i), exec);
+                } catch (final ExecutionException e) {
+                    // Tables can be deleted between listing and describing them
+                    if (e.getCause() instanceof ResourceNotFoundException) {
+                        missingTables.add(tableNames.get(i));
+                        continue;
+                    }
+                    throw unwrap(e);
+                }
+                exec.setProgress((i + 1) / (double)futures.size(),
+                    String.format("Described table %d of %d", i + 1, futures.size()));
+
+                tableInfoContainer.addRowToTable(new DefaultRow(
+                        new RowKey(String.format("Row%d", tableCounter++)), createTableInfoCells(meta)));
+
+                final TableDescription table = meta.m_table;
+                final DataCell tableName = new StringCell(table.tableName());
+                final Map<String, String> typeMapping = TableDescriptionUtil.getAttributeTypes(table);
+                for (final GlobalSecondaryIndexDescription gsid : table.globalSecondaryIndexes()) {
+                    indexInfoContainer.addRowToTable(new DefaultRow(
+                            new RowKey(String.format("Row%d", indexCounter++)),
+                            prepend(tableName, TableDescriptionUtil.createGlobalIndexCells(gsid, typeMapping))));
+                }
+                for (final LocalSecondaryIndexDescription lsid : table.localSecondaryIndexes()) {
+                    indexInfoContainer.addRowToTable(new DefaultRow(
+                            new RowKey(String.format("Row%d", indexCounter++)),
+                            prepend(tableName, TableDescriptionUtil.createLocalIndexCells(lsid, typeMapping))));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        tableInfoContainer.close();
+        indexInfoContainer.close();
+
+        if (!missingTables.isEmpty()) {
+            setWarningMessage(String.format("%d table(s) were deleted while the node was executing: %s",
+                missingTables.size(), String.join(", ", missingTables)));
+        }
+
+        return new PortObject[] {inObjects[0], (BufferedDataTable)tableInfoContainer.getTable(),
+                                 (BufferedDataTable)indexInfoContainer.getTable()};
+    }
+
+    /**
+     * Loads all requested meta-information for a single table. Called from the worker threads.
+     */
+    private TableMetadata describe(final DynamoDbClient ddb, final String tableName) {
+        final TableMetadata meta = new TableMetadata();
+        meta.m_table = ddb.describeTable(DescribeTableRequest.builder().tableName(tableName).build()).table();
+        if (m_settings.isIncludeTimeToLive()) {
+            meta.m_ttl = ddb.describeTimeToLive(DescribeTimeToLiveRequest.builder().tableName(tableName).build())
+                    .timeToLiveDescription();
+        }
+        if (m_settings.isIncludeContinuousBackups()) {
+            meta.m_backups = ddb.describeContinuousBackups(
+                DescribeContinuousBackupsRequest.builder().tableName(tableName).build())
+                    .continuousBackupsDescription();
+        }
+        if (m_settings.isIncludeTags()) {
+            meta.m_tags = new ArrayList<>();
+            String nextToken = null;
+            do {
+                final ListTagsOfResourceResponse response = ddb.listTagsOfResource(ListTagsOfResourceRequest.builder()
+                    .resourceArn(meta.m_table.tableArn()).nextToken(nextToken).build());
+                meta.m_tags.addAll(response.tags());
+                nextToken = response.nextToken();
+            } while (nextToken != null);
+        }
+        return meta;
+    }
+
+    /**
+     * Waits for a description to finish while regularly checking whether the node was canceled.
+     */
+    private static TableMetadata await(final Future<TableMetadata> future, final ExecutionMonitor exec)
+            throws InterruptedException, ExecutionException, CanceledExecutionException {
+        while (true) {
+            exec.checkCanceled();
+            try {
+                return future.get(100, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                // Check for cancellation again
+            }
+        }
+    }
+
+    private static Exception unwrap(final ExecutionException e) {
+        return e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+    }
+
+    private static DataCell[] prepend(final DataCell cell, final DataCell[] cells) {
+        final DataCell[] result = new DataCell[cells.length + 1];
+        result[0] = cell;
+        System.arraycopy(cells, 0, result, 1, cells.length);
+        return result;
+    }
+
+    private DataCell[] createTableInfoCells(final TableMetadata meta) {
+        final List<DataCell> cells = new ArrayList<>(List.of(TableDescriptionUtil.createTableInfoCells(meta.m_table)));
+        if (m_settings.isIncludeTimeToLive()) {
+            final TimeToLiveDescription ttl = meta.m_ttl;
+            cells.add(ttl == null || ttl.timeToLiveStatus() == null
+                ? DataType.getMissingCell() : new StringCell(ttl.timeToLiveStatusAsString()));
+            cells.add(ttl == null || ttl.attributeName() == null
+                ? DataType.getMissingCell() : new StringCell(ttl.attributeName()));
+        }
+        if (m_settings.isIncludeContinuousBackups()) {
+            final ContinuousBackupsDescription backups = meta.m_backups;
+            final PointInTimeRecoveryDescription pitr = backups == null
+                    ? null : backups.pointInTimeRecoveryDescription();
+            cells.add(backups == null
+                ? DataType.getMissingCell() : new StringCell(backups.continuousBackupsStatusAsString()));
+            cells.add(pitr == null
+                ? DataType.getMissingCell() : new StringCell(pitr.pointInTimeRecoveryStatusAsString()));
+            cells.add(pitr == null
+                ? DataType.getMissingCell() : TableDescriptionUtil.toDateTimeCell(pitr.earliestRestorableDateTime()));
+            cells.add(pitr == null
+                ? DataType.getMissingCell() : TableDescriptionUtil.toDateTimeCell(pitr.latestRestorableDateTime()));
+        }
+        if (m_settings.isIncludeTags()) {
+            final JsonObjectBuilder tags = JsonUtil.getProvider().createObjectBuilder();
+            for (final Tag tag : meta.m_tags) {
+                tags.add(tag.key(), tag.value());
+            }
+            cells.add(JSONCellFactory.create(tags.build()));
+        }
+        return cells.toArray(new DataCell[0]);
+    }
+
+    private DataTableSpec createTableInfoSpec() {
+        final List<DataColumnSpec> cols = new ArrayList<>();
+        if (m_settings.isIncludeTimeToLive()) {
+            cols.add(new DataColumnSpecCreator("timeToLiveStatus", StringCell.TYPE).createSpec());
+            cols.add(new DataColumnSpecCreator("timeToLiveAttributeName", StringCell.TYPE).createSpec());
+        }
+        if (m_settings.isIncludeContinuousBackups()) {
+            cols.add(new DataColumnSpecCreator("continuousBackupsStatus", StringCell.TYPE).createSpec());
+            cols.add(new DataColumnSpecCreator("pointInTimeRecoveryStatus", StringCell.TYPE).createSpec());
+            cols.add(new DataColumnSpecCreator("earliestRestorableDateTime", ZonedDateTimeCellFactory.TYPE)
+                .createSpec());
+            cols.add(new DataColumnSpecCreator("latestRestorableDateTime", ZonedDateTimeCellFactory.TYPE)
+                .createSpec());
+        }
+        if (m_settings.isIncludeTags()) {
+            cols.add(new DataColumnSpecCreator("tags", JSONCell.TYPE).createSpec());
+        }
+        return new DataTableSpec(TableDescriptionUtil.createTableInfoSpec(),
+            new DataTableSpec(cols.toArray(new DataColumnSpec[0])));
+    }
+
+    private static DataTableSpec createIndexInfoSpec() {
+        return new DataTableSpec(
+            new DataTableSpec(new DataColumnSpecCreator("tableName", StringCell.TYPE).createSpec()),
+            TableDescriptionUtil.createIndexInfoSpec());
+    }
+
+    /**
+     * The results of the requests made for a single table.
+     */
+    private static final class TableMetadata {
+        private TableDescription m_table;
+        private TimeToLiveDescription m_ttl;
+        private ContinuousBackupsDescription m_backups;
+        private List<Tag> m_tags;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final DynamoDBDescribeTablesSettings s = new DynamoDBDescribeTablesSettings();
+        s.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.describetables;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for the DynamoDB Describe Tables node.
+ * @author agent
+ *
+ */
+final class DynamoDBDescribeTablesSettings extends DynamoDBSettings {
+
+    private static final String CFG_PARALLELISM = "parallelism";
+    private static final String CFG_INCLUDE_TTL = "includeTimeToLive";
+    private static final String CFG_INCLUDE_BACKUPS = "includeContinuousBackups";
+    private static final String CFG_INCLUDE_TAGS = "includeTags";
+
+    /**
+     * Default number of tables that are described concurrently.
+     */
+    static final int DEFAULT_PARALLELISM = 8;
+
+    private int m_parallelism = DEFAULT_PARALLELISM;
+    private boolean m_includeTimeToLive = true;
+    private boolean m_includeContinuousBackups = true;
+    private boolean m_includeTags = true;
+
+    /**
+     * @return the maximum number of tables that are described concurrently
+     */
+    int getParallelism() {
+        return m_parallelism;
+    }
+
+    /**
+     * @param parallelism the maximum number of tables that are described concurrently
+     */
+    void setParallelism(final int parallelism) {
+        m_parallelism = parallelism;
+    }
+
+    /**
+     * @return whether the time to live settings of each table are retrieved
+     */
+    boolean isIncludeTimeToLive() {
+        return m_includeTimeToLive;
+    }
+
+    /**
+     * @param includeTimeToLive whether the time to live settings of each table are retrieved
+     */
+    void setIncludeTimeToLive(final boolean includeTimeToLive) {
+        m_includeTimeToLive = includeTimeToLive;
+    }
+
+    /**
+     * @return whether the continuous backup settings of each table are retrieved
+     */
+    boolean isIncludeContinuousBackups() {
+        return m_includeContinuousBackups;
+    }
+
+    /**
+     * @param includeContinuousBackups whether the continuous backup settings of each table are retrieved
+     */
+    void setIncludeContinuousBackups(final boolean includeContinuousBackups) {
+        m_includeContinuousBackups = includeContinuousBackups;
+    }
+
+    /**
+     * @return whether the tags of each table are retrieved
+     */
+    boolean isIncludeTags() {
+        return m_includeTags;
+    }
+
+    /**
+     * @param includeTags whether the tags of each table are retrieved
+     */
+    void setIncludeTags(final boolean includeTags) {
+        m_includeTags = includeTags;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        settings.addInt(CFG_PARALLELISM, m_parallelism);
+        settings.addBoolean(CFG_INCLUDE_TTL, m_includeTimeToLive);
+        settings.addBoolean(CFG_INCLUDE_BACKUPS, m_includeContinuousBackups);
+        settings.addBoolean(CFG_INCLUDE_TAGS, m_includeTags);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_parallelism = settings.getInt(CFG_PARALLELISM);
+        if (m_parallelism < 1) {
+            throw new InvalidSettingsException("The number of concurrent requests must be at least 1.");
+        }
+        m_includeTimeToLive = settings.getBoolean(CFG_INCLUDE_TTL);
+        m_includeContinuousBackups = settings.getBoolean(CFG_INCLUDE_BACKUPS);
+        m_includeTags = settings.getBoolean(CFG_INCLUDE_TAGS);
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_parallelism = settings.getInt(CFG_PARALLELISM, DEFAULT_PARALLELISM);
+        m_includeTimeToLive = settings.getBoolean(CFG_INCLUDE_TTL, true);
+        m_includeContinuousBackups = settings.getBoolean(CFG_INCLUDE_BACKUPS, true);
+        m_includeTags = settings.getBoolean(CFG_INCLUDE_TAGS, true);
+    }
+}
@@ -56,7 +56,9 @@
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBPlaceholderPanel;
@@ -95,13 +97,71 @@ final class DynamoDBPutItemNodeDialog extends NodeDialogPane {
     private final EnumComboBox<ReturnValue> m_returnValue = new EnumComboBox<>(
             new ReturnValue[] {ReturnValue.NONE, ReturnValue.ALL_OLD}, new String[] {"None", "All old"});
 
+    private final JSpinner m_concurrency = new JSpinner(
+            new SpinnerNumberModel(DynamoDBPutItemSettings.DEFAULT_CONCURRENCY, 1, 64, 1));
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
 
+    // Existence filter
+    private final JCheckBox m_useExistenceFilter = new JCheckBox("Skip rows whose key already exists");
+    private final JSpinner m_falsePositiveRate = new JSpinner(
+            new SpinnerNumberModel(DynamoDBPutItemSettings.DEFAULT_FALSE_POSITIVE_RATE, 0.0001, 0.5, 0.001));
+    private final JSpinner m_scanSegments = new JSpinner(
+            new SpinnerNumberModel(DynamoDBPutItemSettings.DEFAULT_SCAN_SEGMENTS, 1, 64, 1));
+    private final JTextField m_existenceFilterFile = new JTextField(20);
+    private final JCheckBox m_verifyMatches = new JCheckBox("Look up possibly existing keys before skipping");
+
     /**
      * Creates a new instance of the dialog.
      */
     DynamoDBPutItemNodeDialog() {
         addTab("Standard Settings", createStdSettingsTab());
+        addTab("Existing Items", createExistenceFilterTab());
+    }
+
+    private JPanel createExistenceFilterTab() {
+        final JPanel panel = new JPanel(new GridBagLayout());
+        final GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(2, 2, 2, 2);
+        c.gridx = 0;
+        c.gridy = 0;
+        c.weightx = 1;
+        c.gridwidth = 2;
+        c.anchor = GridBagConstraints.WEST;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        panel.add(m_useExistenceFilter, c);
+
+        c.gridy++;
+        c.gridwidth = 1;
+        panel.add(new JLabel("False positive rate"), c);
+        c.gridx++;
+        panel.add(m_falsePositiveRate, c);
+
+        c.gridy++;
+        c.gridx = 0;
+        panel.add(new JLabel("Scan segments"), c);
+        c.gridx++;
+        panel.add(m_scanSegments, c);
+
+        c.gridy++;
+        c.gridx = 0;
+        panel.add(new JLabel("Filter file (optional)"), c);
+        c.gridx++;
+        panel.add(m_existenceFilterFile, c);
+
+        c.gridy++;
+        c.gridx = 0;
+        c.gridwidth = 2;
+        panel.add(m_verifyMatches, c);
+
+        m_useExistenceFilter.addActionListener(e -> setExistenceFilterEnabled(m_useExistenceFilter.isSelected()));
+        return panel;
+    }
+
+    private void setExistenceFilterEnabled(final boolean enabled) {
+        m_falsePositiveRate.setEnabled(enabled);
+        m_scanSegments.setEnabled(enabled);
+        m_existenceFilterFile.setEnabled(enabled);
+        m_verifyMatches.setEnabled(enabled);
     }
 
     private JPanel createStdSettingsTab() {
@@ -133,6 +193,13 @@ private JPanel createStdSettingsTab() {
         c.gridx++;
         panel.add(m_returnValue, c);
 
+        c.gridy++;
+        c.gridx = 0;
+        panel.add(new JLabel("Concurrent requests"), c);
+
+        c.gridx++;
+        panel.add(m_concurrency, c);
+
         c.gridwidth = 2;
         c.gridy++;
         c.gridx = 0;
@@ -161,8 +228,16 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         m_conditionExpression.setText(m_settings.getConditionExpression());
         m_returnValue.setSelectedItemValue(m_settings.getReturnValue());
+        m_concurrency.setValue(m_settings.getConcurrency());
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
 
+        m_useExistenceFilter.setSelected(m_settings.isUseExistenceFilter());
+        m_falsePositiveRate.setValue(m_settings.getFalsePositiveRate());
+        m_scanSegments.setValue(m_settings.getScanSegments());
+        m_existenceFilterFile.setText(m_settings.getExistenceFilterFile());
+        m_verifyMatches.setSelected(m_settings.isVerifyMatches());
+        setExistenceFilterEnabled(m_settings.isUseExistenceFilter());
+
         m_conCredentials = KNIMEUtil.getConnectionInformationInDialog(specs);
 
         m_table.setRegionOverwrite(m_conCredentials == null ? null : Region.of(m_conCredentials.getHost()));
@@ -175,8 +250,15 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_placeholders.saveToSettings(m_settings.getPlaceholders());
         m_settings.setConditionExpression(m_conditionExpression.getText());
         m_settings.setReturnValue(m_returnValue.getSelectedItemValue());
+        m_settings.setConcurrency((int)m_concurrency.getValue());
         m_settings.setPublishConsumedCapUnits(m_flowVars.isSelected());
 
+        m_settings.setUseExistenceFilter(m_useExistenceFilter.isSelected());
+        m_settings.setFalsePositiveRate((double)m_falsePositiveRate.getValue());
+        m_settings.setScanSegments((int)m_scanSegments.getValue());
+        m_settings.setExistenceFilterFile(m_existenceFilterFile.getText().trim());
+        m_settings.setVerifyMatches(m_verifyMatches.isSelected());
+
         m_settings.saveSettings(settings);
     }
 }
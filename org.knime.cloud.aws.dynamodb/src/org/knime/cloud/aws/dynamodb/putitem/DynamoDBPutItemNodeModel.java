@@ -46,17 +46,16 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
-import org.knime.cloud.aws.dynamodb.DynamicDataContainer;
 import org.knime.cloud.aws.dynamodb.NodeConstants;
-import org.knime.cloud.aws.dynamodb.ValueMapping;
-import org.knime.cloud.aws.dynamodb.utils.DynamoDBToKNIMEUtil;
+import org.knime.cloud.aws.dynamodb.PlaceholderTemplate;
+import org.knime.cloud.aws.dynamodb.RequestExecutor;
+import org.knime.cloud.aws.dynamodb.ReturnedItemBuffer;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
@@ -64,6 +63,8 @@
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -75,7 +76,6 @@
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
-import org.knime.core.util.Pair;
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -110,6 +110,10 @@ final class DynamoDBPutItemNodeModel extends NodeModel {
 
     @Override
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.isUseExistenceFilter() && StringUtils.isBlank(m_settings.getConditionExpression())) {
+            throw new InvalidSettingsException("Skipping existing items requires a condition expression that "
+                + "prevents overwriting them, e.g. attribute_not_exists(...).");
+        }
         // We can't know what fields we return
     	return new PortObjectSpec[] {inSpecs[0], null};
     }
@@ -124,106 +128,145 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final BufferedDataTable inTable = (BufferedDataTable)inObjects[1];
         final DataTableSpec inSpec = inTable.getSpec();
 
-        final List<Pair<ValueMapping, Integer>> columnValues = new ArrayList<>();
-        final Map<String, AttributeValue> tmpValueMap = new HashMap<>();
-        for (final ValueMapping vm : m_settings.getPlaceholders().getValues()) {
-            if (!vm.isColumnType()) {
-                tmpValueMap.put(vm.getName(), vm.getAttributeValue());
-            } else {
-                columnValues.add(new Pair<>(vm, inSpec.findColumnIndex(vm.getValue())));
-            }
+        // Everything that is the same for all rows is prepared once, per row only the item and bound values are set
+        final PlaceholderTemplate placeholders = new PlaceholderTemplate(m_settings.getPlaceholders(), inSpec);
+        final Builder templateBuilder = PutItemRequest.builder()
+                .tableName(m_settings.getTableName())
+                .returnValues(m_settings.getReturnValue())
+                .returnConsumedCapacity(m_settings.publishConsumedCapUnits()
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE);
+        if (placeholders.getNames() != null) {
+            templateBuilder.expressionAttributeNames(placeholders.getNames());
         }
+        if (placeholders.hasValues() && !placeholders.hasBoundValues()) {
+            templateBuilder.expressionAttributeValues(placeholders.getStaticValues());
+        }
+        if (!StringUtils.isBlank(m_settings.getConditionExpression())) {
+            templateBuilder.conditionExpression(m_settings.getConditionExpression());
+        }
+        final PutItemRequest template = templateBuilder.build();
 
-        final String conditionExpression = m_settings.getConditionExpression();
-
-        final ReturnConsumedCapacity returnCapacity = m_settings.publishConsumedCapUnits()
-                ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE;
-
-        final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
         final Function<DataCell, AttributeValue>[] mappers = KNIMEToDynamoDBUtil.createMappers(inSpec);
+        final String[] columnNames = inSpec.getColumnNames();
+        final int mapCapacity = (int)(columnNames.length / 0.75f) + 1;
+        final boolean returnValues = m_settings.getReturnValue() != ReturnValue.NONE;
+        final DoubleAdder consumedCap = new DoubleAdder();
+        final LongAdder numSkipped = new LongAdder();
+        final LongAdder numFalsePositives = new LongAdder();
 
-        double consumedCap = 0.0;
-        int nRetry = 0;
-        double counter = 0.0;
-        OUTER_LOOP:
-        for (final DataRow inRow : inTable) {
-            exec.setProgress(counter++ / inTable.size());
-            exec.checkCanceled();
-            // For those placeholders that insert the value of a column, we have to update the value map here
-            Map<String, AttributeValue> valueMap = tmpValueMap;
-            if (!columnValues.isEmpty()) {
-                valueMap = new HashMap<>(valueMap);
-                for (final Pair<ValueMapping, Integer> vm : columnValues) {
-                    valueMap.put(vm.getFirst().getName(),
-                            KNIMEToDynamoDBUtil.dataCellToAttributeValue(inRow.getCell(vm.getSecond())));
-                }
-            }
-
-            final Builder builder = PutItemRequest.builder();
-            if (!m_settings.getPlaceholders().getNames().isEmpty()) {
-                builder.expressionAttributeNames(m_settings.getPlaceholders().getNames());
-            }
-            if (!m_settings.getPlaceholders().getValues().isEmpty()) {
-                builder.expressionAttributeValues(valueMap);
+        BufferedDataTable outTable = null;
+        ExistingKeyFilter existing = null;
+        try (RequestExecutor requests = new RequestExecutor(m_settings.getConcurrency());
+                ReturnedItemBuffer buffer = returnValues ? new ReturnedItemBuffer(inTable.size()) : null) {
+            if (m_settings.isUseExistenceFilter()) {
+                existing = ExistingKeyFilter.create(ddb, m_settings, inTable.size(),
+                    exec.createSubExecutionContext(0.0));
             }
-            if (!StringUtils.isBlank(conditionExpression)) {
-                builder.conditionExpression(conditionExpression);
-            }
-
-            // Create map of data to write
-            final Map<String, AttributeValue> data = new HashMap<>();
-            for (int i = 0; i < inSpec.getNumColumns(); i++) {
-                data.put(inSpec.getColumnSpec(i).getName(), mappers[i].apply(inRow.getCell(i)));
-            }
-
-            final PutItemRequest request = builder
-                    .tableName(m_settings.getTableName())
-                    .returnValues(m_settings.getReturnValue())
-                    .returnConsumedCapacity(returnCapacity)
-                    .item(data)
-                    .build();
+            final ExistingKeyFilter filter = existing;
+            final ExecutionContext writeExec = exec.createSubExecutionContext(returnValues ? 0.8 : 1.0);
+            int index = 0;
+            for (final DataRow inRow : inTable) {
+                writeExec.setProgress(index / (double)inTable.size());
+                writeExec.checkCanceled();
+                // Create map of data to write
+                final Map<String, AttributeValue> data = new HashMap<>(mapCapacity);
+                for (int i = 0; i < columnNames.length; i++) {
+                    data.put(columnNames[i], mappers[i].apply(inRow.getCell(i)));
+                }
 
-            PutItemResponse response = null;
-            boolean success = false;
-            while (!success) {
-                exec.checkCanceled();
-                if (nRetry > 0) {
-                    Thread.sleep((int)Math.pow(2, nRetry - 1) * EXPONENTIAL_BACKOFF_FACTOR);
+                // Rows whose key possibly exists are either skipped right away or looked up first
+                final byte[] key = filter == null ? null : filter.encodeKey(data);
+                final boolean mightExist = key != null && filter.mightExist(key);
+                if (mightExist && !m_settings.isVerifyMatches()) {
+                    numSkipped.increment();
+                    index++;
+                    continue;
                 }
-                try {
-                    response = ddb.putItem(request);
-                    success = true;
-                } catch (final ProvisionedThroughputExceededException e) {
-                    nRetry++;
-                } catch (final ConditionalCheckFailedException e) {
-                    continue OUTER_LOOP;
-                } catch (final ResourceNotFoundException e) {
-                    throw new InvalidSettingsException(
-                            String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+
+                final Builder builder = template.toBuilder().item(data);
+                if (placeholders.hasBoundValues()) {
+                    builder.expressionAttributeValues(placeholders.bindValues(inRow));
                 }
-            }
+                final PutItemRequest request = builder.build();
 
-            if (m_settings.publishConsumedCapUnits()) {
-                consumedCap += response.consumedCapacity().capacityUnits();
+                final int rowIndex = index++;
+                final RowKey rowKey = inRow.getKey();
+                requests.submit(() -> {
+                    if (mightExist) {
+                        if (filter.exists(data, writeExec)) {
+                            numSkipped.increment();
+                            return;
+                        }
+                        numFalsePositives.increment();
+                    }
+                    final PutItemResponse response = putItem(ddb, request, writeExec);
+                    if (filter != null) {
+                        // Either written now or already existing if the condition failed
+                        filter.add(key);
+                    }
+                    if (response == null) {
+                        // Condition was not met, the item was not written
+                        return;
+                    }
+                    if (m_settings.publishConsumedCapUnits()) {
+                        consumedCap.add(response.consumedCapacity().capacityUnits());
+                    }
+                    if (buffer != null) {
+                        buffer.put(rowIndex, rowKey, response.attributes());
+                    }
+                });
+            }
+            requests.await();
+            if (filter != null) {
+                filter.save(m_settings.getExistenceFilterFile());
             }
 
-            if (m_settings.getReturnValue() != ReturnValue.NONE) {
-                final Map<String, AttributeValue> attributes = response.attributes();
-                final Map<String, DataCell> row = new HashMap<>();
-                for (final Entry<String, AttributeValue> e : attributes.entrySet()) {
-                    row.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()));
-                }
-                dc.addRow(inRow.getKey(), row);
+            if (buffer == null) {
+                final BufferedDataContainer dc = exec.createDataContainer(new DataTableSpec());
+                dc.close();
+                outTable = dc.getTable();
+            } else {
+                outTable = buffer.createTable(exec.createSubExecutionContext(0.2));
             }
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                    String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
         }
 
         if (m_settings.publishConsumedCapUnits()) {
-            pushFlowVariableDouble("putItemConsumedCapacityUnits", consumedCap);
+            pushFlowVariableDouble("putItemConsumedCapacityUnits", consumedCap.sum());
+            if (existing != null) {
+                pushFlowVariableDouble("putItemConsumedReadCapacityUnits", existing.getConsumedReadCapacity());
+            }
+        }
+        if (existing != null) {
+            pushFlowVariableInt("putItemSkippedExistingItems", numSkipped.intValue());
+            pushFlowVariableInt("putItemFilterFalsePositives", numFalsePositives.intValue());
         }
 
-        dc.close();
+        return new PortObject[] {inObjects[0], outTable};
+    }
 
-        return new PortObject[] {inObjects[0], dc.getTable()};
+    /**
+     * Puts an item, retrying with exponential backoff while the table's throughput is exceeded.
+     * @return the response or {@code null} if the condition expression was not met
+     */
+    private static PutItemResponse putItem(final DynamoDbClient ddb, final PutItemRequest request,
+            final ExecutionMonitor exec) throws InterruptedException, CanceledExecutionException {
+        int nRetry = 0;
+        while (true) {
+            exec.checkCanceled();
+            if (nRetry > 0) {
+                Thread.sleep((int)Math.pow(2, nRetry - 1) * EXPONENTIAL_BACKOFF_FACTOR);
+            }
+            try {
+                return ddb.putItem(request);
+            } catch (final ProvisionedThroughputExceededException e) {
+                nRetry++;
+            } catch (final ConditionalCheckFailedException e) {
+                return null;
+            }
+        }
     }
 
     /**
@@ -65,11 +65,39 @@ final class DynamoDBPutItemSettings extends DynamoDBWriterSettings {
     
     private static final String CFG_CONDITION_EXPRESSION = "conditionExpression";
     private static final String CFG_RETURN_VALUE = "returnValue";
+    private static final String CFG_CONCURRENCY = "concurrentRequests";
+    private static final String CFG_USE_EXISTENCE_FILTER = "useExistenceFilter";
+    private static final String CFG_FALSE_POSITIVE_RATE = "existenceFilterFalsePositiveRate";
+    private static final String CFG_EXISTENCE_FILTER_FILE = "existenceFilterFile";
+    private static final String CFG_VERIFY_MATCHES = "verifyFilterMatches";
+    private static final String CFG_SCAN_SEGMENTS = "scanSegments";
+
+    /**
+     * Default number of requests sent at the same time.
+     */
+    static final int DEFAULT_CONCURRENCY = 1;
+
+    /**
+     * Default probability of the existence filter reporting a new key as existing.
+     */
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Default number of segments the table is scanned with to build the existence filter.
+     */
+    static final int DEFAULT_SCAN_SEGMENTS = 4;
     
     private DynamoDBPlaceholderSettings m_placeholders = new DynamoDBPlaceholderSettings();
     
     private String m_conditionExpression = "";
     private ReturnValue m_returnValue = ReturnValue.NONE;
+    private int m_concurrency = DEFAULT_CONCURRENCY;
+
+    private boolean m_useExistenceFilter = false;
+    private double m_falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+    private String m_existenceFilterFile = "";
+    private boolean m_verifyMatches = true;
+    private int m_scanSegments = DEFAULT_SCAN_SEGMENTS;
     
     /**
      * @return an expression describing which conditions have to be met for the item to be put
@@ -110,6 +138,102 @@ DynamoDBPlaceholderSettings getPlaceholders() {
         return m_placeholders;
     }
     
+    /**
+     * @return the number of requests sent to DynamoDB at the same time
+     */
+    int getConcurrency() {
+        return m_concurrency;
+    }
+
+    /**
+     * @param concurrency the number of requests sent to DynamoDB at the same time
+     */
+    void setConcurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent requests must be at least 1.");
+        }
+        m_concurrency = concurrency;
+    }
+
+    /**
+     * @return true if rows whose key already exists in the table are skipped based on a filter of existing keys
+     */
+    boolean isUseExistenceFilter() {
+        return m_useExistenceFilter;
+    }
+
+    /**
+     * @param useExistenceFilter true if rows whose key already exists in the table are skipped based on
+     *          a filter of existing keys
+     */
+    void setUseExistenceFilter(final boolean useExistenceFilter) {
+        m_useExistenceFilter = useExistenceFilter;
+    }
+
+    /**
+     * @return the probability of the existence filter reporting a new key as existing
+     */
+    double getFalsePositiveRate() {
+        return m_falsePositiveRate;
+    }
+
+    /**
+     * @param falsePositiveRate the probability of the existence filter reporting a new key as existing
+     */
+    void setFalsePositiveRate(final double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1.");
+        }
+        m_falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * @return the file the existence filter is loaded from and saved to, or an empty string if it is
+     *          built from a scan of the table in every execution
+     */
+    String getExistenceFilterFile() {
+        return m_existenceFilterFile;
+    }
+
+    /**
+     * @param existenceFilterFile the file the existence filter is loaded from and saved to, or an empty string
+     *          if it is built from a scan of the table in every execution
+     */
+    void setExistenceFilterFile(final String existenceFilterFile) {
+        m_existenceFilterFile = existenceFilterFile;
+    }
+
+    /**
+     * @return true if keys the filter reports as existing are looked up before the row is skipped
+     */
+    boolean isVerifyMatches() {
+        return m_verifyMatches;
+    }
+
+    /**
+     * @param verifyMatches true if keys the filter reports as existing are looked up before the row is skipped
+     */
+    void setVerifyMatches(final boolean verifyMatches) {
+        m_verifyMatches = verifyMatches;
+    }
+
+    /**
+     * @return the number of segments the table is scanned with to build the existence filter
+     */
+    int getScanSegments() {
+        return m_scanSegments;
+    }
+
+    /**
+     * @param scanSegments the number of segments the table is scanned with to build the existence filter
+     */
+    void setScanSegments(final int scanSegments) {
+        if (scanSegments < 1) {
+            throw new IllegalArgumentException("The number of scan segments must be at least 1.");
+        }
+        m_scanSegments = scanSegments;
+    }
+
     /**
      * Saves this settings object to node settings.
      * @param settings the node settings to save to
@@ -120,6 +244,12 @@ public void saveSettings(final NodeSettingsWO settings) {
         m_placeholders.saveSettings(settings);
         settings.addString(CFG_CONDITION_EXPRESSION, m_conditionExpression);
         settings.addString(CFG_RETURN_VALUE, m_returnValue.toString());
+        settings.addInt(CFG_CONCURRENCY, m_concurrency);
+        settings.addBoolean(CFG_USE_EXISTENCE_FILTER, m_useExistenceFilter);
+        settings.addDouble(CFG_FALSE_POSITIVE_RATE, m_falsePositiveRate);
+        settings.addString(CFG_EXISTENCE_FILTER_FILE, m_existenceFilterFile);
+        settings.addBoolean(CFG_VERIFY_MATCHES, m_verifyMatches);
+        settings.addInt(CFG_SCAN_SEGMENTS, m_scanSegments);
     }
 
     /**
@@ -133,6 +263,23 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         m_placeholders.loadSettings(settings);
         m_conditionExpression = settings.getString(CFG_CONDITION_EXPRESSION);
         m_returnValue = ReturnValue.valueOf(settings.getString(CFG_RETURN_VALUE));
+        // Added later, workflows created before send one request at a time
+        m_concurrency = settings.getInt(CFG_CONCURRENCY, 1);
+        if (m_concurrency < 1) {
+            throw new InvalidSettingsException("The number of concurrent requests must be at least 1.");
+        }
+        // Added later, workflows created before write every row
+        m_useExistenceFilter = settings.getBoolean(CFG_USE_EXISTENCE_FILTER, false);
+        m_falsePositiveRate = settings.getDouble(CFG_FALSE_POSITIVE_RATE, DEFAULT_FALSE_POSITIVE_RATE);
+        m_existenceFilterFile = settings.getString(CFG_EXISTENCE_FILTER_FILE, "");
+        m_verifyMatches = settings.getBoolean(CFG_VERIFY_MATCHES, true);
+        m_scanSegments = settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS);
+        if (m_falsePositiveRate <= 0 || m_falsePositiveRate >= 1) {
+            throw new InvalidSettingsException("The false positive rate must be between 0 and 1.");
+        }
+        if (m_scanSegments < 1) {
+            throw new InvalidSettingsException("The number of scan segments must be at least 1.");
+        }
     }
 
     /**
@@ -145,5 +292,12 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         m_placeholders.loadSettingsForDialog(settings);
         m_conditionExpression = settings.getString(CFG_CONDITION_EXPRESSION, "");
         m_returnValue = ReturnValue.valueOf(settings.getString(CFG_RETURN_VALUE, ReturnValue.NONE.toString()));
+        // Workflows saved before the setting existed sent one request at a time
+        m_concurrency = Math.max(1, settings.getInt(CFG_CONCURRENCY, 1));
+        m_useExistenceFilter = settings.getBoolean(CFG_USE_EXISTENCE_FILTER, false);
+        m_falsePositiveRate = settings.getDouble(CFG_FALSE_POSITIVE_RATE, DEFAULT_FALSE_POSITIVE_RATE);
+        m_existenceFilterFile = settings.getString(CFG_EXISTENCE_FILTER_FILE, "");
+        m_verifyMatches = settings.getBoolean(CFG_VERIFY_MATCHES, true);
+        m_scanSegments = Math.max(1, settings.getInt(CFG_SCAN_SEGMENTS, DEFAULT_SCAN_SEGMENTS));
     }
 }
@@ -0,0 +1,369 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.putitem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.knime.cloud.aws.dynamodb.BloomFilter;
+import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.ParallelScanner;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+
+/**
+ * A Bloom filter of the keys that exist in a table, used to avoid sending conditional puts for items that
+ * already exist. The filter is either built from a scan that only retrieves the key attributes or loaded
+ * from a file written by a previous execution. Keys put by the node are added to the filter, so a saved
+ * filter stays up to date as long as the table is only written through the node. The file also records the
+ * table and key schema it belongs to and the number of keys the filter was sized for, so that a file of another
+ * table is rejected and an overfull filter is rebuilt.
+ * @author agent
+ *
+ */
+final class ExistingKeyFilter {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ExistingKeyFilter.class);
+
+    private static final String KEY_NAME_PLACEHOLDER = "#__key";
+
+    private static final int FILE_MAGIC = 0x4b454b46;
+
+    private static final int FILE_VERSION = 1;
+
+    /** Fill ratio of an optimally sized filter that holds as many keys as expected, see {@link BloomFilter}. */
+    private static final double MAX_FILL_RATIO = 0.5;
+
+    private static final int EXPONENTIAL_BACKOFF_FACTOR = 100;
+
+    // Throttled lookups of one key before the node fails, and the maximum wait between them
+    private static final int MAX_RETRIES = 20;
+    private static final long MAX_BACKOFF_MS = 10000;
+
+    /** The filter is sized for at least this many keys, so small tables still get a useful filter. */
+    private static final long MIN_EXPECTED_KEYS = 1000;
+
+    private final DynamoDbClient m_ddb;
+    private final String m_tableArn;
+    private final List<String> m_keySchema;
+    private final List<String> m_keyNames;
+    private final BloomFilter m_filter;
+    private final long m_expectedKeys;
+    private final AtomicLong m_numKeys;
+    private final GetItemRequest m_lookupTemplate;
+    private final DoubleAdder m_readCapacity = new DoubleAdder();
+
+    private ExistingKeyFilter(final DynamoDbClient ddb, final TableDescription table, final List<String> keyNames,
+        final BloomFilter filter, final long expectedKeys, final long numKeys, final GetItemRequest lookupTemplate) {
+        m_ddb = ddb;
+        m_tableArn = table.tableArn();
+        m_keySchema = keySchema(table);
+        m_keyNames = keyNames;
+        m_filter = filter;
+        m_expectedKeys = expectedKeys;
+        m_numKeys = new AtomicLong(numKeys);
+        m_lookupTemplate = lookupTemplate;
+    }
+
+    /** The key schema as list of "name:type" entries, e.g. "id:HASH". */
+    private static List<String> keySchema(final TableDescription table) {
+        final List<String> schema = new ArrayList<>();
+        for (final KeySchemaElement key : table.keySchema()) {
+            schema.add(key.attributeName() + ":" + key.keyTypeAsString());
+        }
+        return schema;
+    }
+
+    /**
+     * Loads the filter from the configured file or, if there is none, builds it by scanning the table.
+     * @param ddb the client to access the table with
+     * @param settings the settings of the node
+     * @param numRows the number of rows that are going to be put
+     * @param exec the execution monitor to check for cancellation
+     * @return the filter
+     * @throws InvalidSettingsException if the file belongs to another table or key schema
+     * @throws Exception if the table cannot be scanned or the file cannot be read
+     */
+    static ExistingKeyFilter create(final DynamoDbClient ddb, final DynamoDBPutItemSettings settings,
+        final long numRows, final ExecutionMonitor exec) throws Exception {
+        final TableDescription table = ddb.describeTable(
+            DescribeTableRequest.builder().tableName(settings.getTableName()).build()).table();
+        final List<String> keyNames = new ArrayList<>();
+        final Map<String, String> names = new HashMap<>();
+        final StringBuilder projection = new StringBuilder();
+        for (final KeySchemaElement key : table.keySchema()) {
+            final String placeholder = KEY_NAME_PLACEHOLDER + keyNames.size();
+            names.put(placeholder, key.attributeName());
+            projection.append(keyNames.isEmpty() ? "" : ", ").append(placeholder);
+            keyNames.add(key.attributeName());
+        }
+        final ReturnConsumedCapacity rcc = settings.publishConsumedCapUnits()
+                ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE;
+        final GetItemRequest lookupTemplate = GetItemRequest.builder()
+                .tableName(settings.getTableName())
+                .projectionExpression(projection.toString())
+                .expressionAttributeNames(names)
+                .returnConsumedCapacity(rcc)
+                .build();
+
+        final Path file = resolveFile(settings.getExistenceFilterFile());
+        long numKeys = 0;
+        if (file != null && Files.exists(file)) {
+            exec.setMessage("Loading existing keys");
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                final DataInputStream dataIn = new DataInputStream(in);
+                if (dataIn.readInt() != FILE_MAGIC || dataIn.readInt() != FILE_VERSION) {
+                    throw new InvalidSettingsException("The existence filter file \"" + file
+                        + "\" was not written by this version of the node. Delete it to rebuild the filter.");
+                }
+                final String arn = dataIn.readUTF();
+                final List<String> schema = new ArrayList<>();
+                for (int i = dataIn.readInt(); i > 0; i--) {
+                    schema.add(dataIn.readUTF());
+                }
+                if (!arn.equals(table.tableArn()) || !schema.equals(keySchema(table))) {
+                    throw new InvalidSettingsException(String.format("The existence filter file \"%s\" belongs to "
+                        + "table %s with key %s, not to table %s with key %s. Delete it or choose another file.",
+                        file, arn, schema, table.tableArn(), keySchema(table)));
+                }
+                final long expected = dataIn.readLong();
+                numKeys = dataIn.readLong();
+                final BloomFilter bloom = BloomFilter.readFrom(dataIn);
+                if (numKeys + numRows <= expected && bloom.getFillRatio() <= MAX_FILL_RATIO) {
+                    return new ExistingKeyFilter(ddb, table, keyNames, bloom, expected, numKeys, lookupTemplate);
+                }
+                LOGGER.info("The existence filter in \"" + file + "\" is too small for " + (numKeys + numRows)
+                    + " keys, it is rebuilt by scanning the table.");
+            }
+        }
+
+        // The item count is only updated every few hours, but good enough to size the filter
+        final long expected = Math.max(MIN_EXPECTED_KEYS,
+            Math.max(table.itemCount() == null ? 0 : table.itemCount(), numKeys) + numRows);
+        final ExistingKeyFilter filter = new ExistingKeyFilter(ddb, table, keyNames,
+            new BloomFilter(expected, settings.getFalsePositiveRate()), expected, 0, lookupTemplate);
+        final ScanRequest scan = ScanRequest.builder()
+                .tableName(settings.getTableName())
+                .projectionExpression(projection.toString())
+                .expressionAttributeNames(names)
+                .returnConsumedCapacity(rcc)
+                .build();
+        final ParallelScanner scanner = new ParallelScanner(ddb, scan, settings.getScanSegments());
+        scanner.scan((segment, items) -> {
+            for (final Map<String, AttributeValue> item : items) {
+                filter.add(filter.encodeKey(item));
+            }
+        }, exec);
+        filter.m_readCapacity.add(scanner.getConsumedCapacity());
+        return filter;
+    }
+
+    private static Path resolveFile(final String file) throws InvalidSettingsException {
+        if (file == null || file.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return FileUtil.resolveToPath(FileUtil.toURL(file.trim()));
+        } catch (final Exception e) {
+            throw new InvalidSettingsException("The existence filter file \"" + file + "\" is not a valid path.", e);
+        }
+    }
+
+    /**
+     * Creates the representation of an item's key that is stored in the filter.
+     * @param item the item, only the key attributes are used
+     * @return the key or {@code null} if the item does not have all key attributes
+     * @throws IOException if the key cannot be encoded
+     */
+    byte[] encodeKey(final Map<String, AttributeValue> item) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (final String name : m_keyNames) {
+            final AttributeValue val = item.get(name);
+            if (val == null) {
+                return null;
+            }
+            final byte[] b;
+            if (val.s() != null) {
+                out.writeByte(0);
+                b = val.s().getBytes(StandardCharsets.UTF_8);
+            } else if (val.n() != null) {
+                // DynamoDB normalizes numbers, so 1.0 and 1 are the same key
+                out.writeByte(1);
+                b = new BigDecimal(val.n()).stripTrailingZeros().toPlainString().getBytes(StandardCharsets.UTF_8);
+            } else if (val.b() != null) {
+                out.writeByte(2);
+                b = val.b().asByteArray();
+            } else {
+                return null;
+            }
+            out.writeInt(b.length);
+            out.write(b);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param key a key created by {@link #encodeKey(Map)}
+     * @return {@code false} if the key certainly does not exist, {@code true} if it possibly does
+     */
+    boolean mightExist(final byte[] key) {
+        return m_filter.mightContain(key);
+    }
+
+    /**
+     * Adds a key that is known to exist.
+     * @param key a key created by {@link #encodeKey(Map)}, may be {@code null}
+     */
+    void add(final byte[] key) {
+        if (key != null && m_filter.put(key)) {
+            m_numKeys.incrementAndGet();
+        }
+    }
+
+    /**
+     * Looks up whether an item with the same key as the given item exists in the table.
+     * Throttled lookups are retried with exponential backoff up to {@value #MAX_RETRIES} times.
+     * @param item the item, only the key attributes are used
+     * @param exec the monitor checked for cancellation between the attempts
+     * @return true if an item with the key exists
+     * @throws InterruptedException if the thread was interrupted while waiting for throughput
+     * @throws CanceledExecutionException if the execution was canceled
+     * @throws InvalidSettingsException if the lookup was still throttled after the last retry
+     */
+    boolean exists(final Map<String, AttributeValue> item, final ExecutionMonitor exec)
+            throws InterruptedException, CanceledExecutionException, InvalidSettingsException {
+        final Map<String, AttributeValue> key = new HashMap<>();
+        for (final String name : m_keyNames) {
+            key.put(name, item.get(name));
+        }
+        final GetItemRequest request = m_lookupTemplate.toBuilder().key(key).build();
+        int nRetry = 0;
+        while (true) {
+            exec.checkCanceled();
+            if (nRetry > 0) {
+                Thread.sleep(Math.min((long)Math.pow(2, nRetry - 1) * EXPONENTIAL_BACKOFF_FACTOR, MAX_BACKOFF_MS));
+                exec.checkCanceled();
+            }
+            try {
+                final GetItemResponse response = m_ddb.getItem(request);
+                if (response.consumedCapacity() != null) {
+                    m_readCapacity.add(response.consumedCapacity().capacityUnits());
+                }
+                return response.hasItem() && !response.item().isEmpty();
+            } catch (final ProvisionedThroughputExceededException e) {
+                if (++nRetry > MAX_RETRIES) {
+                    throw new InvalidSettingsException(String.format("%s The lookup of an existing key was still "
+                        + "throttled after %d retries.", NodeConstants.THROUGHPUT_ERROR, MAX_RETRIES), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the read capacity consumed by scanning the table and looking up keys
+     */
+    double getConsumedReadCapacity() {
+        return m_readCapacity.sum();
+    }
+
+    /**
+     * Writes the filter to the configured file, if there is one, together with the table it belongs to.
+     * @param file the file as configured in the settings
+     * @throws IOException if the file cannot be written
+     * @throws InvalidSettingsException if the file is not a valid path
+     */
+    void save(final String file) throws IOException, InvalidSettingsException {
+        final Path path = resolveFile(file);
+        if (path == null) {
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            final DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(FILE_MAGIC);
+            dataOut.writeInt(FILE_VERSION);
+            dataOut.writeUTF(m_tableArn);
+            dataOut.writeInt(m_keySchema.size());
+            for (final String key : m_keySchema) {
+                dataOut.writeUTF(key);
+            }
+            dataOut.writeLong(m_expectedKeys);
+            dataOut.writeLong(m_numKeys.get());
+            m_filter.writeTo(dataOut);
+            dataOut.flush();
+        }
+    }
+}
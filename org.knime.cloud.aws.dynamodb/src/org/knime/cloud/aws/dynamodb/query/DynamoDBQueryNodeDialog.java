@@ -49,6 +49,7 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -95,13 +96,16 @@
  */
 final class DynamoDBQueryNodeDialog extends NodeDialogPane {
 
+    /** Number of items looked at to find the attributes that can be picked for the projection. */
+    private static final int ATTRIBUTE_SAMPLE_SIZE = 100;
+
     private static final String[] OPERATORS = new String[] {"=", "<", "<=", ">", ">=", "BETWEEN"};
 
     private final DynamoDBQuerySettings m_settings = new DynamoDBQuerySettings();
 
     private DynamoDBTablePanel m_table;
 
-    private final DynamoDBFilterAndProjectPanel m_fp = new DynamoDBFilterAndProjectPanel();
+    private final DynamoDBFilterAndProjectPanel m_fp = new DynamoDBFilterAndProjectPanel(this::sampleAttributeNames);
 
     private CloudConnectionInformation m_conCredentials = null;
 
@@ -122,8 +126,18 @@ final class DynamoDBQueryNodeDialog extends NodeDialogPane {
     private final JCheckBox m_consistentRead = new JCheckBox("Consistent Read");
     private final JSpinner m_limit = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
+    private final JCheckBox m_binaryAsBinaryObject = new JCheckBox("Read binary attributes as binary objects");
     private final JCheckBox m_scanForward = new JCheckBox("Forward Scan");
 
+    // Sharding
+    private final JCheckBox m_useShards = new JCheckBox("Sharded hash key");
+    private final JSpinner m_numShards = new JSpinner(new SpinnerNumberModel(
+        DynamoDBQuerySettings.DEFAULT_NUM_SHARDS, 1, Integer.MAX_VALUE, 1));
+    private final JTextField m_shardSeparator = new JTextField(3);
+    private final JCheckBox m_mergeSorted = new JCheckBox("Merge shards sorted by range key");
+    private final JSpinner m_shardConcurrency = new JSpinner(new SpinnerNumberModel(
+        DynamoDBQuerySettings.DEFAULT_SHARD_CONCURRENCY, 1, 64, 1));
+
     private IndexSelectionPanel m_indexSelectionPanel;
     /**
      * Creates a new instance of the dialog.
@@ -154,6 +168,9 @@ private JPanel createStdSettingsTab() {
         c.gridy++;
         stdSettings.add(m_flowVars, c);
 
+        c.gridy++;
+        stdSettings.add(m_binaryAsBinaryObject, c);
+
         return stdSettings;
     }
 
@@ -195,6 +212,20 @@ private JPanel createQueryPanel() {
 
         m_fetchInfoBtn.addActionListener(e -> fetchInfo());
 
+        kc.gridy++;
+        final JPanel shards = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        shards.add(m_useShards);
+        shards.add(new JLabel("Shards"));
+        shards.add(m_numShards);
+        shards.add(new JLabel("Separator"));
+        shards.add(m_shardSeparator);
+        shards.add(new JLabel("Concurrent queries"));
+        shards.add(m_shardConcurrency);
+        shards.add(m_mergeSorted);
+        kcPanel.add(shards, kc);
+
+        m_useShards.addActionListener(e -> setShardsEnabled(m_useShards.isSelected()));
+
         kc.gridy++;
         kcPanel.add(m_rangeKeyCheckbox, kc);
 
@@ -244,6 +275,15 @@ private List<String> getIndexNames() {
         }
     }
 
+    private Collection<String> sampleAttributeNames() throws Exception {
+        if (m_conCredentials == null) {
+            throw new InvalidSettingsException("The node must be connected to an Amazon Authentication node.");
+        }
+        final DynamoDBTableSettings table = new DynamoDBTableSettings();
+        m_table.saveToSettings(table);
+        return DynamoDBUtil.sampleAttributeNames(table, m_conCredentials, ATTRIBUTE_SAMPLE_SIZE);
+    }
+
     private List<String> getTableNames() {
         try {
             return DynamoDBUtil.getTableNames(m_conCredentials, 20);
@@ -353,6 +393,13 @@ private void setRangeKeyEnabled(final boolean enabled) {
         m_rangeKeyValue2.setEnabled(enabled);
     }
 
+    private void setShardsEnabled(final boolean enabled) {
+        m_numShards.setEnabled(enabled);
+        m_shardSeparator.setEnabled(enabled);
+        m_shardConcurrency.setEnabled(enabled);
+        m_mergeSorted.setEnabled(enabled);
+    }
+
     private void toggleFetchButton() {
         m_fetchInfoBtn.setEnabled(m_conCredentials != null && m_table.getTableName().length() > 0);
     }
@@ -370,11 +417,18 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
         m_consistentRead.setSelected(m_settings.isConsistentRead());
+        m_binaryAsBinaryObject.setSelected(m_settings.isBinaryAsBinaryObject());
 
         m_hashKeyName.setText(m_settings.getHashKeyName());
         m_hashKeyValue.setText(m_settings.getHashKeyValue());
         m_hashKeyType.setSelectedItemValue(m_settings.getHashKeyType());
 
+        m_useShards.setSelected(m_settings.isUseShards());
+        m_numShards.setValue(m_settings.getNumShards());
+        m_shardSeparator.setText(m_settings.getShardSeparator());
+        m_mergeSorted.setSelected(m_settings.isMergeSorted());
+        m_shardConcurrency.setValue(m_settings.getShardConcurrency());
+
         m_rangeKeyCheckbox.setSelected(m_settings.isUseRangeKey());
         m_rangeKeyName.setText(m_settings.getRangeKeyName());
         m_rangeKeyValue1.setText(m_settings.getRangeKeyValue1());
@@ -384,6 +438,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         m_fp.setFilterExpression(m_settings.getFilterExpr());
         m_fp.setProjectionExpression(m_settings.getProjectionExpr());
+        m_fp.setProjectedAttributes(m_settings.getProjectedAttributes());
 
         m_fp.updatePlaceholdersFromSettings(m_settings.getPlaceholderSettings());
 
@@ -391,6 +446,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
 
         setBetweenVisible(m_settings.getRangeKeyOperator().equals("BETWEEN"));
         setRangeKeyEnabled(m_settings.isUseRangeKey());
+        setShardsEnabled(m_settings.isUseShards());
         toggleFetchButton();
     }
 
@@ -409,6 +465,12 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.setHashKeyType(m_hashKeyType.getSelectedItemValue());
         m_settings.setHashKeyValue(m_hashKeyValue.getText());
 
+        m_settings.setUseShards(m_useShards.isSelected());
+        m_settings.setNumShards((int)m_numShards.getValue());
+        m_settings.setShardSeparator(m_shardSeparator.getText());
+        m_settings.setMergeSorted(m_mergeSorted.isSelected());
+        m_settings.setShardConcurrency((int)m_shardConcurrency.getValue());
+
         m_settings.setUseRangeKey(m_rangeKeyCheckbox.isSelected());
         m_settings.setRangeKeyName(m_rangeKeyName.getText());
         m_settings.setRangeKeyType(m_rangeKeyType.getSelectedItemValue());
@@ -418,10 +480,12 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
 
         m_settings.setFilterExpr(m_fp.getFilterExpression());
         m_settings.setProjectionExpr(m_fp.getProjectionExpression());
+        m_settings.setProjectedAttributes(m_fp.getProjectedAttributes());
 
         m_fp.savePlaceholdersToSettings(m_settings.getPlaceholderSettings());
 
         m_settings.setConsistentRead(m_consistentRead.isSelected());
+        m_settings.setBinaryAsBinaryObject(m_binaryAsBinaryObject.isSelected());
         m_settings.saveSettings(settings);
     }
 }
\ No newline at end of file
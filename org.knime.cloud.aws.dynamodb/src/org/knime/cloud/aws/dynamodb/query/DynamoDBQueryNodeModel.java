@@ -47,7 +47,10 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -60,6 +63,7 @@
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.blob.BinaryObjectCellFactory;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -79,6 +83,7 @@
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
 import software.amazon.awssdk.services.dynamodb.paginators.QueryIterable;
 
 /**
@@ -111,6 +116,13 @@ final class DynamoDBQueryNodeModel extends NodeModel {
 
     @Override
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.isUseShards() && m_settings.getHashKeyType() != ScalarAttributeType.S) {
+            throw new InvalidSettingsException("Sharded hash keys must be of type String.");
+        }
+        if (m_settings.isUseShards() && m_settings.isMergeSorted() && !m_settings.isUseRangeKey()) {
+            setWarningMessage("The shards cannot be merged sorted by range key without a range key condition. "
+                + "The items are returned in the order they arrive from the shards.");
+        }
         // We can't know what fields we return
     	return new PortObjectSpec[] {inSpecs[0], null};
     }
@@ -157,6 +169,14 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
             }
         }
 
+        // Must be created before the names are handed to the builder, which copies them
+        String projection = m_settings.createProjectionExpression(names);
+        if (isMergeSorted() && !projection.isEmpty()
+                && !isProjected(projection, names, m_settings.getRangeKeyName())) {
+            // The merge orders the items by their range key
+            projection += ", " + RK_NAME_PLACEHOLDER;
+        }
+
         // Setup the request according to the settings
         Builder builder = QueryRequest.builder()
             .tableName(m_settings.getTableName())
@@ -171,8 +191,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         if (m_settings.getFilterExpr().trim().length() > 0) {
             builder = builder.filterExpression(m_settings.getFilterExpr());
         }
-        if (m_settings.getProjectionExpr().trim().length() > 0) {
-            builder = builder.projectionExpression(m_settings.getProjectionExpr());
+        if (!projection.isEmpty()) {
+            builder = builder.projectionExpression(projection);
         }
 
         if (m_settings.getUseIndex()) {
@@ -182,10 +202,17 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
             builder.limit(m_settings.getLimit());
         }
 
-        QueryIterable pages;
+        final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        final BinaryObjectCellFactory binaryFactory =
+                m_settings.isBinaryAsBinaryObject() ? new BinaryObjectCellFactory(exec) : null;
+
+        double consumedCap = 0.0;
         try {
-            // Data returned by a single request is limited by DynamoDB, so we paginate
-            pages = ddb.queryPaginator(builder.build());
+            if (m_settings.isUseShards()) {
+                consumedCap = queryShards(ddb, builder.build(), valueMap, dc, binaryFactory, exec);
+            } else {
+                consumedCap = query(ddb, builder.build(), dc, binaryFactory, exec);
+            }
         } catch (final ResourceNotFoundException e) {
             final String msg = m_settings.getUseIndex()
                     ? String.format(NodeConstants.TABLE_OR_INDEX_MISSING_ERROR,
@@ -193,8 +220,19 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                     : String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName());
             throw new InvalidSettingsException(msg, e);
         }
-        final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        dc.close();
 
+        if (m_settings.publishConsumedCapUnits()) {
+            pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, consumedCap);
+        }
+
+        return new PortObject[] {inObjects[0], dc.getTable()};
+    }
+
+    private double query(final DynamoDbClient ddb, final QueryRequest request, final DynamicDataContainer dc,
+        final BinaryObjectCellFactory binaryFactory, final ExecutionContext exec) throws Exception {
+        // Data returned by a single request is limited by DynamoDB, so we paginate
+        final QueryIterable pages = ddb.queryPaginator(request);
         long rowCount = 0;
         double consumedCap = 0.0;
         OUTER_LOOP:
@@ -208,21 +246,74 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 if (m_settings.getLimit() > 0 && rowCount == m_settings.getLimit()) {
                     break OUTER_LOOP;
                 }
-                exec.checkCanceled();
-                final Map<String, DataCell> cells = new HashMap<>();
-                for (final Entry<String, AttributeValue> e : item.entrySet()) {
-                    cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()));
-                }
-                dc.addRow(new RowKey(String.format("Row%d", rowCount++)), cells);
+                addRow(dc, rowCount++, item, binaryFactory);
             }
         }
-        dc.close();
+        return consumedCap;
+    }
 
-        if (m_settings.publishConsumedCapUnits()) {
-            pushFlowVariableDouble(CAPACITY_UNITS_FLOW_VAR, consumedCap);
+    /**
+     * Queries all shards of the hash key concurrently and merges their items into the container.
+     * @return the consumed capacity of all shards
+     */
+    private double queryShards(final DynamoDbClient ddb, final QueryRequest request,
+        final Map<String, AttributeValue> valueMap, final DynamicDataContainer dc,
+        final BinaryObjectCellFactory binaryFactory, final ExecutionContext exec) throws Exception {
+        final List<QueryRequest> requests = new ArrayList<>();
+        for (final String hashKeyValue : m_settings.getShardHashKeyValues()) {
+            final Map<String, AttributeValue> shardValues = new HashMap<>(valueMap);
+            shardValues.put(HK_VALUE_PLACEHOLDER,
+                DynamoDBUtil.getKeyConditionAttrValue(hashKeyValue, m_settings.getHashKeyType()));
+            requests.add(request.toBuilder().expressionAttributeValues(shardValues).build());
         }
+        final Comparator<Map<String, AttributeValue>> order = isMergeSorted()
+                ? ShardedQueryReader.rangeKeyComparator(m_settings.getRangeKeyName(), m_settings.scanIndexForward())
+                : null;
+
+        try (ShardedQueryReader reader =
+                new ShardedQueryReader(ddb, requests, order, m_settings.getShardConcurrency())) {
+            long rowCount = 0;
+            Map<String, AttributeValue> item;
+            while ((m_settings.getLimit() == 0 || rowCount < m_settings.getLimit())
+                    && (item = reader.next(exec)) != null) {
+                addRow(dc, rowCount++, item, binaryFactory);
+            }
+            return reader.getConsumedCapacity();
+        }
+    }
 
-        return new PortObject[] {inObjects[0], dc.getTable()};
+    /**
+     * @return whether the items of the shards are merged in range key order
+     */
+    private boolean isMergeSorted() {
+        return m_settings.isUseShards() && m_settings.isMergeSorted() && m_settings.isUseRangeKey();
+    }
+
+    /**
+     * Checks whether an attribute is one of the top level paths of a projection expression.
+     * @param projection the projection expression
+     * @param names the expression attribute names used in the projection
+     * @param attribute the name of the attribute
+     * @return true if the attribute is projected by name or by a placeholder for it
+     */
+    private static boolean isProjected(final String projection, final Map<String, String> names,
+        final String attribute) {
+        for (final String path : projection.split(",")) {
+            final String name = path.trim();
+            if (attribute.equals(names.getOrDefault(name, name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addRow(final DynamicDataContainer dc, final long index,
+        final Map<String, AttributeValue> item, final BinaryObjectCellFactory binaryFactory) {
+        final Map<String, DataCell> cells = new HashMap<>();
+        for (final Entry<String, AttributeValue> e : item.entrySet()) {
+            cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue(), binaryFactory));
+        }
+        dc.addRow(new RowKey(String.format("Row%d", index)), cells);
     }
 
     /**
@@ -72,6 +72,18 @@ final class DynamoDBQuerySettings extends DynamoDBReaderSettings {
     private static final String CFG_RANGE_KEY_TYPE = "rangeKeyType";
     private static final String CFG_RANGE_KEY_OPERATOR = "rangeKeyOperator";
     private static final String CFG_SCAN_INDEX_FORWARD = "scanIndexForward";
+
+    private static final String CFG_USE_SHARDS = "useShards";
+    private static final String CFG_NUM_SHARDS = "numShards";
+    private static final String CFG_SHARD_SEPARATOR = "shardSeparator";
+    private static final String CFG_MERGE_SORTED = "mergeSorted";
+    private static final String CFG_SHARD_CONCURRENCY = "shardConcurrency";
+
+    /** Default number of shards a sharded hash key is split into. */
+    static final int DEFAULT_NUM_SHARDS = 10;
+
+    /** Default number of shards queried at the same time. */
+    static final int DEFAULT_SHARD_CONCURRENCY = 10;
     
     private String m_hashKeyName = "";
     private String m_hashKeyValue = "";
@@ -85,6 +97,98 @@ final class DynamoDBQuerySettings extends DynamoDBReaderSettings {
     private String m_rangeKeyOperator = "=";
     private boolean m_scanIndexForward = true;
 
+    private boolean m_useShards = false;
+    private int m_numShards = DEFAULT_NUM_SHARDS;
+    private String m_shardSeparator = "_";
+    private boolean m_mergeSorted = true;
+    private int m_shardConcurrency = DEFAULT_SHARD_CONCURRENCY;
+
+    /**
+     * @return true if the hash key value is the prefix of a write-sharded key and all shards should be queried
+     */
+    boolean isUseShards() {
+        return m_useShards;
+    }
+
+    /**
+     * @param useShards true if the hash key value is the prefix of a write-sharded key and all shards
+     *          should be queried
+     */
+    void setUseShards(final boolean useShards) {
+        m_useShards = useShards;
+    }
+
+    /**
+     * @return the number of shards, the shard suffixes go from 0 to this number minus one
+     */
+    int getNumShards() {
+        return m_numShards;
+    }
+
+    /**
+     * @param numShards the number of shards, the shard suffixes go from 0 to this number minus one
+     */
+    void setNumShards(final int numShards) {
+        m_numShards = numShards;
+    }
+
+    /**
+     * @return the string between the hash key value and the shard number
+     */
+    String getShardSeparator() {
+        return m_shardSeparator;
+    }
+
+    /**
+     * @param shardSeparator the string between the hash key value and the shard number
+     */
+    void setShardSeparator(final String shardSeparator) {
+        m_shardSeparator = shardSeparator;
+    }
+
+    /**
+     * @return true if the items of the shards should be merged in range key order
+     */
+    boolean isMergeSorted() {
+        return m_mergeSorted;
+    }
+
+    /**
+     * @param mergeSorted true if the items of the shards should be merged in range key order
+     */
+    void setMergeSorted(final boolean mergeSorted) {
+        m_mergeSorted = mergeSorted;
+    }
+
+    /**
+     * @return the maximum number of shards queried at the same time
+     */
+    int getShardConcurrency() {
+        return m_shardConcurrency;
+    }
+
+    /**
+     * @param shardConcurrency the maximum number of shards queried at the same time
+     */
+    void setShardConcurrency(final int shardConcurrency) {
+        m_shardConcurrency = shardConcurrency;
+    }
+
+    /**
+     * Creates the hash key values of all shards.
+     * @return the hash key values, or only the configured value if shards are not used
+     */
+    String[] getShardHashKeyValues() {
+        if (!m_useShards) {
+            return new String[] {m_hashKeyValue};
+        }
+        final String[] values = new String[m_numShards];
+        for (int i = 0; i < m_numShards; i++) {
+            values[i] = m_hashKeyValue + m_shardSeparator + i;
+        }
+        return values;
+    }
+
     /**
      * @return in which direction to scan the index or table
      */
@@ -255,6 +359,12 @@ public void saveSettings(final NodeSettingsWO settings) {
         settings.addString(CFG_RANGE_KEY_VALUE2, m_rangeKeyValue2);
         settings.addString(CFG_RANGE_KEY_OPERATOR, m_rangeKeyOperator);
         settings.addBoolean(CFG_SCAN_INDEX_FORWARD, m_scanIndexForward);
+
+        settings.addBoolean(CFG_USE_SHARDS, m_useShards);
+        settings.addInt(CFG_NUM_SHARDS, m_numShards);
+        settings.addString(CFG_SHARD_SEPARATOR, m_shardSeparator);
+        settings.addBoolean(CFG_MERGE_SORTED, m_mergeSorted);
+        settings.addInt(CFG_SHARD_CONCURRENCY, m_shardConcurrency);
     }
 
     /**
@@ -277,6 +387,19 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         m_rangeKeyType = ScalarAttributeType.valueOf(settings.getString(CFG_RANGE_KEY_TYPE));
         m_rangeKeyOperator = settings.getString(CFG_RANGE_KEY_OPERATOR);
         m_scanIndexForward = settings.getBoolean(CFG_SCAN_INDEX_FORWARD);
+
+        // Added later, default to a single unsharded query for old workflows
+        m_useShards = settings.getBoolean(CFG_USE_SHARDS, false);
+        m_numShards = settings.getInt(CFG_NUM_SHARDS, DEFAULT_NUM_SHARDS);
+        m_shardSeparator = settings.getString(CFG_SHARD_SEPARATOR, "_");
+        m_mergeSorted = settings.getBoolean(CFG_MERGE_SORTED, true);
+        m_shardConcurrency = settings.getInt(CFG_SHARD_CONCURRENCY, DEFAULT_SHARD_CONCURRENCY);
+        if (m_numShards < 1) {
+            throw new InvalidSettingsException("The number of shards must be at least 1.");
+        }
+        if (m_shardConcurrency < 1) {
+            throw new InvalidSettingsException("The number of concurrent shard queries must be at least 1.");
+        }
     }
 
     /**
@@ -300,6 +423,12 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
                 settings.getString(CFG_RANGE_KEY_TYPE, ScalarAttributeType.N.toString()));
         m_rangeKeyOperator = settings.getString(CFG_RANGE_KEY_OPERATOR, "=");
         m_scanIndexForward = settings.getBoolean(CFG_SCAN_INDEX_FORWARD, true);
+
+        m_useShards = settings.getBoolean(CFG_USE_SHARDS, false);
+        m_numShards = settings.getInt(CFG_NUM_SHARDS, DEFAULT_NUM_SHARDS);
+        m_shardSeparator = settings.getString(CFG_SHARD_SEPARATOR, "_");
+        m_mergeSorted = settings.getBoolean(CFG_MERGE_SORTED, true);
+        m_shardConcurrency = Math.max(1, settings.getInt(CFG_SHARD_CONCURRENCY, DEFAULT_SHARD_CONCURRENCY));
     }
     
 }
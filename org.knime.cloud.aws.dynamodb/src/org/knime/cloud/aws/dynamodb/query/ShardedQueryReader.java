@@ -0,0 +1,383 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.knime.core.node.ExecutionMonitor;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * Queries a number of hash key shards concurrently and hands out their items as one stream.
+ * The shards are paginated by a bounded number of threads into small bounded queues, so only a few pages per shard
+ * are held in memory at any time. If a comparator is given, the shards are merged with a k-way merge,
+ * which requires the items of every shard to already be sorted by that comparator, as it is the
+ * case for the range key of a query. A shard then gives up its thread whenever its queue is full, so the merge
+ * receives the first pages of all shards even if there are more shards than threads. Otherwise items are returned
+ * in the order their pages arrive.
+ * @author agent
+ *
+ */
+final class ShardedQueryReader implements AutoCloseable {
+
+    /** Interval in which the reading thread checks for cancellation while waiting for pages. */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /** Number of pages a shard can fetch ahead of the reading thread. */
+    private static final int PAGES_AHEAD = 2;
+
+    /** Marks that a shard has no more pages. Compared by identity. */
+    private static final List<Map<String, AttributeValue>> END_OF_SHARD = new ArrayList<>(0);
+
+    private final DynamoDbClient m_ddb;
+    private final List<QueryRequest> m_requests;
+    private final Comparator<Map<String, AttributeValue>> m_comparator;
+
+    private final ExecutorService m_pool;
+    private final AtomicReference<Throwable> m_error = new AtomicReference<>();
+    private final DoubleAdder m_consumedCapacity = new DoubleAdder();
+
+    // Used when merging sorted
+    private final List<Shard> m_shards = new ArrayList<>();
+    private PriorityQueue<Shard> m_heads;
+
+    // Used when not merging sorted, all shards write to the same queue
+    private final BlockingQueue<List<Map<String, AttributeValue>>> m_sharedQueue;
+    private Iterator<Map<String, AttributeValue>> m_currentPage;
+    private int m_numEnded;
+
+    /**
+     * Creates a new instance of {@code ShardedQueryReader} and starts querying all shards.
+     * @param ddb the client to query with, shared by all threads
+     * @param requests one query request per shard
+     * @param comparator the order the items of each shard are returned in by DynamoDB,
+     *          or {@code null} if the shards do not need to be merged in order
+     * @param concurrency the maximum number of shards queried at the same time
+     */
+    ShardedQueryReader(final DynamoDbClient ddb, final List<QueryRequest> requests,
+        final Comparator<Map<String, AttributeValue>> comparator, final int concurrency) {
+        m_ddb = ddb;
+        m_requests = requests;
+        m_comparator = comparator;
+        m_pool = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, requests.size())));
+        m_sharedQueue = comparator == null ? new ArrayBlockingQueue<>(PAGES_AHEAD * requests.size() + 1) : null;
+        for (final QueryRequest request : m_requests) {
+            if (comparator == null) {
+                // The reader takes the pages of any shard, so a shard waiting for space does not block the others
+                m_pool.execute(() -> queryShard(request, m_sharedQueue));
+            } else {
+                final Shard shard = new Shard(request);
+                m_shards.add(shard);
+                scheduleFetch(shard);
+            }
+        }
+    }
+
+    private void queryShard(final QueryRequest request, final BlockingQueue<List<Map<String, AttributeValue>>> queue) {
+        try {
+            for (final QueryResponse page : m_ddb.queryPaginator(request)) {
+                if (page.consumedCapacity() != null) {
+                    m_consumedCapacity.add(page.consumedCapacity().capacityUnits());
+                }
+                if (page.hasItems() && !page.items().isEmpty()) {
+                    queue.put(page.items());
+                }
+            }
+            queue.put(END_OF_SHARD);
+        } catch (final InterruptedException e) {
+            // Reader was closed
+            Thread.currentThread().interrupt();
+        } catch (final Throwable t) {
+            m_error.compareAndSet(null, t);
+        }
+    }
+
+    /**
+     * Fetches pages of a shard into its queue until the queue is full or the shard is exhausted. The thread is then
+     * given to other shards, the reader schedules the shard again once it took a page.
+     */
+    private void fetchPages(final Shard shard) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final QueryResponse page = m_ddb.query(shard.m_lastKey == null ? shard.m_request
+                    : shard.m_request.toBuilder().exclusiveStartKey(shard.m_lastKey).build());
+                if (page.consumedCapacity() != null) {
+                    m_consumedCapacity.add(page.consumedCapacity().capacityUnits());
+                }
+                final boolean last = !page.hasLastEvaluatedKey() || page.lastEvaluatedKey().isEmpty();
+                synchronized (shard) {
+                    // Only scheduled with room for a page and the end marker, so adding never blocks
+                    if (page.hasItems() && !page.items().isEmpty()) {
+                        shard.m_pages.add(page.items());
+                    }
+                    if (last) {
+                        shard.m_pages.add(END_OF_SHARD);
+                        shard.m_ended = true;
+                    } else {
+                        shard.m_lastKey = page.lastEvaluatedKey();
+                    }
+                    if (shard.m_ended || shard.m_pages.remainingCapacity() < 2) {
+                        shard.m_fetching = false;
+                        return;
+                    }
+                }
+            }
+        } catch (final Throwable t) {
+            m_error.compareAndSet(null, t);
+        }
+    }
+
+    /** Continues fetching the pages of a shard if it is not fetching already and its queue has room. */
+    private void scheduleFetch(final Shard shard) {
+        synchronized (shard) {
+            if (!shard.m_fetching && !shard.m_ended && shard.m_pages.remainingCapacity() >= 2) {
+                shard.m_fetching = true;
+                m_pool.execute(() -> fetchPages(shard));
+            }
+        }
+    }
+
+    /**
+     * Returns the next item of the merged shards, blocking until one is available.
+     * @param exec the execution monitor to check for cancellation
+     * @return the next item or {@code null} if all shards are exhausted
+     * @throws Exception if the execution was canceled or a query failed
+     */
+    Map<String, AttributeValue> next(final ExecutionMonitor exec) throws Exception {
+        return m_comparator == null ? nextUnordered(exec) : nextOrdered(exec);
+    }
+
+    private Map<String, AttributeValue> nextUnordered(final ExecutionMonitor exec) throws Exception {
+        while (m_currentPage == null || !m_currentPage.hasNext()) {
+            if (m_numEnded == m_requests.size()) {
+                return null;
+            }
+            final List<Map<String, AttributeValue>> page = take(m_sharedQueue, exec);
+            if (page == END_OF_SHARD) {
+                m_numEnded++;
+            } else {
+                m_currentPage = page.iterator();
+            }
+        }
+        return m_currentPage.next();
+    }
+
+    private Map<String, AttributeValue> nextOrdered(final ExecutionMonitor exec) throws Exception {
+        if (m_heads == null) {
+            // Wait for the first item of every shard before anything can be returned
+            m_heads = new PriorityQueue<>(m_shards.size(), (a, b) -> m_comparator.compare(a.m_head, b.m_head));
+            for (final Shard shard : m_shards) {
+                if (shard.advance(exec)) {
+                    m_heads.add(shard);
+                }
+            }
+        }
+        final Shard min = m_heads.poll();
+        if (min == null) {
+            return null;
+        }
+        final Map<String, AttributeValue> item = min.m_head;
+        if (min.advance(exec)) {
+            m_heads.add(min);
+        }
+        return item;
+    }
+
+    private List<Map<String, AttributeValue>> take(final BlockingQueue<List<Map<String, AttributeValue>>> queue,
+        final ExecutionMonitor exec) throws Exception {
+        while (true) {
+            checkError();
+            exec.checkCanceled();
+            final List<Map<String, AttributeValue>> page = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (page != null) {
+                return page;
+            }
+        }
+    }
+
+    private void checkError() throws Exception {
+        final Throwable t = m_error.get();
+        if (t instanceof Exception) {
+            throw (Exception)t;
+        } else if (t instanceof Error) {
+            throw (Error)t;
+        }
+    }
+
+    /**
+     * @return the read capacity consumed so far, only available if the requests ask for it
+     */
+    double getConsumedCapacity() {
+        return m_consumedCapacity.sum();
+    }
+
+    /**
+     * Stops querying the shards that are not exhausted yet and waits for the running queries, which stop after their
+     * current request.
+     */
+    @Override
+    public void close() {
+        m_pool.shutdownNow();
+        try {
+            while (!m_pool.awaitTermination(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                // keep waiting, requests time out eventually
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a comparator that orders items the way DynamoDB orders them by their range key.
+     * Numbers are compared by value, strings by their UTF-8 bytes and binaries as unsigned bytes.
+     * The range key has to be part of the projection, items without it cannot be ordered.
+     * @param rangeKeyName the name of the range key attribute
+     * @param ascending whether the items are sorted ascending, i.e. the index is scanned forward
+     * @return the comparator
+     */
+    static Comparator<Map<String, AttributeValue>> rangeKeyComparator(final String rangeKeyName,
+        final boolean ascending) {
+        final Comparator<Map<String, AttributeValue>> c =
+                Comparator.comparing(item -> getRangeKey(item, rangeKeyName), ShardedQueryReader::compareKeyValues);
+        return ascending ? c : c.reversed();
+    }
+
+    private static AttributeValue getRangeKey(final Map<String, AttributeValue> item, final String rangeKeyName) {
+        final AttributeValue value = item.get(rangeKeyName);
+        if (value == null) {
+            throw new IllegalStateException("The range key \"" + rangeKeyName
+                + "\" is not part of the item, the shards cannot be merged in range key order.");
+        }
+        return value;
+    }
+
+    private static int compareKeyValues(final AttributeValue a, final AttributeValue b) {
+        if (a.n() != null && b.n() != null) {
+            return new BigDecimal(a.n()).compareTo(new BigDecimal(b.n()));
+        } else if (a.s() != null && b.s() != null) {
+            return compareCodePoints(a.s(), b.s());
+        } else if (a.b() != null && b.b() != null) {
+            return compareUnsigned(a.b().asByteArray(), b.b().asByteArray());
+        }
+        throw new IllegalArgumentException("Range key values must be of the same scalar type.");
+    }
+
+    /** Code point order is the same as the UTF-8 byte order DynamoDB uses, unlike {@link String#compareTo}. */
+    private static int compareCodePoints(final String a, final String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            final int ca = a.codePointAt(i);
+            final int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static int compareUnsigned(final byte[] a, final byte[] b) {
+        final int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            final int cmp = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /** The pages of one shard and the item of it that is next in line for the merge. */
+    private final class Shard {
+        private final QueryRequest m_request;
+        private final BlockingQueue<List<Map<String, AttributeValue>>> m_pages =
+                new ArrayBlockingQueue<>(PAGES_AHEAD + 1);
+        private Iterator<Map<String, AttributeValue>> m_page;
+        private Map<String, AttributeValue> m_head;
+
+        // Guarded by the shard, changed by the fetching thread and the reader
+        private Map<String, AttributeValue> m_lastKey;
+        private boolean m_fetching;
+        private boolean m_ended;
+
+        private Shard(final QueryRequest request) {
+            m_request = request;
+        }
+
+        /** Moves to the next item, returns false if the shard is exhausted. */
+        private boolean advance(final ExecutionMonitor exec) throws Exception {
+            while (m_page == null || !m_page.hasNext()) {
+                final List<Map<String, AttributeValue>> page = take(m_pages, exec);
+                scheduleFetch(this);
+                if (page == END_OF_SHARD) {
+                    m_head = null;
+                    return false;
+                }
+                m_page = page.iterator();
+            }
+            m_head = m_page.next();
+            return true;
+        }
+    }
+}
@@ -51,6 +51,7 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -61,6 +62,7 @@
 import javax.swing.SpinnerNumberModel;
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.cloud.aws.dynamodb.ui.DynamoDBDryRunPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBFilterAndProjectPanel;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBTablePanel;
 import org.knime.cloud.aws.dynamodb.ui.indexes.IndexSelectionPanel;
@@ -87,16 +89,21 @@
  */
 final class DynamoDBScanNodeDialog extends NodeDialogPane {
 
+    /** Number of items looked at to find the attributes that can be picked for the projection. */
+    private static final int ATTRIBUTE_SAMPLE_SIZE = 100;
+
     private CloudConnectionInformation m_conCredentials = null;
 
     private final DynamoDBScanSettings m_settings = new DynamoDBScanSettings();
     private DynamoDBTablePanel m_table;
-    private final DynamoDBFilterAndProjectPanel m_fp = new DynamoDBFilterAndProjectPanel();
+    private final DynamoDBFilterAndProjectPanel m_fp = new DynamoDBFilterAndProjectPanel(this::sampleAttributeNames);
 
     // Scan
     private final JCheckBox m_consistentRead = new JCheckBox("Consistent Read");
     private final JSpinner m_limit = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
+    private final JCheckBox m_binaryAsBinaryObject = new JCheckBox("Read binary attributes as binary objects");
+    private final DynamoDBDryRunPanel m_dryRun = new DynamoDBDryRunPanel();
 
     private IndexSelectionPanel m_indexSelectionPanel;
 
@@ -126,6 +133,12 @@ private JPanel createStdSettingsTab() {
 
         c.gridy++;
         stdSettings.add(m_flowVars, c);
+
+        c.gridy++;
+        stdSettings.add(m_binaryAsBinaryObject, c);
+
+        c.gridy++;
+        stdSettings.add(m_dryRun, c);
         return stdSettings;
     }
 
@@ -173,6 +186,15 @@ private JPanel createScanPanel() {
         return scanPanel;
     }
 
+    private Collection<String> sampleAttributeNames() throws Exception {
+        if (m_conCredentials == null) {
+            throw new InvalidSettingsException("The node must be connected to an Amazon Authentication node.");
+        }
+        final DynamoDBTableSettings table = new DynamoDBTableSettings();
+        m_table.saveToSettings(table);
+        return DynamoDBUtil.sampleAttributeNames(table, m_conCredentials, ATTRIBUTE_SAMPLE_SIZE);
+    }
+
     private List<String> getTableNames() {
         try {
             return DynamoDBUtil.getTableNames(m_conCredentials, 20);
@@ -206,10 +228,13 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
         m_fp.setFilterExpression(m_settings.getFilterExpr());
         m_fp.setProjectionExpression(m_settings.getProjectionExpr());
+        m_fp.setProjectedAttributes(m_settings.getProjectedAttributes());
 
         m_fp.updatePlaceholdersFromSettings(m_settings.getPlaceholderSettings());
 
         m_consistentRead.setSelected(m_settings.isConsistentRead());
+        m_binaryAsBinaryObject.setSelected(m_settings.isBinaryAsBinaryObject());
+        m_dryRun.updateFromSettings(m_settings.getDryRunSettings());
 
         m_conCredentials = KNIMEUtil.getConnectionInformationInDialog(specs);
 
@@ -228,9 +253,12 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.setIndexName(m_indexSelectionPanel.getIndexName());
         m_settings.setFilterExpr(m_fp.getFilterExpression());
         m_settings.setProjectionExpr(m_fp.getProjectionExpression());
+        m_settings.setProjectedAttributes(m_fp.getProjectedAttributes());
 
         m_fp.savePlaceholdersToSettings(m_settings.getPlaceholderSettings());
         m_settings.setConsistentRead(m_consistentRead.isSelected());
+        m_settings.setBinaryAsBinaryObject(m_binaryAsBinaryObject.isSelected());
+        m_dryRun.saveToSettings(m_settings.getDryRunSettings());
         m_settings.saveSettings(settings);
     }
 }
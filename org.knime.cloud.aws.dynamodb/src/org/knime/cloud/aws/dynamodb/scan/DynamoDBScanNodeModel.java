@@ -46,19 +46,33 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
+import org.knime.cloud.aws.dynamodb.CapacityEstimator;
 import org.knime.cloud.aws.dynamodb.DynamicDataContainer;
 import org.knime.cloud.aws.dynamodb.NodeConstants;
 import org.knime.cloud.aws.dynamodb.ValueMapping;
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBDryRunSettings;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBToKNIMEUtil;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.DataType;
 import org.knime.core.data.RowKey;
+import org.knime.core.data.blob.BinaryObjectCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -73,11 +87,15 @@
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.LocalSecondaryIndexDescription;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest.Builder;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 import software.amazon.awssdk.services.dynamodb.paginators.ScanIterable;
 
 /**
@@ -87,6 +105,11 @@
  */
 final class DynamoDBScanNodeModel extends NodeModel {
 
+    private static final String EST_CAPACITY_UNITS_FLOW_VAR = "scanEstimatedCapacityUnits";
+    private static final String EST_REQUESTS_FLOW_VAR = "scanEstimatedRequests";
+    private static final String EST_SIZE_FLOW_VAR = "scanEstimatedSizeBytes";
+    private static final String EST_DURATION_FLOW_VAR = "scanEstimatedDurationSeconds";
+
     private final DynamoDBScanSettings m_settings = new DynamoDBScanSettings();
 
     /**
@@ -99,6 +122,9 @@ final class DynamoDBScanNodeModel extends NodeModel {
 
     @Override
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getDryRunSettings().isDryRun()) {
+            return new PortObjectSpec[] {inSpecs[0], createEstimateSpec()};
+        }
         // We can't know what fields we return
         return new PortObjectSpec[] {inSpecs[0], null};
     }
@@ -110,6 +136,10 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
         final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
 
+        if (m_settings.getDryRunSettings().isDryRun()) {
+            return new PortObject[] {inObjects[0], estimateScan(ddb, exec)};
+        }
+
         // Setup maps for placeholders in the expressions. DynamoDB requires this for reserved keywords
         // and strange column names. We always use it to be sure.
         final Map<String, AttributeValue> valueMap = new HashMap<>();
@@ -124,18 +154,20 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
             .consistentRead(m_settings.isConsistentRead());
 
         final boolean hasFilter = m_settings.getFilterExpr().trim().length() > 0;
-        final boolean hasProjection = m_settings.getProjectionExpr().trim().length() > 0;
+        final Map<String, String> names = new HashMap<>(m_settings.getPlaceholderSettings().getNames());
+        final String projection = m_settings.createProjectionExpression(names);
+        final boolean hasProjection = !projection.isEmpty();
 
         if (hasFilter) {
             builder.filterExpression(m_settings.getFilterExpr());
         }
         if (hasProjection) {
-            builder.projectionExpression(m_settings.getProjectionExpr());
+            builder.projectionExpression(projection);
         }
 
         if (hasFilter || hasProjection) {
-            if (!m_settings.getPlaceholderSettings().getNames().isEmpty()) {
-                builder.expressionAttributeNames(m_settings.getPlaceholderSettings().getNames());
+            if (!names.isEmpty()) {
+                builder.expressionAttributeNames(names);
             }
             if (!valueMap.isEmpty()) {
                 builder.expressionAttributeValues(valueMap);
@@ -161,6 +193,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         }
 
         final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        final BinaryObjectCellFactory binaryFactory =
+                m_settings.isBinaryAsBinaryObject() ? new BinaryObjectCellFactory(exec) : null;
 
         double consumedCap = 0.0;
         long rowCount = 0;
@@ -178,7 +212,7 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
                 exec.checkCanceled();
                 final Map<String, DataCell> cells = new HashMap<>();
                 for (final Entry<String, AttributeValue> e : item.entrySet()) {
-                    cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()));
+                    cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue(), binaryFactory));
                 }
                 dc.addRow(new RowKey(String.format("Row%d", rowCount++)), cells);
             }
@@ -192,6 +226,104 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         return new PortObject[] {inObjects[0], dc.getTable()};
     }
 
+    private static DataTableSpec createEstimateSpec() {
+        final DataTableSpecCreator creator = new DataTableSpecCreator();
+        creator.addColumns(
+            new DataColumnSpecCreator("numItems", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("sizeBytes", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("capacityUnits", DoubleCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("requests", LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("durationSeconds", DoubleCell.TYPE).createSpec());
+        return creator.createSpec();
+    }
+
+    /**
+     * Estimates the cost of the scan from the item count DynamoDB reports for the table or index
+     * and the sizes of the items returned by a single limited scan request.
+     */
+    private BufferedDataTable estimateScan(final DynamoDbClient ddb, final ExecutionContext exec)
+            throws InvalidSettingsException, CanceledExecutionException {
+        final DynamoDBDryRunSettings dryRun = m_settings.getDryRunSettings();
+        final Builder builder = ScanRequest.builder()
+                .tableName(m_settings.getTableName())
+                .consistentRead(m_settings.isConsistentRead())
+                .limit(dryRun.getSampleSize());
+        if (m_settings.getUseIndex()) {
+            builder.indexName(m_settings.getIndexName());
+        }
+
+        final TableDescription table;
+        final ScanResponse sample;
+        try {
+            table = ddb.describeTable(DescribeTableRequest.builder().tableName(m_settings.getTableName()).build())
+                    .table();
+            sample = ddb.scan(builder.build());
+        } catch (final ResourceNotFoundException e) {
+            final String msg = m_settings.getUseIndex()
+                    ? String.format(NodeConstants.TABLE_OR_INDEX_MISSING_ERROR,
+                            m_settings.getTableName(), m_settings.getIndexName())
+                    : String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName());
+            throw new InvalidSettingsException(msg, e);
+        }
+
+        final CapacityEstimator estimator = new CapacityEstimator();
+        for (final Map<String, AttributeValue> item : sample.items()) {
+            exec.checkCanceled();
+            estimator.add(item);
+        }
+
+        // Local secondary indexes share the capacity of the table
+        long numItems = table.itemCount();
+        double rate = CapacityEstimator.getProvisionedRate(table.provisionedThroughput(), false);
+        if (m_settings.getUseIndex()) {
+            final Optional<GlobalSecondaryIndexDescription> gsi = table.globalSecondaryIndexes().stream()
+                    .filter(i -> i.indexName().equals(m_settings.getIndexName())).findFirst();
+            if (gsi.isPresent()) {
+                numItems = gsi.get().itemCount();
+                rate = CapacityEstimator.getProvisionedRate(gsi.get().provisionedThroughput(), false);
+            } else {
+                numItems = table.localSecondaryIndexes().stream()
+                        .filter(i -> i.indexName().equals(m_settings.getIndexName()))
+                        .mapToLong(LocalSecondaryIndexDescription::itemCount).findFirst().orElse(numItems);
+            }
+        }
+        if (m_settings.getLimit() > 0) {
+            numItems = Math.min(numItems, m_settings.getLimit());
+        }
+        if (dryRun.getCapacityRate() > 0) {
+            rate = dryRun.getCapacityRate();
+        }
+
+        final CapacityEstimator.Estimate estimate = estimator.estimateScan(numItems, m_settings.isConsistentRead(),
+            m_settings.getLimit(), rate);
+        pushFlowVariableDouble(EST_CAPACITY_UNITS_FLOW_VAR, estimate.getCapacityUnits());
+        pushFlowVariableInt(EST_REQUESTS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, estimate.getNumRequests()));
+        pushFlowVariableDouble(EST_SIZE_FLOW_VAR, estimate.getSize());
+        final List<String> warnings = new ArrayList<>();
+        if (estimate.hasDuration()) {
+            pushFlowVariableDouble(EST_DURATION_FLOW_VAR, estimate.getDurationSeconds());
+        } else {
+            warnings.add("The duration can only be estimated for tables with provisioned capacity. "
+                + "Set the capacity units per second to estimate it for on-demand tables.");
+        }
+        if (m_settings.getFilterExpr().trim().length() > 0) {
+            warnings.add("The filter is not evaluated in a dry run, the estimate is an upper bound.");
+        }
+        if (!warnings.isEmpty()) {
+            setWarningMessage(String.join("\n", warnings));
+        }
+
+        final BufferedDataContainer dc = exec.createDataContainer(createEstimateSpec());
+        dc.addRowToTable(new DefaultRow(RowKey.createRowKey(0L),
+            new LongCell(estimate.getNumItems()),
+            new LongCell(estimate.getSize()),
+            new DoubleCell(estimate.getCapacityUnits()),
+            new LongCell(estimate.getNumRequests()),
+            estimate.hasDuration() ? new DoubleCell(estimate.getDurationSeconds()) : DataType.getMissingCell()));
+        dc.close();
+        return dc.getTable();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -48,7 +48,11 @@
  */
 package org.knime.cloud.aws.dynamodb.scan;
 
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBDryRunSettings;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBReaderSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
 
 /**
  * Settings for the DynamoDB Scan node.
@@ -56,5 +60,44 @@
  *
  */
 final class DynamoDBScanSettings extends DynamoDBReaderSettings {
-    // No extra settings necessary so far
+
+    private final DynamoDBDryRunSettings m_dryRunSettings = new DynamoDBDryRunSettings();
+
+    /**
+     * @return settings for estimating the consumed capacity instead of scanning the table
+     */
+    DynamoDBDryRunSettings getDryRunSettings() {
+        return m_dryRunSettings;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        m_dryRunSettings.saveSettings(settings);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_dryRunSettings.loadSettings(settings);
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_dryRunSettings.loadSettingsForDialog(settings);
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.settings;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for a dry run that only estimates the capacity a read or write node would consume.
+ * @author agent
+ */
+public class DynamoDBDryRunSettings {
+
+    private static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+    private static final String CFG_DRY_RUN = "dryRun";
+    private static final String CFG_SAMPLE_SIZE = "dryRunSampleSize";
+    private static final String CFG_CAPACITY_RATE = "dryRunCapacityRate";
+
+    private boolean m_dryRun = false;
+    private int m_sampleSize = DEFAULT_SAMPLE_SIZE;
+    private double m_capacityRate = 0;
+
+    /**
+     * @return true if the node should only estimate the consumed capacity instead of reading or writing items
+     */
+    public boolean isDryRun() {
+        return m_dryRun;
+    }
+
+    /**
+     * @param dryRun true if the node should only estimate the consumed capacity
+     * instead of reading or writing items
+     */
+    public void setDryRun(final boolean dryRun) {
+        m_dryRun = dryRun;
+    }
+
+    /**
+     * @return the number of items whose size is measured for the estimate
+     */
+    public int getSampleSize() {
+        return m_sampleSize;
+    }
+
+    /**
+     * @param sampleSize the number of items whose size is measured for the estimate
+     */
+    public void setSampleSize(final int sampleSize) {
+        m_sampleSize = sampleSize;
+    }
+
+    /**
+     * @return the capacity units per second the duration is estimated for,
+     * 0 to use the provisioned capacity of the table
+     */
+    public double getCapacityRate() {
+        return m_capacityRate;
+    }
+
+    /**
+     * @param capacityRate the capacity units per second the duration is estimated for,
+     * 0 to use the provisioned capacity of the table
+     */
+    public void setCapacityRate(final double capacityRate) {
+        m_capacityRate = capacityRate;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    public void saveSettings(final NodeSettingsWO settings) {
+        settings.addBoolean(CFG_DRY_RUN, m_dryRun);
+        settings.addInt(CFG_SAMPLE_SIZE, m_sampleSize);
+        settings.addDouble(CFG_CAPACITY_RATE, m_capacityRate);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        // Added later, older nodes always read or write
+        m_dryRun = settings.getBoolean(CFG_DRY_RUN, false);
+        m_sampleSize = settings.getInt(CFG_SAMPLE_SIZE, DEFAULT_SAMPLE_SIZE);
+        m_capacityRate = settings.getDouble(CFG_CAPACITY_RATE, 0);
+        if (m_sampleSize < 1) {
+            throw new InvalidSettingsException("The dry run sample size must be at least 1.");
+        }
+        if (m_capacityRate < 0) {
+            throw new InvalidSettingsException("The dry run capacity rate must not be negative.");
+        }
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        m_dryRun = settings.getBoolean(CFG_DRY_RUN, false);
+        m_sampleSize = settings.getInt(CFG_SAMPLE_SIZE, DEFAULT_SAMPLE_SIZE);
+        m_capacityRate = settings.getDouble(CFG_CAPACITY_RATE, 0);
+    }
+}
@@ -48,6 +48,9 @@
  */
 package org.knime.cloud.aws.dynamodb.settings;
 
+import java.util.Map;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -65,10 +68,13 @@ public class DynamoDBReaderSettings extends DynamoDBTableSettings {
     private static final String CFG_INDEX_NAME = "indexName";
     private static final String CFG_FILTER = "filter";
     private static final String CFG_PROJECTION = "projection";
+    private static final String CFG_PROJECTED_ATTRIBUTES = "projectedAttributes";
 
     private static final String CFG_CONSISTENT_READ = "consistentRead";
     
     private static final String CFG_FLOW_VAR_CONSUMED_CAP_UNTS = "consumedCapUnitsFlowVar";
+
+    private static final String CFG_BINARY_AS_BINARY_OBJECT = "binaryAsBinaryObject";
     
     private boolean m_consistentRead = false;
     private int m_limit = UNLIMITED;
@@ -76,8 +82,11 @@ public class DynamoDBReaderSettings extends DynamoDBTableSettings {
     private String m_indexName = "";
     private String m_filterExpr = "";
     private String m_projectionExpr = "";
+    private String[] m_projectedAttributes = new String[0];
     private DynamoDBPlaceholderSettings m_placeholderSettings = new DynamoDBPlaceholderSettings();
     private boolean m_flowVarConsumedCapUnits = false;
+    // New nodes read binaries as binary objects, old nodes keep reading them as strings
+    private boolean m_binaryAsBinaryObject = true;
     
     /**
      * @return whether to use an index with the name given in {@link #getIndexName() getIndexName}
@@ -189,6 +198,46 @@ public void setProjectionExpr(final String projectionExpr) {
         m_projectionExpr = projectionExpr;
     }
     
+    /**
+     * @return names of attributes to retrieve in addition to the projection expression,
+     * the projection expression for them is generated when the node is executed
+     */
+    public String[] getProjectedAttributes() {
+        return m_projectedAttributes;
+    }
+
+    /**
+     * @param projectedAttributes names of attributes to retrieve in addition to the projection expression,
+     * the projection expression for them is generated when the node is executed
+     */
+    public void setProjectedAttributes(final String[] projectedAttributes) {
+        m_projectedAttributes = projectedAttributes;
+    }
+
+    /**
+     * Creates the projection expression from the typed expression and the selected attributes.
+     * @param names the expression attribute names, placeholders for the selected attributes are added to it
+     * @return the projection expression or an empty string if all attributes should be retrieved
+     */
+    public String createProjectionExpression(final Map<String, String> names) {
+        return DynamoDBUtil.createProjectionExpression(m_projectionExpr, m_projectedAttributes, names);
+    }
+
+    /**
+     * @return whether binary attributes are read as binary objects instead of being decoded to strings
+     */
+    public boolean isBinaryAsBinaryObject() {
+        return m_binaryAsBinaryObject;
+    }
+
+    /**
+     * @param binaryAsBinaryObject whether binary attributes are read as binary objects
+     * instead of being decoded to strings
+     */
+    public void setBinaryAsBinaryObject(final boolean binaryAsBinaryObject) {
+        m_binaryAsBinaryObject = binaryAsBinaryObject;
+    }
+
     /**
      * @return Settings for expression placeholders
      */
@@ -211,6 +260,8 @@ public void saveSettings(final NodeSettingsWO settings) {
         settings.addBoolean(CFG_CONSISTENT_READ, m_consistentRead);
         settings.addString(CFG_FILTER, m_filterExpr);
         settings.addString(CFG_PROJECTION, m_projectionExpr);
+        settings.addStringArray(CFG_PROJECTED_ATTRIBUTES, m_projectedAttributes);
+        settings.addBoolean(CFG_BINARY_AS_BINARY_OBJECT, m_binaryAsBinaryObject);
         m_placeholderSettings.saveSettings(settings);
     }
 
@@ -230,6 +281,10 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ);
         m_filterExpr = settings.getString(CFG_FILTER);
         m_projectionExpr = settings.getString(CFG_PROJECTION);
+        // Added later, workflows created before only have the projection expression
+        m_projectedAttributes = settings.getStringArray(CFG_PROJECTED_ATTRIBUTES, new String[0]);
+        // Added later, workflows created before read binaries as strings
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT, false);
         m_placeholderSettings.loadSettings(settings);
     }
 
@@ -248,6 +303,8 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         m_consistentRead = settings.getBoolean(CFG_CONSISTENT_READ, false);
         m_filterExpr = settings.getString(CFG_FILTER, "");
         m_projectionExpr = settings.getString(CFG_PROJECTION, "");
+        m_projectedAttributes = settings.getStringArray(CFG_PROJECTED_ATTRIBUTES, new String[0]);
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT, false);
         m_placeholderSettings.loadSettingsForDialog(settings);
     }
 }
@@ -0,0 +1,343 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.cloud.aws.dynamodb.DynamicDataContainer;
+import org.knime.cloud.aws.dynamodb.NodeConstants;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBToKNIMEUtil;
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.blob.BinaryObjectCellFactory;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.port.PortType;
+import org.knime.core.util.FileUtil;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.StreamSpecification;
+import software.amazon.awssdk.services.dynamodb.model.StreamViewType;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+
+/**
+ * The {@code NodeModel} for the DynamoDB Snapshot Read node.
+ * The items of a point-in-time export are loaded first and the changes from the table's stream are applied
+ * on top of them up to the target time, which results in the state of the table at that time.
+ *
+ * @author agent
+ */
+final class DynamoDBSnapshotReadNodeModel extends NodeModel {
+
+    private static final String NUM_ITEMS_FLOW_VAR = "snapshotNumItems";
+    private static final String NUM_EXPORTED_FLOW_VAR = "snapshotNumExportedItems";
+    private static final String NUM_RECORDS_FLOW_VAR = "snapshotNumStreamRecords";
+    private static final String TIME_FLOW_VAR = "snapshotTime";
+
+    // DynamoDB keeps stream records for 24 hours
+    private static final Duration STREAM_RETENTION = Duration.ofHours(24);
+    // Creation times of stream records are approximate, so records shortly before the export are applied again
+    private static final Duration CLOCK_MARGIN = Duration.ofMinutes(1);
+
+    private final DynamoDBSnapshotReadSettings m_settings = new DynamoDBSnapshotReadSettings();
+
+    /**
+     * Default Constructor.
+     */
+    DynamoDBSnapshotReadNodeModel() {
+        super(new PortType[] {AmazonConnectionInformationPortObject.TYPE},
+                new PortType[] {AmazonConnectionInformationPortObject.TYPE, BufferedDataTable.TYPE});
+    }
+
+    @Override
+    protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        if (m_settings.getTableName().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify a table.");
+        }
+        if (m_settings.getExportDirectory().trim().isEmpty()) {
+            throw new InvalidSettingsException("Please specify the directory of the export.");
+        }
+        // We can't know what fields we return
+        return new PortObjectSpec[] {inSpecs[0], null};
+    }
+
+    @Override
+    protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec) throws Exception {
+        final CloudConnectionInformation conInfo = inObjects[0] == null
+                ? null : ((AmazonConnectionInformationPortObject)inObjects[0]).getConnectionInformation();
+        final DynamoDbClient ddb = DynamoDBUtil.createClient(m_settings, conInfo);
+
+        final TableDescription table;
+        try {
+            table = ddb.describeTable(DescribeTableRequest.builder().tableName(m_settings.getTableName()).build())
+                    .table();
+        } catch (final ResourceNotFoundException e) {
+            throw new InvalidSettingsException(
+                String.format(NodeConstants.TABLE_MISSING_ERROR, m_settings.getTableName()), e);
+        }
+        checkStream(table);
+
+        final ExportFileReader export;
+        try {
+            export = new ExportFileReader(resolveDirectory(m_settings.getExportDirectory()));
+        } catch (final IOException e) {
+            throw new InvalidSettingsException(e.getMessage(), e);
+        }
+        if (!export.getTableArn().isEmpty() && !export.getTableArn().equals(table.tableArn())) {
+            throw new InvalidSettingsException("The export was created from table " + export.getTableArn()
+                + " and not from " + table.tableArn() + ".");
+        }
+
+        final Instant now = Instant.now();
+        Instant target = m_settings.getTargetInstant(now);
+        final Instant exportTime = export.getExportTime();
+        if (target.isBefore(exportTime)) {
+            throw new InvalidSettingsException("The target time " + target
+                + " is before the time of the export (" + exportTime + ").");
+        }
+        if (target.isAfter(now)) {
+            setWarningMessage("The target time is in the future, the snapshot contains all changes until now.");
+            target = now;
+        }
+        if (exportTime.isBefore(now.minus(STREAM_RETENTION))) {
+            throw new InvalidSettingsException("The export is older than 24 hours, so the stream no longer "
+                + "contains all changes since the export. Please create a new export.");
+        }
+        checkStreamCreation(table.latestStreamLabel(), exportTime);
+
+        try (SnapshotMerger merger = new SnapshotMerger(getKeyAttributes(table))) {
+            return readSnapshot(export, table, target, merger, conInfo, inObjects, exec);
+        }
+    }
+
+    /**
+     * Adds the exported items and the stream records to the merger and creates the table of the snapshot.
+     */
+    private PortObject[] readSnapshot(final ExportFileReader export, final TableDescription table, final Instant target,
+        final SnapshotMerger merger, final CloudConnectionInformation conInfo, final PortObject[] inObjects,
+        final ExecutionContext exec) throws Exception {
+        final Instant exportTime = export.getExportTime();
+        exec.setMessage("Reading export");
+        final ExecutionMonitor exportExec = exec.createSubProgress(0.4);
+        final List<Path> files = export.getDataFiles();
+        for (int i = 0; i < files.size(); i++) {
+            exportExec.setProgress((double)i / files.size());
+            ExportFileReader.read(files.get(i), item -> {
+                exec.checkCanceled();
+                merger.addExported(item);
+            });
+        }
+
+        final DynamoDbStreamsClient streams = DynamoDBUtil.createStreamsClient(m_settings, conInfo);
+        final StreamChangeReader changes = new StreamChangeReader(streams, table.latestStreamArn());
+        try {
+            changes.read(exportTime.minus(CLOCK_MARGIN), target, merger::apply, exec.createSubProgress(0.4));
+        } catch (final TrimmedDataAccessException e) {
+            throw new InvalidSettingsException("Changes since the export were already removed from the stream. "
+                + "Please create a new export.", e);
+        }
+
+        exec.setMessage("Creating table");
+        final ExecutionMonitor tableExec = exec.createSubProgress(0.2);
+        final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        final BinaryObjectCellFactory binaryFactory =
+                m_settings.isBinaryAsBinaryObject() ? new BinaryObjectCellFactory(exec) : null;
+        final double numItems = merger.getNumEntries();
+        final long[] rowCount = {0};
+        merger.forEach(item -> {
+            exec.checkCanceled();
+            tableExec.setProgress(rowCount[0] / numItems);
+            final Map<String, DataCell> cells = new HashMap<>();
+            for (final Entry<String, AttributeValue> e : item.entrySet()) {
+                cells.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue(), binaryFactory));
+            }
+            dc.addRow(RowKey.createRowKey(rowCount[0]++), cells);
+        });
+        dc.close();
+
+        pushFlowVariableInt(NUM_ITEMS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, merger.size()));
+        pushFlowVariableInt(NUM_EXPORTED_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, merger.getNumExported()));
+        pushFlowVariableInt(NUM_RECORDS_FLOW_VAR, (int)Math.min(Integer.MAX_VALUE, changes.getNumRecords()));
+        pushFlowVariableString(TIME_FLOW_VAR, target.toString());
+
+        return new PortObject[] {inObjects[0], dc.getTable()};
+    }
+
+    private static void checkStream(final TableDescription table) throws InvalidSettingsException {
+        final StreamSpecification stream = table.streamSpecification();
+        if (stream == null || !Boolean.TRUE.equals(stream.streamEnabled()) || table.latestStreamArn() == null) {
+            throw new InvalidSettingsException("The table \"" + table.tableName() + "\" has no stream enabled.");
+        }
+        if (stream.streamViewType() != StreamViewType.NEW_IMAGE
+                && stream.streamViewType() != StreamViewType.NEW_AND_OLD_IMAGES) {
+            throw new InvalidSettingsException("The stream of table \"" + table.tableName()
+                + "\" must contain new images (NEW_IMAGE or NEW_AND_OLD_IMAGES).");
+        }
+    }
+
+    /**
+     * The label of a stream is the UTC time it was created. If the stream was enabled after the export,
+     * changes between the export and the creation of the stream are missing.
+     */
+    private static void checkStreamCreation(final String streamLabel, final Instant exportTime)
+            throws InvalidSettingsException {
+        final Instant created;
+        try {
+            created = LocalDateTime.parse(streamLabel).toInstant(ZoneOffset.UTC);
+        } catch (final DateTimeParseException | NullPointerException e) {
+            // The label format is not guaranteed, so we cannot check it
+            return;
+        }
+        if (created.isAfter(exportTime)) {
+            throw new InvalidSettingsException("The stream of the table was enabled at " + created
+                + ", after the export. Please create a new export.");
+        }
+    }
+
+    private static List<String> getKeyAttributes(final TableDescription table) {
+        final List<String> keys = new ArrayList<>();
+        for (final KeySchemaElement key : table.keySchema()) {
+            // The hash key comes first, so the order does not depend on the order of the key schema
+            if (key.keyType() == KeyType.HASH) {
+                keys.add(0, key.attributeName());
+            } else {
+                keys.add(key.attributeName());
+            }
+        }
+        return keys;
+    }
+
+    private static Path resolveDirectory(final String directory) throws InvalidSettingsException {
+        final Path p;
+        try {
+            p = FileUtil.resolveToPath(FileUtil.toURL(directory.trim()));
+        } catch (final Exception e) {
+            throw new InvalidSettingsException("The export directory \"" + directory + "\" is not a valid path.", e);
+        }
+        if (p == null) {
+            throw new InvalidSettingsException(
+                "The export directory \"" + directory + "\" is not on a local file system.");
+        }
+        return p;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveSettingsTo(final NodeSettingsWO settings) {
+        m_settings.saveSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final DynamoDBSnapshotReadSettings s = new DynamoDBSnapshotReadSettings();
+        s.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        m_settings.loadSettings(settings);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void reset() {
+    }
+}
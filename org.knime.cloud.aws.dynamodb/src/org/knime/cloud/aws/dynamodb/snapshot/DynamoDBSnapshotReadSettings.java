@@ -0,0 +1,172 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+
+/**
+ * Settings for the DynamoDB Snapshot Read node.
+ * @author agent
+ *
+ */
+final class DynamoDBSnapshotReadSettings extends DynamoDBTableSettings {
+
+    private static final String CFG_EXPORT_DIRECTORY = "exportDirectory";
+    private static final String CFG_TARGET_TIME = "targetTime";
+    private static final String CFG_BINARY_AS_BINARY_OBJECT = "binaryAsBinaryObject";
+
+    private String m_exportDirectory = "";
+    private String m_targetTime = "";
+    private boolean m_binaryAsBinaryObject = true;
+
+    /**
+     * @return the path or URL of the downloaded export directory containing the manifest files and the data folder
+     */
+    String getExportDirectory() {
+        return m_exportDirectory;
+    }
+
+    /**
+     * @param exportDirectory the path or URL of the downloaded export directory containing the manifest files
+     * and the data folder
+     */
+    void setExportDirectory(final String exportDirectory) {
+        m_exportDirectory = exportDirectory;
+    }
+
+    /**
+     * @return the point in time of the snapshot as ISO-8601 instant, empty for the time of execution
+     */
+    String getTargetTime() {
+        return m_targetTime;
+    }
+
+    /**
+     * @param targetTime the point in time of the snapshot as ISO-8601 instant, empty for the time of execution
+     */
+    void setTargetTime(final String targetTime) {
+        m_targetTime = targetTime;
+    }
+
+    /**
+     * @param now the time of execution
+     * @return the point in time of the snapshot
+     * @throws InvalidSettingsException if the target time is not a valid instant
+     */
+    Instant getTargetInstant(final Instant now) throws InvalidSettingsException {
+        if (m_targetTime.trim().isEmpty()) {
+            return now;
+        }
+        try {
+            return Instant.parse(m_targetTime.trim());
+        } catch (final DateTimeParseException e) {
+            throw new InvalidSettingsException("The target time \"" + m_targetTime
+                + "\" is not a valid ISO-8601 instant such as 2019-07-01T12:00:00Z.", e);
+        }
+    }
+
+    /**
+     * @return true if binary attributes are read as binary objects, false if they are read as strings
+     */
+    boolean isBinaryAsBinaryObject() {
+        return m_binaryAsBinaryObject;
+    }
+
+    /**
+     * @param binaryAsBinaryObject true if binary attributes are read as binary objects,
+     * false if they are read as strings
+     */
+    void setBinaryAsBinaryObject(final boolean binaryAsBinaryObject) {
+        m_binaryAsBinaryObject = binaryAsBinaryObject;
+    }
+
+    /**
+     * Saves this settings object to node settings.
+     * @param settings the node settings to save to
+     */
+    @Override
+    public void saveSettings(final NodeSettingsWO settings) {
+        super.saveSettings(settings);
+        settings.addString(CFG_EXPORT_DIRECTORY, m_exportDirectory);
+        settings.addString(CFG_TARGET_TIME, m_targetTime);
+        settings.addBoolean(CFG_BINARY_AS_BINARY_OBJECT, m_binaryAsBinaryObject);
+    }
+
+    /**
+     * Loads settings from node settings.
+     * @param settings the node settings to load from
+     * @throws InvalidSettingsException if the settings cannot be loaded
+     */
+    @Override
+    public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        super.loadSettings(settings);
+        m_exportDirectory = settings.getString(CFG_EXPORT_DIRECTORY);
+        m_targetTime = settings.getString(CFG_TARGET_TIME);
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT);
+        getTargetInstant(Instant.now());
+    }
+
+    /**
+     * Loads settings with defaults from node settings.
+     * @param settings the node settings to load from
+     */
+    @Override
+    public void loadSettingsForDialog(final NodeSettingsRO settings) {
+        super.loadSettingsForDialog(settings);
+        m_exportDirectory = settings.getString(CFG_EXPORT_DIRECTORY, "");
+        m_targetTime = settings.getString(CFG_TARGET_TIME, "");
+        m_binaryAsBinaryObject = settings.getBoolean(CFG_BINARY_AS_BINARY_OBJECT, true);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Reads the data files of a DynamoDB export to S3 in DynamoDB JSON format after they have been downloaded.
+ * An export directory contains a <i>manifest-summary.json</i> and a <i>data</i> folder with gzipped files
+ * that contain one item per line in the form <code>{"Item": {"attr": {"S": "value"}, ...}}</code>.
+ * Unlike {@link DynamoDBUtil#stringToAttributeValue(String)}, numbers and binaries are read without loss.
+ * @author agent
+ *
+ */
+final class ExportFileReader {
+
+    /** The name of the file with the summary of an export. */
+    static final String MANIFEST_SUMMARY = "manifest-summary.json";
+
+    private static final String DATA_FOLDER = "data";
+    private static final String ITEM_FIELD = "Item";
+    private static final String EXPORT_TIME_FIELD = "exportTime";
+    private static final String OUTPUT_FORMAT_FIELD = "outputFormat";
+    private static final String TABLE_ARN_FIELD = "tableArn";
+    private static final String DYNAMODB_JSON_FORMAT = "DYNAMODB_JSON";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Receives the items read from export files.
+     */
+    @FunctionalInterface
+    interface ItemConsumer {
+        /**
+         * Called for every item in the export.
+         * @param item the item
+         * @throws Exception if the item cannot be processed
+         */
+        void accept(Map<String, AttributeValue> item) throws Exception;
+    }
+
+    private final Path m_directory;
+    private final Instant m_exportTime;
+    private final String m_tableArn;
+
+    /**
+     * Creates a new instance of {@code ExportFileReader} and reads the summary of the export.
+     * @param directory the directory containing the manifest files and the data folder
+     * @throws IOException if the summary cannot be read or the export does not use DynamoDB JSON
+     */
+    ExportFileReader(final Path directory) throws IOException {
+        m_directory = directory;
+        final Path summary = directory.resolve(MANIFEST_SUMMARY);
+        if (!Files.isRegularFile(summary)) {
+            throw new IOException("\"" + directory + "\" does not contain a " + MANIFEST_SUMMARY
+                + " file. Please select the directory of a DynamoDB export.");
+        }
+        final JsonNode manifest;
+        try (InputStream in = Files.newInputStream(summary)) {
+            manifest = MAPPER.readTree(in);
+        }
+        final String format = manifest.path(OUTPUT_FORMAT_FIELD).asText(DYNAMODB_JSON_FORMAT);
+        if (!DYNAMODB_JSON_FORMAT.equals(format)) {
+            throw new IOException("Only exports in DynamoDB JSON format can be read, this export uses " + format + ".");
+        }
+        try {
+            m_exportTime = Instant.parse(manifest.path(EXPORT_TIME_FIELD).asText());
+        } catch (final DateTimeParseException e) {
+            throw new IOException("The export summary does not contain a valid export time.", e);
+        }
+        m_tableArn = manifest.path(TABLE_ARN_FIELD).asText("");
+    }
+
+    /**
+     * @return the point in time the export represents
+     */
+    Instant getExportTime() {
+        return m_exportTime;
+    }
+
+    /**
+     * @return the ARN of the exported table or an empty string if the summary does not contain it
+     */
+    String getTableArn() {
+        return m_tableArn;
+    }
+
+    /**
+     * @return the data files of the export in a stable order
+     * @throws IOException if the data folder cannot be listed
+     */
+    List<Path> getDataFiles() throws IOException {
+        final Path data = m_directory.resolve(DATA_FOLDER);
+        if (!Files.isDirectory(data)) {
+            throw new IOException("The export directory \"" + m_directory + "\" does not contain a data folder.");
+        }
+        try (Stream<Path> files = Files.list(data)) {
+            return files.filter(p -> {
+                final String name = p.getFileName().toString();
+                return name.endsWith(".json.gz") || name.endsWith(".json");
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads all items of a data file.
+     * @param file the data file, gzipped if its name ends with <i>.gz</i>
+     * @param consumer receives the items
+     * @throws Exception if the file cannot be read or the consumer fails
+     */
+    static void read(final Path file, final ItemConsumer consumer) throws Exception {
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in);
+            }
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                final JsonNode item = MAPPER.readTree(line).get(ITEM_FIELD);
+                if (item == null || !item.isObject()) {
+                    throw new IOException(
+                        String.format("Line %d of \"%s\" does not contain an item.", lineNumber, file));
+                }
+                consumer.accept(toItem(item));
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Converts an item in DynamoDB JSON, i.e. an object of attributes with typed values.
+     * @param node the item
+     * @return the item
+     * @throws IOException if an attribute value has no valid type
+     */
+    static Map<String, AttributeValue> toItem(final JsonNode node) throws IOException {
+        final Map<String, AttributeValue> item = new LinkedHashMap<>();
+        final Iterator<Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            final Entry<String, JsonNode> field = fields.next();
+            item.put(field.getKey(), toAttributeValue(field.getValue()));
+        }
+        return item;
+    }
+
+    private static AttributeValue toAttributeValue(final JsonNode node) throws IOException {
+        final Iterator<Entry<String, JsonNode>> fields = node.fields();
+        if (!fields.hasNext()) {
+            throw new IOException("An attribute value must contain its type.");
+        }
+        final Entry<String, JsonNode> typed = fields.next();
+        final JsonNode value = typed.getValue();
+        final AttributeValue.Builder builder = AttributeValue.builder();
+        switch (typed.getKey()) {
+            case DynamoDBUtil.STRING_TYPE:
+                return builder.s(value.asText()).build();
+            case DynamoDBUtil.NUMBER_TYPE:
+                // Numbers are exported as strings and are kept that way to not lose precision
+                return builder.n(value.asText()).build();
+            case DynamoDBUtil.BINARY_TYPE:
+                return builder.b(decodeBinary(value)).build();
+            case DynamoDBUtil.BOOLEAN_TYPE:
+                return builder.bool(value.asBoolean()).build();
+            case DynamoDBUtil.NULL_TYPE:
+                return builder.nul(true).build();
+            case DynamoDBUtil.STRING_SET_TYPE:
+                return builder.ss(toStrings(value)).build();
+            case DynamoDBUtil.NUMBER_SET_TYPE:
+                return builder.ns(toStrings(value)).build();
+            case DynamoDBUtil.BINARY_SET_TYPE:
+                final List<SdkBytes> binaries = new ArrayList<>();
+                for (final JsonNode element : value) {
+                    binaries.add(decodeBinary(element));
+                }
+                return builder.bs(binaries).build();
+            case DynamoDBUtil.LIST_TYPE:
+                final List<AttributeValue> list = new ArrayList<>();
+                for (final JsonNode element : value) {
+                    list.add(toAttributeValue(element));
+                }
+                return builder.l(list).build();
+            case DynamoDBUtil.MAP_TYPE:
+                return builder.m(toItem(value)).build();
+            default:
+                throw new IOException("Unknown attribute type \"" + typed.getKey() + "\".");
+        }
+    }
+
+    private static List<String> toStrings(final JsonNode array) {
+        final List<String> strings = new ArrayList<>();
+        for (final JsonNode element : array) {
+            strings.add(element.asText());
+        }
+        return strings;
+    }
+
+    private static SdkBytes decodeBinary(final JsonNode node) throws IOException {
+        try {
+            return SdkBytes.fromByteArray(Base64.getDecoder().decode(node.asText()));
+        } catch (final IllegalArgumentException e) {
+            throw new IOException("A binary attribute is not Base64 encoded.", e);
+        }
+    }
+}
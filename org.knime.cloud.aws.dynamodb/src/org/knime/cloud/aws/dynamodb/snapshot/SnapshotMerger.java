@@ -0,0 +1,412 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.knime.cloud.aws.dynamodb.AttributeValueCodec;
+import org.knime.core.util.FileUtil;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+
+/**
+ * Merges the items of an export with the changes from a DynamoDB stream into a consistent snapshot.
+ * Items are keyed by their primary key, so an item that is written by a stream record replaces the exported one
+ * and a removal deletes it. Stream records contain the complete new image of an item, which makes applying them
+ * idempotent: records from before the export time may be applied again as long as all later records of the same
+ * item follow in the order of the stream.
+ * <p>
+ * The merge is a sorted external merge: exported items, writes and removals are collected in the compact encoding
+ * of {@link AttributeValueCodec} together with their position in the input. Once the memory limit is reached,
+ * they are sorted by primary key and written to a temporary file. {@link #forEach(ItemConsumer)} merges the
+ * sorted files and keeps the last entry of every key, so the memory needed does not depend on the table size.
+ * </p>
+ * @author agent
+ *
+ */
+final class SnapshotMerger implements AutoCloseable {
+
+    /** Default number of bytes of entries kept in memory before they are sorted and written to a file. */
+    static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+    // Approximate heap usage of an entry besides its key and item
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        final int c = Arrays.compareUnsigned(a.m_key, b.m_key);
+        return c != 0 ? c : Long.compare(a.m_position, b.m_position);
+    };
+
+    /**
+     * Receives the items of the snapshot.
+     */
+    @FunctionalInterface
+    interface ItemConsumer {
+        /**
+         * Called for every item in the snapshot.
+         * @param item the item
+         * @throws Exception if the item cannot be processed
+         */
+        void accept(Map<String, AttributeValue> item) throws Exception;
+    }
+
+    private final List<String> m_keyAttributes;
+    private final long m_memoryLimit;
+
+    private final List<Entry> m_entries = new ArrayList<>();
+    private long m_entriesSize = 0;
+    private final List<File> m_runs = new ArrayList<>();
+
+    private long m_position = 0;
+    private long m_size = -1;
+    private long m_numExported = 0;
+    private long m_numPut = 0;
+    private long m_numRemoved = 0;
+
+    /**
+     * Creates a new instance of {@code SnapshotMerger} with the default memory limit.
+     * @param keyAttributes the names of the hash key and, if present, the range key attribute of the table
+     */
+    SnapshotMerger(final List<String> keyAttributes) {
+        this(keyAttributes, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * Creates a new instance of {@code SnapshotMerger}.
+     * @param keyAttributes the names of the hash key and, if present, the range key attribute of the table
+     * @param memoryLimit the number of bytes of entries kept in memory before they are written to a file
+     */
+    SnapshotMerger(final List<String> keyAttributes, final long memoryLimit) {
+        m_keyAttributes = new ArrayList<>(keyAttributes);
+        m_memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Adds an item of the export.
+     * @param item the item
+     * @throws IOException if the item has no primary key or cannot be encoded or written
+     */
+    void addExported(final Map<String, AttributeValue> item) throws IOException {
+        add(encodeKey(item), encodeItem(item));
+        m_numExported++;
+    }
+
+    /**
+     * Applies the change of a stream record. Records must be applied after all exported items.
+     * @param record the stream record
+     * @throws IOException if the record does not contain the new image of a written item
+     */
+    void apply(final Record record) throws IOException {
+        final StreamRecord change = record.dynamodb();
+        if (record.eventName() == OperationType.REMOVE) {
+            add(encodeKey(change.keys()), null);
+            m_numRemoved++;
+        } else if (record.eventName() == OperationType.INSERT || record.eventName() == OperationType.MODIFY) {
+            if (change.newImage().isEmpty()) {
+                throw new IOException("The stream records do not contain the new images of the items. "
+                    + "The stream view type of the table must be NEW_IMAGE or NEW_AND_OLD_IMAGES.");
+            }
+            add(encodeKey(change.keys()), encodeItem(change.newImage()));
+            m_numPut++;
+        }
+    }
+
+    private void add(final byte[] key, final byte[] item) throws IOException {
+        final Entry entry = new Entry(key, m_position++, item);
+        m_entries.add(entry);
+        m_entriesSize += entry.size();
+        if (m_entriesSize >= m_memoryLimit) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of items in the snapshot, only known after {@link #forEach(ItemConsumer)} was called
+     */
+    long size() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of exported items, writes and removals added so far, which is an upper bound for the
+     * number of items in the snapshot
+     */
+    long getNumEntries() {
+        return m_position;
+    }
+
+    /**
+     * @return the number of items read from the export
+     */
+    long getNumExported() {
+        return m_numExported;
+    }
+
+    /**
+     * @return the number of inserts and modifications applied from the stream
+     */
+    long getNumPut() {
+        return m_numPut;
+    }
+
+    /**
+     * @return the number of removals applied from the stream
+     */
+    long getNumRemoved() {
+        return m_numRemoved;
+    }
+
+    /**
+     * Passes all items of the snapshot to a consumer, ordered by the encoding of their primary key.
+     * @param consumer receives the items
+     * @throws Exception if an item cannot be decoded or the consumer fails
+     */
+    void forEach(final ItemConsumer consumer) throws Exception {
+        if (!m_runs.isEmpty() && !m_entries.isEmpty()) {
+            spill();
+        }
+        final PriorityQueue<RunReader> readers = new PriorityQueue<>((a, b) -> ORDER.compare(a.m_head, b.m_head));
+        try {
+            if (m_runs.isEmpty()) {
+                // Everything fits into memory, no need to write it to a file
+                m_entries.sort(ORDER);
+                addReader(readers, new RunReader(m_entries));
+            } else {
+                for (final File run : m_runs) {
+                    addReader(readers, new RunReader(run));
+                }
+            }
+            long size = 0;
+            while (!readers.isEmpty()) {
+                // The entries of a key are ordered by their position, the last one is the state of the item
+                Entry last = null;
+                do {
+                    final RunReader reader = readers.poll();
+                    last = reader.m_head;
+                    if (reader.next()) {
+                        readers.add(reader);
+                    } else {
+                        reader.close();
+                    }
+                } while (!readers.isEmpty() && Arrays.equals(readers.peek().m_head.m_key, last.m_key));
+                if (last.m_item != null) {
+                    size++;
+                    consumer.accept(
+                        AttributeValueCodec.readItem(new DataInputStream(new ByteArrayInputStream(last.m_item))));
+                }
+            }
+            m_size = size;
+        } finally {
+            for (final RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void addReader(final PriorityQueue<RunReader> readers, final RunReader reader)
+            throws IOException {
+        if (reader.m_head == null) {
+            reader.close();
+        } else {
+            readers.add(reader);
+        }
+    }
+
+    /**
+     * Sorts the entries in memory and writes them to a new run file. Of several entries with the same key,
+     * only the last one is written.
+     */
+    private void spill() throws IOException {
+        m_entries.sort(ORDER);
+        final File run = FileUtil.createTempFile("knime_dynamodb_snapshot_", ".bin");
+        m_runs.add(run);
+        try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.toPath())))) {
+            for (int i = 0; i < m_entries.size(); i++) {
+                final Entry entry = m_entries.get(i);
+                if (i + 1 < m_entries.size() && Arrays.equals(entry.m_key, m_entries.get(i + 1).m_key)) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                entry.write(out);
+            }
+            out.writeBoolean(false);
+        }
+        m_entries.clear();
+        m_entriesSize = 0;
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    @Override
+    public void close() {
+        for (final File run : m_runs) {
+            run.delete();
+        }
+        m_runs.clear();
+        m_entries.clear();
+    }
+
+    private byte[] encodeKey(final Map<String, AttributeValue> item) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (final String attribute : m_keyAttributes) {
+            final AttributeValue value = item.get(attribute);
+            if (value == null) {
+                throw new IOException("An item does not contain the key attribute \"" + attribute + "\".");
+            }
+            AttributeValueCodec.writeValue(value, out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeItem(final Map<String, AttributeValue> item) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        AttributeValueCodec.writeItem(item, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * An exported item, a write or a removal of an item, with its position in the input.
+     */
+    private static final class Entry {
+        private final byte[] m_key;
+        private final long m_position;
+        // null for a removal
+        private final byte[] m_item;
+
+        Entry(final byte[] key, final long position, final byte[] item) {
+            m_key = key;
+            m_position = position;
+            m_item = item;
+        }
+
+        long size() {
+            return ENTRY_OVERHEAD + m_key.length + (m_item == null ? 0 : m_item.length);
+        }
+
+        void write(final DataOutputStream out) throws IOException {
+            out.writeInt(m_key.length);
+            out.write(m_key);
+            out.writeLong(m_position);
+            out.writeInt(m_item == null ? -1 : m_item.length);
+            if (m_item != null) {
+                out.write(m_item);
+            }
+        }
+
+        static Entry read(final DataInputStream in) throws IOException {
+            final byte[] key = new byte[in.readInt()];
+            in.readFully(key);
+            final long position = in.readLong();
+            final int itemLength = in.readInt();
+            byte[] item = null;
+            if (itemLength >= 0) {
+                item = new byte[itemLength];
+                in.readFully(item);
+            }
+            return new Entry(key, position, item);
+        }
+    }
+
+    /**
+     * Reads the sorted entries of a run file or of the entries in memory.
+     */
+    private static final class RunReader {
+        private final DataInputStream m_in;
+        private final Iterator<Entry> m_memory;
+        private Entry m_head;
+
+        RunReader(final File run) throws IOException {
+            m_in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.toPath())));
+            m_memory = null;
+            next();
+        }
+
+        RunReader(final List<Entry> sorted) throws IOException {
+            m_in = null;
+            m_memory = sorted.iterator();
+            next();
+        }
+
+        /** Moves to the next entry, returns {@code false} if there is none. */
+        boolean next() throws IOException {
+            if (m_memory != null) {
+                m_head = m_memory.hasNext() ? m_memory.next() : null;
+            } else {
+                m_head = m_in.readBoolean() ? Entry.read(m_in) : null;
+            }
+            return m_head != null;
+        }
+
+        void close() throws IOException {
+            if (m_in != null) {
+                m_in.close();
+            }
+        }
+    }
+}
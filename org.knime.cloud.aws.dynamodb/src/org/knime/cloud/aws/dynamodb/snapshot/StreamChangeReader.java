@@ -0,0 +1,241 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.snapshot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.LimitExceededException;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+
+/**
+ * Reads the records of a DynamoDB stream within a time window. All changes of an item are written to the same
+ * lineage of shards, so the shards are read one after another with parents before their children, which passes
+ * the changes of every item to the consumer in the order they happened.
+ * @author agent
+ *
+ */
+final class StreamChangeReader {
+
+    /**
+     * Receives the records of the stream.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        /**
+         * Called for every record in the time window.
+         * @param record the stream record
+         * @throws Exception if the record cannot be processed
+         */
+        void accept(Record record) throws Exception;
+    }
+
+    private static final int RECORDS_PER_REQUEST = 1000;
+    // An open shard returns empty pages for parts without records and at its end. DynamoDB does not tell which,
+    // so an open shard is caught up once it returned only empty pages for this long.
+    private static final long CAUGHT_UP_MS = 10000;
+    // Wait between empty pages, stays below the 5 requests per second and shard
+    private static final long EMPTY_PAGE_WAIT_MS = 250;
+    private static final long MAX_BACKOFF_MS = 10000;
+
+    private final DynamoDbStreamsClient m_streams;
+    private final String m_streamArn;
+
+    private long m_numRecords = 0;
+
+    /**
+     * Creates a new instance of {@code StreamChangeReader}.
+     * @param streams the client to read the stream with
+     * @param streamArn the ARN of the stream
+     */
+    StreamChangeReader(final DynamoDbStreamsClient streams, final String streamArn) {
+        m_streams = streams;
+        m_streamArn = streamArn;
+    }
+
+    /**
+     * @return the description of the stream including all of its shards
+     */
+    StreamDescription describe() {
+        return describe(null);
+    }
+
+    private StreamDescription describe(final String exclusiveStartShardId) {
+        return m_streams.describeStream(DescribeStreamRequest.builder()
+            .streamArn(m_streamArn)
+            .exclusiveStartShardId(exclusiveStartShardId)
+            .build()).streamDescription();
+    }
+
+    /**
+     * Passes all records created within a time window to the consumer. Records are ordered by the time
+     * they were created approximately, which is rounded down to seconds. Every shard is read until a record after
+     * the end of the window, or until its end. As the end of an open shard cannot be told from a part without
+     * records, an open shard is read until it returned only empty pages for 10 seconds.
+     * @param from records created before this time are skipped
+     * @param until records created after this time are skipped
+     * @param consumer receives the records
+     * @param exec execution monitor for cancellation and progress
+     * @throws Exception if the stream cannot be read or the consumer fails
+     */
+    void read(final Instant from, final Instant until, final RecordConsumer consumer, final ExecutionMonitor exec)
+            throws Exception {
+        final List<Shard> shards = getShardsInOrder();
+        for (int i = 0; i < shards.size(); i++) {
+            exec.setProgress((double)i / shards.size(), "Reading stream shard " + (i + 1) + " of " + shards.size());
+            readShard(shards.get(i), from, until, consumer, exec);
+        }
+    }
+
+    /**
+     * @return the number of records passed to the consumer so far
+     */
+    long getNumRecords() {
+        return m_numRecords;
+    }
+
+    private void readShard(final Shard shard, final Instant from, final Instant until,
+            final RecordConsumer consumer, final ExecutionMonitor exec) throws Exception {
+        final boolean open = shard.sequenceNumberRange() == null
+                || shard.sequenceNumberRange().endingSequenceNumber() == null;
+        String iterator = m_streams.getShardIterator(GetShardIteratorRequest.builder()
+            .streamArn(m_streamArn)
+            .shardId(shard.shardId())
+            .shardIteratorType(ShardIteratorType.TRIM_HORIZON)
+            .build()).shardIterator();
+        long emptySince = -1;
+        int retry = 0;
+        while (iterator != null) {
+            exec.checkCanceled();
+            final GetRecordsResponse response;
+            try {
+                response = m_streams.getRecords(
+                    GetRecordsRequest.builder().shardIterator(iterator).limit(RECORDS_PER_REQUEST).build());
+            } catch (final LimitExceededException e) {
+                backoff(retry++, exec);
+                continue;
+            }
+            retry = 0;
+            for (final Record record : response.records()) {
+                final Instant created = record.dynamodb().approximateCreationDateTime();
+                if (created.isAfter(until)) {
+                    return;
+                }
+                if (!created.isBefore(from)) {
+                    consumer.accept(record);
+                    m_numRecords++;
+                }
+            }
+            if (!response.records().isEmpty()) {
+                emptySince = -1;
+            } else if (open) {
+                final long now = System.currentTimeMillis();
+                if (emptySince < 0) {
+                    emptySince = now;
+                } else if (now - emptySince >= CAUGHT_UP_MS) {
+                    // Caught up with the current end of the stream
+                    return;
+                }
+                Thread.sleep(EMPTY_PAGE_WAIT_MS);
+            }
+            iterator = response.nextShardIterator();
+        }
+    }
+
+    private static void backoff(final int retry, final ExecutionMonitor exec)
+            throws InterruptedException, CanceledExecutionException {
+        final long wait = Math.min(MAX_BACKOFF_MS, (long)Math.pow(2, retry) * 100);
+        exec.checkCanceled();
+        Thread.sleep(wait);
+    }
+
+    private List<Shard> getShardsInOrder() {
+        final Map<String, Shard> shards = new LinkedHashMap<>();
+        String lastShardId = null;
+        do {
+            final StreamDescription description = describe(lastShardId);
+            for (final Shard shard : description.shards()) {
+                shards.put(shard.shardId(), shard);
+            }
+            lastShardId = description.lastEvaluatedShardId();
+        } while (lastShardId != null);
+
+        final List<Shard> ordered = new ArrayList<>();
+        final Set<String> visited = new HashSet<>();
+        for (final Shard shard : shards.values()) {
+            addWithParents(shard, shards, visited, ordered);
+        }
+        return ordered;
+    }
+
+    private static void addWithParents(final Shard shard, final Map<String, Shard> shards,
+            final Set<String> visited, final List<Shard> ordered) {
+        if (!visited.add(shard.shardId())) {
+            return;
+        }
+        // Parents that were trimmed from the stream are no longer listed
+        final Shard parent = shard.parentShardId() == null ? null : shards.get(shard.parentShardId());
+        if (parent != null) {
+            addWithParents(parent, shards, visited, ordered);
+        }
+        ordered.add(shard);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.ui;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+
+/**
+ * A panel for picking the attributes to retrieve from DynamoDB from a list of attribute names found in
+ * a sample of the table's items. The projection expression for the picked attributes is generated by the node.
+ * @author agent
+ *
+ */
+public class DynamoDBAttributeSelectionPanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DefaultListModel<String> m_selected = new DefaultListModel<>();
+    private final JButton m_selectBtn = new JButton("Select...");
+    private final JButton m_clearBtn = new JButton("Clear");
+
+    private final Callable<Collection<String>> m_sampler;
+
+    /**
+     * Creates a new instance of <code>DynamoDBAttributeSelectionPanel</code>.
+     * @param sampler returns the attribute names found in a sample of the table. Called outside of the
+     *          event dispatch thread.
+     */
+    public DynamoDBAttributeSelectionPanel(final Callable<Collection<String>> sampler) {
+        super(new BorderLayout());
+        m_sampler = sampler;
+
+        final JList<String> list = new JList<>(m_selected);
+        list.setVisibleRowCount(4);
+        add(new JLabel("Attributes (all if none selected)"), BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+
+        final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        buttons.add(m_selectBtn);
+        buttons.add(m_clearBtn);
+        add(buttons, BorderLayout.SOUTH);
+
+        m_selectBtn.addActionListener(e -> sampleAndSelect());
+        m_clearBtn.addActionListener(e -> m_selected.clear());
+    }
+
+    private void sampleAndSelect() {
+        m_selectBtn.setEnabled(false);
+        new Thread(() -> {
+            final Collection<String> sampled;
+            try {
+                sampled = m_sampler.call();
+            } catch (final Exception ex) {
+                SwingUtilities.invokeLater(() -> {
+                    m_selectBtn.setEnabled(true);
+                    JOptionPane.showMessageDialog(SwingUtilities.getWindowAncestor(this),
+                        "Could not sample the table: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                m_selectBtn.setEnabled(true);
+                showSelectionDialog(sampled);
+            });
+        }).start();
+    }
+
+    private void showSelectionDialog(final Collection<String> sampled) {
+        // Attributes selected before are offered even if the sample does not contain them
+        final SortedSet<String> all = new TreeSet<>(sampled);
+        final List<String> current = getAttributeList();
+        all.addAll(current);
+        final String[] options = all.toArray(new String[0]);
+
+        final JList<String> list = new JList<>(options);
+        list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        list.setVisibleRowCount(Math.min(15, Math.max(4, options.length)));
+        final int[] indices = current.stream().mapToInt(a -> Arrays.binarySearch(options, a)).toArray();
+        list.setSelectedIndices(indices);
+
+        final int res = JOptionPane.showConfirmDialog(SwingUtilities.getWindowAncestor(this),
+            new JScrollPane(list), "Attributes to retrieve", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (res == JOptionPane.OK_OPTION) {
+            setAttributes(list.getSelectedValuesList().toArray(new String[0]));
+        }
+    }
+
+    private List<String> getAttributeList() {
+        return Arrays.asList(getAttributes());
+    }
+
+    /**
+     * @return the names of the attributes to retrieve, empty if all attributes should be retrieved
+     */
+    public String[] getAttributes() {
+        final String[] attributes = new String[m_selected.size()];
+        m_selected.copyInto(attributes);
+        return attributes;
+    }
+
+    /**
+     * @param attributes the names of the attributes to retrieve, empty if all attributes should be retrieved
+     */
+    public void setAttributes(final String[] attributes) {
+        m_selected.clear();
+        for (final String a : attributes) {
+            m_selected.addElement(a);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.dynamodb.ui;
+
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+
+import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import org.knime.cloud.aws.dynamodb.settings.DynamoDBDryRunSettings;
+
+/**
+ * A panel for the settings of a dry run that only estimates the consumed capacity.
+ * @author agent
+ *
+ */
+public class DynamoDBDryRunPanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JCheckBox m_dryRun = new JCheckBox("Dry run (only estimate capacity, duration and requests)");
+    private final JSpinner m_sampleSize = new JSpinner(new SpinnerNumberModel(1000, 1, Integer.MAX_VALUE, 100));
+    private final JSpinner m_capacityRate = new JSpinner(new SpinnerNumberModel(0.0, 0.0, Double.MAX_VALUE, 1.0));
+
+    /**
+     * Creates a new instance of {@code DynamoDBDryRunPanel}.
+     */
+    public DynamoDBDryRunPanel() {
+        setLayout(new GridBagLayout());
+        setBorder(BorderFactory.createTitledBorder("Dry Run"));
+        final GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(2, 2, 2, 2);
+        c.anchor = GridBagConstraints.WEST;
+        c.gridx = 0;
+        c.gridy = 0;
+        c.weightx = 1;
+        c.gridwidth = 2;
+        m_dryRun.addActionListener(e -> updateEnabled());
+        add(m_dryRun, c);
+
+        c.gridwidth = 1;
+        c.gridy++;
+        add(new JLabel("Sample size"), c);
+        c.gridx++;
+        c.weightx = 0;
+        add(m_sampleSize, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.weightx = 1;
+        add(new JLabel("Capacity units per second (0 = provisioned capacity)"), c);
+        c.gridx++;
+        c.weightx = 0;
+        add(m_capacityRate, c);
+    }
+
+    private void updateEnabled() {
+        m_sampleSize.setEnabled(m_dryRun.isSelected());
+        m_capacityRate.setEnabled(m_dryRun.isSelected());
+    }
+
+    /**
+     * Updates the components with values from the given settings.
+     * @param settings the settings to read from
+     */
+    public void updateFromSettings(final DynamoDBDryRunSettings settings) {
+        m_dryRun.setSelected(settings.isDryRun());
+        m_sampleSize.setValue(settings.getSampleSize());
+        m_capacityRate.setValue(settings.getCapacityRate());
+        updateEnabled();
+    }
+
+    /**
+     * Saves the values of the components to the given settings.
+     * @param settings the settings to write to
+     */
+    public void saveToSettings(final DynamoDBDryRunSettings settings) {
+        settings.setDryRun(m_dryRun.isSelected());
+        settings.setSampleSize((int)m_sampleSize.getValue());
+        settings.setCapacityRate((double)m_capacityRate.getValue());
+    }
+}
@@ -51,6 +51,8 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Collection;
+import java.util.concurrent.Callable;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -71,11 +73,23 @@ public class DynamoDBFilterAndProjectPanel extends JPanel {
     private JTextField m_projection = new JTextField();
     
     private DynamoDBPlaceholderPanel m_placeholders = new DynamoDBPlaceholderPanel();
+
+    private DynamoDBAttributeSelectionPanel m_attributes;
     
     /**
      * Creates a new instance of <code>DynamoDBFilterAndProjectPanel</code>.
      */
     public DynamoDBFilterAndProjectPanel() {
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of <code>DynamoDBFilterAndProjectPanel</code> that additionally allows
+     * picking the attributes to retrieve from a sample of the table.
+     * @param attributeSampler returns the attribute names found in a sample of the table,
+     *          or <code>null</code> if attributes cannot be picked
+     */
+    public DynamoDBFilterAndProjectPanel(final Callable<Collection<String>> attributeSampler) {
         setLayout(new GridBagLayout());
         GridBagConstraints c = new GridBagConstraints();
         c.anchor = GridBagConstraints.WEST;
@@ -99,6 +113,12 @@ public DynamoDBFilterAndProjectPanel() {
         c.weightx = 1;
         add(m_projection, c);
 
+        if (attributeSampler != null) {
+            m_attributes = new DynamoDBAttributeSelectionPanel(attributeSampler);
+            c.gridy++;
+            add(m_attributes, c);
+        }
+
         c.gridy++;
         c.gridx = 0;
         c.fill = GridBagConstraints.BOTH;
@@ -134,6 +154,22 @@ public void setProjectionExpression(final String expr) {
         m_projection.setText(expr);
     }
     
+    /**
+     * @return names of the attributes picked for retrieval, empty if none were picked
+     */
+    public String[] getProjectedAttributes() {
+        return m_attributes == null ? new String[0] : m_attributes.getAttributes();
+    }
+
+    /**
+     * @param attributes names of the attributes picked for retrieval
+     */
+    public void setProjectedAttributes(final String[] attributes) {
+        if (m_attributes != null) {
+            m_attributes.setAttributes(attributes);
+        }
+    }
+
     /**
      * Loads the values in this panel's placeholder fields from the settings.
      * @param settings the settings to update with the fields' values from
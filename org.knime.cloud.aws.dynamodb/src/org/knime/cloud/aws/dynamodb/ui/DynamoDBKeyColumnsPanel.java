@@ -63,6 +63,7 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.StringValue;
+import org.knime.core.data.blob.BinaryObjectDataValue;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.util.ColumnFilter;
 import org.knime.core.node.util.ColumnSelectionPanel;
@@ -82,12 +83,13 @@ public class DynamoDBKeyColumnsPanel extends JPanel {
         @Override
         public boolean includeColumn(final DataColumnSpec colSpec) {
             return colSpec.getType().isCompatible(StringValue.class)
-                    || colSpec.getType().isCompatible(DoubleValue.class);
+                    || colSpec.getType().isCompatible(DoubleValue.class)
+                    || colSpec.getType().isCompatible(BinaryObjectDataValue.class);
         }
         
         @Override
         public String allFilteredMsg() {
-            return "No string or number column found";
+            return "No string, number or binary column found";
         }
     };
     
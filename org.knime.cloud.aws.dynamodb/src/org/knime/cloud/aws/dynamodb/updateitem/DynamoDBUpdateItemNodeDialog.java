@@ -55,7 +55,9 @@
 import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
 import org.knime.cloud.aws.dynamodb.ui.DynamoDBKeyColumnsPanel;
@@ -91,6 +93,8 @@ public class DynamoDBUpdateItemNodeDialog extends NodeDialogPane {
     private final EnumComboBox<ReturnValue> m_returnValue = new EnumComboBox<>(ReturnValue.values(),
             new String[] {"None", "All old", "Updated old", "All new", "Updated new"});
 
+    private final JSpinner m_concurrency = new JSpinner(
+            new SpinnerNumberModel(DynamoDBUpdateItemSettings.DEFAULT_CONCURRENCY, 1, 64, 1));
     private final JCheckBox m_flowVars = new JCheckBox("Publish consumed capacity units as flow variable");
 
     /**
@@ -138,6 +142,13 @@ private JPanel createStdSettingsTab() {
         c.gridx++;
         panel.add(m_returnValue, c);
 
+        c.gridy++;
+        c.gridx = 0;
+        panel.add(new JLabel("Concurrent requests"), c);
+
+        c.gridx++;
+        panel.add(m_concurrency, c);
+
         c.gridwidth = 2;
         c.gridy++;
         c.gridx = 0;
@@ -160,6 +171,7 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final PortObjectS
         m_conditionExpression.setText(m_settings.getConditionExpression());
         m_updateExpression.setText(m_settings.getUpdateExpression());
         m_returnValue.setSelectedItemValue(m_settings.getReturnValue());
+        m_concurrency.setValue(m_settings.getConcurrency());
         m_flowVars.setSelected(m_settings.publishConsumedCapUnits());
     }
 
@@ -171,6 +183,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         m_settings.setConditionExpression(m_conditionExpression.getText());
         m_settings.setUpdateExpression(m_updateExpression.getText());
         m_settings.setReturnValue(m_returnValue.getSelectedItemValue());
+        m_settings.setConcurrency((int)m_concurrency.getValue());
         m_settings.setPublishConsumedCapUnits(m_flowVars.isSelected());
 
         m_settings.saveSettings(settings);
@@ -46,16 +46,14 @@
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.function.Function;
 
-import org.knime.cloud.aws.dynamodb.DynamicDataContainer;
-import org.knime.cloud.aws.dynamodb.ValueMapping;
-import org.knime.cloud.aws.dynamodb.utils.DynamoDBToKNIMEUtil;
+import org.knime.cloud.aws.dynamodb.PlaceholderTemplate;
+import org.knime.cloud.aws.dynamodb.RequestExecutor;
+import org.knime.cloud.aws.dynamodb.ReturnedItemBuffer;
 import org.knime.cloud.aws.dynamodb.utils.DynamoDBUtil;
 import org.knime.cloud.aws.dynamodb.utils.KNIMEToDynamoDBUtil;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
@@ -63,6 +61,8 @@
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -74,7 +74,6 @@
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
-import org.knime.core.util.Pair;
 
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -130,114 +129,112 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final Function<DataCell, AttributeValue> rangeKeyMapper = rangeKeyIdx == -1
                 ? null : KNIMEToDynamoDBUtil.createMapper(inSpec.getColumnSpec(rangeKeyIdx).getType());
 
-        final List<Pair<ValueMapping, Integer>> columnValues = new ArrayList<>();
-        final Map<String, AttributeValue> tmpValueMap = new HashMap<>();
-        for (final ValueMapping vm : m_settings.getPlaceholders().getValues()) {
-            if (!vm.isColumnType()) {
-                tmpValueMap.put(vm.getName(), vm.getAttributeValue());
-            } else {
-                columnValues.add(new Pair<>(vm, inSpec.findColumnIndex(vm.getValue())));
-            }
+        // Everything that is the same for all rows is prepared once, per row only the key and bound values are set
+        final PlaceholderTemplate placeholders = new PlaceholderTemplate(m_settings.getPlaceholders(), inSpec);
+        final Builder templateBuilder = UpdateItemRequest.builder()
+                .tableName(m_settings.getTableName())
+                .updateExpression(m_settings.getUpdateExpression())
+                .returnValues(m_settings.getReturnValue())
+                .returnConsumedCapacity(m_settings.publishConsumedCapUnits()
+                                        ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE);
+        if (placeholders.getNames() != null) {
+            templateBuilder.expressionAttributeNames(placeholders.getNames());
         }
+        if (placeholders.hasValues() && !placeholders.hasBoundValues()) {
+            templateBuilder.expressionAttributeValues(placeholders.getStaticValues());
+        }
+        if (!StringUtils.isBlank(m_settings.getConditionExpression())) {
+            templateBuilder.conditionExpression(m_settings.getConditionExpression());
+        }
+        final UpdateItemRequest template = templateBuilder.build();
 
-        final String conditionExpression = m_settings.getConditionExpression();
-        final String updateExpression = m_settings.getUpdateExpression();
-
-        final ReturnConsumedCapacity returnCapacity = m_settings.publishConsumedCapUnits()
-                ? ReturnConsumedCapacity.TOTAL : ReturnConsumedCapacity.NONE;
-
-        final DynamicDataContainer dc = new DynamicDataContainer(ds -> exec.createDataContainer(ds));
+        final boolean returnValues = m_settings.getReturnValue() != ReturnValue.NONE;
+        final DoubleAdder consumedCap = new DoubleAdder();
 
-        double consumedCap = 0.0;
-        int nRetry = 0;
-        double counter = 0.0;
-        OUTER_LOOP:
-        for (final DataRow inRow : inTable) {
-            exec.setProgress(counter++ / inTable.size());
-            exec.checkCanceled();
-            final DataCell hashCell = inRow.getCell(hashKeyIdx);
-            if (hashCell.isMissing()) {
-                throw new InvalidSettingsException("The hash key column must not contain missing cells");
-            }
-            final AttributeValue hash = hashKeyMapper.apply(hashCell);
-            final Map<String, AttributeValue> keys = new HashMap<>();
-            keys.put(m_settings.getKeyColumns().getHashKeyColumn(), hash);
-            if (rangeKeyIdx != -1) {
-                final DataCell rangeCell = inRow.getCell(rangeKeyIdx);
-                if (rangeCell.isMissing()) {
-                    throw new InvalidSettingsException("The range key column must not contain missing cells");
+        BufferedDataTable outTable = null;
+        try (RequestExecutor requests = new RequestExecutor(m_settings.getConcurrency());
+                ReturnedItemBuffer buffer = returnValues ? new ReturnedItemBuffer(inTable.size()) : null) {
+            final ExecutionContext writeExec = exec.createSubExecutionContext(returnValues ? 0.8 : 1.0);
+            int index = 0;
+            for (final DataRow inRow : inTable) {
+                writeExec.setProgress(index / (double)inTable.size());
+                writeExec.checkCanceled();
+                final DataCell hashCell = inRow.getCell(hashKeyIdx);
+                if (hashCell.isMissing()) {
+                    throw new InvalidSettingsException("The hash key column must not contain missing cells");
                 }
-                final AttributeValue range = rangeKeyMapper.apply(rangeCell);
-                keys.put(m_settings.getKeyColumns().getRangeKeyColumn(), range);
-            }
-
-            // For those placeholders that insert the value of a column, we have to update the value map here
-            Map<String, AttributeValue> valueMap = tmpValueMap;
-            if (!columnValues.isEmpty()) {
-                valueMap = new HashMap<>(valueMap);
-                for (final Pair<ValueMapping, Integer> vm : columnValues) {
-                    valueMap.put(vm.getFirst().getName(),
-                            KNIMEToDynamoDBUtil.dataCellToAttributeValue(inRow.getCell(vm.getSecond())));
+                final AttributeValue hash = hashKeyMapper.apply(hashCell);
+                final Map<String, AttributeValue> keys = new HashMap<>();
+                keys.put(m_settings.getKeyColumns().getHashKeyColumn(), hash);
+                if (rangeKeyIdx != -1) {
+                    final DataCell rangeCell = inRow.getCell(rangeKeyIdx);
+                    if (rangeCell.isMissing()) {
+                        throw new InvalidSettingsException("The range key column must not contain missing cells");
+                    }
+                    final AttributeValue range = rangeKeyMapper.apply(rangeCell);
+                    keys.put(m_settings.getKeyColumns().getRangeKeyColumn(), range);
                 }
-            }
 
-            final Builder builder = UpdateItemRequest.builder();
-            if (!m_settings.getPlaceholders().getNames().isEmpty()) {
-                builder.expressionAttributeNames(m_settings.getPlaceholders().getNames());
-            }
-            if (!m_settings.getPlaceholders().getValues().isEmpty()) {
-                builder.expressionAttributeValues(valueMap);
-            }
-            if (!StringUtils.isBlank(conditionExpression)) {
-                builder.conditionExpression(conditionExpression);
-            }
-
-            final UpdateItemRequest request = builder
-                    .tableName(m_settings.getTableName())
-                    .key(keys)
-                    .updateExpression(updateExpression)
-                    .returnValues(m_settings.getReturnValue())
-                    .returnConsumedCapacity(returnCapacity)
-                    .build();
-
-            UpdateItemResponse response = null;
-            boolean success = false;
-            while (!success) {
-                exec.checkCanceled();
-                if (nRetry > 0) {
-                    Thread.sleep((int)Math.pow(2, nRetry - 1) * EXPONENTIAL_BACKOFF_FACTOR);
+                final Builder builder = template.toBuilder().key(keys);
+                if (placeholders.hasBoundValues()) {
+                    builder.expressionAttributeValues(placeholders.bindValues(inRow));
                 }
-                try {
-                    response = ddb.updateItem(request);
-                    success = true;
-                } catch (final ProvisionedThroughputExceededException e) {
-                    nRetry++;
-                } catch (final ConditionalCheckFailedException e) {
-                    continue OUTER_LOOP;
-                }
-            }
+                final UpdateItemRequest request = builder.build();
 
-            if (m_settings.publishConsumedCapUnits()) {
-                consumedCap += response.consumedCapacity().capacityUnits();
+                final int rowIndex = index++;
+                final RowKey rowKey = inRow.getKey();
+                requests.submit(() -> {
+                    final UpdateItemResponse response = updateItem(ddb, request, writeExec);
+                    if (response == null) {
+                        // Condition was not met, the item was not updated
+                        return;
+                    }
+                    if (m_settings.publishConsumedCapUnits()) {
+                        consumedCap.add(response.consumedCapacity().capacityUnits());
+                    }
+                    if (buffer != null) {
+                        buffer.put(rowIndex, rowKey, response.attributes());
+                    }
+                });
             }
+            requests.await();
 
-            if (m_settings.getReturnValue() != ReturnValue.NONE) {
-                final Map<String, AttributeValue> attributes = response.attributes();
-                final Map<String, DataCell> row = new HashMap<>();
-                for (final Entry<String, AttributeValue> e : attributes.entrySet()) {
-                    row.put(e.getKey(), DynamoDBToKNIMEUtil.attributeValueToDataCell(e.getValue()));
-                }
-                dc.addRow(inRow.getKey(), row);
+            if (buffer == null) {
+                final BufferedDataContainer dc = exec.createDataContainer(new DataTableSpec());
+                dc.close();
+                outTable = dc.getTable();
+            } else {
+                outTable = buffer.createTable(exec.createSubExecutionContext(0.2));
             }
         }
 
         if (m_settings.publishConsumedCapUnits()) {
-            pushFlowVariableDouble("updateItemConsumedCapacityUnits", consumedCap);
+            pushFlowVariableDouble("updateItemConsumedCapacityUnits", consumedCap.sum());
         }
 
-        dc.close();
+        return new PortObject[] {inObjects[0], outTable};
+    }
 
-        return new PortObject[] {inObjects[0], dc.getTable()};
+    /**
+     * Updates an item, retrying with exponential backoff while the table's throughput is exceeded.
+     * @return the response or {@code null} if the condition expression was not met
+     */
+    private static UpdateItemResponse updateItem(final DynamoDbClient ddb, final UpdateItemRequest request,
+            final ExecutionMonitor exec) throws InterruptedException, CanceledExecutionException {
+        int nRetry = 0;
+        while (true) {
+            exec.checkCanceled();
+            if (nRetry > 0) {
+                Thread.sleep((int)Math.pow(2, nRetry - 1) * EXPONENTIAL_BACKOFF_FACTOR);
+            }
+            try {
+                return ddb.updateItem(request);
+            } catch (final ProvisionedThroughputExceededException e) {
+                nRetry++;
+            } catch (final ConditionalCheckFailedException e) {
+                return null;
+            }
+        }
     }
 
     /**
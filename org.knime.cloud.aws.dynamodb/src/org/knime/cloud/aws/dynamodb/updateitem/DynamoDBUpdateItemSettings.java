@@ -67,6 +67,12 @@ public class DynamoDBUpdateItemSettings extends DynamoDBWriterSettings {
     private static final String CFG_CONDITION_EXPRESSION = "conditionExpression";
     private static final String CFG_UPDATE_EXPRESSION = "updateExpression";
     private static final String CFG_RETURN_VALUE = "returnValue";
+    private static final String CFG_CONCURRENCY = "concurrentRequests";
+
+    /**
+     * Default number of requests sent at the same time.
+     */
+    static final int DEFAULT_CONCURRENCY = 1;
     
     private DynamoDBKeyColumnsSettings m_keyColumns = new DynamoDBKeyColumnsSettings();
     private DynamoDBPlaceholderSettings m_placeholders = new DynamoDBPlaceholderSettings();
@@ -74,6 +80,7 @@ public class DynamoDBUpdateItemSettings extends DynamoDBWriterSettings {
     private String m_conditionExpression = "";
     private String m_updateExpression = "";
     private ReturnValue m_returnValue = ReturnValue.NONE;
+    private int m_concurrency = DEFAULT_CONCURRENCY;
     
     /**
      * @return an expression describing which conditions have to be met for the item to be updated
@@ -131,6 +138,23 @@ public DynamoDBKeyColumnsSettings getKeyColumns() {
         return m_keyColumns;
     }
     
+    /**
+     * @return the number of requests sent to DynamoDB at the same time
+     */
+    int getConcurrency() {
+        return m_concurrency;
+    }
+
+    /**
+     * @param concurrency the number of requests sent to DynamoDB at the same time
+     */
+    void setConcurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The number of concurrent requests must be at least 1.");
+        }
+        m_concurrency = concurrency;
+    }
+
     /**
      * Saves this settings object to node settings.
      * @param settings the node settings to save to
@@ -143,6 +167,7 @@ public void saveSettings(final NodeSettingsWO settings) {
         settings.addString(CFG_CONDITION_EXPRESSION, m_conditionExpression);
         settings.addString(CFG_UPDATE_EXPRESSION, m_updateExpression);
         settings.addString(CFG_RETURN_VALUE, m_returnValue.toString());
+        settings.addInt(CFG_CONCURRENCY, m_concurrency);
     }
 
     /**
@@ -158,6 +183,11 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
         m_conditionExpression = settings.getString(CFG_CONDITION_EXPRESSION);
         m_updateExpression = settings.getString(CFG_UPDATE_EXPRESSION);
         m_returnValue = ReturnValue.valueOf(settings.getString(CFG_RETURN_VALUE));
+        // Added later, workflows created before send one request at a time
+        m_concurrency = settings.getInt(CFG_CONCURRENCY, 1);
+        if (m_concurrency < 1) {
+            throw new InvalidSettingsException("The number of concurrent requests must be at least 1.");
+        }
     }
 
     /**
@@ -172,5 +202,7 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
         m_conditionExpression = settings.getString(CFG_CONDITION_EXPRESSION, "");
         m_updateExpression = settings.getString(CFG_UPDATE_EXPRESSION, "");
         m_returnValue = ReturnValue.valueOf(settings.getString(CFG_RETURN_VALUE, ReturnValue.NONE.toString()));
+        // Workflows saved before the setting existed sent one request at a time
+        m_concurrency = Math.max(1, settings.getInt(CFG_CONCURRENCY, 1));
     }
 }
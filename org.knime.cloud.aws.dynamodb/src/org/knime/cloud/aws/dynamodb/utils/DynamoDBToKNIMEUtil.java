@@ -48,11 +48,15 @@
  */
 package org.knime.cloud.aws.dynamodb.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
+import org.knime.core.data.blob.BinaryObjectCellFactory;
 import org.knime.core.data.collection.CollectionCellFactory;
 import org.knime.core.data.collection.ListCell;
 import org.knime.core.data.collection.SetCell;
@@ -63,6 +67,7 @@
 import org.knime.core.data.json.JSONCellFactory;
 
 import jakarta.json.JsonValue;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 /**
@@ -113,6 +118,19 @@ public static DataType attributeValueToType(final AttributeValue val) {
      * @return a KNIME cell representing the given attribute value
      */
     public static DataCell attributeValueToDataCell(final AttributeValue val) {
+        return attributeValueToDataCell(val, null);
+    }
+
+    /**
+     * Converts a DynamoDB attribute value to a KNIME data cell.
+     * @param val the value to convert to a KNIME cell
+     * @param binaryFactory the factory for creating binary object cells from binary values,
+     * or <code>null</code> if binary values should be decoded to strings
+     * @return a KNIME cell representing the given attribute value
+     * @throws UncheckedIOException if a binary value cannot be written to a file store
+     */
+    public static DataCell attributeValueToDataCell(final AttributeValue val,
+            final BinaryObjectCellFactory binaryFactory) {
         if (val == null) {
             return DataType.getMissingCell();
         } else if (DynamoDBUtil.isString(val)) {
@@ -125,11 +143,11 @@ public static DataCell attributeValueToDataCell(final AttributeValue val) {
         } else if (DynamoDBUtil.isBoolean(val)) {
             return val.bool() ? BooleanCell.TRUE : BooleanCell.FALSE;
         } else if (DynamoDBUtil.isBinary(val)) {
-            return new StringCell(val.b().asString(Charset.defaultCharset()));
+            return binaryToDataCell(val.b(), binaryFactory);
         } else if (DynamoDBUtil.isBinarySet(val)) {
             return CollectionCellFactory.createSetCell(
                     val.bs().stream()
-                        .map(bytes -> new StringCell(bytes.asString(Charset.defaultCharset())))
+                        .map(bytes -> binaryToDataCell(bytes, binaryFactory))
                         .collect(Collectors.toList()));
         } else if (DynamoDBUtil.isNul(val)) {
             return DataType.getMissingCell();
@@ -138,11 +156,25 @@ public static DataCell attributeValueToDataCell(final AttributeValue val) {
                     val.ns().stream().map(s -> new DoubleCell(Double.parseDouble(s))).collect(Collectors.toList()));
         } else if (DynamoDBUtil.isList(val)) {
             return CollectionCellFactory.createListCell(
-                    val.l().stream().map(av -> attributeValueToDataCell(av)).collect(Collectors.toList()));
+                    val.l().stream().map(av -> attributeValueToDataCell(av, binaryFactory))
+                    .collect(Collectors.toList()));
         } else if (DynamoDBUtil.isMap(val)) {
             return JSONCellFactory.create((JsonValue) DynamoDBUtil.attributeValueToJsonObject(val));
         }  else {
             return DataType.getMissingCell();
         }
     }
+
+    private static DataCell binaryToDataCell(final SdkBytes bytes, final BinaryObjectCellFactory binaryFactory) {
+        if (binaryFactory == null) {
+            return new StringCell(bytes.asString(Charset.defaultCharset()));
+        }
+        // The stream reads directly from the buffer of the response, so the bytes are only copied once
+        // into the cell or streamed into a file store if they exceed the in-memory threshold of the factory
+        try (InputStream in = bytes.asInputStream()) {
+            return binaryFactory.create(in);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
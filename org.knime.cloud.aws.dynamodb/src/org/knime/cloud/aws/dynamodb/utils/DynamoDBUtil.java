@@ -58,6 +58,8 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBSettings;
 import org.knime.cloud.aws.dynamodb.settings.DynamoDBTableSettings;
@@ -94,7 +96,11 @@
 import software.amazon.awssdk.services.dynamodb.model.ListTablesResponse;
 import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClientBuilder;
 
 /**
  * General helper methods for DynamoDB API.
@@ -107,6 +113,8 @@ private DynamoDBUtil() { }
 
 	private static final String ROLE_SESSION_NAME = "KNIME_DynamoDB_Connection";
 
+	private static final String PROJECTION_NAME_PLACEHOLDER = "#knimeProjectionKNIME";
+
 	/**
      * String representing the binary data type for DynamoDB.
      */
@@ -237,7 +245,8 @@ public static boolean isBoolean(final AttributeValue val) {
      * @return true if the value is binary
      */
     public static boolean isBinary(final AttributeValue val) {
-        return val.getValueForField(DynamoDBUtil.BINARY_TYPE, String.class).isPresent();
+        // The B field holds SdkBytes, not a string, and is null if the value is of another type
+        return val.b() != null;
     }
 
     /**
@@ -299,6 +308,115 @@ public static boolean isMap(final AttributeValue val) {
         return !(val.m() instanceof SdkAutoConstructMap<?, ?>);
     }
 
+    /**
+     * Estimates the size of an item the way DynamoDB calculates it for capacity units and the 400KB limit:
+     * the UTF-8 length of each attribute name plus the size of its value.
+     * @param item the item
+     * @return the estimated size in bytes
+     * @see <a href="https://docs.aws.amazon.com/amazondynamodb/latest/developerguide/CapacityUnitCalculations.html">
+     * DynamoDB item sizes</a>
+     */
+    public static long getItemSize(final Map<String, AttributeValue> item) {
+        long size = 0;
+        for (final Entry<String, AttributeValue> e : item.entrySet()) {
+            size += utf8Length(e.getKey()) + getAttributeValueSize(e.getValue());
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the size of a single attribute value, without its name.
+     * @param val the value
+     * @return the estimated size in bytes
+     */
+    public static long getAttributeValueSize(final AttributeValue val) {
+        if (isString(val)) {
+            return utf8Length(val.s());
+        } else if (isNumber(val)) {
+            return getNumberSize(val.n());
+        } else if (isBinary(val)) {
+            return val.b().asByteBuffer().remaining();
+        } else if (isBoolean(val) || isNul(val)) {
+            return 1;
+        } else if (isStringSet(val)) {
+            long size = 0;
+            for (final String s : val.ss()) {
+                size += utf8Length(s);
+            }
+            return size;
+        } else if (isNumberSet(val)) {
+            long size = 0;
+            for (final String n : val.ns()) {
+                size += getNumberSize(n);
+            }
+            return size;
+        } else if (isBinarySet(val)) {
+            long size = 0;
+            for (final SdkBytes b : val.bs()) {
+                size += b.asByteBuffer().remaining();
+            }
+            return size;
+        } else if (isList(val)) {
+            // 3 bytes for the list and 1 byte per element
+            long size = 3;
+            for (final AttributeValue element : val.l()) {
+                size += 1 + getAttributeValueSize(element);
+            }
+            return size;
+        } else if (isMap(val)) {
+            // 3 bytes for the map and 1 byte per entry
+            long size = 3;
+            for (final Entry<String, AttributeValue> e : val.m().entrySet()) {
+                size += 1 + utf8Length(e.getKey()) + getAttributeValueSize(e.getValue());
+            }
+            return size;
+        }
+        return 0;
+    }
+
+    /** Numbers are stored with two significant digits per byte plus one byte. */
+    private static long getNumberSize(final String number) {
+        int digits = 0;
+        int firstNonZero = -1;
+        int lastNonZero = -1;
+        for (int i = 0; i < number.length(); i++) {
+            final char c = number.charAt(i);
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+            if (Character.isDigit(c)) {
+                if (c != '0') {
+                    if (firstNonZero == -1) {
+                        firstNonZero = digits;
+                    }
+                    lastNonZero = digits;
+                }
+                digits++;
+            }
+        }
+        final int significant = firstNonZero == -1 ? 1 : lastNonZero - firstNonZero + 1;
+        return (significant + 1) / 2 + 1;
+    }
+
+    private static long utf8Length(final String s) {
+        long len = 0;
+        int i = 0;
+        while (i < s.length()) {
+            final int cp = s.codePointAt(i);
+            if (cp < 0x80) {
+                len += 1;
+            } else if (cp < 0x800) {
+                len += 2;
+            } else if (cp < 0x10000) {
+                len += 3;
+            } else {
+                len += 4;
+            }
+            i += Character.charCount(cp);
+        }
+        return len;
+    }
+
     /**
      * Creates a new DynamoDB client from the supplied settings.
      *
@@ -315,6 +433,19 @@ public static DynamoDbClient createClient(final DynamoDBSettings settings,
         return createClient(credentialProvider, endpoint, region);
     }
 
+    /**
+     * Creates a new DynamoDB client for a region that may differ from the one of the connection.
+     *
+     * @param con connection settings from a port providing the credentials
+     * @param endpoint the endpoint to use or empty for the default
+     * @param region the AWS region to use
+     * @return a DynamoDbClient for reading and writing from/to DynamoDB
+     */
+    public static DynamoDbClient createClient(final CloudConnectionInformation con, final String endpoint,
+            final Region region) {
+        return createClient(getCredentialProvider(con), endpoint, region);
+    }
+
 	/**
 	 * @param credentialProvider the {@link AwsCredentialsProvider} to use
 	 * @param endpoint the endpoint to use or <code>null</code> for the default
@@ -331,6 +462,25 @@ private static DynamoDbClient createClient(final AwsCredentialsProvider credenti
         return builder.build();
 	}
 
+    /**
+     * Creates a new client for reading DynamoDB streams from the supplied settings.
+     *
+     * @param settings the settings for the connection
+     * @param con connection settings from a port providing the credentials
+     * @return a DynamoDbStreamsClient for reading the change records of tables
+     */
+    public static DynamoDbStreamsClient createStreamsClient(final DynamoDBSettings settings,
+            final CloudConnectionInformation con) {
+        final DynamoDbStreamsClientBuilder builder = DynamoDbStreamsClient.builder()
+                .region(Region.of(con.getHost()))
+                .credentialsProvider(getCredentialProvider(con));
+        final String endpoint = settings.getEndpoint();
+        if (endpoint != null && endpoint.trim().length() > 0) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
 	private static AwsCredentialsProvider getCredentialProvider(final CloudConnectionInformation con) {
 		return AWSCredentialHelper.getCredentialProvider(con, ROLE_SESSION_NAME);
 	}
@@ -701,6 +851,47 @@ public static AttributeValue getKeyConditionAttrValue(final String value, final
         throw new IllegalArgumentException("Only types S, B and N are supported.");
     }
 
+    /**
+     * Combines a projection expression with a list of attribute names into one projection expression.
+     * The attribute names are referenced by generated placeholders, so reserved words and names with
+     * special characters are safe to use.
+     * @param projectionExpr a projection expression typed by the user, may be empty
+     * @param attributes names of attributes to retrieve, may be empty
+     * @param names the expression attribute names, the placeholders for the attributes are added to it
+     * @return the projection expression or an empty string if all attributes should be retrieved
+     */
+    public static String createProjectionExpression(final String projectionExpr, final String[] attributes,
+            final Map<String, String> names) {
+        final StringBuilder sb = new StringBuilder(projectionExpr == null ? "" : projectionExpr.trim());
+        for (int i = 0; i < attributes.length; i++) {
+            final String placeholder = PROJECTION_NAME_PLACEHOLDER + i;
+            names.put(placeholder, attributes[i]);
+            sb.append(sb.length() == 0 ? "" : ", ").append(placeholder);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Retrieves a few items from a table to find out which top level attributes they have.
+     * @param tblSettings the table settings containing the info to identify the table
+     * @param con the connection information
+     * @param sampleSize the maximum number of items to look at
+     * @return the names of the attributes of the sampled items, sorted alphabetically
+     * @throws Exception if the table cannot be scanned
+     */
+    public static SortedSet<String> sampleAttributeNames(final DynamoDBTableSettings tblSettings,
+            final CloudConnectionInformation con, final int sampleSize) throws Exception {
+        try (DynamoDbClient ddb = createClient(tblSettings, con)) {
+            final ScanResponse response = ddb.scan(
+                ScanRequest.builder().tableName(tblSettings.getTableName()).limit(sampleSize).build());
+            final SortedSet<String> names = new TreeSet<>();
+            for (final Map<String, AttributeValue> item : response.items()) {
+                names.addAll(item.keySet());
+            }
+            return names;
+        }
+    }
+
     /**
      * Converts a <code>JsonValue</code> to a DynamoDB attribute value.
      * @param jsonValue the <code>JsonNode</code> to convert
@@ -48,6 +48,9 @@
  */
 package org.knime.cloud.aws.dynamodb.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -59,6 +62,7 @@
 import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.StringValue;
+import org.knime.core.data.blob.BinaryObjectDataValue;
 import org.knime.core.data.collection.CollectionDataValue;
 import org.knime.core.data.collection.SetDataValue;
 import org.knime.core.data.json.JSONValue;
@@ -91,6 +95,8 @@ public static Function<DataCell, AttributeValue> createMapper(final DataType typ
             return v -> v.isMissing() ? NULL_ATTRIBUTE_VALUE : jsonToAttributeValue((JSONValue)v);
         } else if (type.isCompatible(StringValue.class)) {
             return v -> v.isMissing() ? NULL_ATTRIBUTE_VALUE : stringToAttributeValue((StringValue)v);
+        } else if (type.isCompatible(BinaryObjectDataValue.class)) {
+            return v -> v.isMissing() ? NULL_ATTRIBUTE_VALUE : binaryToAttributeValue((BinaryObjectDataValue)v);
         } else if (type.isCompatible(BooleanValue.class)) {
             return v -> v.isMissing() ? NULL_ATTRIBUTE_VALUE : boolToAttributeValue((BooleanValue)v);
         } else if (type.isCompatible(DoubleValue.class)) {
@@ -130,6 +136,8 @@ public static AttributeValue dataCellToAttributeValue(final DataCell cell) {
             return jsonToAttributeValue((JSONValue)cell);
         } else if (cell instanceof StringValue) {
             return stringToAttributeValue((StringValue)cell);
+        } else if (cell instanceof BinaryObjectDataValue) {
+            return binaryToAttributeValue((BinaryObjectDataValue)cell);
         } else if (cell instanceof BooleanValue) {
             return boolToAttributeValue((BooleanValue)cell);
         } else if (cell instanceof DoubleValue) {
@@ -177,6 +185,31 @@ public static AttributeValue jsonToAttributeValue(final JSONValue val) {
         return DynamoDBUtil.jsonValueToAttributeValue(val.getJsonValue());
     }
     
+    /**
+     * Converts a KNIME binary object to a DynamoDB binary attribute value.
+     * @param val the binary object to convert
+     * @return a matching attribute value
+     * @throws UncheckedIOException if the binary object cannot be read
+     */
+    public static AttributeValue binaryToAttributeValue(final BinaryObjectDataValue val) {
+        return AttributeValue.builder().b(binaryToSdkBytes(val)).build();
+    }
+
+    private static SdkBytes binaryToSdkBytes(final BinaryObjectDataValue val) {
+        try (InputStream in = val.openInputStream()) {
+            // Read into an array of the exact size and hand it over without the defensive copy of fromByteArray
+            final byte[] bytes = new byte[Math.toIntExact(val.length())];
+            final int read = in.readNBytes(bytes, 0, bytes.length);
+            if (read != bytes.length) {
+                throw new IOException(String.format(
+                    "Binary object is shorter than its declared length (%d of %d bytes)", read, bytes.length));
+            }
+            return SdkBytes.fromByteArrayUnsafe(bytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Converts a KNIME boolean value to a DynamoDB attribute value.
      * @param val the boolean value to convert
@@ -201,6 +234,11 @@ public static AttributeValue collectionToListAttributeValue(final CollectionData
             return AttributeValue.builder()
                     .ss(val.stream().map(s -> ((StringValue)s).getStringValue()).collect(Collectors.toList()))
                     .build();
+        } else if (val instanceof SetDataValue && val.getElementType().isCompatible(BinaryObjectDataValue.class)) {
+            return AttributeValue.builder()
+                    .bs(val.stream().map(b -> binaryToSdkBytes((BinaryObjectDataValue)b))
+                            .collect(Collectors.toList()))
+                    .build();
         }
         Function<DataCell, AttributeValue> mapper = createMapper(val.getElementType());
         if (mapper == null) {
@@ -220,7 +258,13 @@ public static AttributeValue collectionToListAttributeValue(final CollectionData
      */
     public static AttributeValue cellToKeyAttributeValue(final DataCell cell, final DataColumnSpec colSpec,
             final boolean isBinary) {
-        if (colSpec.getType().isCompatible(StringValue.class)) {
+        if (colSpec.getType().isCompatible(BinaryObjectDataValue.class)) {
+            if (!isBinary) {
+                throw new IllegalArgumentException("The binary column \"" + colSpec.getName()
+                    + "\" cannot be used for a key that is not of type Binary.");
+            }
+            return binaryToAttributeValue((BinaryObjectDataValue)cell);
+        } else if (colSpec.getType().isCompatible(StringValue.class)) {
             if (isBinary) {
                 return AttributeValue.builder()
                         .b(SdkBytes.fromString(((StringValue)cell).getStringValue(), Charset.defaultCharset()))
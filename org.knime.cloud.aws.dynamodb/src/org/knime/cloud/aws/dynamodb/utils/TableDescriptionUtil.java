@@ -0,0 +1,295 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ------------------------------------------------------------------------
+ */
+package org.knime.cloud.aws.dynamodb.utils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.DataType;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.SetCell;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.zoneddatetime.ZonedDateTimeCellFactory;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
+import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
+import software.amazon.awssdk.services.dynamodb.model.KeyType;
+import software.amazon.awssdk.services.dynamodb.model.LocalSecondaryIndexDescription;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+
+/**
+ * Helper methods for converting DynamoDB table descriptions into KNIME rows.
+ * Shared by the nodes that output table and index meta-information so they all produce the same columns.
+ *
+ * @author agent
+ */
+public final class TableDescriptionUtil {
+
+    private TableDescriptionUtil() { }
+
+    /**
+     * Creates the spec of the table information output.
+     * @return a spec with one column per general table property
+     */
+    public static DataTableSpec createTableInfoSpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+                new DataColumnSpecCreator("name", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("id", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("arn", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("status", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("sizeInBytes", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("creationDateTime", ZonedDateTimeCellFactory.TYPE).createSpec(),
+                new DataColumnSpecCreator("readUnits", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("writeUnits", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("lastProvThroughputDecrease", ZonedDateTimeCellFactory.TYPE).createSpec(),
+                new DataColumnSpecCreator("lastProvThroughputIncrease", ZonedDateTimeCellFactory.TYPE).createSpec(),
+                new DataColumnSpecCreator("provThroughputDecreasesToday", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("billingMode", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("hashKeyName", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("hashKeyType", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("rangeKeyName", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("rangeKeyType", StringCell.TYPE).createSpec()
+                );
+        return c.createSpec();
+    }
+
+    /**
+     * Creates the spec of the index information output.
+     * @return a spec with one column per index property
+     */
+    public static DataTableSpec createIndexInfoSpec() {
+        final DataTableSpecCreator c = new DataTableSpecCreator();
+        c.addColumns(
+                new DataColumnSpecCreator("type", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("name", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("arn", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("status", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("sizeInBytes", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("itemCount", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("backfilling", BooleanCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("readUnits", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("writeUnits", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("lastProvThroughputDecrease", ZonedDateTimeCellFactory.TYPE).createSpec(),
+                new DataColumnSpecCreator("lastProvThroughputIncrease", ZonedDateTimeCellFactory.TYPE).createSpec(),
+                new DataColumnSpecCreator("provThroughputDecreasesToday", LongCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("hashKeyName", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("hashKeyType", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("rangeKeyName", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("rangeKeyType", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("projectionType", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("nonKeyAttributes", SetCell.getCollectionType(StringCell.TYPE)).createSpec()
+                );
+        return c.createSpec();
+    }
+
+    /**
+     * Maps the names of the key attributes of a table to their DynamoDB type.
+     * @param table the table description
+     * @return a map from attribute name to type string
+     */
+    public static Map<String, String> getAttributeTypes(final TableDescription table) {
+        final Map<String, String> typeMapping = new HashMap<>();
+        for (final AttributeDefinition def : table.attributeDefinitions()) {
+            typeMapping.put(def.attributeName(), def.attributeTypeAsString());
+        }
+        return typeMapping;
+    }
+
+    /**
+     * Creates the cells of a row in the table information output.
+     * @param table the table description
+     * @return the cells matching {@link #createTableInfoSpec()}
+     */
+    public static DataCell[] createTableInfoCells(final TableDescription table) {
+        final Map<String, String> typeMapping = getAttributeTypes(table);
+
+        // General table info
+        final DataCell tableName = new StringCell(table.tableName());
+        final DataCell id = new StringCell(table.tableId());
+        final DataCell arn = new StringCell(table.tableArn());
+        final DataCell status = new StringCell(table.tableStatusAsString());
+        final DataCell sizeBytes = new LongCell(table.tableSizeBytes());
+        final DataCell itemCount = new LongCell(table.itemCount());
+        final DataCell creationDateTime = toDateTimeCell(table.creationDateTime());
+
+        // Provisioned throughput
+        final ProvisionedThroughputDescription pt = table.provisionedThroughput();
+        final DataCell readUnits = new LongCell(pt.readCapacityUnits());
+        final DataCell writeUnits = new LongCell(pt.writeCapacityUnits());
+        final DataCell lastDecrease = toDateTimeCell(pt.lastDecreaseDateTime());
+        final DataCell lastIncrease = toDateTimeCell(pt.lastIncreaseDateTime());
+        final DataCell nDecreasesToday = new LongCell(pt.numberOfDecreasesToday());
+
+        // Billing
+        final DataCell billingMode = table.billingModeSummary() == null
+                ? DataType.getMissingCell() : new StringCell(table.billingModeSummary().billingModeAsString());
+
+        // Keys
+        final DataCell[] keys = createKeyCells(table.keySchema(), typeMapping);
+
+        return new DataCell[] {tableName, id, arn, status, sizeBytes, itemCount, creationDateTime,
+            readUnits, writeUnits, lastDecrease, lastIncrease, nDecreasesToday, billingMode,
+            keys[0], keys[1], keys[2], keys[3]};
+    }
+
+    /**
+     * Creates the cells of a row in the index information output for a local secondary index.
+     * @param lsid the index description
+     * @param typeMapping the attribute types of the table, see {@link #getAttributeTypes(TableDescription)}
+     * @return the cells matching {@link #createIndexInfoSpec()}
+     */
+    public static DataCell[] createLocalIndexCells(final LocalSecondaryIndexDescription lsid,
+            final Map<String, String> typeMapping) {
+        final DataCell indexType = new StringCell("local");
+        final DataCell indexName = new StringCell(lsid.indexName());
+        final DataCell indexArn = new StringCell(lsid.indexArn());
+        final DataCell indexStatus = DataType.getMissingCell();
+        final DataCell indexSizeBytes = new LongCell(lsid.indexSizeBytes());
+        final DataCell indexItemCount = new LongCell(lsid.itemCount());
+        final DataCell backfilling = DataType.getMissingCell();
+
+        // Local indexes share the provisioned throughput of their table
+        final DataCell indexReadUnits = DataType.getMissingCell();
+        final DataCell indexWriteUnits = DataType.getMissingCell();
+        final DataCell indexLastDecrease = DataType.getMissingCell();
+        final DataCell indexLastIncrease = DataType.getMissingCell();
+        final DataCell indexNDecreasesToday = DataType.getMissingCell();
+
+        final DataCell[] keys = createKeyCells(lsid.keySchema(), typeMapping);
+        final DataCell[] projection = createProjectionCells(lsid.projection());
+
+        return new DataCell[] {indexType, indexName, indexArn, indexStatus, indexSizeBytes, indexItemCount,
+            backfilling, indexReadUnits, indexWriteUnits, indexLastDecrease, indexLastIncrease, indexNDecreasesToday,
+            keys[0], keys[1], keys[2], keys[3], projection[0], projection[1]};
+    }
+
+    /**
+     * Creates the cells of a row in the index information output for a global secondary index.
+     * @param gsid the index description
+     * @param typeMapping the attribute types of the table, see {@link #getAttributeTypes(TableDescription)}
+     * @return the cells matching {@link #createIndexInfoSpec()}
+     */
+    public static DataCell[] createGlobalIndexCells(final GlobalSecondaryIndexDescription gsid,
+            final Map<String, String> typeMapping) {
+        final DataCell indexType = new StringCell("global");
+        final DataCell indexName = new StringCell(gsid.indexName());
+        final DataCell indexArn = new StringCell(gsid.indexArn());
+        final DataCell indexStatus = new StringCell(gsid.indexStatusAsString());
+        final DataCell indexSizeBytes = new LongCell(gsid.indexSizeBytes());
+        final DataCell indexItemCount = new LongCell(gsid.itemCount());
+        final DataCell backfilling = (gsid.backfilling() == null || !gsid.backfilling())
+                ? BooleanCell.FALSE : BooleanCell.TRUE;
+
+        // Provisioned throughput
+        final ProvisionedThroughputDescription pt = gsid.provisionedThroughput();
+        final DataCell indexReadUnits = new LongCell(pt.readCapacityUnits());
+        final DataCell indexWriteUnits = new LongCell(pt.writeCapacityUnits());
+        final DataCell indexLastDecrease = toDateTimeCell(pt.lastDecreaseDateTime());
+        final DataCell indexLastIncrease = toDateTimeCell(pt.lastIncreaseDateTime());
+        final DataCell indexNDecreasesToday = new LongCell(pt.numberOfDecreasesToday());
+
+        final DataCell[] keys = createKeyCells(gsid.keySchema(), typeMapping);
+        final DataCell[] projection = createProjectionCells(gsid.projection());
+
+        return new DataCell[] {indexType, indexName, indexArn, indexStatus, indexSizeBytes, indexItemCount,
+            backfilling, indexReadUnits, indexWriteUnits, indexLastDecrease, indexLastIncrease, indexNDecreasesToday,
+            keys[0], keys[1], keys[2], keys[3], projection[0], projection[1]};
+    }
+
+    /**
+     * Converts an instant to a date time cell in the system time zone.
+     * @param instant the instant to convert, may be null
+     * @return a date time cell or a missing cell if the instant is null
+     */
+    public static DataCell toDateTimeCell(final Instant instant) {
+        return instant == null ? DataType.getMissingCell()
+                : ZonedDateTimeCellFactory.create(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+
+    private static DataCell[] createKeyCells(final Iterable<KeySchemaElement> keySchema,
+            final Map<String, String> typeMapping) {
+        DataCell hashKeyName = null;
+        DataCell hashKeyType = null;
+        DataCell rangeKeyName = DataType.getMissingCell();
+        DataCell rangeKeyType = DataType.getMissingCell();
+        for (final KeySchemaElement e : keySchema) {
+            if (e.keyType() == KeyType.HASH) {
+                hashKeyName = new StringCell(e.attributeName());
+                hashKeyType = new StringCell(typeMapping.get(e.attributeName()));
+            } else {
+                rangeKeyName = new StringCell(e.attributeName());
+                rangeKeyType = new StringCell(typeMapping.get(e.attributeName()));
+            }
+        }
+        return new DataCell[] {hashKeyName, hashKeyType, rangeKeyName, rangeKeyType};
+    }
+
+    private static DataCell[] createProjectionCells(final Projection p) {
+        final DataCell projectionType = new StringCell(p.projectionTypeAsString());
+        DataCell projection = DataType.getMissingCell();
+        if (p.projectionType() == ProjectionType.INCLUDE) {
+            projection = CollectionCellFactory.createSetCell(
+                    p.nonKeyAttributes().stream()
+                    .map(StringCell::new).collect(Collectors.toList()));
+        }
+        return new DataCell[] {projectionType, projection};
+    }
+}
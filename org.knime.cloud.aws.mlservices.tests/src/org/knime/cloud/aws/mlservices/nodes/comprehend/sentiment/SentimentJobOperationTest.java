@@ -0,0 +1,235 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.nodes.comprehend.sentiment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService.JobType;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.LocalComprehendJobService;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Runs the sentiment detection as asynchronous job against the {@link LocalComprehendJobService} and checks how the
+ * results of the job are joined with the input rows.
+ *
+ * @author agent
+ */
+class SentimentJobOperationTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String TEXT_COLUMN = "Text";
+
+    /** Long enough to be split into several documents. */
+    private static final String LONG_TEXT = String.join("", Collections.nCopies(300, "This is great. "))
+        + String.join("", Collections.nCopies(300, "This is awful. "));
+
+    private static final String[] TEXTS = {"This is great.", LONG_TEXT, null, "   ", "This will fail.",
+        LONG_TEXT + "This will fail.", "This is awful."};
+
+    @TempDir
+    Path m_directory;
+
+    private ExecutionContext m_exec;
+
+    private DataTableSpec m_inputSpec;
+
+    private DataTableSpec m_outputSpec;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @BeforeEach
+    void createContext() {
+        m_exec = new ExecutionContext(new DefaultNodeProgressMonitor(),
+            new Node((NodeFactory<NodeModel>)(NodeFactory)new VirtualParallelizedChunkPortObjectInNodeFactory(
+                new PortType[0])),
+            SingleNodeContainer.MemoryPolicy.CacheOnDisc, NotInWorkflowDataRepository.newInstance());
+        m_inputSpec = new DataTableSpec(new DataColumnSpecCreator(TEXT_COLUMN, StringCell.TYPE).createSpec());
+        m_outputSpec = new DataTableSpec(m_inputSpec,
+            new DataTableSpec(new DataColumnSpecCreator("Sentiment", StringCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("Score (mixed)", DoubleCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("Score (positive)", DoubleCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("Score (neutral)", DoubleCell.TYPE).createSpec(),
+                new DataColumnSpecCreator("Score (negative)", DoubleCell.TYPE).createSpec()));
+    }
+
+    @Test
+    void testComputeAsJob() throws Exception {
+        checkOutput(runJob(false));
+    }
+
+    @Test
+    void testComputeAsJobWithShuffledOutput() throws Exception {
+        checkOutput(runJob(true));
+    }
+
+    private List<DataRow> runJob(final boolean shuffle) throws Exception {
+        final BufferedDataContainer input = m_exec.createDataContainer(m_inputSpec);
+        for (int i = 0; i < TEXTS.length; i++) {
+            input.addRowToTable(new DefaultRow(RowKey.createRowKey((long)i),
+                TEXTS[i] != null ? new StringCell(TEXTS[i]) : DataType.getMissingCell()));
+        }
+        input.close();
+        final List<String> documents = new ArrayList<>();
+        final BufferedDataContainer output = m_exec.createDataContainer(m_outputSpec);
+        final BufferedDataTableRowOutput out = new BufferedDataTableRowOutput(output);
+        try (LocalComprehendJobService service =
+            new LocalComprehendJobService(m_directory, (type, language, text) -> {
+                assertEquals(JobType.SENTIMENT, type);
+                assertEquals("en", language);
+                documents.add(text);
+                return detectSentiment(text);
+            })) {
+            if (shuffle) {
+                service.shuffleOutput(42);
+            }
+            new SentimentOperation(null, TEXT_COLUMN, "English", m_outputSpec)
+                .computeAsJob(input.getTable(), out, 0, service, m_exec);
+        }
+        out.close();
+        assertEquals(1 + chunksOf(LONG_TEXT).size() + 1 + chunksOf(LONG_TEXT + "This will fail.").size() + 1,
+            documents.size(), "Missing and blank texts are not sent, long texts are split");
+        final List<DataRow> rows = new ArrayList<>();
+        try (CloseableRowIterator it = out.getDataTable().iterator()) {
+            it.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private static void checkOutput(final List<DataRow> rows) {
+        assertEquals(TEXTS.length, rows.size());
+        for (int i = 0; i < TEXTS.length; i++) {
+            assertEquals(RowKey.createRowKey((long)i), rows.get(i).getKey(), "Rows are not in input order");
+        }
+        assertSentiment(rows.get(0), "POSITIVE", 1);
+
+        // The scores of the documents of a long text are averaged weighted by their length
+        final List<TextChunker.Chunk> chunks = chunksOf(LONG_TEXT);
+        assertTrue(chunks.size() > 1, "Text is not split");
+        double positive = 0;
+        double length = 0;
+        for (final TextChunker.Chunk chunk : chunks) {
+            positive += chunk.getText().contains("great") ? chunk.getLength() : 0;
+            length += chunk.getLength();
+        }
+        assertNotEquals(1, positive / length);
+        assertSentiment(rows.get(1), positive / length >= 0.5 ? "POSITIVE" : "NEGATIVE", positive / length);
+
+        // Missing and blank texts, failed texts and long texts with a failed document get missing values
+        for (final int i : new int[]{2, 3, 4, 5}) {
+            for (int j = 1; j < rows.get(i).getNumCells(); j++) {
+                assertTrue(rows.get(i).getCell(j).isMissing(), "Row " + i + " has a result in column " + j);
+            }
+        }
+        assertSentiment(rows.get(6), "NEGATIVE", 0);
+    }
+
+    private static void assertSentiment(final DataRow row, final String sentiment, final double positive) {
+        assertEquals(new StringCell(sentiment), row.getCell(1), "Wrong sentiment of " + row.getKey());
+        assertEquals(positive, ((DoubleValue)row.getCell(3)).getDoubleValue(), 1e-9);
+        assertEquals(1 - positive, ((DoubleValue)row.getCell(5)).getDoubleValue(), 1e-9);
+    }
+
+    private static List<TextChunker.Chunk> chunksOf(final String text) {
+        return TextChunker.split(text, ComprehendUtils.MAX_TEXT_BYTES, Locale.forLanguageTag("en"));
+    }
+
+    /** Documents containing "great" are positive, the others negative, documents containing "fail" fail. */
+    private static ObjectNode detectSentiment(final String text) {
+        if (text.contains("fail")) {
+            throw new IllegalArgumentException("Cannot process " + text);
+        }
+        final double positive = text.contains("great") ? 1 : 0;
+        final ObjectNode result = MAPPER.createObjectNode();
+        result.put("Sentiment", positive > 0 ? "POSITIVE" : "NEGATIVE");
+        final ObjectNode score = result.putObject("SentimentScore");
+        score.put("Mixed", 0.0);
+        score.put("Positive", positive);
+        score.put("Neutral", 0.0);
+        score.put("Negative", 1 - positive);
+        return result;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests the {@link ComprehendResultCache} and its {@link ResultLogStore}.
+ *
+ * @author agent
+ */
+class ComprehendResultCacheTest {
+
+    private static final long MAX_SIZE = 4L * 1024 * 1024;
+
+    @TempDir
+    Path m_directory;
+
+    @Test
+    void testRoundtrip() throws Exception {
+        final ResultLogStore store = new ResultLogStore(m_directory, MAX_SIZE);
+        try {
+            final ComprehendResultCache cache = new ComprehendResultCache(store);
+            final String key = ComprehendResultCache.createKey("sentiment", "en", "good");
+            assertNull(cache.get(key));
+            cache.put(key, Arrays.asList(
+                new DataCell[]{new StringCell("POSITIVE"), new DoubleCell(0.9), new IntCell(3)},
+                new DataCell[]{DataType.getMissingCell()}));
+            final List<DataCell[]> rows = cache.get(key);
+            assertEquals(2, rows.size());
+            assertEquals(new StringCell("POSITIVE"), rows.get(0)[0]);
+            assertEquals(new DoubleCell(0.9), rows.get(0)[1]);
+            assertEquals(new IntCell(3), rows.get(0)[2]);
+            assertTrue(rows.get(1)[0].isMissing());
+            assertEquals(2, cache.getLookups());
+            assertEquals(1, cache.getHits());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testSizeLimit() throws Exception {
+        final ResultLogStore store = new ResultLogStore(m_directory, MAX_SIZE);
+        try {
+            final ComprehendResultCache cache = new ComprehendResultCache(store);
+            final String text = String.join("", Collections.nCopies(1000, "x"));
+            final List<DataCell[]> result = Collections.singletonList(new DataCell[]{new StringCell(text)});
+            for (int i = 0; i < 20000; i++) {
+                cache.put(ComprehendResultCache.createKey("sentiment", "en", Integer.toString(i)), result);
+            }
+            // Segments are evicted in the background
+            for (int i = 0; i < 100 && store.getSize() > MAX_SIZE; i++) {
+                Thread.sleep(50);
+            }
+            assertTrue(store.getSize() <= MAX_SIZE, "Cache exceeds its limit: " + store.getSize());
+            assertTrue(sizeOnDisk() <= MAX_SIZE, "Cache files exceed the limit: " + sizeOnDisk());
+            assertNull(cache.get(ComprehendResultCache.createKey("sentiment", "en", "0")));
+            assertNotNull(cache.get(ComprehendResultCache.createKey("sentiment", "en", "19999")));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testReopen() throws Exception {
+        final String key = ComprehendResultCache.createKey("languages", "", "bonjour");
+        final ResultLogStore store = new ResultLogStore(m_directory, MAX_SIZE);
+        new ComprehendResultCache(store).put(key, Collections.singletonList(new DataCell[]{new StringCell("fr")}));
+        store.close();
+
+        final ResultLogStore reopened = new ResultLogStore(m_directory, MAX_SIZE);
+        try {
+            final ComprehendResultCache cache = new ComprehendResultCache(reopened);
+            // Existing segments are indexed in the background
+            List<DataCell[]> rows = cache.get(key);
+            for (int i = 0; i < 100 && rows == null; i++) {
+                Thread.sleep(50);
+                rows = cache.get(key);
+            }
+            assertNotNull(rows);
+            assertEquals(new StringCell("fr"), rows.get(0)[0]);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private long sizeOnDisk() throws IOException {
+        try (Stream<Path> files = Files.list(m_directory)) {
+            return files.mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
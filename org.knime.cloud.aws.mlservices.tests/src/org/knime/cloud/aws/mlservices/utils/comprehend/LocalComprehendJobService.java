@@ -0,0 +1,244 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.knime.core.node.ExecutionContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Local stand-in for {@link S3ComprehendJobService} that stages the input files in a local directory and computes the
+ * results of each line with a {@link LineProcessor}. The output is written in the format of the service, which allows
+ * to run the whole job pipeline without access to AWS. A job is reported as running on the first status check and is
+ * processed on the second one.
+ *
+ * @author agent
+ */
+public final class LocalComprehendJobService implements ComprehendJobService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path m_directory;
+
+    private final LineProcessor m_processor;
+
+    /** Jobs that were started but not processed yet. */
+    private final Map<String, Job> m_pending = new HashMap<>();
+
+    /** Output archive of each processed job. */
+    private final Map<String, Path> m_outputs = new HashMap<>();
+
+    private int m_jobCounter;
+
+    /** Shuffles the lines of the output files, {@code null} to write them in the order of the input. */
+    private Random m_shuffle;
+
+    /**
+     * Computes the results of one document.
+     */
+    @FunctionalInterface
+    public interface LineProcessor {
+
+        /**
+         * Computes the result of one line of the input file.
+         *
+         * @param type the type of the job
+         * @param languageCode the language code the job was started with
+         * @param text the document
+         * @return the fields of the result as written by the service, without {@value ComprehendJobOutput#FILE} and
+         *         {@value ComprehendJobOutput#LINE}
+         * @throws Exception thrown if the document could not be processed, reported as error of the line
+         */
+        ObjectNode process(JobType type, String languageCode, String text) throws Exception;
+    }
+
+    /**
+     * Creates a new instance of {@code LocalComprehendJobService}.
+     *
+     * @param directory the existing directory for the staged input and output files
+     * @param processor computes the results of each document
+     */
+    public LocalComprehendJobService(final Path directory, final LineProcessor processor) {
+        m_directory = directory;
+        m_processor = processor;
+    }
+
+    /**
+     * Writes the results in random order, which the service does not guarantee either.
+     *
+     * @param seed the seed of the order
+     */
+    public synchronized void shuffleOutput(final long seed) {
+        m_shuffle = new Random(seed);
+    }
+
+    @Override
+    public String stageInput(final Path file, final ExecutionContext exec) throws IOException {
+        final Path target = Files.createTempFile(m_directory, "input-", ".txt");
+        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+        return target.toUri().toString();
+    }
+
+    @Override
+    public synchronized String startJob(final JobType type, final String inputLocation, final String languageCode) {
+        final String jobId = "job-" + (++m_jobCounter);
+        m_pending.put(jobId, new Job(Paths.get(URI.create(inputLocation)), languageCode));
+        return jobId;
+    }
+
+    @Override
+    public synchronized boolean isJobCompleted(final JobType type, final String jobId) throws IOException {
+        if (m_outputs.containsKey(jobId)) {
+            return true;
+        }
+        final Job job = m_pending.get(jobId);
+        if (job == null) {
+            throw new IllegalStateException("The job " + jobId + " was stopped or does not exist.");
+        }
+        if (!job.m_reported) {
+            // Report the job as running once, like the service does after the submission
+            job.m_reported = true;
+            return false;
+        }
+        m_outputs.put(jobId, process(type, jobId, job));
+        m_pending.remove(jobId);
+        return true;
+    }
+
+    @Override
+    public synchronized void stopJob(final JobType type, final String jobId) {
+        m_pending.remove(jobId);
+    }
+
+    @Override
+    public synchronized InputStream openJobOutput(final JobType type, final String jobId) throws IOException {
+        final Path archive = m_outputs.get(jobId);
+        if (archive == null) {
+            throw new IllegalStateException("The job " + jobId + " has not completed yet.");
+        }
+        return Files.newInputStream(archive);
+    }
+
+    @Override
+    public void close() {
+        // The files are kept for inspection, the directory is owned by the caller
+    }
+
+    /**
+     * Computes the results of all lines of the input file and writes the output archive.
+     */
+    private Path process(final JobType type, final String jobId, final Job job) throws IOException {
+        final String fileName = job.m_input.getFileName().toString();
+        final Path lines = Files.createTempFile(m_directory, jobId + "-", ".json");
+        final List<String> results = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(job.m_input, StandardCharsets.UTF_8)) {
+            int line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                final ObjectNode result = MAPPER.createObjectNode();
+                result.put(ComprehendJobOutput.FILE, fileName);
+                result.put(ComprehendJobOutput.LINE, line++);
+                try {
+                    result.setAll(m_processor.process(type, job.m_languageCode, text));
+                } catch (final Exception e) { // NOSONAR reported as error of the line like the service does
+                    result.put(ComprehendJobOutput.ERROR_CODE, "INTERNAL_SERVER_ERROR");
+                    result.put(ComprehendJobOutput.ERROR_MESSAGE, e.getMessage());
+                }
+                results.add(MAPPER.writeValueAsString(result));
+            }
+        }
+        if (m_shuffle != null) {
+            Collections.shuffle(results, m_shuffle);
+        }
+        Files.write(lines, results, StandardCharsets.UTF_8);
+        final Path archive = m_directory.resolve(jobId + "-output.tar.gz");
+        try (OutputStream out = Files.newOutputStream(archive)) {
+            ComprehendJobOutput.write(out, "output", lines);
+        } finally {
+            Files.delete(lines);
+        }
+        return archive;
+    }
+
+    /**
+     * A started job that was not processed yet.
+     */
+    private static final class Job {
+
+        private final Path m_input;
+
+        private final String m_languageCode;
+
+        /** Whether the job was reported as running. */
+        private boolean m_reported;
+
+        Job(final Path input, final String languageCode) {
+            m_input = input;
+            m_languageCode = languageCode;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService.JobType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Runs an asynchronous job against the {@link LocalComprehendJobService} from staging the input to reading the output
+ * archive, as the job operations do.
+ *
+ * @author agent
+ */
+class LocalComprehendJobServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path m_directory;
+
+    @Test
+    void testRunJob() throws Exception {
+        final List<JsonNode> results = runJob(Arrays.asList("good", "bad", "fine"), (type, language, text) -> {
+            assertEquals(JobType.SENTIMENT, type);
+            assertEquals("en", language);
+            if ("bad".equals(text)) {
+                throw new IllegalArgumentException("Unsupported text");
+            }
+            final ObjectNode result = MAPPER.createObjectNode();
+            result.put("Sentiment", text.toUpperCase());
+            return result;
+        });
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).path(ComprehendJobOutput.LINE).asInt());
+            assertTrue(results.get(i).path(ComprehendJobOutput.FILE).asText().startsWith("input-"));
+        }
+        assertEquals("GOOD", results.get(0).path("Sentiment").asText());
+        assertEquals("Unsupported text", results.get(1).path(ComprehendJobOutput.ERROR_MESSAGE).asText());
+        assertFalse(results.get(1).has("Sentiment"));
+        assertEquals("FINE", results.get(2).path("Sentiment").asText());
+    }
+
+    @Test
+    void testEmptyInput() throws Exception {
+        assertTrue(runJob(new ArrayList<>(), (type, language, text) -> MAPPER.createObjectNode()).isEmpty());
+    }
+
+    @Test
+    void testStoppedJob() throws Exception {
+        final Path input = Files.write(m_directory.resolve("documents.txt"), Arrays.asList("text"));
+        try (LocalComprehendJobService service =
+            new LocalComprehendJobService(m_directory, (type, language, text) -> MAPPER.createObjectNode())) {
+            final String jobId = service.startJob(JobType.KEY_PHRASES, service.stageInput(input, null), "de");
+            service.stopJob(JobType.KEY_PHRASES, jobId);
+            assertThrows(IllegalStateException.class, () -> service.isJobCompleted(JobType.KEY_PHRASES, jobId));
+            assertThrows(IllegalStateException.class, () -> service.openJobOutput(JobType.KEY_PHRASES, jobId));
+        }
+    }
+
+    /** Stages the documents, waits for the job and returns the results in the order of the output archive. */
+    private List<JsonNode> runJob(final List<String> documents, final LocalComprehendJobService.LineProcessor processor)
+        throws Exception {
+        final Path input = Files.write(m_directory.resolve("documents.txt"), documents, StandardCharsets.UTF_8);
+        final List<JsonNode> results = new ArrayList<>();
+        try (LocalComprehendJobService service = new LocalComprehendJobService(m_directory, processor)) {
+            final String jobId = service.startJob(JobType.SENTIMENT, service.stageInput(input, null), "en");
+            assertFalse(service.isJobCompleted(JobType.SENTIMENT, jobId), "Job is not reported as running first");
+            assertTrue(service.isJobCompleted(JobType.SENTIMENT, jobId));
+            try (InputStream archive = service.openJobOutput(JobType.SENTIMENT, jobId)) {
+                ComprehendJobOutput.read(archive, results::add);
+            }
+        }
+        return results;
+    }
+}
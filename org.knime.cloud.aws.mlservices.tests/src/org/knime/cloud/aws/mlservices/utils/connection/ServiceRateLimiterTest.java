@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceRateLimiter.Registration;
+
+/**
+ * Tests how the {@link ServiceRateLimiter} combines the limits of the nodes sending requests.
+ *
+ * @author agent
+ */
+class ServiceRateLimiterTest {
+
+    @Test
+    void testLowestLimitApplies() {
+        final ServiceRateLimiter limiter = ServiceRateLimiter.getInstance("test", "lowest-limit");
+        try (Registration first = limiter.register(20, 16)) {
+            assertEquals(20, limiter.getRate());
+            try (Registration second = limiter.register(5, 4)) {
+                assertEquals(5, limiter.getRate());
+            }
+            try (Registration third = limiter.register(50, 0)) {
+                assertEquals(5, limiter.getRate(), "A reduced rate grows back with successful requests only");
+            }
+        }
+        assertEquals(0, limiter.getRate());
+    }
+
+    @Test
+    void testNodesWithoutLimitsKeepLimits() {
+        final ServiceRateLimiter limiter = ServiceRateLimiter.getInstance("test", "without-limits");
+        try (Registration limited = limiter.register(10, 8)) {
+            try (Registration unlimited = limiter.register(0, 0)) {
+                assertEquals(10, limiter.getRate());
+            }
+            assertEquals(10, limiter.getRate());
+        }
+        try (Registration unlimited = limiter.register(0, 0)) {
+            assertEquals(0, limiter.getRate());
+        }
+    }
+
+    @Test
+    void testCloseTwice() {
+        final ServiceRateLimiter limiter = ServiceRateLimiter.getInstance("test", "close-twice");
+        try (Registration first = limiter.register(10, 0)) {
+            final Registration second = limiter.register(10, 0);
+            second.close();
+            second.close();
+            assertEquals(10, limiter.getRate());
+        }
+        assertEquals(0, limiter.getRate());
+    }
+}
@@ -56,6 +56,7 @@
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceClientPool;
 import org.knime.core.node.NodeLogger;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -83,6 +84,7 @@ public ComprehendActivator() {
      */
     @Override
     public void stop(final BundleContext context) throws Exception {
+        ServiceClientPool.closeAll();
         plugin = null;
         super.stop(context);
     }
@@ -0,0 +1,358 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.nodes.comprehend;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobOutput;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.util.FileUtil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Base implementation of Comprehend operations that can also run as asynchronous Amazon Comprehend job. In job mode,
+ * the texts are written as one document per line to a file that is staged by a {@link ComprehendJobService}, the job is
+ * polled until it completes and its output is joined with the input rows by line number. Texts longer than
+ * {@link ComprehendUtils#MAX_TEXT_BYTES} are written as several lines whose results are combined by
+ * {@link #aggregateChunks(List, List)}.
+ *
+ * @author agent
+ */
+public abstract class BaseComprehendJobOperation extends BaseComprehendOperation {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BaseComprehendJobOperation.class);
+
+    /** Interval of the first status check of a job in milliseconds, doubled after each check. */
+    private static final long MIN_POLL_INTERVAL = 1000;
+
+    /** Maximum interval between two status checks of a job in milliseconds. */
+    private static final long MAX_POLL_INTERVAL = 30000;
+
+    private static final String LINE_COLUMN = "Line";
+
+    private static final String RESULT_COLUMN = "Result";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Create a new operation instance.
+     *
+     * @param cxnInfo AWS connection information
+     * @param textColumnName Name of the input text column.
+     * @param outputTableSpec specification of the output table of the node
+     */
+    protected BaseComprehendJobOperation(final CloudConnectionInformation cxnInfo, final String textColumnName,
+        final DataTableSpec outputTableSpec) {
+        super(cxnInfo, textColumnName, outputTableSpec);
+    }
+
+    /**
+     * Runs the operation on the whole table as one asynchronous job. The output rows are pushed in the order of the
+     * input rows.
+     *
+     * @param data the input table
+     * @param out the output of the node
+     * @param textColIdx the index of the text column to process
+     * @param jobService the service staging the files and running the job
+     * @param exec execution context
+     * @throws Exception thrown if the job failed or the execution was canceled
+     */
+    public final void computeAsJob(final BufferedDataTable data, final RowOutput out, final int textColIdx,
+        final ComprehendJobService jobService, final ExecutionContext exec) throws Exception {
+        final String languageCode = getLanguageCode();
+        if (ComprehendUtils.AUTO_LANGUAGE_CODE.equals(languageCode)) {
+            throw new InvalidSettingsException(
+                "Jobs process texts of one language only, please select the source language of the texts.");
+        }
+        final Locale locale = languageCode.isEmpty() ? Locale.ROOT : Locale.forLanguageTag(languageCode);
+        final Path input = FileUtil.createTempFile("KNIME_comprehend_", ".txt").toPath();
+        try {
+            exec.setMessage("Writing documents");
+            final long numLines =
+                writeDocuments(data, textColIdx, locale, input, exec.createSubExecutionContext(0.1));
+            BufferedDataTable results = null;
+            if (numLines > 0) {
+                exec.setMessage("Uploading " + numLines + " documents");
+                final String location = jobService.stageInput(input, exec.createSubExecutionContext(0.1));
+                final String jobId = jobService.startJob(getJobType(), location, languageCode);
+                LOGGER.debug("Started Amazon Comprehend job " + jobId + " for " + numLines + " documents");
+                waitForJob(jobService, jobId, exec);
+                exec.setMessage("Downloading results");
+                results = readResults(jobService, jobId, exec.createSubExecutionContext(0.3));
+            }
+            exec.setMessage("Joining results");
+            joinResults(data, results, textColIdx, locale, out, exec.createSubExecutionContext(0.5));
+        } finally {
+            Files.deleteIfExists(input);
+        }
+    }
+
+    /**
+     * Writes the chunks of all texts, one per line.
+     *
+     * @return the number of lines
+     */
+    private static long writeDocuments(final BufferedDataTable data, final int textColIdx, final Locale locale,
+        final Path file, final ExecutionContext exec) throws IOException, CanceledExecutionException {
+        final long rowCount = data.size();
+        long rowCounter = 0;
+        long numLines = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                CloseableRowIterator it = data.iterator()) {
+            while (it.hasNext()) {
+                final DataRow row = it.next();
+                exec.checkCanceled();
+                exec.setProgress(++rowCounter / (double)rowCount);
+                for (final TextChunker.Chunk chunk : getChunks(row.getCell(textColIdx), locale)) {
+                    // Line breaks would split the document, replacing them keeps the offsets of the results
+                    writer.write(chunk.getText().replace('\n', ' ').replace('\r', ' '));
+                    writer.write('\n');
+                    ++numLines;
+                }
+            }
+        }
+        return numLines;
+    }
+
+    /**
+     * Polls the status of the job with exponential backoff until it completes. The job is stopped if the execution is
+     * canceled.
+     */
+    private void waitForJob(final ComprehendJobService jobService, final String jobId, final ExecutionContext exec)
+        throws Exception {
+        final long start = System.currentTimeMillis();
+        long interval = MIN_POLL_INTERVAL;
+        try {
+            while (!jobService.isJobCompleted(getJobType(), jobId)) {
+                final long waitUntil = System.currentTimeMillis() + interval;
+                while (System.currentTimeMillis() < waitUntil) {
+                    exec.checkCanceled();
+                    exec.setMessage("Waiting for Amazon Comprehend job " + jobId + " ("
+                        + TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - start) + "s)");
+                    Thread.sleep(100);
+                }
+                interval = Math.min(interval * 2, MAX_POLL_INTERVAL);
+            }
+        } catch (final CanceledExecutionException e) {
+            try {
+                jobService.stopJob(getJobType(), jobId);
+            } catch (final Exception ex) { // NOSONAR the cancellation is reported, not the failed stop
+                LOGGER.warn("Could not stop Amazon Comprehend job " + jobId + ": " + ex.getMessage(), ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the output of the job into a table of line numbers and JSON results, sorted by line number.
+     */
+    private BufferedDataTable readResults(final ComprehendJobService jobService, final String jobId,
+        final ExecutionContext exec) throws Exception {
+        final DataTableSpec spec = new DataTableSpec(new DataColumnSpecCreator(LINE_COLUMN, LongCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(RESULT_COLUMN, StringCell.TYPE).createSpec());
+        final BufferedDataContainer dc = exec.createDataContainer(spec);
+        // The service usually writes the lines in order, sorting is only needed otherwise
+        final long[] previousLine = {-1};
+        final boolean[] ordered = {true};
+        try (InputStream in = jobService.openJobOutput(getJobType(), jobId)) {
+            ComprehendJobOutput.read(in, result -> {
+                exec.checkCanceled();
+                final long line = result.path(ComprehendJobOutput.LINE).asLong(-1);
+                ordered[0] &= line >= previousLine[0];
+                previousLine[0] = line;
+                dc.addRowToTable(new DefaultRow(RowKey.createRowKey(dc.size()), new LongCell(line),
+                    new StringCell(result.toString())));
+            });
+        } finally {
+            dc.close();
+        }
+        final BufferedDataTable results = dc.getTable();
+        if (ordered[0]) {
+            return results;
+        }
+        return new BufferedDataTableSorter(results, Collections.singletonList(LINE_COLUMN), new boolean[]{true})
+            .sort(exec);
+    }
+
+    /**
+     * Creates the output rows from the input rows and the sorted results of the job.
+     */
+    private void joinResults(final BufferedDataTable data, final BufferedDataTable results, final int textColIdx,
+        final Locale locale, final RowOutput out, final ExecutionContext exec) throws Exception {
+        final long rowCount = data.size();
+        long rowCounter = 0;
+        long line = 0;
+        long failedLines = 0;
+        try (CloseableRowIterator inputIt = data.iterator();
+                CloseableRowIterator resultIt = results != null ? results.iterator() : null) {
+            DataRow nextResult = next(resultIt);
+            while (inputIt.hasNext()) {
+                final DataRow row = inputIt.next();
+                exec.checkCanceled();
+                exec.setProgress(++rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
+                final List<TextChunker.Chunk> chunks = getChunks(row.getCell(textColIdx), locale);
+                List<DataCell[]> result = null;
+                if (!chunks.isEmpty()) {
+                    final List<List<DataCell[]>> chunkResults = new ArrayList<>(chunks.size());
+                    for (int i = 0; i < chunks.size(); i++, line++) {
+                        while (nextResult != null && getLine(nextResult) < line) {
+                            nextResult = next(resultIt);
+                        }
+                        List<DataCell[]> chunkResult = null;
+                        if (nextResult != null && getLine(nextResult) == line) {
+                            chunkResult = parseResult(nextResult);
+                            nextResult = next(resultIt);
+                        }
+                        if (chunkResult == null) {
+                            ++failedLines;
+                        }
+                        chunkResults.add(chunkResult);
+                    }
+                    // Texts with a failed chunk get missing values, like in the synchronous mode
+                    if (!chunkResults.contains(null)) {
+                        result = chunks.size() == 1 ? chunkResults.get(0) : aggregateChunks(chunks, chunkResults);
+                    }
+                }
+                for (final DataRow outputRow : createOutputRows(row, result)) {
+                    out.push(outputRow);
+                }
+            }
+        }
+        if (failedLines > 0) {
+            LOGGER.warn(failedLines + " documents could not be processed by the Amazon Comprehend job.");
+        }
+    }
+
+    private List<DataCell[]> parseResult(final DataRow row) throws IOException {
+        final JsonNode result = MAPPER.readTree(((StringValue)row.getCell(1)).getStringValue());
+        if (result.has(ComprehendJobOutput.ERROR_CODE)) {
+            LOGGER.debug("Line " + getLine(row) + " failed: " + result.path(ComprehendJobOutput.ERROR_CODE).asText()
+                + " " + result.path(ComprehendJobOutput.ERROR_MESSAGE).asText());
+            return null;
+        }
+        return parseJobResult(result);
+    }
+
+    private static long getLine(final DataRow row) {
+        return ((LongValue)row.getCell(0)).getLongValue();
+    }
+
+    private static DataRow next(final CloseableRowIterator it) {
+        return it != null && it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * Splits the text of the given cell into the chunks that are sent to the service.
+     *
+     * @return the chunks, empty for missing and blank texts
+     */
+    private static List<TextChunker.Chunk> getChunks(final DataCell cell, final Locale locale) {
+        if (cell.isMissing()) {
+            return Collections.emptyList();
+        }
+        final String text = getText(cell);
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return TextChunker.split(text, ComprehendUtils.MAX_TEXT_BYTES, locale);
+    }
+
+    /**
+     * @return the type of the asynchronous job of this operation
+     */
+    protected abstract ComprehendJobService.JobType getJobType();
+
+    /**
+     * @return the language code sent with the requests and jobs, empty if the operation detects the language,
+     *         {@link ComprehendUtils#AUTO_LANGUAGE_CODE} if the language of each text is detected first
+     */
+    protected abstract String getLanguageCode();
+
+    /**
+     * Converts the result of one document of a job to the output cells of the additional columns.
+     *
+     * @param result the JSON object of the document as written by the service
+     * @return the output cells, one array per output row
+     */
+    protected abstract List<DataCell[]> parseJobResult(JsonNode result);
+}
@@ -48,11 +48,24 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JFileChooser;
+
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.core.data.StringValue;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.DialogComponentString;
 import org.knime.core.node.defaultnodesettings.DialogComponentStringSelection;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
  * Node dialog for Amazon comprehend nodes.
@@ -71,9 +84,55 @@ public BaseComprehendNodeDialog(final boolean showLanguage) {
         addDialogComponent(new DialogComponentColumnNameSelection(ComprehendUtils.getTextColumnNameModel(),
             "Text column", 1, StringValue.class));
         if (showLanguage) {
+            final List<String> languages = new ArrayList<>();
+            languages.add(ComprehendUtils.AUTO_LANGUAGE);
+            languages.addAll(ComprehendUtils.LANG_MAP.keySet());
             addDialogComponent(new DialogComponentStringSelection(ComprehendUtils.getSourceLanguageModel(),
-                "Source language", ComprehendUtils.LANG_MAP.keySet()));
+                "Source language", languages));
         }
+        addDialogComponent(
+            new DialogComponentNumber(ComprehendUtils.getConcurrentRequestsModel(), "Concurrent requests", 1));
+
+        createNewGroup("Result cache");
+        final SettingsModelBoolean useCache = ComprehendUtils.getUseCacheModel();
+        final SettingsModelString cacheDirectory = ComprehendUtils.getCacheDirectoryModel();
+        final SettingsModelIntegerBounded cacheSize = ComprehendUtils.getCacheSizeModel();
+        useCache.addChangeListener(e -> {
+            cacheDirectory.setEnabled(useCache.getBooleanValue());
+            cacheSize.setEnabled(useCache.getBooleanValue());
+        });
+        cacheDirectory.setEnabled(false);
+        cacheSize.setEnabled(false);
+        addDialogComponent(new DialogComponentBoolean(useCache, "Cache results"));
+        final DialogComponentFileChooser directoryComp = new DialogComponentFileChooser(cacheDirectory,
+            "comprehend_result_cache", JFileChooser.OPEN_DIALOG, true);
+        directoryComp.setBorderTitle("Cache directory (empty for the workspace)");
+        addDialogComponent(directoryComp);
+        addDialogComponent(new DialogComponentNumber(cacheSize, "Maximum cache size (MB)", 64));
+        closeCurrentGroup();
+
+        createNewGroup("Asynchronous job");
+        final SettingsModelBoolean runAsJob = ComprehendUtils.getRunAsJobModel();
+        final SettingsModelString jobFolder = ComprehendUtils.getJobFolderModel();
+        final SettingsModelString jobRoleArn = ComprehendUtils.getJobRoleArnModel();
+        runAsJob.addChangeListener(e -> {
+            jobFolder.setEnabled(runAsJob.getBooleanValue());
+            jobRoleArn.setEnabled(runAsJob.getBooleanValue());
+        });
+        jobFolder.setEnabled(false);
+        jobRoleArn.setEnabled(false);
+        addDialogComponent(new DialogComponentBoolean(runAsJob, "Run as asynchronous job"));
+        addDialogComponent(new DialogComponentString(jobFolder, "S3 staging folder", false, 30));
+        addDialogComponent(new DialogComponentString(jobRoleArn, "IAM data access role ARN", false, 30));
+        closeCurrentGroup();
+
+        createNewGroup("Service limits (shared by all nodes in the region)");
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getRequestsPerSecondModel(),
+            "Requests per second (0: not limited by this node)", 1.0));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxConcurrentModel(),
+            "Requests in flight (0: not limited by this node)", 1));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxRetriesModel(), "Maximum retries", 1));
+        closeCurrentGroup();
     }
 
 }
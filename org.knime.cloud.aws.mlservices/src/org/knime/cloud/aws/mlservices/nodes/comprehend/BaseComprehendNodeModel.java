@@ -53,11 +53,16 @@
 
 import org.knime.base.filehandling.remote.connectioninformation.port.ConnectionInformation;
 import org.knime.base.filehandling.remote.connectioninformation.port.ConnectionInformationPortObjectSpec;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendResultCache;
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.S3ComprehendJobService;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.StringValue;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -67,17 +72,22 @@
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
 import org.knime.core.node.streamable.InputPortRole;
 import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortObjectInput;
 import org.knime.core.node.streamable.PortInput;
 import org.knime.core.node.streamable.PortOutput;
 import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.streamable.StreamableOperatorInternals;
 import org.knime.ext.textprocessing.util.ColumnSelectionVerifier;
 
 import software.amazon.awssdk.regions.Region;
@@ -102,6 +112,33 @@ public abstract class BaseComprehendNodeModel extends NodeModel {
     /** Name of the input text column to analyze */
     private final SettingsModelString m_textColumnName = ComprehendUtils.getTextColumnNameModel();
 
+    /** Number of batch requests sent to the service at the same time */
+    private final SettingsModelIntegerBounded m_concurrentRequests = ComprehendUtils.getConcurrentRequestsModel();
+
+    /** Whether results are cached */
+    private final SettingsModelBoolean m_useCache = ComprehendUtils.getUseCacheModel();
+
+    /** Directory of the result cache, empty for the default directory */
+    private final SettingsModelString m_cacheDirectory = ComprehendUtils.getCacheDirectoryModel();
+
+    /** Maximum size of the result cache in MB */
+    private final SettingsModelIntegerBounded m_cacheSize = ComprehendUtils.getCacheSizeModel();
+
+    /** Whether the texts are processed by an asynchronous job */
+    private final SettingsModelBoolean m_runAsJob = ComprehendUtils.getRunAsJobModel();
+
+    /** S3 folder the files of the job are staged in */
+    private final SettingsModelString m_jobFolder = ComprehendUtils.getJobFolderModel();
+
+    /** ARN of the IAM role that grants Amazon Comprehend access to the staging folder */
+    private final SettingsModelString m_jobRoleArn = ComprehendUtils.getJobRoleArnModel();
+
+    /** Client-side limits for the requests sent to Amazon Comprehend */
+    private final ServiceLimitSettings m_serviceLimits = new ServiceLimitSettings();
+
+    /** The result cache of the current execution, shared by all streaming partitions */
+    private ComprehendResultCache m_resultCache;
+
     /**
      * Constructor for the node model.
      */
@@ -128,11 +165,20 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         // Create computation object for this operation.
         final BufferedDataTable table = (BufferedDataTable)inObjects[DATA_PORT_IDX];
         final DataTableSpec inputTableSpec = table.getDataTableSpec();
-        final ComprehendOperation op =
-            getOperationInstance(cxnInfo, generateOutputTableSpec(inputTableSpec), m_textColumnName.getStringValue());
+        final ComprehendOperation op = createOperation(cxnInfo, generateOutputTableSpec(inputTableSpec));
+        if (m_runAsJob.getBooleanValue()) {
+            final BufferedDataContainer dc = exec.createDataContainer(generateOutputTableSpec(inputTableSpec));
+            final BufferedDataTableRowOutput out = new BufferedDataTableRowOutput(dc);
+            runJob(op, cxnInfo, table, out, exec);
+            out.close();
+            return new BufferedDataTable[]{out.getDataTable()};
+        }
+        op.setResultCache(openResultCache());
 
         // Run the operation over the entire input.
-        return new BufferedDataTable[]{op.compute(exec, table)};
+        final BufferedDataTable result = op.compute(exec, table);
+        publishCacheStatistics();
+        return new BufferedDataTable[]{result};
     }
 
     /**
@@ -162,6 +208,9 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 
         final DataTableSpec tblSpec = (DataTableSpec)inSpecs[DATA_PORT_IDX];
         checkDataTableSpec(tblSpec);
+        if (m_runAsJob.getBooleanValue()) {
+            checkJobSettings();
+        }
 
         return new DataTableSpec[]{generateOutputTableSpec(tblSpec)};
     }
@@ -183,6 +232,59 @@ protected void checkDataTableSpec(final DataTableSpec inputSpec) throws InvalidS
             .ifPresent(warningMsg -> setWarningMessage(warningMsg));
     }
 
+    private void checkJobSettings() throws InvalidSettingsException {
+        final String folder = m_jobFolder.getStringValue().trim();
+        if (!folder.startsWith("/") || folder.length() < 2) {
+            throw new InvalidSettingsException(
+                "Please specify the S3 folder the job files are staged in, in the form /bucket/folder/.");
+        }
+        if (m_jobRoleArn.getStringValue().trim().isEmpty()) {
+            throw new InvalidSettingsException(
+                "Please specify the ARN of the IAM role that grants Amazon Comprehend access to the S3 folder.");
+        }
+    }
+
+    /**
+     * Runs the operation on the whole table as one asynchronous Amazon Comprehend job.
+     *
+     * @param op the operation of this node
+     * @param cxnInfo The connection information
+     * @param table the input table
+     * @param out the output of the node
+     * @param exec execution context
+     * @throws Exception thrown if the job failed or the execution was canceled
+     */
+    private void runJob(final ComprehendOperation op, final CloudConnectionInformation cxnInfo,
+        final BufferedDataTable table, final RowOutput out, final ExecutionContext exec) throws Exception {
+        if (!(op instanceof BaseComprehendJobOperation)) {
+            throw new InvalidSettingsException("This node cannot run as asynchronous job.");
+        }
+        final int textColIdx = table.getDataTableSpec().findColumnIndex(m_textColumnName.getStringValue());
+        final ComprehendConnection connection = new ComprehendConnection(cxnInfo, m_serviceLimits);
+        final ComprehendClient comprehendClient = connection.getClient();
+        try (ComprehendJobService jobService = new S3ComprehendJobService(comprehendClient, cxnInfo,
+            m_jobFolder.getStringValue().trim(), m_jobRoleArn.getStringValue().trim())) {
+            ((BaseComprehendJobOperation)op).computeAsJob(table, out, textColIdx, jobService, exec);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Creates the operation for this node and configures the number of concurrent requests.
+     *
+     * @param cxnInfo The connection information
+     * @param outputSpec The output data table spec
+     * @return the configured operation
+     */
+    private ComprehendOperation createOperation(final CloudConnectionInformation cxnInfo,
+        final DataTableSpec outputSpec) {
+        final ComprehendOperation op = getOperationInstance(cxnInfo, outputSpec, m_textColumnName.getStringValue());
+        op.setConcurrentRequests(m_concurrentRequests.getIntValue());
+        op.setServiceLimits(m_serviceLimits);
+        return op;
+    }
+
     /**
      * Create an instance of the operation execution for this node.
      *
@@ -210,26 +312,74 @@ public StreamableOperator createStreamableOperator(final PartitionInfo partition
         final ConnectionInformationPortObjectSpec cnxSpec = (ConnectionInformationPortObjectSpec)inSpecs[CNX_PORT_IDX];
         final int textColIdx = spec.findColumnIndex(m_textColumnName.getStringValue());
         final CloudConnectionInformation cxnInfo = (CloudConnectionInformation)cnxSpec.getConnectionInformation();
-        final ComprehendOperation op = getOperationInstance(cxnInfo,
-            generateOutputTableSpec(((DataTableSpec)inSpecs[DATA_PORT_IDX])), m_textColumnName.getStringValue());
+        final ComprehendOperation op = createOperation(cxnInfo, generateOutputTableSpec(spec));
         return new StreamableOperator() {
 
             @Override
             public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
                 throws Exception {
-                final RowInput input = (RowInput)inputs[DATA_PORT_IDX];
                 final RowOutput output = (RowOutput)outputs[0];
-                final ComprehendConnection connection = new ComprehendConnection(cxnInfo);
-                final ComprehendClient comprehendClient = connection.getClient();
-                op.compute(input, output, comprehendClient, textColIdx, exec, 0L);
+                if (m_runAsJob.getBooleanValue()) {
+                    // The job needs the whole table, the data port is not streamed in this case
+                    final BufferedDataTable table =
+                        (BufferedDataTable)((PortObjectInput)inputs[DATA_PORT_IDX]).getPortObject();
+                    runJob(op, cxnInfo, table, output, exec);
+                    output.close();
+                    return;
+                }
+                final RowInput input = (RowInput)inputs[DATA_PORT_IDX];
+                final ComprehendConnection connection = new ComprehendConnection(cxnInfo, m_serviceLimits);
+                try {
+                    final ComprehendClient comprehendClient = connection.getClient();
+                    op.setResultCache(openResultCache());
+                    op.compute(input, output, comprehendClient, textColIdx, exec, 0L);
+                } finally {
+                    connection.close();
+                }
                 input.close();
                 output.close();
             }
         };
     }
 
+    @Override
+    public void finishStreamableExecution(final StreamableOperatorInternals internals, final ExecutionContext exec,
+        final PortOutput[] output) throws Exception {
+        publishCacheStatistics();
+    }
+
+    /**
+     * Opens the result cache on first use if results are cached.
+     *
+     * @return the result cache or {@code null} if results are not cached
+     * @throws IOException if the cache directory cannot be created or read
+     */
+    private synchronized ComprehendResultCache openResultCache() throws IOException {
+        if (m_resultCache == null && m_useCache.getBooleanValue()) {
+            m_resultCache = new ComprehendResultCache(
+                ComprehendUtils.getCacheDirectory(m_cacheDirectory.getStringValue()),
+                m_cacheSize.getIntValue() * 1024L * 1024L);
+        }
+        return m_resultCache;
+    }
+
+    /**
+     * Pushes the hit rate of the result cache as flow variable.
+     */
+    private synchronized void publishCacheStatistics() {
+        if (m_resultCache != null) {
+            LOGGER.debug("Result cache hits: " + m_resultCache.getHits() + " of " + m_resultCache.getLookups());
+            pushFlowVariableDouble("comprehendCacheHitRate", m_resultCache.getHitRate());
+            pushFlowVariableInt("comprehendCacheHits", (int)Math.min(Integer.MAX_VALUE, m_resultCache.getHits()));
+        }
+    }
+
     @Override
     public InputPortRole[] getInputPortRoles() {
+        if (m_runAsJob.getBooleanValue()) {
+            return new InputPortRole[]{InputPortRole.NONDISTRIBUTED_NONSTREAMABLE,
+                InputPortRole.NONDISTRIBUTED_NONSTREAMABLE};
+        }
         return new InputPortRole[]{InputPortRole.NONDISTRIBUTED_NONSTREAMABLE, InputPortRole.DISTRIBUTED_STREAMABLE};
     }
 
@@ -242,19 +392,73 @@ protected SettingsModelString getTextColumnModel() {
         return m_textColumnName;
     }
 
+    /**
+     * Returns the {@link SettingsModelIntegerBounded} storing the number of concurrent requests
+     *
+     * @return Returns the {@link SettingsModelIntegerBounded} storing the number of concurrent requests
+     */
+    protected SettingsModelIntegerBounded getConcurrentRequestsModel() {
+        return m_concurrentRequests;
+    }
+
     @Override
     protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_textColumnName.saveSettingsTo(settings);
+        m_concurrentRequests.saveSettingsTo(settings);
+        m_useCache.saveSettingsTo(settings);
+        m_cacheDirectory.saveSettingsTo(settings);
+        m_cacheSize.saveSettingsTo(settings);
+        m_runAsJob.saveSettingsTo(settings);
+        m_jobFolder.saveSettingsTo(settings);
+        m_jobRoleArn.saveSettingsTo(settings);
+        m_serviceLimits.saveSettingsTo(settings);
     }
 
     @Override
     protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_textColumnName.loadSettingsFrom(settings);
+        // Added later, older workflows send one request at a time
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_CONCURRENT_REQUESTS)) {
+            m_concurrentRequests.loadSettingsFrom(settings);
+        } else {
+            m_concurrentRequests.setIntValue(1);
+        }
+        // Added later, older workflows do not cache results
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_USE_CACHE)) {
+            m_useCache.loadSettingsFrom(settings);
+            m_cacheDirectory.loadSettingsFrom(settings);
+            m_cacheSize.loadSettingsFrom(settings);
+        } else {
+            m_useCache.setBooleanValue(false);
+        }
+        // Added later, older workflows send synchronous requests
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_RUN_AS_JOB)) {
+            m_runAsJob.loadSettingsFrom(settings);
+            m_jobFolder.loadSettingsFrom(settings);
+            m_jobRoleArn.loadSettingsFrom(settings);
+        } else {
+            m_runAsJob.setBooleanValue(false);
+        }
+        m_serviceLimits.loadSettingsFrom(settings);
     }
 
     @Override
     protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_textColumnName.validateSettings(settings);
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_CONCURRENT_REQUESTS)) {
+            m_concurrentRequests.validateSettings(settings);
+        }
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_USE_CACHE)) {
+            m_useCache.validateSettings(settings);
+            m_cacheDirectory.validateSettings(settings);
+            m_cacheSize.validateSettings(settings);
+        }
+        if (settings.containsKey(ComprehendUtils.CFG_KEY_RUN_AS_JOB)) {
+            m_runAsJob.validateSettings(settings);
+            m_jobFolder.validateSettings(settings);
+            m_jobRoleArn.validateSettings(settings);
+        }
+        m_serviceLimits.validateSettings(settings);
     }
 
     @Override
@@ -270,7 +474,7 @@ protected void saveInternals(final File internDir, final ExecutionMonitor exec)
     }
 
     @Override
-    protected void reset() {
-        // Nothing to do here...
+    protected synchronized void reset() {
+        m_resultCache = null;
     }
 }
@@ -48,15 +48,51 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendResultCache;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.node.streamable.BufferedDataTableRowOutput;
 import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.ext.textprocessing.data.Document;
+import org.knime.ext.textprocessing.data.DocumentValue;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectDominantLanguageItemResult;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectDominantLanguageRequest;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectDominantLanguageResponse;
+import software.amazon.awssdk.services.comprehend.model.DominantLanguage;
 
 /**
  * Base implementation of a streaming operation for Comprehend nodes.
@@ -65,6 +101,14 @@
  */
 public abstract class BaseComprehendOperation implements ComprehendOperation {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(BaseComprehendOperation.class);
+
+    /** Number of batches whose texts are bucketed by language together if the language is detected per text. */
+    private static final int LANGUAGE_BUCKET_BATCHES = 4;
+
+    /** Maximum number of rows in one batch, limits the memory if most texts are cached or missing. */
+    private static final int MAX_BATCH_ROWS = 1000;
+
     /** AWS connection information. */
     private final CloudConnectionInformation m_cxnInfo;
 
@@ -74,6 +118,15 @@ public abstract class BaseComprehendOperation implements ComprehendOperation {
     /** The output table specification. */
     private final DataTableSpec m_outputTableSpec;
 
+    /** Maximum number of batch requests sent to the service at the same time. */
+    private int m_concurrentRequests = ComprehendUtils.DEF_CONCURRENT_REQUESTS;
+
+    /** Cache for the results of previous requests, {@code null} if results are not cached. */
+    private ComprehendResultCache m_cache;
+
+    /** Client-side limits for the requests sent to the service. */
+    private ServiceLimitSettings m_serviceLimits = new ServiceLimitSettings();
+
     /**
      * Create a new operation instance.
      *
@@ -88,6 +141,28 @@ public BaseComprehendOperation(final CloudConnectionInformation cxnInfo, final S
         this.m_outputTableSpec = outputTableSpec;
     }
 
+    @Override
+    public void setConcurrentRequests(final int concurrentRequests) {
+        m_concurrentRequests = Math.max(1, concurrentRequests);
+    }
+
+    @Override
+    public void setResultCache(final ComprehendResultCache cache) {
+        m_cache = cache;
+    }
+
+    @Override
+    public void setServiceLimits(final ServiceLimitSettings limits) {
+        m_serviceLimits = limits;
+    }
+
+    /**
+     * @return the maximum number of batch requests sent to the service at the same time
+     */
+    protected int getConcurrentRequests() {
+        return m_concurrentRequests;
+    }
+
     @Override
     public BufferedDataTable compute(final ExecutionContext exec, final BufferedDataTable data)
         throws Exception {
@@ -106,7 +181,7 @@ public BufferedDataTable compute(final ExecutionContext exec, final BufferedData
         final DataTableRowInput in = new DataTableRowInput(data);
         final BufferedDataTableRowOutput out = new BufferedDataTableRowOutput(dc);
         // Create a connection to the Comprehend service in the provided region
-        final ComprehendConnection connection = new ComprehendConnection(m_cxnInfo);
+        final ComprehendConnection connection = new ComprehendConnection(m_cxnInfo, m_serviceLimits);
         final ComprehendClient comprehendClient = connection.getClient();
         // Access the input data table
         final int textColumnIdx = in.getDataTableSpec().findColumnIndex(m_textColumnName);
@@ -117,8 +192,414 @@ public BufferedDataTable compute(final ExecutionContext exec, final BufferedData
         } finally {
             in.close();
             out.close();
+            connection.close();
         }
 
         return out.getDataTable();
     }
+
+    /**
+     * Groups the texts of the input rows into batches of {@link ComprehendUtils#BATCH_SIZE} texts and hands each batch
+     * to the given processor. Texts with a cached result are not sent again. Texts longer than
+     * {@link ComprehendUtils#MAX_TEXT_BYTES} are split into chunks whose results are combined by
+     * {@link #aggregateChunks(List, List)}. Up to {@link #getConcurrentRequests()} batches are processed at the same
+     * time, the resulting rows are pushed to the output in the order of the input rows.
+     *
+     * @param in streaming input data
+     * @param out streaming output data
+     * @param textColIdx the index of the text column to process
+     * @param exec execution context
+     * @param rowCount the expected number of rows, used for the progress only
+     * @param operation the name of the operation, part of the cache key
+     * @param languageCode the language code sent with the requests, part of the cache key
+     * @param processor the processor sending one request per batch
+     * @throws Exception thrown if a batch could not be processed or the execution was canceled
+     */
+    protected final void processInBatches(final RowInput in, final RowOutput out, final int textColIdx,
+        final ExecutionContext exec, final long rowCount, final String operation, final String languageCode,
+        final BatchProcessor processor) throws Exception {
+        final Locale locale = languageCode.isEmpty() ? Locale.ROOT : Locale.forLanguageTag(languageCode);
+        process(in, out, textColIdx, exec, rowCount, operation, languageCode, locale, ComprehendUtils.BATCH_SIZE,
+            texts -> {
+                // Send the chunks of all texts, a batch exceeds the batch size only if its last text has several chunks
+                final List<String> chunkTexts = new ArrayList<>();
+                texts.forEach(chunks -> chunks.forEach(c -> chunkTexts.add(c.getText())));
+                final List<List<DataCell[]>> chunkResults = new ArrayList<>(chunkTexts.size());
+                for (int i = 0; i < chunkTexts.size(); i += ComprehendUtils.BATCH_SIZE) {
+                    chunkResults.addAll(processor
+                        .process(chunkTexts.subList(i, Math.min(i + ComprehendUtils.BATCH_SIZE, chunkTexts.size()))));
+                }
+                return chunkResults;
+            });
+    }
+
+    /**
+     * Like {@link #processInBatches(RowInput, RowOutput, int, ExecutionContext, long, String, String, BatchProcessor)}
+     * but for texts of different languages. The dominant language of each text is detected first, then the texts of
+     * several batches are bucketed by language and each bucket is sent with requests of up to
+     * {@link ComprehendUtils#BATCH_SIZE} texts of the same language. Texts whose language is not one of
+     * {@link ComprehendUtils#AUTO_LANGUAGE_CODES} are not processed. The results are cached with the language code
+     * {@link ComprehendUtils#AUTO_LANGUAGE_CODE}.
+     *
+     * @param in streaming input data
+     * @param out streaming output data
+     * @param comprehendClient the client used to detect the languages
+     * @param textColIdx the index of the text column to process
+     * @param exec execution context
+     * @param rowCount the expected number of rows, used for the progress only
+     * @param operation the name of the operation, part of the cache key
+     * @param processor the processor sending one request per batch of texts of the same language
+     * @throws Exception thrown if a batch could not be processed or the execution was canceled
+     */
+    protected final void processInLanguageBatches(final RowInput in, final RowOutput out,
+        final ComprehendClient comprehendClient, final int textColIdx, final ExecutionContext exec,
+        final long rowCount, final String operation, final LanguageBatchProcessor processor) throws Exception {
+        final AtomicLong unsupported = new AtomicLong();
+        process(in, out, textColIdx, exec, rowCount, operation, ComprehendUtils.AUTO_LANGUAGE_CODE, Locale.ROOT,
+            ComprehendUtils.BATCH_SIZE * LANGUAGE_BUCKET_BATCHES,
+            texts -> processByLanguage(comprehendClient, processor, texts, unsupported));
+        if (unsupported.get() > 0) {
+            LOGGER.warn(unsupported.get() + " texts were not processed because their language is not supported.");
+        }
+    }
+
+    /**
+     * Detects the language of each text and sends the chunks of the texts grouped by language.
+     *
+     * @return the results of all chunks in the order of the texts
+     */
+    private static List<List<DataCell[]>> processByLanguage(final ComprehendClient comprehendClient,
+        final LanguageBatchProcessor processor, final List<List<TextChunker.Chunk>> texts, final AtomicLong unsupported)
+        throws Exception {
+        // The first chunk of a text is enough to detect its language
+        final List<String> firstChunks = new ArrayList<>(texts.size());
+        texts.forEach(chunks -> firstChunks.add(chunks.get(0).getText()));
+        final List<String> languages = new ArrayList<>(texts.size());
+        for (int i = 0; i < firstChunks.size(); i += ComprehendUtils.BATCH_SIZE) {
+            languages.addAll(detectDominantLanguages(comprehendClient,
+                firstChunks.subList(i, Math.min(i + ComprehendUtils.BATCH_SIZE, firstChunks.size()))));
+        }
+
+        // Positions of the chunks of each language in the flat list of chunks
+        final Map<String, List<Integer>> buckets = new LinkedHashMap<>();
+        final List<String> chunkTexts = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            final String language = languages.get(i);
+            final boolean supported = language != null && ComprehendUtils.AUTO_LANGUAGE_CODES.contains(language);
+            if (!supported) {
+                unsupported.incrementAndGet();
+            }
+            for (final TextChunker.Chunk chunk : texts.get(i)) {
+                if (supported) {
+                    buckets.computeIfAbsent(language, l -> new ArrayList<>()).add(chunkTexts.size());
+                }
+                chunkTexts.add(chunk.getText());
+            }
+        }
+
+        // Chunks of unsupported languages keep a null result, i.e. missing values
+        final List<List<DataCell[]>> chunkResults = new ArrayList<>(Collections.nCopies(chunkTexts.size(), null));
+        for (final Map.Entry<String, List<Integer>> bucket : buckets.entrySet()) {
+            final List<Integer> positions = bucket.getValue();
+            for (int i = 0; i < positions.size(); i += ComprehendUtils.BATCH_SIZE) {
+                final List<Integer> batch =
+                    positions.subList(i, Math.min(i + ComprehendUtils.BATCH_SIZE, positions.size()));
+                final List<String> batchTexts = new ArrayList<>(batch.size());
+                batch.forEach(pos -> batchTexts.add(chunkTexts.get(pos)));
+                final List<List<DataCell[]>> results = processor.process(bucket.getKey(), batchTexts);
+                for (int j = 0; j < batch.size(); j++) {
+                    chunkResults.set(batch.get(j), results.get(j));
+                }
+            }
+        }
+        return chunkResults;
+    }
+
+    /**
+     * Detects the dominant language of each text with one request.
+     *
+     * @param comprehendClient Comprehend client to send the request
+     * @param texts the texts, at most {@link ComprehendUtils#BATCH_SIZE}
+     * @return the code of the language with the highest score for each text, {@code null} if it was not detected
+     */
+    private static List<String> detectDominantLanguages(final ComprehendClient comprehendClient,
+        final List<String> texts) {
+        final BatchDetectDominantLanguageResponse response = comprehendClient
+            .batchDetectDominantLanguage(BatchDetectDominantLanguageRequest.builder().textList(texts).build());
+        final List<String> languages = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        for (final BatchDetectDominantLanguageItemResult result : response.resultList()) {
+            result.languages().stream()//
+                .max(Comparator.comparing(DominantLanguage::score))//
+                .ifPresent(l -> languages.set(result.index(), l.languageCode()));
+        }
+        return languages;
+    }
+
+    /**
+     * Groups the texts of the input rows into batches of at least the given number of chunks and hands each batch to
+     * the given processor. Up to {@link #getConcurrentRequests()} batches are processed at the same time.
+     */
+    private void process(final RowInput in, final RowOutput out, final int textColIdx, final ExecutionContext exec,
+        final long rowCount, final String operation, final String languageCode, final Locale locale,
+        final int batchChunks, final ChunkProcessor processor) throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(m_concurrentRequests);
+        final Deque<Future<List<DataRow>>> inFlight = new ArrayDeque<>(m_concurrentRequests);
+        try {
+            long rowCounter = 0;
+            Batch batch = new Batch();
+            DataRow inputRow = null;
+            while ((inputRow = in.poll()) != null) {
+                // Check for cancel and update the row progress
+                ++rowCounter;
+                exec.checkCanceled();
+                if (rowCount > 0) {
+                    exec.setProgress(rowCounter / (double)rowCount,
+                        "Processing row " + rowCounter + " of " + rowCount);
+                }
+                final DataCell cell = inputRow.getCell(textColIdx);
+                batch.addRow(inputRow, cell.isMissing() ? null : getText(cell), operation, languageCode, locale);
+                if (batch.m_numChunks >= batchChunks || batch.m_rows.size() >= MAX_BATCH_ROWS) {
+                    inFlight.add(submit(pool, processor, batch));
+                    batch = new Batch();
+                    // Wait for the oldest batch once the maximum number of requests is in flight
+                    while (inFlight.size() >= m_concurrentRequests) {
+                        pushResults(inFlight.poll(), out, exec);
+                    }
+                }
+            }
+
+            // process remaining chunk
+            if (!batch.m_rows.isEmpty()) {
+                inFlight.add(submit(pool, processor, batch));
+            }
+            while (!inFlight.isEmpty()) {
+                pushResults(inFlight.poll(), out, exec);
+            }
+        } finally {
+            // Cancels the batches still in flight if the execution failed or was canceled
+            pool.shutdownNow();
+        }
+    }
+
+    private Future<List<DataRow>> submit(final ExecutorService pool, final ChunkProcessor processor,
+        final Batch batch) {
+        return pool.submit(() -> {
+            final List<List<DataCell[]>> chunkResults =
+                batch.m_chunks.isEmpty() ? Collections.emptyList() : processor.process(batch.m_chunks);
+            int chunkIdx = 0;
+            for (int i = 0; i < batch.m_pending.size(); i++) {
+                final List<TextChunker.Chunk> chunks = batch.m_chunks.get(i);
+                final List<List<DataCell[]>> results = chunkResults.subList(chunkIdx, chunkIdx + chunks.size());
+                chunkIdx += chunks.size();
+                final List<DataCell[]> result;
+                if (results.contains(null)) {
+                    // Texts the service could not process are not cached
+                    result = null;
+                } else {
+                    result = chunks.size() == 1 ? results.get(0) : aggregateChunks(chunks, results);
+                    if (m_cache != null) {
+                        m_cache.put(batch.m_keys.get(i), result);
+                    }
+                }
+                batch.m_results.set(batch.m_pending.get(i), result);
+            }
+            final List<DataRow> rows = new ArrayList<>(batch.m_rows.size());
+            for (int i = 0; i < batch.m_rows.size(); i++) {
+                rows.addAll(createOutputRows(batch.m_rows.get(i), batch.m_results.get(i)));
+            }
+            return rows;
+        });
+    }
+
+    private static void pushResults(final Future<List<DataRow>> future, final RowOutput out,
+        final ExecutionContext exec) throws Exception {
+        for (final DataRow row : await(future, exec)) {
+            out.push(row);
+        }
+    }
+
+    /**
+     * Waits for the result of the given future and checks for cancellation while waiting.
+     *
+     * @param <T> the type of the result
+     * @param future the future to wait for
+     * @param exec execution context used to check for cancellation
+     * @return the result of the future
+     * @throws Exception the exception thrown by the computation or if the execution was canceled
+     */
+    protected static <T> T await(final Future<T> future, final ExecutionContext exec) throws Exception {
+        while (true) {
+            exec.checkCanceled();
+            try {
+                return future.get(100, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) { // NOSONAR keep waiting until the computation is done
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception)cause : e;
+            }
+        }
+    }
+
+    /**
+     * Combines the results of the chunks of a text that exceeded {@link ComprehendUtils#MAX_TEXT_BYTES}. By default,
+     * the rows of all chunks are concatenated.
+     *
+     * @param chunks the chunks of the text
+     * @param results the results of each chunk, one array of cells per output row
+     * @return the combined result of the text
+     */
+    protected List<DataCell[]> aggregateChunks(final List<TextChunker.Chunk> chunks,
+        final List<List<DataCell[]>> results) {
+        final List<DataCell[]> combined = new ArrayList<>();
+        results.forEach(combined::addAll);
+        return combined;
+    }
+
+    /**
+     * Creates the output rows for one input row. By default, one row is created per result, with the index of the
+     * result appended to the row key. A single row with missing values is created if there are no results.
+     *
+     * @param row the input row
+     * @param results the output cells of the additional columns, one array per output row, or {@code null} if the
+     *            text is missing or could not be processed
+     * @return the output rows
+     */
+    protected List<DataRow> createOutputRows(final DataRow row, final List<DataCell[]> results) {
+        if (results == null) {
+            return Collections.singletonList(new DefaultRow(new RowKey(row.getKey().getString() + "_" + 0),
+                appendCells(row, null)));
+        }
+        final List<DataRow> rows = new ArrayList<>(results.size());
+        long outputRowIndex = 0;
+        for (final DataCell[] cells : results) {
+            rows.add(new DefaultRow(new RowKey(row.getKey().getString() + "_" + outputRowIndex++),
+                appendCells(row, cells)));
+        }
+        return rows;
+    }
+
+    /**
+     * Appends the given cells to the cells of the input row.
+     *
+     * @param row the input row
+     * @param cells the cells of the additional columns, {@code null} to append missing cells
+     * @return the cells of the output row
+     */
+    protected final DataCell[] appendCells(final DataRow row, final DataCell[] cells) {
+        final int numInputColumns = row.getNumCells();
+        final DataCell[] outputCells = new DataCell[m_outputTableSpec.getNumColumns()];
+        for (int i = 0; i < numInputColumns; i++) {
+            outputCells[i] = row.getCell(i);
+        }
+        if (cells != null) {
+            System.arraycopy(cells, 0, outputCells, numInputColumns, cells.length);
+        } else {
+            Arrays.fill(outputCells, numInputColumns, outputCells.length, DataType.getMissingCell());
+        }
+        return outputCells;
+    }
+
+    /**
+     * Returns the text that is sent to the service for the given (non-missing) cell.
+     *
+     * @param cell the cell containing the text or document
+     * @return the title and body text of a document or the string representation of any other cell
+     */
+    protected static String getText(final DataCell cell) {
+        if (cell.getType().isCompatible(DocumentValue.class)) {
+            final Document doc = ((DocumentValue)cell).getDocument();
+            return doc.getTitle() + " " + doc.getDocumentBodyText();
+        }
+        return cell.toString();
+    }
+
+    /**
+     * Sends one batch of texts to the service with a single request.
+     */
+    @FunctionalInterface
+    protected interface BatchProcessor {
+
+        /**
+         * Processes one batch of texts. Called concurrently for different batches.
+         *
+         * @param texts the texts to send, at most {@link ComprehendUtils#BATCH_SIZE}
+         * @return for each text the output cells of the additional columns, one array per output row, or
+         *         {@code null} if the service could not process the text
+         * @throws Exception thrown if the batch could not be processed
+         */
+        List<List<DataCell[]>> process(List<String> texts) throws Exception;
+    }
+
+    /**
+     * Sends one batch of texts of the same language to the service with a single request.
+     */
+    @FunctionalInterface
+    protected interface LanguageBatchProcessor {
+
+        /**
+         * Processes one batch of texts. Called concurrently for different batches.
+         *
+         * @param languageCode the language of the texts
+         * @param texts the texts to send, at most {@link ComprehendUtils#BATCH_SIZE}
+         * @return for each text the output cells of the additional columns, one array per output row, or
+         *         {@code null} if the service could not process the text
+         * @throws Exception thrown if the batch could not be processed
+         */
+        List<List<DataCell[]>> process(String languageCode, List<String> texts) throws Exception;
+    }
+
+    /**
+     * Computes the results of the chunks of the texts of one batch.
+     */
+    @FunctionalInterface
+    private interface ChunkProcessor {
+
+        /**
+         * @param texts the chunks of each text
+         * @return the results of all chunks in the order of the texts, {@code null} for chunks that failed
+         */
+        List<List<DataCell[]>> process(List<List<TextChunker.Chunk>> texts) throws Exception;
+    }
+
+    /**
+     * Rows of the input that are processed together, with the texts that are not cached yet.
+     */
+    private final class Batch {
+
+        private final List<DataRow> m_rows = new ArrayList<>();
+
+        /** Output cells per row, {@code null} for missing texts and texts that are not processed yet. */
+        private final List<List<DataCell[]>> m_results = new ArrayList<>();
+
+        /** Chunks of each text sent to the service. */
+        private final List<List<TextChunker.Chunk>> m_chunks = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
+
+        /** Number of chunks of all texts. */
+        private int m_numChunks;
+
+        /** Index of the row of each text. */
+        private final List<Integer> m_pending = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
+
+        /** Cache key of each text, {@code null} if the results are not cached. */
+        private final List<String> m_keys = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
+
+        void addRow(final DataRow row, final String text, final String operation, final String languageCode,
+            final Locale locale) {
+            m_rows.add(row);
+            List<DataCell[]> cached = null;
+            String key = null;
+            if (text != null && m_cache != null) {
+                key = ComprehendResultCache.createKey(operation, languageCode, text);
+                cached = m_cache.get(key);
+            }
+            m_results.add(cached);
+            if (text != null && cached == null) {
+                final List<TextChunker.Chunk> chunks = TextChunker.split(text, ComprehendUtils.MAX_TEXT_BYTES, locale);
+                m_chunks.add(chunks);
+                m_numChunks += chunks.size();
+                m_pending.add(m_rows.size() - 1);
+                m_keys.add(key);
+            }
+        }
+    }
 }
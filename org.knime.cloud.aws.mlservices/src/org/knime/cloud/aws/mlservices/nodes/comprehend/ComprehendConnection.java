@@ -51,6 +51,9 @@
 import java.time.Duration;
 
 import org.knime.base.filehandling.remote.files.Connection;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceClientPool;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceRateLimiter;
 import org.knime.cloud.aws.sdkv2.util.AWSCredentialHelper;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.node.NodeLogger;
@@ -67,12 +70,21 @@ class ComprehendConnection extends Connection {
 
     private static final String ROLE_SESSION_NAME = "KNIME_Comprehend_Connection";
 
+    /** Name of the service the requests are limited for. */
+    private static final String SERVICE_NAME = "comprehend";
+
     /** Logger instance. */
     private static final NodeLogger LOGGER = NodeLogger.getLogger(ComprehendConnection.class);
 
     /** AWS connection information */
     private final CloudConnectionInformation m_connectionInformation;
 
+    /** Client-side limits for the requests sent to the service */
+    private final ServiceLimitSettings m_limits;
+
+    /** The limits registered with the shared limiter while the connection is open */
+    private ServiceRateLimiter.Registration m_registration;
+
     /** The ComprehendClient client */
     private ComprehendClient m_client;
 
@@ -80,18 +92,20 @@ class ComprehendConnection extends Connection {
      * Creates a new instance of {@code ComprehendConnection}.
      *
      * @param connectionInformation The connection information
+     * @param limits The client-side limits for the requests, shared with all clients of the service in the region
      */
-    ComprehendConnection(final CloudConnectionInformation connectionInformation) {
+    ComprehendConnection(final CloudConnectionInformation connectionInformation, final ServiceLimitSettings limits) {
         m_connectionInformation = connectionInformation;
+        m_limits = limits;
     }
 
     @Override
     public void open() throws Exception {
         if (!isOpen()) {
-            LOGGER.info("Create a new ComprehendClient in Region \"" + m_connectionInformation.getHost()
-                + "\" with connection timeout " + m_connectionInformation.getTimeout() + " milliseconds");
+            m_registration = m_limits.registerLimits(SERVICE_NAME, m_connectionInformation.getHost());
             try {
-                m_client = getComprehendClient(m_connectionInformation);
+                m_client = ServiceClientPool.acquire(SERVICE_NAME, m_connectionInformation, m_limits.getMaxRetries(),
+                    () -> getComprehendClient(m_connectionInformation, m_limits));
             } catch (final Exception ex) {
                 close();
                 throw ex;
@@ -103,11 +117,15 @@ public void open() throws Exception {
      * Creates and returns a new instance of the {@link ComprehendClient} client.
      *
      * @param connInfo The connection information
+     * @param limits The client-side limits for the requests
      * @return ComprehendClient client
      */
-    private static ComprehendClient getComprehendClient(final CloudConnectionInformation connInfo) {
-        final var clientConfig = ClientOverrideConfiguration.builder()
-                .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())).build();
+    private static ComprehendClient getComprehendClient(final CloudConnectionInformation connInfo,
+        final ServiceLimitSettings limits) {
+        LOGGER.info("Create a new ComprehendClient in Region \"" + connInfo.getHost()
+            + "\" with connection timeout " + connInfo.getTimeout() + " milliseconds");
+        final var clientConfig = limits.applyTo(ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())), SERVICE_NAME, connInfo.getHost()).build();
 
         return ComprehendClient.builder()
                 .overrideConfiguration(clientConfig).region(Region.of(connInfo.getHost()))
@@ -122,7 +140,15 @@ public boolean isOpen() {
 
     @Override
     public void close() throws Exception {
-        m_client.close();
+        if (isOpen()) {
+            // The client stays open in the pool for the next node
+            ServiceClientPool.release(m_client);
+            m_client = null;
+        }
+        if (m_registration != null) {
+            m_registration.close();
+            m_registration = null;
+        }
     }
 
     /**
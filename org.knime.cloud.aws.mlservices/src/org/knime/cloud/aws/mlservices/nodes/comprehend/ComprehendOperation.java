@@ -48,6 +48,8 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend;
 
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendResultCache;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.streamable.RowInput;
@@ -86,4 +88,25 @@ public interface ComprehendOperation {
     void compute(final RowInput in, final RowOutput out, final ComprehendClient comprehendClient, final int textColIdx,
         final ExecutionContext exec, final long rowCount) throws Exception;
 
+    /**
+     * Sets the maximum number of requests sent to the service at the same time.
+     *
+     * @param concurrentRequests the maximum number of requests in flight, at least one
+     */
+    void setConcurrentRequests(final int concurrentRequests);
+
+    /**
+     * Sets the cache consulted before texts are sent to the service.
+     *
+     * @param cache the cache for the results of the operation, {@code null} to always call the service
+     */
+    void setResultCache(final ComprehendResultCache cache);
+
+    /**
+     * Sets the client-side limits for the requests sent to the service.
+     *
+     * @param limits the limits applied to the shared limiter of the service when the connection is opened
+     */
+    void setServiceLimits(final ServiceLimitSettings limits);
+
 }
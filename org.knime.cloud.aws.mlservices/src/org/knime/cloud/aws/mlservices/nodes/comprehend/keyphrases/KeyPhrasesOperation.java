@@ -49,30 +49,25 @@
 package org.knime.cloud.aws.mlservices.nodes.comprehend.keyphrases;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
-import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendOperation;
+import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendJobOperation;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService.JobType;
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
-import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.IntValue;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
 import org.knime.core.data.def.StringCell;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
-import org.knime.ext.textprocessing.data.Document;
-import org.knime.ext.textprocessing.data.DocumentValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
 import software.amazon.awssdk.services.comprehend.model.BatchDetectKeyPhrasesItemResult;
@@ -85,7 +80,7 @@
  *
  * @author Jim Falgout, KNIME AG, Zurich, Switzerland
  */
-class KeyPhrasesOperation extends BaseComprehendOperation {
+class KeyPhrasesOperation extends BaseComprehendJobOperation {
 
     /** Language of the source text to be analyzed */
     private final String m_sourceLanguage;
@@ -106,97 +101,82 @@ class KeyPhrasesOperation extends BaseComprehendOperation {
 
     @Override
     public void compute(final RowInput in, final RowOutput out, final ComprehendClient comprehendClient,
-        final int textColIdx, final ExecutionContext exec, final long rowCount)
-        throws CanceledExecutionException, InterruptedException {
+        final int textColIdx, final ExecutionContext exec, final long rowCount) throws Exception {
+        final String languageCode = getLanguageCode();
+        if (ComprehendUtils.AUTO_LANGUAGE_CODE.equals(languageCode)) {
+            // Detect the language of each text and send the texts of each language in separate batches
+            processInLanguageBatches(in, out, comprehendClient, textColIdx, exec, rowCount, "keyphrases",
+                (language, texts) -> detectKeyPhrases(comprehendClient, language, texts));
+            return;
+        }
+        // Process batches of rows concurrently, one batch in one request
+        processInBatches(in, out, textColIdx, exec, rowCount, "keyphrases", languageCode,
+            texts -> detectKeyPhrases(comprehendClient, languageCode, texts));
+    }
 
-        // Row index
-        long rowCounter = 0;
-        final int numInputColumns = in.getDataTableSpec().getNumColumns();
+    @Override
+    protected JobType getJobType() {
+        return JobType.KEY_PHRASES;
+    }
 
-        // Create row batches based on global batch size and process one batch in one request
-        final List<DataRow> rowBatch = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final List<String> texts = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final Set<Integer> validRows = new HashSet<>(ComprehendUtils.BATCH_SIZE);
-        DataRow inputRow = null;
-        while ((inputRow = in.poll()) != null) {
-            // Check for cancel and update the row progress
-            ++rowCounter;
-            exec.checkCanceled();
-            if (rowCount > 0) {
-                exec.setProgress(rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
-            }
-            rowBatch.add(inputRow);
-            final DataCell cell = inputRow.getCell(textColIdx);
-            if (!cell.isMissing()) {
-                String textValue = null;
-                if (cell.getType().isCompatible(DocumentValue.class)) {
-                    final Document doc = ((DocumentValue)cell).getDocument();
-                    textValue = doc.getTitle() + " " + doc.getDocumentBodyText();
-                } else {
-                    textValue = cell.toString();
-                }
-                texts.add(textValue);
-                validRows.add(rowBatch.size() - 1);
-            }
-            if (rowBatch.size() == ComprehendUtils.BATCH_SIZE) {
-                processChunk(out, comprehendClient, numInputColumns, rowBatch, texts, validRows);
-            }
+    @Override
+    protected String getLanguageCode() {
+        return ComprehendUtils.getLanguageCode(m_sourceLanguage);
+    }
+
+    @Override
+    protected List<DataCell[]> parseJobResult(final JsonNode result) {
+        final List<DataCell[]> rows = new ArrayList<>();
+        for (final JsonNode keyPhrase : result.path("KeyPhrases")) {
+            rows.add(new DataCell[]{new StringCell(keyPhrase.path("Text").asText()),
+                new DoubleCell(keyPhrase.path("Score").asDouble()), new IntCell(keyPhrase.path("BeginOffset").asInt()),
+                new IntCell(keyPhrase.path("EndOffset").asInt())});
         }
+        return rows;
+    }
 
-        // process remaining chunk
-        processChunk(out, comprehendClient, numInputColumns, rowBatch, texts, validRows);
+    /**
+     * Concatenates the key phrases of the chunks and shifts their offsets to the position of the chunk in the text.
+     */
+    @Override
+    protected List<DataCell[]> aggregateChunks(final List<TextChunker.Chunk> chunks,
+        final List<List<DataCell[]>> results) {
+        final List<DataCell[]> combined = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            final int offset = chunks.get(i).getCodePointOffset();
+            for (final DataCell[] cells : results.get(i)) {
+                combined.add(new DataCell[]{cells[0], cells[1],
+                    new IntCell(((IntValue)cells[2]).getIntValue() + offset),
+                    new IntCell(((IntValue)cells[3]).getIntValue() + offset)});
+            }
+        }
+        return combined;
     }
 
     /**
      * Method to process one chunk with given texts.
      *
-     * @param out RowOutput to push new rows to
      * @param comprehendClient Comprehend client to send the requests
-     * @param numInputColumns Number of input columns
-     * @param rowBatch List containing rows
+     * @param languageCode The language code of the texts
      * @param texts Texts to process
-     * @param validRows List containing indices of valid rows
-     * @throws InterruptedException Thrown if execution is canceled
+     * @return the key phrases of each text, one array of cells per key phrase
      */
-    @SuppressWarnings("null")
-    private final void processChunk(final RowOutput out, final ComprehendClient comprehendClient,
-        final int numInputColumns, final List<DataRow> rowBatch, final List<String> texts, final Set<Integer> validRows)
-        throws InterruptedException {
-        final BatchDetectKeyPhrasesRequest detectKeyPhrasesRequest;
-        final BatchDetectKeyPhrasesResponse detectKeyPhrasesResult;
-        Iterator<BatchDetectKeyPhrasesItemResult> results = null;
-        if (!texts.isEmpty()) {
-            detectKeyPhrasesRequest = BatchDetectKeyPhrasesRequest.builder().textList(texts)
-                .languageCode(ComprehendUtils.LANG_MAP.getOrDefault(m_sourceLanguage, "en")).build();
-            detectKeyPhrasesResult = comprehendClient.batchDetectKeyPhrases(detectKeyPhrasesRequest);
-            results = detectKeyPhrasesResult.resultList().iterator();
-        }
-        final DataCell[] cells = new DataCell[numInputColumns + 4];
-        for (int i = 0; i < rowBatch.size(); i++) {
-            final DataRow row = rowBatch.get(i);
-            for (int j = 0; j < numInputColumns; j++) {
-                cells[j] = row.getCell(j);
-            }
-            if (validRows.contains(i)) {
-                long outputRowIndex = 0;
-                for (final KeyPhrase keyPhrase : results.next().keyPhrases()) {
-                    // Set new output cell values.
-                    cells[numInputColumns] = new StringCell(keyPhrase.text());
-                    cells[numInputColumns + 1] = new DoubleCell(keyPhrase.score());
-                    cells[numInputColumns + 2] = new IntCell(keyPhrase.beginOffset());
-                    cells[numInputColumns + 3] = new IntCell(keyPhrase.endOffset());
-
-                    // Create a new data row and push it to the output container.
-                    out.push(new DefaultRow(new RowKey(row.getKey().getString() + "_" + outputRowIndex++), cells));
-                }
-            } else {
-                Arrays.fill(cells, numInputColumns, numInputColumns + 4, DataType.getMissingCell());
-                out.push(new DefaultRow(new RowKey(row.getKey().getString() + "_" + 0), cells));
+    private static List<List<DataCell[]>> detectKeyPhrases(final ComprehendClient comprehendClient,
+        final String languageCode, final List<String> texts) {
+        final BatchDetectKeyPhrasesRequest detectKeyPhrasesRequest =
+            BatchDetectKeyPhrasesRequest.builder().textList(texts).languageCode(languageCode).build();
+        final BatchDetectKeyPhrasesResponse detectKeyPhrasesResult =
+            comprehendClient.batchDetectKeyPhrases(detectKeyPhrasesRequest);
+        final List<List<DataCell[]>> results = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        for (final BatchDetectKeyPhrasesItemResult result : detectKeyPhrasesResult.resultList()) {
+            final List<DataCell[]> rows = new ArrayList<>(result.keyPhrases().size());
+            for (final KeyPhrase keyPhrase : result.keyPhrases()) {
+                // Set new output cell values.
+                rows.add(new DataCell[]{new StringCell(keyPhrase.text()), new DoubleCell(keyPhrase.score()),
+                    new IntCell(keyPhrase.beginOffset()), new IntCell(keyPhrase.endOffset())});
             }
+            results.set(result.index(), rows);
         }
-        // Clean up
-        rowBatch.clear();
-        texts.clear();
-        validRows.clear();
+        return results;
     }
 }
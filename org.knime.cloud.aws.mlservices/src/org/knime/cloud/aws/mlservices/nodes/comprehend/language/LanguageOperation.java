@@ -49,30 +49,28 @@
 package org.knime.cloud.aws.mlservices.nodes.comprehend.language;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendOperation;
-import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendJobOperation;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService.JobType;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
-import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.StringValue;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.StringCell;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
-import org.knime.ext.textprocessing.data.Document;
-import org.knime.ext.textprocessing.data.DocumentValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
 import software.amazon.awssdk.services.comprehend.model.BatchDetectDominantLanguageItemResult;
@@ -85,7 +83,7 @@
  *
  * @author Jim Falgout, KNIME AG, Zurich, Switzerland
  */
-class LanguageOperation extends BaseComprehendOperation {
+class LanguageOperation extends BaseComprehendJobOperation {
 
     /**
      * Creates a new instance of {@code LanguageOperation} with given parameters.
@@ -101,96 +99,88 @@ class LanguageOperation extends BaseComprehendOperation {
 
     @Override
     public void compute(final RowInput in, final RowOutput out, final ComprehendClient comprehendClient,
-        final int textColIdx, final ExecutionContext exec, final long rowCount)
-        throws CanceledExecutionException, InterruptedException {
+        final int textColIdx, final ExecutionContext exec, final long rowCount) throws Exception {
+        // Process batches of rows concurrently, one batch in one request
+        processInBatches(in, out, textColIdx, exec, rowCount, "language", getLanguageCode(),
+            texts -> detectLanguages(comprehendClient, texts));
+    }
 
-        long rowCounter = 0;
-        final int numInputColumns = in.getDataTableSpec().getNumColumns();
+    @Override
+    protected JobType getJobType() {
+        return JobType.DOMINANT_LANGUAGE;
+    }
 
-        // Create row batches based on global batch size and process one batch in one request
-        final List<DataRow> rowBatch = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final List<String> texts = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final Set<Integer> validRows = new HashSet<>(ComprehendUtils.BATCH_SIZE);
-        DataRow inputRow = null;
-        while ((inputRow = in.poll()) != null) {
-            // Check for cancel and update the row progress
-            ++rowCounter;
-            exec.checkCanceled();
-            if (rowCount > 0) {
-                exec.setProgress(rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
-            }
-            rowBatch.add(inputRow);
-            final DataCell cell = inputRow.getCell(textColIdx);
-            if (!cell.isMissing()) {
-                String textValue = null;
-                if (cell.getType().isCompatible(DocumentValue.class)) {
-                    final Document doc = ((DocumentValue)cell).getDocument();
-                    textValue = doc.getTitle() + " " + doc.getDocumentBodyText();
-                } else {
-                    textValue = cell.toString();
-                }
-                texts.add(textValue);
-                validRows.add(rowBatch.size() - 1);
-            }
-            if (rowBatch.size() == ComprehendUtils.BATCH_SIZE) {
-                processChunk(out, comprehendClient, numInputColumns, rowBatch, texts, validRows);
-            }
+    /**
+     * The language is detected, no language code is sent.
+     */
+    @Override
+    protected String getLanguageCode() {
+        return "";
+    }
+
+    @Override
+    protected List<DataCell[]> parseJobResult(final JsonNode result) {
+        final List<DataCell[]> rows = new ArrayList<>();
+        // One output row per language.
+        for (final JsonNode dominantLang : result.path("Languages")) {
+            final String code = dominantLang.path("LanguageCode").asText();
+            rows.add(new DataCell[]{new StringCell(code2Name(code)), new StringCell(code),
+                new DoubleCell(dominantLang.path("Score").asDouble())});
         }
+        return rows;
+    }
 
-        // process remaining chunk
-        processChunk(out, comprehendClient, numInputColumns, rowBatch, texts, validRows);
+    /**
+     * Averages the score of each language over the chunks weighted by their length. Languages that were not detected
+     * in a chunk count with a score of zero for that chunk.
+     */
+    @Override
+    protected List<DataCell[]> aggregateChunks(final List<TextChunker.Chunk> chunks,
+        final List<List<DataCell[]>> results) {
+        final Map<String, DataCell> names = new HashMap<>();
+        final Map<String, Double> scores = new HashMap<>();
+        double totalLength = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final int length = chunks.get(i).getLength();
+            for (final DataCell[] cells : results.get(i)) {
+                final String code = ((StringValue)cells[1]).getStringValue();
+                names.putIfAbsent(code, cells[0]);
+                scores.merge(code, ((DoubleValue)cells[2]).getDoubleValue() * length, Double::sum);
+            }
+            totalLength += length;
+        }
+        final double total = totalLength;
+        return scores.entrySet().stream()//
+            .sorted(Map.Entry.<String, Double> comparingByValue().reversed())//
+            .map(e -> new DataCell[]{names.get(e.getKey()), new StringCell(e.getKey()),
+                new DoubleCell(total > 0 ? e.getValue() / total : 0)})//
+            .collect(Collectors.toList());
     }
 
     /**
      * Method to process one chunk with given texts.
      *
-     * @param out RowOutput to push new rows to
      * @param comprehendClient Comprehend client to send the requests
-     * @param numInputColumns Number of input columns
-     * @param rowBatch List containing rows
      * @param texts Texts to process
-     * @param validRows List containing indices of valid rows
-     * @throws InterruptedException Thrown if execution is canceled
+     * @return the dominant languages of each text, one array of cells per language
      */
-    @SuppressWarnings("null")
-    private static final void processChunk(final RowOutput out, final ComprehendClient comprehendClient,
-        final int numInputColumns, final List<DataRow> rowBatch, final List<String> texts, final Set<Integer> validRows)
-        throws InterruptedException {
-        final BatchDetectDominantLanguageRequest detectDominantLanguageRequest;
-        final BatchDetectDominantLanguageResponse detectDominantLanguageResult;
-        Iterator<BatchDetectDominantLanguageItemResult> results = null;
-        if (!texts.isEmpty()) {
-            detectDominantLanguageRequest = BatchDetectDominantLanguageRequest.builder().textList(texts).build();
-            detectDominantLanguageResult = comprehendClient.batchDetectDominantLanguage(detectDominantLanguageRequest);
-            results = detectDominantLanguageResult.resultList().iterator();
-        }
-        final DataCell[] cells = new DataCell[numInputColumns + 3];
-        for (int i = 0; i < rowBatch.size(); i++) {
-            final DataRow row = rowBatch.get(i);
-            for (int j = 0; j < numInputColumns; j++) {
-                cells[j] = row.getCell(j);
-            }
-            if (validRows.contains(i)) {
-                long outputRowIndex = 0;
-                // Push rows (one per language) to the output.
-                for (final DominantLanguage dominantLang : results.next().languages()) {
-                    // Copy the results to the new columns in the output.
-                    cells[numInputColumns] = new StringCell(code2Name(dominantLang.languageCode()));
-                    cells[numInputColumns + 1] = new StringCell(dominantLang.languageCode());
-                    cells[numInputColumns + 2] = new DoubleCell(dominantLang.score());
-
-                    // Create a new data row and push it to the output container.
-                    out.push(new DefaultRow(new RowKey(row.getKey().getString() + "_" + outputRowIndex++), cells));
-                }
-            } else {
-                Arrays.fill(cells, numInputColumns, numInputColumns + 3, DataType.getMissingCell());
-                out.push(new DefaultRow(new RowKey(row.getKey().getString() + "_" + 0), cells));
+    private static List<List<DataCell[]>> detectLanguages(final ComprehendClient comprehendClient,
+        final List<String> texts) {
+        final BatchDetectDominantLanguageRequest detectDominantLanguageRequest =
+            BatchDetectDominantLanguageRequest.builder().textList(texts).build();
+        final BatchDetectDominantLanguageResponse detectDominantLanguageResult =
+            comprehendClient.batchDetectDominantLanguage(detectDominantLanguageRequest);
+        final List<List<DataCell[]>> results = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        for (final BatchDetectDominantLanguageItemResult result : detectDominantLanguageResult.resultList()) {
+            final List<DataCell[]> rows = new ArrayList<>(result.languages().size());
+            // One output row per language.
+            for (final DominantLanguage dominantLang : result.languages()) {
+                rows.add(new DataCell[]{new StringCell(code2Name(dominantLang.languageCode())),
+                    new StringCell(dominantLang.languageCode()), new DoubleCell(dominantLang.score())});
             }
+            results.set(result.index(), rows);
         }
-        // Clean up
-        rowBatch.clear();
-        texts.clear();
-        validRows.clear();
+        return results;
     }
 
     /**
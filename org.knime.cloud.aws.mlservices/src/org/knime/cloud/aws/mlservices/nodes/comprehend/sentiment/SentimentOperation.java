@@ -49,41 +49,45 @@
 package org.knime.cloud.aws.mlservices.nodes.comprehend.sentiment;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
-import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendOperation;
+import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendJobOperation;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendJobService.JobType;
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
-import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.StringCell;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
-import org.knime.ext.textprocessing.data.Document;
-import org.knime.ext.textprocessing.data.DocumentValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
 import software.amazon.awssdk.services.comprehend.model.BatchDetectSentimentItemResult;
 import software.amazon.awssdk.services.comprehend.model.BatchDetectSentimentRequest;
 import software.amazon.awssdk.services.comprehend.model.BatchDetectSentimentResponse;
 import software.amazon.awssdk.services.comprehend.model.SentimentScore;
+import software.amazon.awssdk.services.comprehend.model.SentimentType;
 
 /**
  * Implementation of the operation to obtain the sentiment of each sentence in an input document.
  *
  * @author Jim Falgout, KNIME AG, Zurich, Switzerland
  */
-class SentimentOperation extends BaseComprehendOperation {
+class SentimentOperation extends BaseComprehendJobOperation {
+
+    /** Sentiments in the order of their score columns. */
+    private static final SentimentType[] SENTIMENTS =
+        {SentimentType.MIXED, SentimentType.POSITIVE, SentimentType.NEUTRAL, SentimentType.NEGATIVE};
+
     /** Language of the source text to be analyzed */
     private final String m_sourceLanguage;
 
@@ -103,97 +107,101 @@ class SentimentOperation extends BaseComprehendOperation {
 
     @Override
     public void compute(final RowInput in, final RowOutput out, final ComprehendClient comprehendClient,
-        final int textColIdx, final ExecutionContext exec, final long rowCount)
-        throws CanceledExecutionException, InterruptedException {
-
-        // Row index
-        long rowCounter = 0;
-        final int numInputColumns = in.getDataTableSpec().getNumColumns();
-
-        // Create row batches based on global batch size and process one batch in one request
-        final List<DataRow> rows = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final List<String> texts = new ArrayList<>(ComprehendUtils.BATCH_SIZE);
-        final Set<Integer> validRows = new HashSet<>(ComprehendUtils.BATCH_SIZE);
-        DataRow inputRow = null;
-        while ((inputRow = in.poll()) != null) {
-            // Check for cancel and update the row progress
-            ++rowCounter;
-            exec.checkCanceled();
-            if (rowCount > 0) {
-                exec.setProgress(rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
-            }
-            rows.add(inputRow);
-            final DataCell cell = inputRow.getCell(textColIdx);
-            if (!cell.isMissing()) {
-                String textValue = null;
-                if (cell.getType().isCompatible(DocumentValue.class)) {
-                    final Document doc = ((DocumentValue)cell).getDocument();
-                    textValue = doc.getTitle() + " " + doc.getDocumentBodyText();
-                } else {
-                    textValue = cell.toString();
-                }
-                texts.add(textValue);
-                validRows.add(rows.size() - 1);
+        final int textColIdx, final ExecutionContext exec, final long rowCount) throws Exception {
+        final String languageCode = getLanguageCode();
+        if (ComprehendUtils.AUTO_LANGUAGE_CODE.equals(languageCode)) {
+            // Detect the language of each text and send the texts of each language in separate batches
+            processInLanguageBatches(in, out, comprehendClient, textColIdx, exec, rowCount, "sentiment",
+                (language, texts) -> detectSentiment(comprehendClient, language, texts));
+            return;
+        }
+        // Process batches of rows concurrently, one batch in one request
+        processInBatches(in, out, textColIdx, exec, rowCount, "sentiment", languageCode,
+            texts -> detectSentiment(comprehendClient, languageCode, texts));
+    }
+
+    @Override
+    protected JobType getJobType() {
+        return JobType.SENTIMENT;
+    }
+
+    @Override
+    protected String getLanguageCode() {
+        return ComprehendUtils.getLanguageCode(m_sourceLanguage);
+    }
+
+    @Override
+    protected List<DataCell[]> parseJobResult(final JsonNode result) {
+        final JsonNode score = result.path("SentimentScore");
+        final DataCell[] cells = new DataCell[]{new StringCell(result.path("Sentiment").asText()),
+            new DoubleCell(score.path("Mixed").asDouble()), new DoubleCell(score.path("Positive").asDouble()),
+            new DoubleCell(score.path("Neutral").asDouble()), new DoubleCell(score.path("Negative").asDouble())};
+        return Collections.singletonList(cells);
+    }
+
+    @Override
+    protected List<DataRow> createOutputRows(final DataRow row, final List<DataCell[]> results) {
+        // One output row per input row, keeping the row key
+        return Collections.singletonList(
+            new DefaultRow(row.getKey(), appendCells(row, results != null ? results.get(0) : null)));
+    }
+
+    /**
+     * Averages the scores of the chunks weighted by their length. The sentiment with the highest average score is the
+     * sentiment of the whole text.
+     */
+    @Override
+    protected List<DataCell[]> aggregateChunks(final List<TextChunker.Chunk> chunks,
+        final List<List<DataCell[]>> results) {
+        // Scores in the order of the output columns: mixed, positive, neutral, negative
+        final double[] scores = new double[SENTIMENTS.length];
+        double totalLength = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final int length = chunks.get(i).getLength();
+            final DataCell[] cells = results.get(i).get(0);
+            for (int j = 0; j < scores.length; j++) {
+                scores[j] += ((DoubleValue)cells[j + 1]).getDoubleValue() * length;
             }
-            if (rows.size() == ComprehendUtils.BATCH_SIZE) {
-                processChunk(out, comprehendClient, numInputColumns, rows, texts, validRows);
+            totalLength += length;
+        }
+        final DataCell[] cells = new DataCell[scores.length + 1];
+        int best = 0;
+        for (int j = 0; j < scores.length; j++) {
+            scores[j] = totalLength > 0 ? scores[j] / totalLength : scores[j] / chunks.size();
+            cells[j + 1] = new DoubleCell(scores[j]);
+            if (scores[j] > scores[best]) {
+                best = j;
             }
         }
-
-        // process remaining chunk
-        processChunk(out, comprehendClient, numInputColumns, rows, texts, validRows);
+        cells[0] = new StringCell(SENTIMENTS[best].toString());
+        return Collections.singletonList(cells);
     }
 
     /**
      * Method to process one chunk with given texts.
      *
-     * @param out RowOutput to push new rows to
      * @param comprehendClient Comprehend client to send the requests
-     * @param numInputColumns Number of input columns
-     * @param rows List containing rows
+     * @param languageCode The language code of the texts
      * @param texts Texts to process
-     * @param validRows List containing indices of valid rows
-     * @throws InterruptedException Thrown if execution is canceled
+     * @return the sentiment and scores of each text
      */
-    @SuppressWarnings("null")
-    private final void processChunk(final RowOutput out, final ComprehendClient comprehendClient,
-        final int numInputColumns, final List<DataRow> rows, final List<String> texts, final Set<Integer> validRows)
-        throws InterruptedException {
-        final BatchDetectSentimentRequest detectSentimentRequest;
-        final BatchDetectSentimentResponse detectSentimentResult;
-        Iterator<BatchDetectSentimentItemResult> results = null;
-        if (!texts.isEmpty()) {
-            detectSentimentRequest = BatchDetectSentimentRequest.builder().textList(texts)
-                .languageCode(ComprehendUtils.LANG_MAP.getOrDefault(m_sourceLanguage, "en")).build();
-            detectSentimentResult = comprehendClient.batchDetectSentiment(detectSentimentRequest);
-            results = detectSentimentResult.resultList().iterator();
-        }
-        final DataCell[] cells = new DataCell[numInputColumns + 5];
-        for (int i = 0; i < rows.size(); i++) {
-            final DataRow row = rows.get(i);
-            for (int j = 0; j < numInputColumns; j++) {
-                cells[j] = row.getCell(j);
-            }
-            if (validRows.contains(i)) {
-                // Grab scores for each sentiment category.
-                final BatchDetectSentimentItemResult result = results.next();
-                final SentimentScore score = result.sentimentScore();
-
-                // Copy the results to the new columns in the output.
-                cells[numInputColumns] = new StringCell(result.sentimentAsString());
-                cells[numInputColumns + 1] = new DoubleCell(score.mixed());
-                cells[numInputColumns + 2] = new DoubleCell(score.positive());
-                cells[numInputColumns + 3] = new DoubleCell(score.neutral());
-                cells[numInputColumns + 4] = new DoubleCell(score.negative());
-            } else {
-                Arrays.fill(cells, numInputColumns, numInputColumns + 5, DataType.getMissingCell());
-            }
-            // Create a new data row and push it to the output container.
-            out.push(new DefaultRow(row.getKey(), cells));
+    private static List<List<DataCell[]>> detectSentiment(final ComprehendClient comprehendClient,
+        final String languageCode, final List<String> texts) {
+        final BatchDetectSentimentRequest detectSentimentRequest =
+            BatchDetectSentimentRequest.builder().textList(texts).languageCode(languageCode).build();
+        final BatchDetectSentimentResponse detectSentimentResult =
+            comprehendClient.batchDetectSentiment(detectSentimentRequest);
+        final List<List<DataCell[]>> results = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        for (final BatchDetectSentimentItemResult result : detectSentimentResult.resultList()) {
+            // Grab scores for each sentiment category.
+            final SentimentScore score = result.sentimentScore();
+
+            // Copy the results to the new columns in the output.
+            final DataCell[] cells = new DataCell[]{new StringCell(result.sentimentAsString()),
+                new DoubleCell(score.mixed()), new DoubleCell(score.positive()), new DoubleCell(score.neutral()),
+                new DoubleCell(score.negative())};
+            results.set(result.index(), Collections.singletonList(cells));
         }
-        // Clean up
-        rows.clear();
-        texts.clear();
-        validRows.clear();
+        return results;
     }
 }
@@ -0,0 +1,197 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.comprehend.TextChunker;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.ext.textprocessing.data.Document;
+import org.knime.ext.textprocessing.data.Sentence;
+import org.knime.ext.textprocessing.nodes.tagging.AbstractDocumentTagger;
+import org.knime.ext.textprocessing.nodes.tagging.TaggedEntity;
+
+/**
+ * A tagger that detects the entities of the sentences of several documents with batch requests before the documents
+ * are tagged. The sentences are sent in groups of {@link ComprehendUtils#BATCH_SIZE} and the results are looked up
+ * when {@link AbstractDocumentTagger} asks for the entities of a sentence. Sentences without a prefetched result are
+ * sent with a single request, sentences exceeding {@link ComprehendUtils#MAX_TEXT_BYTES} are split into chunks whose
+ * entities are concatenated.
+ *
+ * @author agent
+ */
+public abstract class ComprehendBatchTagger extends AbstractDocumentTagger {
+
+    /** Maximum size of a sentence in UTF-8 bytes that is sent with a single request. */
+    private static final int MAX_BYTES = ComprehendUtils.MAX_TEXT_BYTES;
+
+    /** Prefetched entities by sentence text. */
+    private final Map<String, List<TaggedEntity>> m_entities = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance of {@code ComprehendBatchTagger}.
+     *
+     * @param setNeutralTags if true, the neutral tags are set
+     * @param tokenizerName the name of the word tokenizer
+     */
+    protected ComprehendBatchTagger(final boolean setNeutralTags, final String tokenizerName) {
+        super(setNeutralTags, tokenizerName);
+    }
+
+    /**
+     * Detects the entities of all sentences of the given documents with batch requests. Up to one request per thread
+     * of the given pool is sent at the same time.
+     *
+     * @param docs the documents that are tagged next
+     * @param pool the pool used to send the requests
+     * @param exec execution context used to check for cancellation
+     * @throws Exception thrown if a request failed or the execution was canceled
+     */
+    public void prefetch(final List<Document> docs, final ExecutorService pool, final ExecutionContext exec)
+        throws Exception {
+        // Collect each sentence only once, documents often share boilerplate sentences
+        final Set<String> texts = new LinkedHashSet<>();
+        for (final Document doc : docs) {
+            final Iterator<Sentence> it = doc.sentenceIterator();
+            while (it.hasNext()) {
+                final String text = it.next().getTextWithWsSuffix();
+                // Oversize sentences are split into chunks when they are tagged
+                if (!m_entities.containsKey(text) && TextChunker.utf8Length(text, 0, text.length()) <= MAX_BYTES) {
+                    texts.add(text);
+                }
+            }
+        }
+
+        final List<Future<?>> futures = new ArrayList<>();
+        final List<String> all = new ArrayList<>(texts);
+        for (int i = 0; i < all.size(); i += ComprehendUtils.BATCH_SIZE) {
+            final List<String> batch = all.subList(i, Math.min(i + ComprehendUtils.BATCH_SIZE, all.size()));
+            futures.add(pool.submit(() -> {
+                final List<List<TaggedEntity>> results = detectBatch(batch);
+                for (int j = 0; j < batch.size(); j++) {
+                    // Failed items are sent again with a single request when the sentence is tagged
+                    if (results.get(j) != null) {
+                        m_entities.put(batch.get(j), results.get(j));
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (final Future<?> future : futures) {
+                exec.checkCanceled();
+                future.get();
+            }
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception)cause : e;
+        } catch (final CanceledExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Removes all prefetched results.
+     */
+    public void clear() {
+        m_entities.clear();
+    }
+
+    @Override
+    protected final List<TaggedEntity> tagEntities(final Sentence sentence) {
+        final String text = sentence.getTextWithWsSuffix();
+        final List<TaggedEntity> entities = m_entities.get(text);
+        if (entities != null) {
+            return entities;
+        }
+        final List<TextChunker.Chunk> chunks = TextChunker.split(text, MAX_BYTES, Locale.ROOT);
+        if (chunks.size() == 1) {
+            return detect(text);
+        }
+        final List<TaggedEntity> combined = new ArrayList<>();
+        for (final TextChunker.Chunk chunk : chunks) {
+            combined.addAll(detect(chunk.getText()));
+        }
+        return combined;
+    }
+
+    @Override
+    protected void preprocess(final Document doc) {
+        // Nothing to do here...
+    }
+
+    /**
+     * Detects the entities of up to {@link ComprehendUtils#BATCH_SIZE} texts with one request.
+     *
+     * @param texts the texts to process
+     * @return the entities of each text in the order of the texts, {@code null} for texts that could not be processed
+     */
+    protected abstract List<List<TaggedEntity>> detectBatch(List<String> texts);
+
+    /**
+     * Detects the entities of a single text.
+     *
+     * @param text the text to process
+     * @return the entities of the text
+     */
+    protected abstract List<TaggedEntity> detect(String text);
+}
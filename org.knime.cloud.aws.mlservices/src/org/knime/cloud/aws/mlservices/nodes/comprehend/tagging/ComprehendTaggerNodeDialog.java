@@ -49,6 +49,7 @@
 package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging;
 
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -57,6 +58,7 @@
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
 import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.DialogComponentString;
 import org.knime.core.node.defaultnodesettings.DialogComponentStringSelection;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
@@ -116,6 +118,19 @@ public ComprehendTaggerNodeDialog() {
             "Source language", ComprehendUtils.LANG_MAP.keySet()));
         addDialogComponent(new DialogComponentStringSelection(ComprehendTaggerNodeModel.getTokenizerModel(),
             "Word tokenizer", TokenizerFactoryRegistry.getTokenizerFactoryMap().keySet()));
+        addDialogComponent(
+            new DialogComponentNumber(ComprehendUtils.getConcurrentRequestsModel(), "Concurrent requests", 1));
+        addDialogComponent(
+            new DialogComponentNumber(ComprehendTaggerNodeModel.getTaggingThreadsModel(), "Tagging threads", 1));
+        closeCurrentGroup();
+
+        createNewGroup("Service limits (shared by all nodes in the region)");
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getRequestsPerSecondModel(),
+            "Requests per second (0: not limited by this node)", 1.0));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxConcurrentModel(),
+            "Requests in flight (0: not limited by this node)", 1));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxRetriesModel(), "Maximum retries", 1));
+        closeCurrentGroup();
         updateSettings();
     }
 
@@ -58,6 +58,7 @@
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.ext.textprocessing.data.DocumentCell;
 import org.knime.ext.textprocessing.data.DocumentValue;
@@ -79,6 +80,9 @@ public abstract class ComprehendTaggerNodeModel extends BaseComprehendLangNodeMo
     /** Configuration key for the word tokenizer selection */
     private static final String CFG_KEY_TOKENIZER = "word_tokenizer";
 
+    /** Configuration key for the number of tagging threads */
+    private static final String CFG_KEY_TAGGING_THREADS = "tagging_threads";
+
     /** Default value for the new document column name */
     private static final String DEF_NEW_DOCUMENT_COL = "Tagged documents";
 
@@ -88,6 +92,12 @@ public abstract class ComprehendTaggerNodeModel extends BaseComprehendLangNodeMo
     /** Default value for the replace document option */
     private static final boolean DEF_REPLACE_DOC = true;
 
+    /** Default value for the number of tagging threads */
+    private static final int DEF_TAGGING_THREADS = 4;
+
+    /** Maximum number of tagging threads */
+    private static final int MAX_TAGGING_THREADS = 64;
+
     /**
      * Creates and returns the string settings model containing the name of the column with the new, tagged documents.
      *
@@ -117,6 +127,15 @@ static final SettingsModelString getTokenizerModel() {
         return new SettingsModelString(CFG_KEY_TOKENIZER, DEF_WORD_TOKENIZER);
     }
 
+    /**
+     * Creates and returns the settings model, storing the number of threads tagging documents at the same time.
+     *
+     * @return The settings model with the number of tagging threads.
+     */
+    static final SettingsModelIntegerBounded getTaggingThreadsModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_TAGGING_THREADS, DEF_TAGGING_THREADS, 1, MAX_TAGGING_THREADS);
+    }
+
     /** {@link SettingsModelString} storing the name of the new document column to create */
     private final SettingsModelString m_newDocColumn = getNewDocumentColumnModel();
 
@@ -126,6 +145,9 @@ static final SettingsModelString getTokenizerModel() {
     /** {@link SettingsModelString} storing the name of the word tokenizer */
     private final SettingsModelString m_tokenizerModel = getTokenizerModel();
 
+    /** {@link SettingsModelIntegerBounded} storing the number of tagging threads */
+    private final SettingsModelIntegerBounded m_taggingThreads = getTaggingThreadsModel();
+
     @Override
     protected void checkDataTableSpec(final DataTableSpec inputSpec) throws InvalidSettingsException {
         // verify that the incoming DataTableSpec contains the minimum number of document columns
@@ -164,8 +186,11 @@ protected DataTableSpec generateOutputTableSpec(final DataTableSpec inputSpec) {
     @Override
     protected final ComprehendOperation getOperationInstance(final CloudConnectionInformation cxnInfo,
         final DataTableSpec outputSpec, final String textColumn, final String sourceLanguage) {
-        return getOperationInstance(cxnInfo, outputSpec, textColumn, sourceLanguage, m_tokenizerModel.getStringValue(),
-            !m_replaceDoc.getBooleanValue() ? m_newDocColumn.getStringValue() : null);
+        final String newColName = !m_replaceDoc.getBooleanValue() ? m_newDocColumn.getStringValue() : null;
+        final ComprehendTaggerOperation op = getOperationInstance(cxnInfo, outputSpec, textColumn, sourceLanguage,
+            m_tokenizerModel.getStringValue(), newColName);
+        op.setTaggingThreads(m_taggingThreads.getIntValue());
+        return op;
     }
 
     /**
@@ -189,6 +214,7 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_tokenizerModel.saveSettingsTo(settings);
         m_newDocColumn.saveSettingsTo(settings);
         m_replaceDoc.saveSettingsTo(settings);
+        m_taggingThreads.saveSettingsTo(settings);
     }
 
     @Override
@@ -197,6 +223,12 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_tokenizerModel.loadSettingsFrom(settings);
         m_newDocColumn.loadSettingsFrom(settings);
         m_replaceDoc.loadSettingsFrom(settings);
+        // Added later, older workflows tag one document after another
+        if (settings.containsKey(CFG_KEY_TAGGING_THREADS)) {
+            m_taggingThreads.loadSettingsFrom(settings);
+        } else {
+            m_taggingThreads.setIntValue(1);
+        }
     }
 
     @Override
@@ -205,5 +237,8 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
         m_tokenizerModel.validateSettings(settings);
         m_newDocColumn.validateSettings(settings);
         m_replaceDoc.validateSettings(settings);
+        if (settings.containsKey(CFG_KEY_TAGGING_THREADS)) {
+            m_taggingThreads.validateSettings(settings);
+        }
     }
 }
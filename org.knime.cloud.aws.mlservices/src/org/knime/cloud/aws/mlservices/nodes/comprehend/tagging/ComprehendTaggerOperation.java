@@ -48,6 +48,18 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.knime.cloud.aws.mlservices.nodes.comprehend.BaseComprehendOperation;
 import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendUtils;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
@@ -57,13 +69,12 @@
 import org.knime.core.data.RowKey;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.filestore.FileStoreFactory;
-import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.ext.textprocessing.data.Document;
 import org.knime.ext.textprocessing.data.DocumentValue;
-import org.knime.ext.textprocessing.nodes.tagging.DocumentTagger;
+import org.knime.ext.textprocessing.data.Sentence;
 import org.knime.ext.textprocessing.util.TextContainerDataCellFactory;
 import org.knime.ext.textprocessing.util.TextContainerDataCellFactoryBuilder;
 
@@ -82,6 +93,9 @@ public abstract class ComprehendTaggerOperation extends BaseComprehendOperation
 
     private final String m_newColName;
 
+    /** Number of threads tagging documents at the same time. */
+    private int m_taggingThreads = 1;
+
     /**
      * Creates and returns an instance of a specific implementation of {@link ComprehendTaggerOperation}.
      *
@@ -101,42 +115,135 @@ public ComprehendTaggerOperation(final CloudConnectionInformation cxnInfo, final
         this.m_newColName = newColName;
     }
 
+    /**
+     * Sets the number of threads tagging documents at the same time. Each thread uses its own tagger.
+     *
+     * @param taggingThreads the number of tagging threads, at least one
+     */
+    public void setTaggingThreads(final int taggingThreads) {
+        m_taggingThreads = Math.max(1, taggingThreads);
+    }
+
     @Override
     public final void compute(final RowInput in, final RowOutput out, final ComprehendClient comprehendClient,
-        final int textColIdx, final ExecutionContext exec, final long rowCount)
-        throws CanceledExecutionException, InterruptedException {
-        // Create the tagger that uses the detect entities capability of the Comprehend
-        // service.
-        final DocumentTagger tagger =
-            getTagger(comprehendClient, ComprehendUtils.LANG_MAP.getOrDefault(m_sourceLanguage, "en"), m_tokenizerName);
+        final int textColIdx, final ExecutionContext exec, final long rowCount) throws Exception {
+        // Create one tagger per tagging thread, all taggers use the detect capabilities of the Comprehend service
+        // through the same client
+        final String languageCode = ComprehendUtils.LANG_MAP.getOrDefault(m_sourceLanguage, "en");
+        final BlockingQueue<ComprehendBatchTagger> taggers = new ArrayBlockingQueue<>(m_taggingThreads);
+        for (int i = 0; i < m_taggingThreads; i++) {
+            taggers.add(getTagger(comprehendClient, languageCode, m_tokenizerName));
+        }
 
         final TextContainerDataCellFactory docCellFactory =
             TextContainerDataCellFactoryBuilder.createDocumentCellFactory();
         docCellFactory.prepare(FileStoreFactory.createFileStoreFactory(exec));
 
-        long inputRowIndex = 0;
-        long rowCounter = 0;
+        // Collect enough sentences to keep all concurrent batch requests busy before tagging the documents
+        final int groupSize = ComprehendUtils.BATCH_SIZE * getConcurrentRequests();
+        final ExecutorService requestPool = Executors.newFixedThreadPool(getConcurrentRequests());
+        final ExecutorService taggingPool = Executors.newFixedThreadPool(m_taggingThreads);
+        final Deque<Future<List<Document>>> inFlight = new ArrayDeque<>();
+        final Deque<List<DataRow>> inFlightRows = new ArrayDeque<>();
+        try {
+            long inputRowIndex = 0;
+            long rowCounter = 0;
+            long numSentences = 0;
+            List<DataRow> rows = new ArrayList<>();
+
+            DataRow inputRow = null;
+            while ((inputRow = in.poll()) != null) {
 
-        // Tag each input document
-        DataRow inputRow = null;
-        while ((inputRow = in.poll()) != null) {
+                // Check for cancel and update the row progress
+                ++rowCounter;
+                exec.checkCanceled();
+                if (rowCount > 0) {
+                    exec.setProgress(rowCounter / (double)rowCount,
+                        "Processing row " + rowCounter + " of " + rowCount);
+                }
+
+                rows.add(inputRow);
+                final DataCell cell = inputRow.getCell(textColIdx);
+                if (!cell.isMissing()) {
+                    numSentences += countSentences(((DocumentValue)cell).getDocument());
+                }
+                if (numSentences >= groupSize || rows.size() >= groupSize) {
+                    inFlight.add(submit(taggingPool, requestPool, taggers, rows, textColIdx, exec));
+                    inFlightRows.add(rows);
+                    rows = new ArrayList<>();
+                    numSentences = 0;
+                    // One group waiting for its turn per tagging thread, the oldest group is pushed first
+                    while (inFlight.size() > m_taggingThreads) {
+                        inputRowIndex = pushRows(inFlightRows.poll(), await(inFlight.poll(), exec), docCellFactory,
+                            textColIdx, inputRowIndex, out);
+                    }
+                }
+            }
 
-            // Check for cancel and update the row progress
-            ++rowCounter;
-            exec.checkCanceled();
-            if (rowCount > 0) {
-                exec.setProgress(rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
+            // process remaining rows
+            if (!rows.isEmpty()) {
+                inFlight.add(submit(taggingPool, requestPool, taggers, rows, textColIdx, exec));
+                inFlightRows.add(rows);
             }
+            while (!inFlight.isEmpty()) {
+                inputRowIndex = pushRows(inFlightRows.poll(), await(inFlight.poll(), exec), docCellFactory,
+                    textColIdx, inputRowIndex, out);
+            }
+        } finally {
+            // Cancels the groups still in flight if the execution failed or was canceled
+            taggingPool.shutdownNow();
+            requestPool.shutdownNow();
+        }
+    }
 
+    /**
+     * Tags the documents of the given rows with the next free tagger.
+     *
+     * @return the tagged documents in the order of the rows, {@code null} for missing cells
+     */
+    private static Future<List<Document>> submit(final ExecutorService taggingPool,
+        final ExecutorService requestPool, final BlockingQueue<ComprehendBatchTagger> taggers,
+        final List<DataRow> rows, final int textColIdx, final ExecutionContext exec) {
+        return taggingPool.submit(() -> {
+            // There is one tagger per thread of the pool, so one is always free
+            final ComprehendBatchTagger tagger = taggers.take();
+            try {
+                final List<Document> docs = new ArrayList<>(rows.size());
+                for (final DataRow row : rows) {
+                    final DataCell cell = row.getCell(textColIdx);
+                    docs.add(cell.isMissing() ? null : ((DocumentValue)cell).getDocument());
+                }
+                final List<Document> inputDocs = new ArrayList<>(docs);
+                inputDocs.removeIf(Objects::isNull);
+                tagger.prefetch(inputDocs, requestPool, exec);
+                final List<Document> tagged = new ArrayList<>(docs.size());
+                for (final Document doc : docs) {
+                    tagged.add(doc != null ? tagger.tag(doc) : null);
+                }
+                return tagged;
+            } finally {
+                // The prefetched results are only needed for the documents of this group
+                tagger.clear();
+                taggers.add(tagger);
+            }
+        });
+    }
+
+    /**
+     * Pushes the output rows of the given input rows and their tagged documents. The document cells are created here,
+     * in the order of the rows, as the cell factory writes to the file stores of the node.
+     *
+     * @return the index of the next input row
+     */
+    private long pushRows(final List<DataRow> rows, final List<Document> tagged,
+        final TextContainerDataCellFactory docCellFactory, final int textColIdx, final long firstRowIndex,
+        final RowOutput out) throws InterruptedException {
+        long inputRowIndex = firstRowIndex;
+        for (int r = 0; r < rows.size(); r++) {
+            final DataRow inputRow = rows.get(r);
             // Grab the text to evaluate
             final DataCell cell = inputRow.getCell(textColIdx);
-            final DataCell newDataCell;
-            if (!cell.isMissing()) {
-                final Document outputDoc = tagger.tag(((DocumentValue)cell).getDocument());
-                newDataCell = docCellFactory.createDataCell(outputDoc);
-            } else {
-                newDataCell = cell;
-            }
+            final DataCell newDataCell = tagged.get(r) != null ? docCellFactory.createDataCell(tagged.get(r)) : cell;
 
             // Create cells containing the output data.
             // Copy the input data to the output
@@ -156,16 +263,27 @@ public final void compute(final RowInput in, final RowOutput out, final Comprehe
             out.push(row);
             ++inputRowIndex;
         }
+        return inputRowIndex;
+    }
+
+    private static long countSentences(final Document doc) {
+        long count = 0;
+        final Iterator<Sentence> it = doc.sentenceIterator();
+        while (it.hasNext()) {
+            it.next();
+            ++count;
+        }
+        return count;
     }
 
     /**
-     * Creates and returns a new instance of a specific implementation of a {@link DocumentTagger}.
+     * Creates and returns a new instance of a specific implementation of a {@link ComprehendBatchTagger}.
      *
      * @param comprehendClient The {@code ComprehendClient} client used to call the service
      * @param languageCode The language code
      * @param tokenizerName The name of the word tokenizer
-     * @return Returns a new instance of a specific implementation of a {@code DocumentTagger}
+     * @return Returns a new instance of a specific implementation of a {@code ComprehendBatchTagger}
      */
-    protected abstract DocumentTagger getTagger(final ComprehendClient comprehendClient, final String languageCode,
-        final String tokenizerName);
+    protected abstract ComprehendBatchTagger getTagger(final ComprehendClient comprehendClient,
+        final String languageCode, final String tokenizerName);
 }
@@ -48,30 +48,33 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.entities;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.ComprehendBatchTagger;
 import org.knime.cloud.aws.mlservices.utils.tagsets.AmazonEntityTag;
-import org.knime.ext.textprocessing.data.Document;
-import org.knime.ext.textprocessing.data.Sentence;
 import org.knime.ext.textprocessing.data.Tag;
-import org.knime.ext.textprocessing.nodes.tagging.AbstractDocumentTagger;
 import org.knime.ext.textprocessing.nodes.tagging.TaggedEntity;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectEntitiesItemResult;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectEntitiesRequest;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectEntitiesResponse;
 import software.amazon.awssdk.services.comprehend.model.DetectEntitiesRequest;
 import software.amazon.awssdk.services.comprehend.model.DetectEntitiesResponse;
+import software.amazon.awssdk.services.comprehend.model.Entity;
 
 /**
- * A tagger that uses the Amazon Comprehend service to detect entities in each sentence of a {@code Document}. For each
- * sentence a call is made to the Comprehend service and the returned entities are wrapped with their entity type as a
- * tag.
+ * A tagger that uses the Amazon Comprehend service to detect entities in each sentence of a {@code Document}. The
+ * sentences are sent in batches and the returned entities are wrapped with their entity type as a tag.
  *
  * @author Jim Falgout, KNIME AG
  */
 
-final class EntityTagger extends AbstractDocumentTagger {
+final class EntityTagger extends ComprehendBatchTagger {
 
     /** The client used to call the service. */
     private final ComprehendClient m_client;
@@ -98,23 +101,33 @@ protected List<Tag> getTags(final String tag) {
     }
 
     @Override
-    protected List<TaggedEntity> tagEntities(final Sentence sentence) {
+    protected List<List<TaggedEntity>> detectBatch(final List<String> texts) {
+        final BatchDetectEntitiesRequest request =
+            BatchDetectEntitiesRequest.builder().textList(texts).languageCode(m_languageCode).build();
 
-        final String textValue = sentence.getTextWithWsSuffix();
+        final BatchDetectEntitiesResponse result = m_client.batchDetectEntities(request);
 
+        final List<List<TaggedEntity>> entities = new ArrayList<>(Collections.nCopies(texts.size(), null));
+        for (final BatchDetectEntitiesItemResult item : result.resultList()) {
+            entities.set(item.index(), toTaggedEntities(item.entities()));
+        }
+        return entities;
+    }
+
+    @Override
+    protected List<TaggedEntity> detect(final String text) {
         final DetectEntitiesRequest request =
-            DetectEntitiesRequest.builder().text(textValue).languageCode(m_languageCode).build();
+            DetectEntitiesRequest.builder().text(text).languageCode(m_languageCode).build();
 
         final DetectEntitiesResponse result = m_client.detectEntities(request);
 
-        return result.entities().stream()//
-            .map(entity -> new TaggedEntity(entity.text(), entity.typeAsString()))//
-            .collect(Collectors.toList());
+        return toTaggedEntities(result.entities());
     }
 
-    @Override
-    protected void preprocess(final Document doc) {
-        // Nothing to do here...
+    private static List<TaggedEntity> toTaggedEntities(final List<Entity> entities) {
+        return entities.stream()//
+            .map(entity -> new TaggedEntity(entity.text(), entity.typeAsString()))//
+            .collect(Collectors.toList());
     }
 
 }
@@ -48,10 +48,10 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.entities;
 
+import org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.ComprehendBatchTagger;
 import org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.ComprehendTaggerOperation;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataTableSpec;
-import org.knime.ext.textprocessing.nodes.tagging.DocumentTagger;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
 
@@ -81,7 +81,7 @@ final class EntityTaggerOperation extends ComprehendTaggerOperation {
     }
 
     @Override
-    protected DocumentTagger getTagger(final ComprehendClient comprehendClient, final String languageCode,
+    protected ComprehendBatchTagger getTagger(final ComprehendClient comprehendClient, final String languageCode,
         final String tokenizerName) {
         return new EntityTagger(comprehendClient, languageCode, tokenizerName);
     }
@@ -48,31 +48,34 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.syntax;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.knime.ext.textprocessing.data.Document;
-import org.knime.ext.textprocessing.data.Sentence;
+import org.knime.cloud.aws.mlservices.nodes.comprehend.tagging.ComprehendBatchTagger;
 import org.knime.ext.textprocessing.data.Tag;
 import org.knime.ext.textprocessing.data.UniversalDependenciesPOSTagSet;
-import org.knime.ext.textprocessing.nodes.tagging.AbstractDocumentTagger;
 import org.knime.ext.textprocessing.nodes.tagging.TaggedEntity;
 
 import software.amazon.awssdk.services.comprehend.ComprehendClient;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectSyntaxItemResult;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectSyntaxRequest;
+import software.amazon.awssdk.services.comprehend.model.BatchDetectSyntaxResponse;
 import software.amazon.awssdk.services.comprehend.model.DetectSyntaxRequest;
 import software.amazon.awssdk.services.comprehend.model.DetectSyntaxResponse;
+import software.amazon.awssdk.services.comprehend.model.SyntaxToken;
 
 /**
  * A tagger that uses the Amazon Comprehend service to detect the syntax of each
- * sentence of a {@code Document}. For each sentence a call is made to the
- * Comprehend service and the returned syntax elements are wrapped with their
- * entity type as a tag.
+ * sentence of a {@code Document}. The sentences are sent in batches and the
+ * returned syntax elements are wrapped with their entity type as a tag.
  *
  * @author Jim Falgout, KNIME AG
  */
 
-final class SyntaxTagger extends AbstractDocumentTagger {
+final class SyntaxTagger extends ComprehendBatchTagger {
 
     /** The client used to call the service. */
     private final ComprehendClient m_client;
@@ -99,24 +102,36 @@ protected List<Tag> getTags(final String tag) {
 	}
 
 	@Override
-	protected List<TaggedEntity> tagEntities(final Sentence sentence) {
+	protected List<List<TaggedEntity>> detectBatch(final List<String> texts) {
 
-		final String textValue = sentence.getTextWithWsSuffix();
+		final BatchDetectSyntaxRequest request = BatchDetectSyntaxRequest.builder().textList(texts)
+				.languageCode(m_languageCode).build();
+
+		final BatchDetectSyntaxResponse result = m_client.batchDetectSyntax(request);
+
+		final List<List<TaggedEntity>> tokens = new ArrayList<>(Collections.nCopies(texts.size(), null));
+		for (final BatchDetectSyntaxItemResult item : result.resultList()) {
+			tokens.set(item.index(), toTaggedEntities(item.syntaxTokens()));
+		}
+		return tokens;
+	}
+
+	@Override
+	protected List<TaggedEntity> detect(final String text) {
 
-		// Create the delete syntax request
-		final DetectSyntaxRequest request = DetectSyntaxRequest.builder().text(textValue)
+		// Create the detect syntax request
+		final DetectSyntaxRequest request = DetectSyntaxRequest.builder().text(text)
 				.languageCode(m_languageCode).build();
 
 		final DetectSyntaxResponse result = m_client.detectSyntax(request);
 
-		return result.syntaxTokens().stream()//
-				.map(token -> new TaggedEntity(token.text(), token.partOfSpeech().tagAsString()))//
-				.collect(Collectors.toList());
+		return toTaggedEntities(result.syntaxTokens());
 	}
 
-	@Override
-	protected void preprocess(final Document doc) {
-		// Nothing to do here...
+	private static List<TaggedEntity> toTaggedEntities(final List<SyntaxToken> tokens) {
+		return tokens.stream()//
+				.map(token -> new TaggedEntity(token.text(), token.partOfSpeech().tagAsString()))//
+				.collect(Collectors.toList());
 	}
 
 }
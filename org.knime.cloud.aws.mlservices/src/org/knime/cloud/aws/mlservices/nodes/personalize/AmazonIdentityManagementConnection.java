@@ -51,6 +51,7 @@
 import java.time.Duration;
 
 import org.knime.base.filehandling.remote.files.Connection;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceClientPool;
 import org.knime.cloud.aws.sdkv2.util.AWSCredentialHelper;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.node.NodeLogger;
@@ -66,6 +67,9 @@
  */
 public final class AmazonIdentityManagementConnection extends Connection implements AutoCloseable {
 
+    /** Name of the service the client is pooled for. */
+    private static final String SERVICE_NAME = "iam";
+
     private static final String ROLE_SESSION_NAME = "KNIME_AmazonIdentityManagement_Connection";
 
     /** Logger instance. */
@@ -89,10 +93,9 @@ public AmazonIdentityManagementConnection(final CloudConnectionInformation conne
     @Override
     public void open() throws Exception {
         if (!isOpen()) {
-            LOGGER.info("Create a new IamClient in Region \"" + m_connectionInformation.getHost()
-                + "\" with connection timeout " + m_connectionInformation.getTimeout() + " milliseconds");
             try {
-                m_client = getIdentityManagementClient(m_connectionInformation);
+                m_client = ServiceClientPool.acquire(SERVICE_NAME, m_connectionInformation, null,
+                    () -> getIdentityManagementClient(m_connectionInformation));
             } catch (final Exception ex) {
                 close();
                 throw ex;
@@ -107,6 +110,8 @@ public void open() throws Exception {
      * @return IamClient client
      */
     private static final IamClient getIdentityManagementClient(final CloudConnectionInformation connInfo) {
+        LOGGER.info("Create a new IamClient in Region \"" + connInfo.getHost()
+            + "\" with connection timeout " + connInfo.getTimeout() + " milliseconds");
         final var clientConfig = ClientOverrideConfiguration.builder()
                 .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())).build();
 
@@ -124,7 +129,8 @@ public boolean isOpen() {
     @Override
     public void close() throws Exception {
         if (isOpen()) {
-            m_client.close();
+            // The client stays open in the pool for the next node
+            ServiceClientPool.release(m_client);
             m_client = null;
         }
     }
@@ -51,6 +51,7 @@
 import java.time.Duration;
 
 import org.knime.base.filehandling.remote.files.Connection;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceClientPool;
 import org.knime.cloud.aws.sdkv2.util.AWSCredentialHelper;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.node.NodeLogger;
@@ -67,6 +68,9 @@
  */
 public final class AmazonPersonalizeConnection extends Connection implements AutoCloseable {
 
+    /** Name of the service the client is pooled for. */
+    private static final String SERVICE_NAME = "personalize";
+
     private static final String ROLE_SESSION_NAME = "KNIME_PersonalizeRuntime_Connection";
 
     /** Logger instance. */
@@ -90,10 +94,9 @@ public AmazonPersonalizeConnection(final CloudConnectionInformation connectionIn
     @Override
     public void open() throws Exception {
         if (!isOpen()) {
-            LOGGER.info("Create a new PersonalizeClient in Region \"" + m_connectionInformation.getHost()
-                + "\" with connection timeout " + m_connectionInformation.getTimeout() + " milliseconds");
             try {
-                m_client = getPersonalizeClient(m_connectionInformation);
+                m_client = ServiceClientPool.acquire(SERVICE_NAME, m_connectionInformation, null,
+                    () -> getPersonalizeClient(m_connectionInformation));
             } catch (final Exception ex) {
                 close();
                 throw ex;
@@ -108,6 +111,8 @@ public void open() throws Exception {
      * @return PersonalizeClient client
      */
     private static final PersonalizeClient getPersonalizeClient(final CloudConnectionInformation connInfo) {
+        LOGGER.info("Create a new PersonalizeClient in Region \"" + connInfo.getHost()
+            + "\" with connection timeout " + connInfo.getTimeout() + " milliseconds");
         final var clientConfig = ClientOverrideConfiguration.builder()
                 .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())).build();
 
@@ -125,7 +130,8 @@ public boolean isOpen() {
     @Override
     public void close() throws Exception {
         if (isOpen()) {
-            m_client.close();
+            // The client stays open in the pool for the next node
+            ServiceClientPool.release(m_client);
             m_client = null;
         }
     }
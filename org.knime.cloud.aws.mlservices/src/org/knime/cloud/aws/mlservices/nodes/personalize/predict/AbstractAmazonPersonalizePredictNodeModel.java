@@ -112,6 +112,9 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
     }
 
     /**
+     * Creates the cell factory. The client is leased from the connection when the first row is processed and returned
+     * to the pool after the last one, so configuring the node does not lease a client.
+     *
      * @param personalizeConnection the connection
      * @param spec the table spec
      * @return the cell factory
@@ -132,7 +135,6 @@ protected CellFactory getCellFactory(final AmazonPersonalizeRuntimeConnection pe
         colMap.put(itemsColIdx, "item list");
 
         m_warningSet = false;
-        final PersonalizeRuntimeClient personalizeClient = personalizeConnection.getClient();
         return new SingleCellFactory(true,
             uniqueNameGenerator.newColumn(getOutputColumnName(), ListCell.getCollectionType(StringCell.TYPE))) {
 
@@ -148,9 +150,30 @@ public DataCell getCell(final DataRow row) {
 
                 // Get the prediction
                 final ArrayList<DataCell> recommendations =
-                    predict(personalizeClient, row, userIdColIdx, itemIdColIdx, itemsColIdx);
+                    predict(getClient(), row, userIdColIdx, itemIdColIdx, itemsColIdx);
                 return CollectionCellFactory.createListCell(recommendations);
             }
+
+            /** Leases the client on the first call, the rows may be processed in parallel. */
+            private synchronized PersonalizeRuntimeClient getClient() {
+                try {
+                    return personalizeConnection.getClient();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public void afterProcessing() {
+                // Returns the client to the pool so that it can be reused by the next execution, if it was leased
+                try {
+                    personalizeConnection.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
         };
     }
 
@@ -51,6 +51,9 @@
 import java.time.Duration;
 
 import org.knime.base.filehandling.remote.files.Connection;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceClientPool;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceRateLimiter;
 import org.knime.cloud.aws.sdkv2.util.AWSCredentialHelper;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.node.NodeLogger;
@@ -68,12 +71,21 @@ public class TranslateConnection extends Connection {
 
     private static final String ROLE_SESSION_NAME = "KNIME_Translate_Connection";
 
+    /** Name of the service the requests are limited for. */
+    private static final String SERVICE_NAME = "translate";
+
     /** Logger instance. */
     private static final NodeLogger LOGGER = NodeLogger.getLogger(TranslateConnection.class);
 
     /** AWS connection information */
     private final CloudConnectionInformation m_connectionInformation;
 
+    /** Client-side limits for the requests sent to the service */
+    private final ServiceLimitSettings m_limits;
+
+    /** The limits registered with the shared limiter while the connection is open */
+    private ServiceRateLimiter.Registration m_registration;
+
     /** The TranslateClient client */
     private TranslateClient m_client;
 
@@ -81,18 +93,20 @@ public class TranslateConnection extends Connection {
      * Creates a new instance of {@code TranslateConnection}.
      *
      * @param connectionInformation The connection information
+     * @param limits The client-side limits for the requests, shared with all clients of the service in the region
      */
-    TranslateConnection(final CloudConnectionInformation connectionInformation) {
+    TranslateConnection(final CloudConnectionInformation connectionInformation, final ServiceLimitSettings limits) {
         m_connectionInformation = connectionInformation;
+        m_limits = limits;
     }
 
     @Override
     public void open() throws Exception {
         if (!isOpen()) {
-            LOGGER.info("Create a new TranslateClient in Region \"" + m_connectionInformation.getHost()
-                + "\" with connection timeout " + m_connectionInformation.getTimeout() + " milliseconds");
+            m_registration = m_limits.registerLimits(SERVICE_NAME, m_connectionInformation.getHost());
             try {
-                m_client = getTranslateClient(m_connectionInformation);
+                m_client = ServiceClientPool.acquire(SERVICE_NAME, m_connectionInformation, m_limits.getMaxRetries(),
+                    () -> getTranslateClient(m_connectionInformation, m_limits));
             } catch (final Exception ex) {
                 close();
                 throw ex;
@@ -105,11 +119,15 @@ public void open() throws Exception {
      * Creates and returns a new instance of the {@link TranslateClient} client.
      *
      * @param connInfo The connection information
+     * @param limits The client-side limits for the requests
      * @return TranslateClient client
      */
-    private static final TranslateClient getTranslateClient(final CloudConnectionInformation connInfo) {
-        final var clientConfig = ClientOverrideConfiguration.builder()
-                .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())).build();
+    private static final TranslateClient getTranslateClient(final CloudConnectionInformation connInfo,
+        final ServiceLimitSettings limits) {
+        LOGGER.info("Create a new TranslateClient in Region \"" + connInfo.getHost()
+            + "\" with connection timeout " + connInfo.getTimeout() + " milliseconds");
+        final var clientConfig = limits.applyTo(ClientOverrideConfiguration.builder()
+                .apiCallTimeout(Duration.ofMillis(connInfo.getTimeout())), SERVICE_NAME, connInfo.getHost()).build();
 
         return TranslateClient.builder()
                 .overrideConfiguration(clientConfig).region(Region.of(connInfo.getHost()))
@@ -124,7 +142,15 @@ public boolean isOpen() {
 
     @Override
     public void close() throws Exception {
-        m_client.close();
+        if (isOpen()) {
+            // The client stays open in the pool for the next node
+            ServiceClientPool.release(m_client);
+            m_client = null;
+        }
+        if (m_registration != null) {
+            m_registration.close();
+            m_registration = null;
+        }
     }
 
     /**
@@ -48,12 +48,20 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.translate;
 
+import javax.swing.JFileChooser;
+
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.core.data.StringValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.DialogComponentStringSelection;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
@@ -82,6 +90,39 @@ protected TranslateNodeDialog() {
             TranslateUtils.getSourceLanguageMap().keySet()));
         addDialogComponent(new DialogComponentStringSelection(m_targetLanguageModel, "Target language:",
             TranslateUtils.getTargetLanguageMap().keySet()));
+
+        createNewGroup("Performance");
+        addDialogComponent(new DialogComponentBoolean(TranslateNodeModel.getSplitSentencesModel(),
+            "Translate sentence by sentence"));
+        addDialogComponent(new DialogComponentNumber(TranslateNodeModel.getConcurrentRequestsModel(),
+            "Concurrent requests:", 1));
+        closeCurrentGroup();
+
+        createNewGroup("Translation memory");
+        final SettingsModelBoolean useMemory = TranslateNodeModel.getUseMemoryModel();
+        final SettingsModelString memoryDirectory = TranslateNodeModel.getMemoryDirectoryModel();
+        final SettingsModelIntegerBounded memorySize = TranslateNodeModel.getMemorySizeModel();
+        useMemory.addChangeListener(e -> {
+            memoryDirectory.setEnabled(useMemory.getBooleanValue());
+            memorySize.setEnabled(useMemory.getBooleanValue());
+        });
+        memoryDirectory.setEnabled(false);
+        memorySize.setEnabled(false);
+        addDialogComponent(new DialogComponentBoolean(useMemory, "Use translation memory"));
+        final DialogComponentFileChooser directoryComp = new DialogComponentFileChooser(memoryDirectory,
+            "translation_memory", JFileChooser.OPEN_DIALOG, true);
+        directoryComp.setBorderTitle("Directory (empty for the workspace)");
+        addDialogComponent(directoryComp);
+        addDialogComponent(new DialogComponentNumber(memorySize, "Maximum size (MB):", 64));
+        closeCurrentGroup();
+
+        createNewGroup("Service limits (shared by all nodes in the region)");
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getRequestsPerSecondModel(),
+            "Requests per second (0: not limited by this node):", 1.0));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxConcurrentModel(),
+            "Requests in flight (0: not limited by this node):", 1));
+        addDialogComponent(new DialogComponentNumber(ServiceLimitSettings.getMaxRetriesModel(), "Maximum retries:", 1));
+        closeCurrentGroup();
     }
 
     /**
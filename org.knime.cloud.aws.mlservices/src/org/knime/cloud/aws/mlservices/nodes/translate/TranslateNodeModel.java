@@ -50,9 +50,12 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 import org.knime.base.filehandling.remote.connectioninformation.port.ConnectionInformation;
 import org.knime.base.filehandling.remote.connectioninformation.port.ConnectionInformationPortObjectSpec;
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendResultCache;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.cloud.aws.util.AmazonConnectionInformationPortObject;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataColumnSpecCreator;
@@ -64,10 +67,13 @@
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
@@ -104,6 +110,21 @@ class TranslateNodeModel extends NodeModel {
     /** Settings name for the target language */
     private static final String CFG_KEY_TARGET_LANG = "target_language";
 
+    /** Settings name for the flag whether texts are translated sentence by sentence */
+    private static final String CFG_KEY_SPLIT_SENTENCES = "split_sentences";
+
+    /** Settings name for the number of concurrent requests */
+    private static final String CFG_KEY_CONCURRENT_REQUESTS = "concurrent_requests";
+
+    /** Settings name for the flag whether translations are stored in the translation memory */
+    private static final String CFG_KEY_USE_MEMORY = "use_translation_memory";
+
+    /** Settings name for the directory of the translation memory */
+    private static final String CFG_KEY_MEMORY_DIRECTORY = "translation_memory_directory";
+
+    /** Settings name for the maximum size of the translation memory in MB */
+    private static final String CFG_KEY_MEMORY_SIZE = "translation_memory_size_mb";
+
     /** Default value for the column name */
     private static final String DEF_COL_NAME = "";
 
@@ -113,6 +134,12 @@ class TranslateNodeModel extends NodeModel {
     /** Default value for the target language */
     private static final String DEF_TARGET_LANGUAGE = "English";
 
+    /** Default number of concurrent requests */
+    private static final int DEF_CONCURRENT_REQUESTS = 4;
+
+    /** Default maximum size of the translation memory in MB */
+    private static final int DEF_MEMORY_SIZE = 512;
+
     /** Index of the connection information port */
     private static final int CNX_PORT_IDX = 0;
 
@@ -137,6 +164,34 @@ static final SettingsModelString getTargetLanguageModel() {
         return new SettingsModelString(CFG_KEY_TARGET_LANG, DEF_TARGET_LANGUAGE);
     }
 
+    /** Method to create a {@link SettingsModelBoolean} storing whether texts are translated sentence by sentence */
+    static final SettingsModelBoolean getSplitSentencesModel() {
+        return new SettingsModelBoolean(CFG_KEY_SPLIT_SENTENCES, true);
+    }
+
+    /** Method to create a {@link SettingsModelIntegerBounded} storing the number of concurrent requests */
+    static final SettingsModelIntegerBounded getConcurrentRequestsModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_CONCURRENT_REQUESTS, DEF_CONCURRENT_REQUESTS, 1, 32);
+    }
+
+    /** Method to create a {@link SettingsModelBoolean} storing whether the translation memory is used */
+    static final SettingsModelBoolean getUseMemoryModel() {
+        return new SettingsModelBoolean(CFG_KEY_USE_MEMORY, false);
+    }
+
+    /**
+     * Method to create a {@link SettingsModelString} storing the directory of the translation memory, empty for the
+     * default directory in the workspace
+     */
+    static final SettingsModelString getMemoryDirectoryModel() {
+        return new SettingsModelString(CFG_KEY_MEMORY_DIRECTORY, "");
+    }
+
+    /** Method to create a {@link SettingsModelIntegerBounded} storing the maximum translation memory size in MB */
+    static final SettingsModelIntegerBounded getMemorySizeModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_MEMORY_SIZE, DEF_MEMORY_SIZE, 1, Integer.MAX_VALUE);
+    }
+
     /** {@link SettingsModelString} storing the name of the text column containing the text to translate */
     private final SettingsModelString m_textColumnName = getTextColModel();
 
@@ -146,6 +201,27 @@ static final SettingsModelString getTargetLanguageModel() {
     /** {@link SettingsModelString} storing the target language to translate the text to */
     private final SettingsModelString m_targetLanguage = getTargetLanguageModel();
 
+    /** {@link SettingsModelBoolean} storing whether texts are translated sentence by sentence */
+    private final SettingsModelBoolean m_splitSentences = getSplitSentencesModel();
+
+    /** {@link SettingsModelIntegerBounded} storing the number of concurrent requests */
+    private final SettingsModelIntegerBounded m_concurrentRequests = getConcurrentRequestsModel();
+
+    /** {@link SettingsModelBoolean} storing whether the translation memory is used */
+    private final SettingsModelBoolean m_useMemory = getUseMemoryModel();
+
+    /** {@link SettingsModelString} storing the directory of the translation memory */
+    private final SettingsModelString m_memoryDirectory = getMemoryDirectoryModel();
+
+    /** {@link SettingsModelIntegerBounded} storing the maximum size of the translation memory in MB */
+    private final SettingsModelIntegerBounded m_memorySize = getMemorySizeModel();
+
+    /** Client-side limits for the requests sent to Amazon Translate */
+    private final ServiceLimitSettings m_serviceLimits = new ServiceLimitSettings();
+
+    /** The translation memory of the current execution, shared by all streaming partitions */
+    private ComprehendResultCache m_memory;
+
     /** Constructor for the node model */
     TranslateNodeModel() {
         // Inputs: connection info, data
@@ -168,10 +244,8 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final BufferedDataTable table = (BufferedDataTable)inObjects[DATA_PORT_IDX];
 
         // Create computation object for the entity operation.
-        final TranslateOperation translateOp = new TranslateOperation(cxnInfo, m_textColumnName.getStringValue(),
-            TranslateUtils.getSourceLanguageMap().getOrDefault(m_sourceLanguage.getStringValue(), "auto"),
-            TranslateUtils.getSourceLanguageMap().getOrDefault(m_targetLanguage.getStringValue(), "en"),
-            createNewDataTableSpec(table.getDataTableSpec()));
+        final TranslateOperation translateOp = createOperation(cxnInfo, table.getDataTableSpec());
+        translateOp.setTranslationMemory(openTranslationMemory());
 
         // Run the operation over the entire input.
         return new BufferedDataTable[]{translateOp.compute(exec, table)};
@@ -204,6 +278,41 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         return new DataTableSpec[]{createNewDataTableSpec(tblSpec)};
     }
 
+    /**
+     * Creates the translate operation for the given input spec.
+     *
+     * @param cxnInfo The connection information
+     * @param inputSpec The input data table spec
+     * @return The configured operation
+     */
+    private TranslateOperation createOperation(final CloudConnectionInformation cxnInfo,
+        final DataTableSpec inputSpec) {
+        final TranslateOperation translateOp = new TranslateOperation(cxnInfo, m_textColumnName.getStringValue(),
+            TranslateUtils.getSourceLanguageMap().getOrDefault(m_sourceLanguage.getStringValue(), "auto"),
+            TranslateUtils.getTargetLanguageMap().getOrDefault(m_targetLanguage.getStringValue(), "en"),
+            createNewDataTableSpec(inputSpec));
+        translateOp.setSplitSentences(m_splitSentences.getBooleanValue());
+        translateOp.setConcurrentRequests(m_concurrentRequests.getIntValue());
+        translateOp.setServiceLimits(m_serviceLimits);
+        return translateOp;
+    }
+
+    /**
+     * Opens the translation memory on first use if it is enabled.
+     *
+     * @return The translation memory or {@code null} if translations are not stored
+     * @throws IOException Thrown if the directory of the translation memory cannot be created or read
+     */
+    private synchronized ComprehendResultCache openTranslationMemory() throws IOException {
+        if (m_memory == null && m_useMemory.getBooleanValue()) {
+            final String dir = m_memoryDirectory.getStringValue().trim();
+            m_memory = new ComprehendResultCache(
+                dir.isEmpty() ? Paths.get(KNIMEConstants.getKNIMEHomeDir(), "translation-memory") : Paths.get(dir),
+                m_memorySize.getIntValue() * 1024L * 1024L);
+        }
+        return m_memory;
+    }
+
     /**
      * Creates the new data table spec based on the input data table spec.
      *
@@ -239,10 +348,7 @@ public StreamableOperator createStreamableOperator(final PartitionInfo partition
         final DataTableSpec dataSpec = (DataTableSpec)inSpecs[DATA_PORT_IDX];
         final ConnectionInformationPortObjectSpec cnxSpec = (ConnectionInformationPortObjectSpec)inSpecs[CNX_PORT_IDX];
         final CloudConnectionInformation cxnInfo = (CloudConnectionInformation)cnxSpec.getConnectionInformation();
-        final TranslateOperation translateOp = new TranslateOperation(cxnInfo, m_textColumnName.getStringValue(),
-            TranslateUtils.getTargetLanguageMap().getOrDefault(m_sourceLanguage.getStringValue(), "auto"),
-            TranslateUtils.getSourceLanguageMap().getOrDefault(m_targetLanguage.getStringValue(), "en"),
-            createNewDataTableSpec(dataSpec));
+        final TranslateOperation translateOp = createOperation(cxnInfo, dataSpec);
 
         return new StreamableOperator() {
 
@@ -251,6 +357,7 @@ public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final
                 throws Exception {
                 RowInput input = (RowInput)inputs[1];
                 RowOutput output = (RowOutput)outputs[0];
+                translateOp.setTranslationMemory(openTranslationMemory());
                 translateOp.compute(input, output, exec, 0L);
                 input.close();
                 output.close();
@@ -273,7 +380,12 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_textColumnName.saveSettingsTo(settings);
         m_sourceLanguage.saveSettingsTo(settings);
         m_targetLanguage.saveSettingsTo(settings);
-
+        m_splitSentences.saveSettingsTo(settings);
+        m_concurrentRequests.saveSettingsTo(settings);
+        m_useMemory.saveSettingsTo(settings);
+        m_memoryDirectory.saveSettingsTo(settings);
+        m_memorySize.saveSettingsTo(settings);
+        m_serviceLimits.saveSettingsTo(settings);
     }
 
     @Override
@@ -281,6 +393,19 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
         m_textColumnName.loadSettingsFrom(settings);
         m_sourceLanguage.loadSettingsFrom(settings);
         m_targetLanguage.loadSettingsFrom(settings);
+        // Added later, older workflows translate whole texts one at a time without translation memory
+        if (settings.containsKey(CFG_KEY_SPLIT_SENTENCES)) {
+            m_splitSentences.loadSettingsFrom(settings);
+            m_concurrentRequests.loadSettingsFrom(settings);
+            m_useMemory.loadSettingsFrom(settings);
+            m_memoryDirectory.loadSettingsFrom(settings);
+            m_memorySize.loadSettingsFrom(settings);
+        } else {
+            m_splitSentences.setBooleanValue(false);
+            m_concurrentRequests.setIntValue(1);
+            m_useMemory.setBooleanValue(false);
+        }
+        m_serviceLimits.loadSettingsFrom(settings);
     }
 
     @Override
@@ -288,6 +413,14 @@ protected void validateSettings(final NodeSettingsRO settings) throws InvalidSet
         m_textColumnName.validateSettings(settings);
         m_sourceLanguage.validateSettings(settings);
         m_targetLanguage.validateSettings(settings);
+        if (settings.containsKey(CFG_KEY_SPLIT_SENTENCES)) {
+            m_splitSentences.validateSettings(settings);
+            m_concurrentRequests.validateSettings(settings);
+            m_useMemory.validateSettings(settings);
+            m_memoryDirectory.validateSettings(settings);
+            m_memorySize.validateSettings(settings);
+        }
+        m_serviceLimits.validateSettings(settings);
     }
 
     @Override
@@ -303,7 +436,7 @@ protected void saveInternals(final File internDir, final ExecutionMonitor exec)
     }
 
     @Override
-    protected void reset() {
-        // Nothing to do here...
+    protected synchronized void reset() {
+        m_memory = null;
     }
 }
@@ -48,13 +48,33 @@
  */
 package org.knime.cloud.aws.mlservices.nodes.translate;
 
+import java.text.BreakIterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import org.knime.cloud.aws.mlservices.utils.comprehend.ComprehendResultCache;
+import org.knime.cloud.aws.mlservices.utils.connection.ServiceLimitSettings;
 import org.knime.cloud.core.util.port.CloudConnectionInformation;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.StringValue;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataContainer;
@@ -72,12 +92,20 @@
 import software.amazon.awssdk.services.translate.model.TranslateTextResponse;
 
 /**
- * Class to provide functionality to translate the text of a column from one language to another
+ * Class to provide functionality to translate the text of a column from one language to another. The texts are
+ * optionally split into sentences, and each distinct text or sentence is only translated once. Translations are
+ * requested concurrently and can be stored in a persistent translation memory.
  *
  * @author Jim Falgout, KNIME AG, Zurich, Switzerland
  */
 class TranslateOperation {
 
+    /** Number of recently translated texts that are reused without asking the translation memory or the service. */
+    private static final int MAX_RECENT_TRANSLATIONS = 10000;
+
+    /** Number of rows waiting for their translations per concurrent request. */
+    private static final int ROWS_PER_REQUEST = 25;
+
     /** AWS connection information. */
     private final CloudConnectionInformation m_cxnInfo;
 
@@ -93,6 +121,18 @@ class TranslateOperation {
     /** The output table specification. */
     private final DataTableSpec m_outputSpec;
 
+    /** Whether the texts are translated sentence by sentence. */
+    private boolean m_splitSentences;
+
+    /** Maximum number of translation requests sent at the same time. */
+    private int m_concurrentRequests = 1;
+
+    /** The translation memory, {@code null} if translations are not stored. */
+    private ComprehendResultCache m_memory;
+
+    /** Client-side limits for the requests sent to the service. */
+    private ServiceLimitSettings m_serviceLimits = new ServiceLimitSettings();
+
     /**
      * Creates a new {@code TranslateOperation} instance.
      *
@@ -111,6 +151,34 @@ class TranslateOperation {
         this.m_outputSpec = outputSpec;
     }
 
+    /**
+     * @param splitSentences whether the texts are translated sentence by sentence
+     */
+    void setSplitSentences(final boolean splitSentences) {
+        m_splitSentences = splitSentences;
+    }
+
+    /**
+     * @param concurrentRequests the maximum number of translation requests sent at the same time
+     */
+    void setConcurrentRequests(final int concurrentRequests) {
+        m_concurrentRequests = Math.max(1, concurrentRequests);
+    }
+
+    /**
+     * @param limits the client-side limits applied to the shared limiter of the service when the connection is opened
+     */
+    void setServiceLimits(final ServiceLimitSettings limits) {
+        m_serviceLimits = limits;
+    }
+
+    /**
+     * @param memory the translation memory, {@code null} if translations are not stored
+     */
+    void setTranslationMemory(final ComprehendResultCache memory) {
+        m_memory = memory;
+    }
+
     /**
      * Compute method for a buffered data table. Used when streaming is not enabled.
      *
@@ -148,51 +216,184 @@ void compute(final RowInput in, final RowOutput out, final ExecutionContext exec
         throws Exception {
 
         // Create a connection to the Translate service in the provided region
-        final TranslateConnection conn = new TranslateConnection(m_cxnInfo);
+        final TranslateConnection conn = new TranslateConnection(m_cxnInfo, m_serviceLimits);
         final TranslateClient translate = conn.getClient();
 
         int textColumnIdx = in.getDataTableSpec().findColumnIndex(m_textColumnName);
         long rowCounter = 0;
 
-        // For each input row, grab the text column, make the call to Translate
-        // and push the input plus the translation to the output.
-        DataRow inputRow = null;
-        while ((inputRow = in.poll()) != null) {
-            // Check for cancel and update the row progress
-            ++rowCounter;
-            exec.checkCanceled();
-            if (rowCount > 0) {
-                exec.setProgress(rowCounter / (double)rowCount, "Processing row " + rowCounter + " of " + rowCount);
+        // Translations of recent texts, identical texts share the same request
+        final Map<String, Future<String>> translations =
+            new LinkedHashMap<String, Future<String>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Future<String>> eldest) {
+                    return size() > MAX_RECENT_TRANSLATIONS;
+                }
+            };
+        final Deque<PendingRow> pending = new ArrayDeque<>();
+        final int maxPending = m_concurrentRequests * ROWS_PER_REQUEST;
+        final ExecutorService pool = Executors.newFixedThreadPool(m_concurrentRequests);
+        try {
+            // For each input row, grab the text column, request the translation of each part of the text
+            // and push the input plus the translation to the output once all parts are translated.
+            DataRow inputRow = null;
+            while ((inputRow = in.poll()) != null) {
+                // Check for cancel and update the row progress
+                ++rowCounter;
+                exec.checkCanceled();
+                if (rowCount > 0) {
+                    exec.setProgress(rowCounter / (double)rowCount,
+                        "Processing row " + rowCounter + " of " + rowCount);
+                }
+
+                final DataCell cell = inputRow.getCell(textColumnIdx);
+                final PendingRow row = new PendingRow(inputRow, !cell.isMissing());
+                if (!cell.isMissing()) {
+                    for (final String segment : split(getText(cell))) {
+                        row.addSegment(segment,
+                            text -> translations.computeIfAbsent(text, t -> requestTranslation(translate, t, pool)));
+                    }
+                }
+                pending.add(row);
+                // Rows are pushed in input order, wait for the oldest row once enough translations are in flight
+                while (pending.size() > maxPending) {
+                    out.push(pending.poll().createRow(exec));
+                }
+            }
+            while (!pending.isEmpty()) {
+                out.push(pending.poll().createRow(exec));
+            }
+        } finally {
+            // Cancels the translations still in flight if the execution failed or was canceled
+            pool.shutdownNow();
+            conn.close();
+        }
+    }
+
+    /**
+     * Returns the translation of a text from the translation memory or requests it from the service.
+     */
+    private Future<String> requestTranslation(final TranslateClient translate, final String text,
+        final ExecutorService pool) {
+        final String key = ComprehendResultCache.createKey("translate", m_sourceLangCode + ">" + m_targetLangCode,
+            text);
+        if (m_memory != null) {
+            final List<DataCell[]> cached = m_memory.get(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(((StringValue)cached.get(0)[0]).getStringValue());
             }
+        }
+        return pool.submit(() -> {
+            final TranslateTextRequest request = TranslateTextRequest.builder().text(text)
+                .sourceLanguageCode(m_sourceLangCode).targetLanguageCode(m_targetLangCode).build();
+
+            final TranslateTextResponse result = translate.translateText(request);
+            final String translatedText = result.translatedText();
+            if (m_memory != null) {
+                m_memory.put(key, Collections.singletonList(new DataCell[]{new StringCell(translatedText)}));
+            }
+            return translatedText;
+        });
+    }
+
+    /**
+     * Splits the text into the parts that are translated separately. If texts are not split into sentences, the
+     * whole text is one part.
+     */
+    private List<String> split(final String text) {
+        if (!m_splitSentences) {
+            return Collections.singletonList(text);
+        }
+        final BreakIterator it = BreakIterator.getSentenceInstance(
+            "auto".equals(m_sourceLangCode) ? Locale.ROOT : Locale.forLanguageTag(m_sourceLangCode));
+        it.setText(text);
+        final List<String> sentences = new ArrayList<>();
+        int start = it.first();
+        for (int end = it.next(); end != BreakIterator.DONE; start = end, end = it.next()) {
+            sentences.add(text.substring(start, end));
+        }
+        return sentences;
+    }
 
-            // Grab the text to evaluate
-            String textValue = null;
-            final DataCell cell = inputRow.getCell(textColumnIdx);
+    private static String getText(final DataCell cell) {
+        if (cell.getType().isCompatible(DocumentValue.class)) {
+            final Document doc = ((DocumentValue)cell).getDocument();
+            return doc.getTitle() + " " + doc.getDocumentBodyText();
+        }
+        return cell.toString();
+    }
+
+    /**
+     * An input row waiting for the translations of its parts.
+     */
+    private final class PendingRow {
+
+        private final DataRow m_row;
+
+        /** Whether the text cell is not missing. */
+        private final boolean m_hasText;
+
+        /** Whitespace in front of each part, it is not sent to the service. */
+        private final List<String> m_prefixes = new ArrayList<>();
+
+        private final List<Future<String>> m_translations = new ArrayList<>();
+
+        /** Whitespace after each part, it is not sent to the service. */
+        private final List<String> m_suffixes = new ArrayList<>();
+
+        PendingRow(final DataRow row, final boolean hasText) {
+            m_row = row;
+            m_hasText = hasText;
+        }
+
+        void addSegment(final String segment, final Function<String, Future<String>> translator) {
+            int begin = 0;
+            int end = segment.length();
+            while (begin < end && Character.isWhitespace(segment.charAt(begin))) {
+                begin++;
+            }
+            while (end > begin && Character.isWhitespace(segment.charAt(end - 1))) {
+                end--;
+            }
+            m_prefixes.add(segment.substring(0, begin));
+            m_suffixes.add(segment.substring(end));
+            m_translations.add(begin == end ? CompletableFuture.completedFuture("")
+                : translator.apply(segment.substring(begin, end)));
+        }
+
+        DataRow createRow(final ExecutionContext exec) throws Exception {
             // Create cells containing the output data.
             // Copy the input data to the output
-            final int numInputColumns = inputRow.getNumCells();
-            DataCell[] cells =
+            final int numInputColumns = m_row.getNumCells();
+            final DataCell[] cells =
                 Stream.generate(DataType::getMissingCell).limit(numInputColumns + 1).toArray(DataCell[]::new);
             for (int i = 0; i < numInputColumns; i++) {
-                cells[i] = inputRow.getCell(i);
+                cells[i] = m_row.getCell(i);
             }
-            if (!cell.isMissing()) {
-                if (cell.getType().isCompatible(DocumentValue.class)) {
-                    final Document doc = ((DocumentValue)cell).getDocument();
-                    textValue = doc.getTitle() + " " + doc.getDocumentBodyText();
-                } else {
-                    textValue = cell.toString();
+            if (m_hasText) {
+                final StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < m_translations.size(); i++) {
+                    sb.append(m_prefixes.get(i)).append(await(m_translations.get(i), exec)).append(m_suffixes.get(i));
                 }
-                final TranslateTextRequest request = TranslateTextRequest.builder().text(textValue)
-                    .sourceLanguageCode(m_sourceLangCode).targetLanguageCode(m_targetLangCode).build();
-
-                final TranslateTextResponse result = translate.translateText(request);
-                cells[numInputColumns] = new StringCell(result.translatedText());
+                cells[numInputColumns] = new StringCell(sb.toString());
             }
-            // Create a new data row and push it to the output container.
-            out.push(new DefaultRow(inputRow.getKey(), cells));
+            return new DefaultRow(m_row.getKey(), cells);
         }
+    }
 
+    private static String await(final Future<String> future, final ExecutionContext exec) throws Exception {
+        while (true) {
+            exec.checkCanceled();
+            try {
+                return future.get(100, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) { // NOSONAR keep waiting until the translation is done
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception)cause : e;
+            }
+        }
     }
 
 }
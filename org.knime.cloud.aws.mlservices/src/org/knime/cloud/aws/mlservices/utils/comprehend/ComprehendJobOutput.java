@@ -0,0 +1,305 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads and writes the output of asynchronous Amazon Comprehend jobs. The output is a gzipped tar archive with one JSON
+ * object per line and input document. Each object contains the {@value #FILE} and {@value #LINE} of the document and
+ * either the results of the job or an {@value #ERROR_CODE} and {@value #ERROR_MESSAGE}.
+ *
+ * @author agent
+ */
+public final class ComprehendJobOutput {
+
+    /** Name of the field with the name of the input file. */
+    public static final String FILE = "File";
+
+    /** Name of the field with the zero-based line of the document in the input file. */
+    public static final String LINE = "Line";
+
+    /** Name of the field with the error code if the document could not be processed. */
+    public static final String ERROR_CODE = "ErrorCode";
+
+    /** Name of the field with the error message if the document could not be processed. */
+    public static final String ERROR_MESSAGE = "ErrorMessage";
+
+    /** Size of the header and data blocks of a tar archive. */
+    private static final int BLOCK_SIZE = 512;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ComprehendJobOutput() {
+        // utility class
+    }
+
+    /**
+     * Consumes the results of a job.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+
+        /**
+         * Consumes the result of one document.
+         *
+         * @param result the JSON object of the document
+         * @throws Exception thrown if the result could not be consumed
+         */
+        void accept(JsonNode result) throws Exception;
+    }
+
+    /**
+     * Reads the JSON objects of all files in the given archive.
+     *
+     * @param archive the gzipped tar archive, not closed by this method
+     * @param consumer the consumer of the results
+     * @throws Exception thrown if the archive could not be read or the consumer failed
+     */
+    @SuppressWarnings("resource")
+    public static void read(final InputStream archive, final ResultConsumer consumer) throws Exception {
+        final InputStream in = new GZIPInputStream(archive);
+        final byte[] header = new byte[BLOCK_SIZE];
+        while (readBlock(in, header)) {
+            final long size = parseSize(header);
+            // Regular files only, the service does not write links or directories with content
+            final byte type = header[156];
+            final InputStream entry = new EntryInputStream(in, size);
+            if (type == '0' || type == 0) {
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(entry, StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        consumer.accept(MAPPER.readTree(line));
+                    }
+                }
+            }
+            skipFully(entry, size);
+            skipFully(in, padding(size));
+        }
+    }
+
+    /**
+     * Writes a gzipped tar archive with a single file in the format of the service.
+     *
+     * @param out the stream to write the archive to, not closed by this method
+     * @param name the name of the file in the archive
+     * @param content the file with one JSON object per line
+     * @throws IOException thrown if the archive could not be written
+     */
+    public static void write(final OutputStream out, final String name, final Path content) throws IOException {
+        final long size = Files.size(content);
+        final GZIPOutputStream gzip = new GZIPOutputStream(out);
+        final byte[] header = new byte[BLOCK_SIZE];
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, System.currentTimeMillis() / 1000);
+        header[156] = '0';
+        System.arraycopy("ustar\00000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        // The checksum is computed with the checksum field filled with spaces
+        Arrays.fill(header, 148, 156, (byte)' ');
+        long checksum = 0;
+        for (final byte b : header) {
+            checksum += b & 0xFF;
+        }
+        putOctal(header, 148, 7, checksum);
+        gzip.write(header);
+        Files.copy(content, gzip);
+        gzip.write(new byte[(int)padding(size)]);
+        // Two empty blocks mark the end of the archive
+        gzip.write(new byte[2 * BLOCK_SIZE]);
+        gzip.finish();
+    }
+
+    /** Reads the next header block, returns {@code false} at the end of the archive. */
+    private static boolean readBlock(final InputStream in, final byte[] block) throws IOException {
+        int read = 0;
+        while (read < block.length) {
+            final int n = in.read(block, read, block.length - read);
+            if (n < 0) {
+                if (read == 0) {
+                    return false;
+                }
+                throw new EOFException("Truncated job output archive.");
+            }
+            read += n;
+        }
+        for (final byte b : block) {
+            if (b != 0) {
+                return true;
+            }
+        }
+        // An empty block marks the end of the archive
+        return false;
+    }
+
+    private static long parseSize(final byte[] header) {
+        if ((header[124] & 0x80) != 0) {
+            // Base-256 encoding of files larger than 8 GB
+            long size = 0;
+            for (int i = 125; i < 136; i++) {
+                size = (size << 8) | (header[i] & 0xFF);
+            }
+            return size;
+        }
+        long size = 0;
+        for (int i = 124; i < 136; i++) {
+            final byte b = header[i];
+            if (b >= '0' && b <= '7') {
+                size = size * 8 + (b - '0');
+            } else if (size > 0 || b == 0) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    private static void putOctal(final byte[] header, final int offset, final int length, final long value) {
+        final String octal = Long.toOctalString(value);
+        final int digits = length - 1;
+        final StringBuilder sb = new StringBuilder(digits);
+        for (int i = octal.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        sb.append(octal);
+        System.arraycopy(sb.toString().getBytes(StandardCharsets.US_ASCII), 0, header, offset, digits);
+        header[offset + digits] = 0;
+    }
+
+    private static long padding(final long size) {
+        return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+    }
+
+    private static void skipFully(final InputStream in, final long bytes) throws IOException {
+        long remaining = bytes;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (in.read() >= 0) {
+                remaining--;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The content of one file of the archive, leaves the archive stream open.
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+
+        private long m_remaining;
+
+        EntryInputStream(final InputStream in, final long size) {
+            super(in);
+            m_remaining = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (m_remaining <= 0) {
+                return -1;
+            }
+            final int b = super.read();
+            if (b >= 0) {
+                m_remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (m_remaining <= 0) {
+                return -1;
+            }
+            final int n = super.read(b, off, (int)Math.min(len, m_remaining));
+            if (n > 0) {
+                m_remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, m_remaining));
+            m_remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int)Math.min(super.available(), m_remaining);
+        }
+
+        @Override
+        public void close() {
+            // the archive stream is closed by the caller
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Stages the input files of asynchronous Amazon Comprehend jobs, runs the jobs and provides their output. The input
+ * files contain one document per line, the output is a gzipped tar archive of JSON lines as written by the service,
+ * see {@link ComprehendJobOutput}. Closing the service removes all staged input and output files.
+ *
+ * @author agent
+ */
+public interface ComprehendJobService extends AutoCloseable {
+
+    /**
+     * The types of asynchronous jobs.
+     */
+    enum JobType {
+            /** Detects the sentiment of each document. */
+            SENTIMENT,
+            /** Detects the key phrases of each document. */
+            KEY_PHRASES,
+            /** Detects the dominant languages of each document. */
+            DOMINANT_LANGUAGE
+    }
+
+    /**
+     * Makes the given local file available as input of a job.
+     *
+     * @param file the input file with one document per line
+     * @param exec execution context used for the progress of the upload
+     * @return the location of the staged file, passed to {@link #startJob(JobType, String, String)}
+     * @throws Exception thrown if the file could not be staged
+     */
+    String stageInput(Path file, ExecutionContext exec) throws Exception;
+
+    /**
+     * Starts a job on a staged input file.
+     *
+     * @param type the type of the job
+     * @param inputLocation the location of the staged input file
+     * @param languageCode the language of the documents, ignored by jobs detecting the language
+     * @return the id of the job
+     * @throws Exception thrown if the job could not be started
+     */
+    String startJob(JobType type, String inputLocation, String languageCode) throws Exception;
+
+    /**
+     * Checks whether a job is done.
+     *
+     * @param type the type of the job
+     * @param jobId the id of the job
+     * @return {@code true} if the output of the job is available, {@code false} if the job is still running
+     * @throws IllegalStateException thrown if the job failed or was stopped
+     * @throws Exception thrown if the status could not be retrieved
+     */
+    boolean isJobCompleted(JobType type, String jobId) throws Exception;
+
+    /**
+     * Stops a running job, e.g. if the execution was canceled.
+     *
+     * @param type the type of the job
+     * @param jobId the id of the job
+     * @throws Exception thrown if the job could not be stopped
+     */
+    void stopJob(JobType type, String jobId) throws Exception;
+
+    /**
+     * Opens the output archive of a completed job.
+     *
+     * @param type the type of the job
+     * @param jobId the id of the job
+     * @return the stream of the gzipped tar archive, to be closed by the caller
+     * @throws Exception thrown if the output could not be opened
+     */
+    InputStream openJobOutput(JobType type, String jobId) throws Exception;
+
+}
@@ -0,0 +1,275 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Disk-backed cache for the results of Comprehend requests. The entries are keyed by the SHA-256 hash of the
+ * operation, language and text and appended to a few segment files in the cache directory, so the cache can be shared
+ * between nodes and workflows. When the files grow beyond the size limit, the oldest entries are removed in the
+ * background, entries that are still used are kept.
+ *
+ * @author agent
+ */
+public final class ComprehendResultCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ComprehendResultCache.class);
+
+    /** Version of the entry format, part of each key so old entries are never read with a new format. */
+    private static final String FORMAT_VERSION = "1";
+
+    private static final byte TYPE_MISSING = 0;
+
+    private static final byte TYPE_STRING = 1;
+
+    private static final byte TYPE_DOUBLE = 2;
+
+    private static final byte TYPE_INT = 3;
+
+    private final ResultLogStore m_store;
+
+    private final AtomicLong m_lookups = new AtomicLong();
+
+    private final AtomicLong m_hits = new AtomicLong();
+
+    /**
+     * Opens the cache in the given directory, which is created if it does not exist.
+     *
+     * @param directory the cache directory
+     * @param maxSize the maximum size of the cache files in bytes
+     * @throws IOException if the directory cannot be created or read
+     */
+    public ComprehendResultCache(final Path directory, final long maxSize) throws IOException {
+        this(ResultLogStore.getInstance(directory, maxSize));
+    }
+
+    /**
+     * @param store the store of the entries
+     */
+    ComprehendResultCache(final ResultLogStore store) {
+        m_store = store;
+    }
+
+    /**
+     * Creates the key of a cache entry.
+     *
+     * @param operation the name of the operation, e.g. {@code sentiment}
+     * @param languageCode the language code sent with the request, may be empty
+     * @param text the text sent to the service
+     * @return the hex encoded SHA-256 hash of the operation, language and text
+     */
+    public static String createKey(final String operation, final String languageCode, final String text) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((FORMAT_VERSION + '\n' + operation + '\n' + languageCode + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+            final byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (final byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the cached result for the given key.
+     *
+     * @param key the key created by {@link #createKey(String, String, String)}
+     * @return the cached output cells, one array per output row, or {@code null} if there is no entry
+     */
+    public List<DataCell[]> get(final String key) {
+        m_lookups.incrementAndGet();
+        final byte[] bytes = m_store.get(toBytes(key));
+        if (bytes == null) {
+            return null;
+        }
+        final List<DataCell[]> result;
+        try {
+            result = decode(bytes);
+        } catch (IOException e) {
+            LOGGER.debug("Could not read cache entry " + key + ": " + e.getMessage(), e);
+            return null;
+        }
+        m_hits.incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Stores the result for the given key. Failures are logged and otherwise ignored, the cache is only an
+     * optimization.
+     *
+     * @param key the key created by {@link #createKey(String, String, String)}
+     * @param cells the output cells, one array per output row
+     */
+    public void put(final String key, final List<DataCell[]> cells) {
+        try {
+            m_store.put(toBytes(key), encode(cells));
+        } catch (IOException e) {
+            LOGGER.debug("Could not write cache entry " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the number of lookups since the cache was opened
+     */
+    public long getLookups() {
+        return m_lookups.get();
+    }
+
+    /**
+     * @return the number of lookups that found an entry since the cache was opened
+     */
+    public long getHits() {
+        return m_hits.get();
+    }
+
+    /**
+     * @return the fraction of lookups that found an entry, 0 if there were no lookups
+     */
+    public double getHitRate() {
+        final long lookups = m_lookups.get();
+        return lookups == 0 ? 0 : m_hits.get() / (double)lookups;
+    }
+
+    private static byte[] toBytes(final String key) {
+        final byte[] bytes = new byte[key.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            final int high = Character.digit(key.charAt(2 * i), 16);
+            bytes[i] = (byte)((high << 4) | Character.digit(key.charAt(2 * i + 1), 16));
+        }
+        return bytes;
+    }
+
+    private static byte[] encode(final List<DataCell[]> rows) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(rows.size());
+            for (final DataCell[] cells : rows) {
+                out.writeInt(cells.length);
+                for (final DataCell cell : cells) {
+                    if (cell.isMissing()) {
+                        out.writeByte(TYPE_MISSING);
+                    } else if (cell instanceof IntCell) {
+                        out.writeByte(TYPE_INT);
+                        out.writeInt(((IntValue)cell).getIntValue());
+                    } else if (cell instanceof DoubleCell) {
+                        out.writeByte(TYPE_DOUBLE);
+                        out.writeDouble(((DoubleValue)cell).getDoubleValue());
+                    } else if (cell instanceof StringCell) {
+                        out.writeByte(TYPE_STRING);
+                        final byte[] value = ((StringCell)cell).getStringValue().getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(value.length);
+                        out.write(value);
+                    } else {
+                        throw new IOException("Unsupported cell type: " + cell.getType());
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<DataCell[]> decode(final byte[] bytes) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final int numRows = in.readInt();
+            final List<DataCell[]> rows = new ArrayList<>(numRows);
+            for (int i = 0; i < numRows; i++) {
+                final DataCell[] cells = new DataCell[in.readInt()];
+                for (int j = 0; j < cells.length; j++) {
+                    final byte type = in.readByte();
+                    switch (type) {
+                        case TYPE_MISSING:
+                            cells[j] = DataType.getMissingCell();
+                            break;
+                        case TYPE_INT:
+                            cells[j] = new IntCell(in.readInt());
+                            break;
+                        case TYPE_DOUBLE:
+                            cells[j] = new DoubleCell(in.readDouble());
+                            break;
+                        case TYPE_STRING:
+                            final byte[] value = new byte[in.readInt()];
+                            in.readFully(value);
+                            cells[j] = new StringCell(new String(value, StandardCharsets.UTF_8));
+                            break;
+                        default:
+                            throw new IOException("Unknown cell type " + type);
+                    }
+                }
+                rows.add(cells);
+            }
+            return rows;
+        }
+    }
+}
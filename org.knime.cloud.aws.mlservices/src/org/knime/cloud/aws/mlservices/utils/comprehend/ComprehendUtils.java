@@ -48,10 +48,18 @@
  */
 package org.knime.cloud.aws.mlservices.utils.comprehend;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
@@ -72,6 +80,30 @@ private ComprehendUtils() {
     /** Settings name for the source language. */
     private static final String CFG_KEY_SOURCE_LANG = "source_language";
 
+    /** Settings name for the number of concurrent requests. */
+    public static final String CFG_KEY_CONCURRENT_REQUESTS = "concurrent_requests";
+
+    /** Settings name for the flag whether results are cached. */
+    public static final String CFG_KEY_USE_CACHE = "use_result_cache";
+
+    /** Settings name for the directory of the result cache. */
+    public static final String CFG_KEY_CACHE_DIRECTORY = "result_cache_directory";
+
+    /** Settings name for the maximum size of the result cache in MB. */
+    public static final String CFG_KEY_CACHE_SIZE = "result_cache_size_mb";
+
+    /** Settings name for the flag whether the texts are processed by an asynchronous job. */
+    public static final String CFG_KEY_RUN_AS_JOB = "run_as_job";
+
+    /** Settings name for the S3 folder the files of asynchronous jobs are staged in. */
+    public static final String CFG_KEY_JOB_FOLDER = "job_staging_folder";
+
+    /** Settings name for the ARN of the IAM role that grants Amazon Comprehend access to the staging folder. */
+    public static final String CFG_KEY_JOB_ROLE_ARN = "job_data_access_role_arn";
+
+    /** Default maximum size of the result cache in MB. */
+    private static final int DEF_CACHE_SIZE = 512;
+
     /** Default text column. */
     private static final String DEF_TEXT_COL = "";
 
@@ -81,6 +113,15 @@ private ComprehendUtils() {
     /** Batch size used by Comprehend nodes running in batch mode. */
     public static final int BATCH_SIZE = 25;
 
+    /** Maximum size of one text sent to Comprehend in UTF-8 bytes, longer texts are split into chunks. */
+    public static final int MAX_TEXT_BYTES = 5000;
+
+    /** Default number of batch requests sent to the service at the same time. */
+    public static final int DEF_CONCURRENT_REQUESTS = 4;
+
+    /** Maximum number of batch requests sent to the service at the same time. */
+    public static final int MAX_CONCURRENT_REQUESTS = 32;
+
     /**
      * Creates and returns a new instance of {@link SettingsModelString} storing the name of the text column
      *
@@ -99,6 +140,113 @@ public static final SettingsModelString getSourceLanguageModel() {
         return new SettingsModelString(ComprehendUtils.CFG_KEY_SOURCE_LANG, DEF_SOURCE_LANG);
     }
 
+    /**
+     * Creates and returns a new instance of {@link SettingsModelIntegerBounded} storing the number of concurrent
+     * requests
+     *
+     * @return Returns a new instance of {@link SettingsModelIntegerBounded} storing the number of concurrent requests
+     */
+    public static final SettingsModelIntegerBounded getConcurrentRequestsModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_CONCURRENT_REQUESTS, DEF_CONCURRENT_REQUESTS, 1,
+            MAX_CONCURRENT_REQUESTS);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelBoolean} storing whether results are cached
+     *
+     * @return Returns a new instance of {@link SettingsModelBoolean} storing whether results are cached
+     */
+    public static final SettingsModelBoolean getUseCacheModel() {
+        return new SettingsModelBoolean(CFG_KEY_USE_CACHE, false);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelString} storing the directory of the result cache.
+     * An empty directory stands for the default cache directory in the workspace.
+     *
+     * @return Returns a new instance of {@link SettingsModelString} storing the directory of the result cache
+     */
+    public static final SettingsModelString getCacheDirectoryModel() {
+        return new SettingsModelString(CFG_KEY_CACHE_DIRECTORY, "");
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum size of the result
+     * cache in MB
+     *
+     * @return Returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum cache size in MB
+     */
+    public static final SettingsModelIntegerBounded getCacheSizeModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_CACHE_SIZE, DEF_CACHE_SIZE, 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelBoolean} storing whether the texts are processed by an
+     * asynchronous job
+     *
+     * @return Returns a new instance of {@link SettingsModelBoolean} storing whether the texts are processed by a job
+     */
+    public static final SettingsModelBoolean getRunAsJobModel() {
+        return new SettingsModelBoolean(CFG_KEY_RUN_AS_JOB, false);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelString} storing the S3 folder the files of
+     * asynchronous jobs are staged in, in the form /bucket/folder/
+     *
+     * @return Returns a new instance of {@link SettingsModelString} storing the staging folder of jobs
+     */
+    public static final SettingsModelString getJobFolderModel() {
+        return new SettingsModelString(CFG_KEY_JOB_FOLDER, "");
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelString} storing the ARN of the IAM role that grants
+     * Amazon Comprehend access to the staging folder
+     *
+     * @return Returns a new instance of {@link SettingsModelString} storing the data access role ARN of jobs
+     */
+    public static final SettingsModelString getJobRoleArnModel() {
+        return new SettingsModelString(CFG_KEY_JOB_ROLE_ARN, "");
+    }
+
+    /**
+     * Returns the directory of the result cache.
+     *
+     * @param directory the configured directory, empty for the default directory in the workspace
+     * @return the directory of the result cache
+     */
+    public static final Path getCacheDirectory(final String directory) {
+        if (directory == null || directory.trim().isEmpty()) {
+            return Paths.get(KNIMEConstants.getKNIMEHomeDir(), "comprehend-cache");
+        }
+        return Paths.get(directory.trim());
+    }
+
+    /** Source language that stands for detecting the language of each text. */
+    public static final String AUTO_LANGUAGE = "Automatic";
+
+    /** Language code of texts whose language is detected, used in cache keys. */
+    public static final String AUTO_LANGUAGE_CODE = "auto";
+
+    /** Detected languages that are processed by the sentiment and key phrase detection. */
+    public static final Set<String> AUTO_LANGUAGE_CODES = Collections.unmodifiableSet(new HashSet<>(
+        Arrays.asList("en", "es", "fr", "de", "it", "pt", "ar", "hi", "ja", "ko", "zh", "zh-TW")));
+
+    /**
+     * Returns the language code of the given source language.
+     *
+     * @param sourceLanguage the displayable name of the language or {@link #AUTO_LANGUAGE}
+     * @return the language code, {@link #AUTO_LANGUAGE_CODE} if the language is detected, English if the language is
+     *         unknown
+     */
+    public static final String getLanguageCode(final String sourceLanguage) {
+        if (AUTO_LANGUAGE.equals(sourceLanguage)) {
+            return AUTO_LANGUAGE_CODE;
+        }
+        return LANG_MAP.getOrDefault(sourceLanguage, "en");
+    }
+
     /** Map displayable language name to language code */
     public static final Map<String, String> LANG_MAP;
     static {
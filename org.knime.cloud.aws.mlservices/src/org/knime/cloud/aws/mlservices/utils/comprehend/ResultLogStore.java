@@ -0,0 +1,639 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Key-value store of a {@link ComprehendResultCache} that appends its entries to a few large segment files instead of
+ * writing one file per entry. A compact index in memory maps the first eight bytes of each key to the position of its
+ * latest entry. When the segment files together exceed the size limit, the oldest segment is deleted as a whole by a
+ * background thread. Entries that are read from the oldest segments are appended again, so results that are still
+ * used survive the eviction. The index is rebuilt in the background when a directory is opened, lookups miss until
+ * the entries of a segment are indexed.
+ * <p>
+ * All caches using the same directory in this JVM share one store. A lock file keeps other processes from writing to
+ * the directory at the same time, such a process does not cache results.
+ * </p>
+ *
+ * @author agent
+ */
+final class ResultLogStore {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ResultLogStore.class);
+
+    /** The open stores by their normalized directory. */
+    private static final Map<Path, ResultLogStore> STORES = new HashMap<>();
+
+    private static final String LOCK_FILE = "cache.lock";
+
+    /** Subdirectories of the former layout, which stored each entry in its own file. */
+    private static final Pattern LEGACY_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+
+    private static final Pattern LEGACY_ENTRY = Pattern.compile("[0-9a-f]{64}(.*\\.tmp)?");
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    private static final int SEGMENT_MAGIC = 0x4b435253;
+
+    private static final int SEGMENT_VERSION = 1;
+
+    private static final int SEGMENT_HEADER_SIZE = 8;
+
+    private static final int KEY_SIZE = 32;
+
+    /** Payload length and key before the payload, CRC after it. */
+    private static final int RECORD_OVERHEAD = 4 + KEY_SIZE + 4;
+
+    /** The size limit is split into this many segments, so an eviction frees a small part of the cache. */
+    private static final int SEGMENTS = 16;
+
+    private static final long MIN_SEGMENT_SIZE = 1024L * 1024L;
+
+    /** Bits of an index value that hold the offset in the segment, the segment id is stored above. */
+    private static final int OFFSET_BITS = 40;
+
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    private final Path m_directory;
+
+    private final ReadWriteLock m_lock = new ReentrantReadWriteLock();
+
+    /** The segments by id, oldest first. Guarded by {@link #m_lock}. */
+    private final TreeMap<Integer, Segment> m_segments = new TreeMap<>();
+
+    /** Position of the latest entry by the first eight bytes of the key. Guarded by {@link #m_lock}. */
+    private final LongLongMap m_index = new LongLongMap();
+
+    private final ExecutorService m_background;
+
+    private volatile long m_maxSize;
+
+    /** The segment new entries are appended to, {@code null} if the store is disabled. */
+    private Segment m_active;
+
+    /** Size of all segment files in bytes. Guarded by {@link #m_lock}. */
+    private long m_totalSize;
+
+    private FileChannel m_lockChannel;
+
+    private FileLock m_fileLock;
+
+    /**
+     * Returns the store of the given directory, opening it on first use.
+     *
+     * @param directory the cache directory, created if it does not exist
+     * @param maxSize the maximum size of the segment files in bytes, the size set last applies
+     * @return the store shared by all caches in the directory
+     * @throws IOException if the directory cannot be created or read
+     */
+    static synchronized ResultLogStore getInstance(final Path directory, final long maxSize) throws IOException {
+        final Path normalized = directory.toAbsolutePath().normalize();
+        ResultLogStore store = STORES.get(normalized);
+        if (store == null) {
+            store = new ResultLogStore(normalized, maxSize);
+            STORES.put(normalized, store);
+        } else {
+            store.setMaxSize(maxSize);
+        }
+        return store;
+    }
+
+    /**
+     * Opens a store. Use {@link #getInstance(Path, long)} unless the store is closed by the caller.
+     *
+     * @param directory the cache directory, created if it does not exist
+     * @param maxSize the maximum size of the segment files in bytes
+     * @throws IOException if the directory cannot be created or read
+     */
+    ResultLogStore(final Path directory, final long maxSize) throws IOException {
+        m_directory = directory;
+        m_maxSize = maxSize;
+        m_background = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "KNIME AWS ML result cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Files.createDirectories(directory);
+        m_lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE);
+        m_fileLock = m_lockChannel.tryLock();
+        if (m_fileLock == null) {
+            LOGGER.warn("The cache in " + directory + " is used by another process, results are not cached.");
+            m_lockChannel.close();
+            m_lockChannel = null;
+            return;
+        }
+        int lastId = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (final Path file : (Iterable<Path>)files::iterator) {
+                final Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    final Segment segment = new Segment(Integer.parseInt(matcher.group(1)), file, false);
+                    m_segments.put(segment.m_id, segment);
+                    m_totalSize += segment.m_size;
+                    lastId = Math.max(lastId, segment.m_id);
+                }
+            }
+        }
+        final Segment[] existing = m_segments.values().toArray(new Segment[0]);
+        m_active = new Segment(lastId + 1, directory.resolve("segment-" + (lastId + 1) + ".log"), true);
+        m_segments.put(m_active.m_id, m_active);
+        m_totalSize += m_active.m_size;
+        m_background.execute(() -> load(existing));
+        m_background.execute(this::evict);
+        m_background.execute(this::removeLegacyEntries);
+    }
+
+    /**
+     * @param maxSize the maximum size of the segment files in bytes
+     */
+    void setMaxSize(final long maxSize) {
+        if (maxSize != m_maxSize) {
+            m_maxSize = maxSize;
+            m_background.execute(this::evict);
+        }
+    }
+
+    /**
+     * Returns the value of an entry.
+     *
+     * @param key the 32 byte key
+     * @return the value or {@code null} if there is no entry or it could not be read
+     */
+    byte[] get(final byte[] key) {
+        final long hash = hash(key);
+        final byte[] value;
+        final boolean renew;
+        m_lock.readLock().lock();
+        try {
+            if (m_active == null) {
+                return null;
+            }
+            final long position = m_index.get(hash);
+            final Segment segment = position < 0 ? null : m_segments.get((int)(position >>> OFFSET_BITS));
+            if (segment == null) {
+                // Not cached or the segment was evicted
+                return null;
+            }
+            value = segment.read(position & OFFSET_MASK, key);
+            // Entries in the oldest quarter of the segments are appended again to survive the next evictions
+            renew = value != null && segment != m_active
+                && segment.m_id < m_segments.firstKey() + Math.max(1, m_segments.size() / 4);
+        } catch (IOException e) {
+            LOGGER.debug("Could not read cache entry: " + e.getMessage(), e);
+            return null;
+        } finally {
+            m_lock.readLock().unlock();
+        }
+        if (renew) {
+            try {
+                put(key, value);
+            } catch (IOException e) {
+                LOGGER.debug("Could not renew cache entry: " + e.getMessage(), e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Appends an entry, replacing the previous entry of the key.
+     *
+     * @param key the 32 byte key
+     * @param value the value
+     * @throws IOException if the entry cannot be written
+     */
+    void put(final byte[] key, final byte[] value) throws IOException {
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + value.length);
+        record.putInt(value.length).put(key).put(value).putInt(checksum(key, value)).flip();
+        boolean evict = false;
+        m_lock.writeLock().lock();
+        try {
+            if (m_active == null) {
+                return;
+            }
+            if (m_active.m_size > SEGMENT_HEADER_SIZE && m_active.m_size + record.remaining() > segmentSize()) {
+                m_active.m_channel.force(false);
+                final int id = m_active.m_id + 1;
+                m_active = new Segment(id, m_directory.resolve("segment-" + id + ".log"), true);
+                m_segments.put(id, m_active);
+                m_totalSize += m_active.m_size;
+                evict = m_totalSize > m_maxSize;
+            }
+            final long offset = m_active.m_size;
+            m_active.append(record);
+            m_totalSize += m_active.m_size - offset;
+            m_index.put(hash(key), ((long)m_active.m_id << OFFSET_BITS) | offset, minPosition());
+        } finally {
+            m_lock.writeLock().unlock();
+        }
+        if (evict) {
+            m_background.execute(this::evict);
+        }
+    }
+
+    /**
+     * Closes the segment files and releases the directory. Stores returned by {@link #getInstance(Path, long)} stay
+     * open until the JVM exits.
+     *
+     * @throws IOException if a file cannot be closed
+     */
+    void close() throws IOException {
+        m_background.shutdownNow();
+        m_lock.writeLock().lock();
+        try {
+            for (final Segment segment : m_segments.values()) {
+                segment.m_channel.close();
+            }
+            m_segments.clear();
+            m_active = null;
+            if (m_fileLock != null) {
+                m_fileLock.release();
+                m_lockChannel.close();
+            }
+        } finally {
+            m_lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the size of all segment files in bytes
+     */
+    long getSize() {
+        m_lock.readLock().lock();
+        try {
+            return m_totalSize;
+        } finally {
+            m_lock.readLock().unlock();
+        }
+    }
+
+    private long segmentSize() {
+        return Math.max(MIN_SEGMENT_SIZE, m_maxSize / SEGMENTS);
+    }
+
+    /** @return the smallest index value that points into a segment that was not evicted */
+    private long minPosition() {
+        return m_segments.isEmpty() ? 0 : (long)m_segments.firstKey() << OFFSET_BITS;
+    }
+
+    /**
+     * Deletes the oldest segments until the active segment can grow to its full size within the limit.
+     */
+    private void evict() {
+        while (true) {
+            final Segment oldest;
+            m_lock.writeLock().lock();
+            try {
+                if (m_active == null || m_totalSize + segmentSize() - m_active.m_size <= m_maxSize
+                    || m_segments.firstKey() == m_active.m_id) {
+                    return;
+                }
+                oldest = m_segments.pollFirstEntry().getValue();
+                m_totalSize -= oldest.m_size;
+                // Index entries of the segment are dropped when the index is rebuilt
+            } finally {
+                m_lock.writeLock().unlock();
+            }
+            try {
+                oldest.m_channel.close();
+                Files.deleteIfExists(oldest.m_path);
+            } catch (IOException e) {
+                LOGGER.debug("Could not delete cache segment " + oldest.m_path + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Indexes the entries of the segments that existed when the store was opened, oldest first.
+     */
+    private void load(final Segment[] segments) {
+        for (final Segment segment : segments) {
+            try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.m_path)))) {
+                if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                    LOGGER.debug("Skipping cache segment " + segment.m_path + " of an unknown format.");
+                    continue;
+                }
+                long offset = SEGMENT_HEADER_SIZE;
+                final byte[] key = new byte[KEY_SIZE];
+                while (!Thread.currentThread().isInterrupted()) {
+                    final int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) { // NOSONAR end of the segment
+                        break;
+                    }
+                    if (length < 0 || offset + RECORD_OVERHEAD + length > segment.m_size) {
+                        // Incomplete last entry, e.g. if the process was killed while writing
+                        break;
+                    }
+                    in.readFully(key);
+                    skipFully(in, length + 4L);
+                    m_lock.writeLock().lock();
+                    try {
+                        if (!m_segments.containsKey(segment.m_id)) {
+                            // Evicted in the meantime
+                            break;
+                        }
+                        m_index.putIfNewer(hash(key), ((long)segment.m_id << OFFSET_BITS) | offset, minPosition());
+                    } finally {
+                        m_lock.writeLock().unlock();
+                    }
+                    offset += RECORD_OVERHEAD + length;
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Could not read cache segment " + segment.m_path + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the entry files of the former layout, which are no longer read.
+     */
+    private void removeLegacyEntries() {
+        try (Stream<Path> directories = Files.list(m_directory)) {
+            for (final Path directory : (Iterable<Path>)directories::iterator) {
+                if (!Files.isDirectory(directory)
+                    || !LEGACY_DIRECTORY.matcher(directory.getFileName().toString()).matches()) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.list(directory)) {
+                    for (final Path file : (Iterable<Path>)files::iterator) {
+                        if (LEGACY_ENTRY.matcher(file.getFileName().toString()).matches()) {
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (DirectoryNotEmptyException e) { // NOSONAR keep directories with other files
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not remove the entries of the former cache layout: " + e.getMessage(), e);
+        }
+    }
+
+    private static void skipFully(final DataInputStream in, final long n) throws IOException {
+        long remaining = n;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static long hash(final byte[] key) {
+        // The key is a SHA-256 hash, so its first bytes are already uniformly distributed
+        return ByteBuffer.wrap(key).getLong();
+    }
+
+    private static int checksum(final byte[] key, final byte[] value) {
+        final CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(value);
+        return (int)crc.getValue();
+    }
+
+    /**
+     * A segment file.
+     */
+    private static final class Segment {
+
+        private final int m_id;
+
+        private final Path m_path;
+
+        private final FileChannel m_channel;
+
+        /** Size of the file in bytes, only changed for the active segment under the write lock. */
+        private long m_size;
+
+        Segment(final int id, final Path path, final boolean create) throws IOException {
+            m_id = id;
+            m_path = path;
+            if (create) {
+                m_channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                append(ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(SEGMENT_MAGIC).putInt(SEGMENT_VERSION).flip());
+            } else {
+                m_channel = FileChannel.open(path, StandardOpenOption.READ);
+                m_size = m_channel.size();
+            }
+        }
+
+        void append(final ByteBuffer buffer) throws IOException {
+            long position = m_size;
+            while (buffer.hasRemaining()) {
+                position += m_channel.write(buffer, position);
+            }
+            m_size = position;
+        }
+
+        /**
+         * Reads the value of the entry at the given offset.
+         *
+         * @return the value or {@code null} if the entry belongs to another key with the same index hash
+         * @throws IOException if the entry cannot be read or is corrupt
+         */
+        byte[] read(final long offset, final byte[] key) throws IOException {
+            final ByteBuffer header = ByteBuffer.allocate(4 + KEY_SIZE);
+            readFully(header, offset);
+            final int length = header.getInt();
+            final byte[] storedKey = new byte[KEY_SIZE];
+            header.get(storedKey);
+            if (!Arrays.equals(key, storedKey)) {
+                return null;
+            }
+            final ByteBuffer body = ByteBuffer.allocate(length + 4);
+            readFully(body, offset + 4 + KEY_SIZE);
+            final byte[] value = new byte[length];
+            body.get(value);
+            if (body.getInt() != checksum(key, value)) {
+                throw new IOException("Corrupt cache entry in " + m_path);
+            }
+            return value;
+        }
+
+        private void readFully(final ByteBuffer buffer, final long offset) throws IOException {
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                final int read = m_channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("Truncated cache entry in " + m_path);
+                }
+                position += read;
+            }
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Open addressing hash map from {@code long} to non-negative {@code long} values, which needs far less memory than
+     * a {@link HashMap} with boxed keys and values. Values below a given minimum belong to evicted segments and are
+     * dropped when the table is rebuilt.
+     */
+    private static final class LongLongMap {
+
+        private static final int INITIAL_CAPACITY = 1 << 12;
+
+        private static final float LOAD_FACTOR = 0.75f;
+
+        /** Marks free slots, keys with this value are stored as {@code 1}. */
+        private static final long FREE = 0;
+
+        private long[] m_keys = new long[INITIAL_CAPACITY];
+
+        private long[] m_values = new long[INITIAL_CAPACITY];
+
+        private int m_size;
+
+        /** @return the value or -1 if there is none */
+        long get(final long key) {
+            final long k = key == FREE ? 1 : key;
+            final int mask = m_keys.length - 1;
+            for (int i = slot(k, mask);; i = (i + 1) & mask) {
+                if (m_keys[i] == k) {
+                    return m_values[i];
+                } else if (m_keys[i] == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(final long key, final long value, final long minValue) {
+            put(key, value, minValue, false);
+        }
+
+        /** Puts the value unless the key has a larger value, i.e. an entry in a newer segment or further back. */
+        void putIfNewer(final long key, final long value, final long minValue) {
+            put(key, value, minValue, true);
+        }
+
+        private void put(final long key, final long value, final long minValue, final boolean onlyIfNewer) {
+            if (m_size >= m_keys.length * LOAD_FACTOR) {
+                rebuild(minValue);
+            }
+            final long k = key == FREE ? 1 : key;
+            final int mask = m_keys.length - 1;
+            for (int i = slot(k, mask);; i = (i + 1) & mask) {
+                if (m_keys[i] == k) {
+                    if (!onlyIfNewer || m_values[i] < value) {
+                        m_values[i] = value;
+                    }
+                    return;
+                } else if (m_keys[i] == FREE) {
+                    m_keys[i] = k;
+                    m_values[i] = value;
+                    m_size++;
+                    return;
+                }
+            }
+        }
+
+        /** Drops the values below the minimum and doubles the capacity if the table is still half full. */
+        private void rebuild(final long minValue) {
+            final long[] keys = m_keys;
+            final long[] values = m_values;
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE && values[i] >= minValue) {
+                    live++;
+                }
+            }
+            final int capacity = live >= keys.length / 2 ? keys.length * 2 : keys.length;
+            m_keys = new long[capacity];
+            m_values = new long[capacity];
+            m_size = 0;
+            final int mask = capacity - 1;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE && values[i] >= minValue) {
+                    int j = slot(keys[i], mask);
+                    while (m_keys[j] != FREE) {
+                        j = (j + 1) & mask;
+                    }
+                    m_keys[j] = keys[i];
+                    m_values[j] = values[i];
+                    m_size++;
+                }
+            }
+        }
+
+        private static int slot(final long key, final int mask) {
+            return (int)(key ^ (key >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.base.filehandling.remote.connectioninformation.port.ConnectionInformation;
+import org.knime.base.filehandling.remote.files.Connection;
+import org.knime.base.filehandling.remote.files.ConnectionMonitor;
+import org.knime.base.filehandling.remote.files.RemoteFile;
+import org.knime.base.filehandling.remote.files.RemoteFileFactory;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+
+import software.amazon.awssdk.services.comprehend.ComprehendClient;
+import software.amazon.awssdk.services.comprehend.model.DescribeDominantLanguageDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.DescribeKeyPhrasesDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.DescribeSentimentDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.DominantLanguageDetectionJobProperties;
+import software.amazon.awssdk.services.comprehend.model.InputDataConfig;
+import software.amazon.awssdk.services.comprehend.model.InputFormat;
+import software.amazon.awssdk.services.comprehend.model.JobStatus;
+import software.amazon.awssdk.services.comprehend.model.KeyPhrasesDetectionJobProperties;
+import software.amazon.awssdk.services.comprehend.model.OutputDataConfig;
+import software.amazon.awssdk.services.comprehend.model.SentimentDetectionJobProperties;
+import software.amazon.awssdk.services.comprehend.model.StartDominantLanguageDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.StartKeyPhrasesDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.StartSentimentDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.StopDominantLanguageDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.StopKeyPhrasesDetectionJobRequest;
+import software.amazon.awssdk.services.comprehend.model.StopSentimentDetectionJobRequest;
+
+/**
+ * Runs asynchronous jobs with the Amazon Comprehend service. The input files are uploaded to a folder on S3 that is
+ * accessed with the given AWS connection, the service writes the output to the same folder. Amazon Comprehend reads
+ * and writes the files with the given IAM data access role.
+ *
+ * @author agent
+ */
+public final class S3ComprehendJobService implements ComprehendJobService {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(S3ComprehendJobService.class);
+
+    private static final String FILE_PREFIX = "KNIME-tmp-comprehend-";
+
+    private final ComprehendClient m_client;
+
+    private final ConnectionInformation m_cxnInfo;
+
+    /** The staging folder in the form /bucket/folder/ */
+    private final String m_folder;
+
+    private final String m_roleArn;
+
+    private final ConnectionMonitor<Connection> m_monitor = new ConnectionMonitor<>();
+
+    /** Input files and output archives to remove when the service is closed. */
+    private final List<RemoteFile<Connection>> m_files = new ArrayList<>();
+
+    /** Location of the output archive of each completed job. */
+    private final Map<String, String> m_outputs = new HashMap<>();
+
+    /**
+     * Creates a new instance of {@code S3ComprehendJobService}.
+     *
+     * @param client the client used to start and monitor the jobs
+     * @param cxnInfo the connection information used to access S3
+     * @param folder the staging folder in the form /bucket/folder/
+     * @param roleArn the ARN of the IAM role that grants Amazon Comprehend access to the staging folder
+     */
+    public S3ComprehendJobService(final ComprehendClient client, final ConnectionInformation cxnInfo,
+        final String folder, final String roleArn) {
+        m_client = client;
+        m_cxnInfo = cxnInfo;
+        m_folder = folder.endsWith("/") ? folder : (folder + "/");
+        m_roleArn = roleArn;
+    }
+
+    @Override
+    public String stageInput(final Path file, final ExecutionContext exec) throws Exception {
+        final String path = m_folder + FILE_PREFIX + System.currentTimeMillis() + ".txt";
+        final RemoteFile<Connection> target = createRemoteFile(path);
+        final RemoteFile<Connection> source = RemoteFileFactory.createRemoteFile(file.toUri(), null, null);
+        m_files.add(target);
+        target.write(source, exec);
+        return "s3:/" + path;
+    }
+
+    @Override
+    public String startJob(final JobType type, final String inputLocation, final String languageCode) {
+        final String jobName = FILE_PREFIX + type.name().toLowerCase().replace('_', '-') + "-"
+            + System.currentTimeMillis();
+        final InputDataConfig input =
+            InputDataConfig.builder().s3Uri(inputLocation).inputFormat(InputFormat.ONE_DOC_PER_LINE).build();
+        final OutputDataConfig output = OutputDataConfig.builder().s3Uri("s3:/" + m_folder + jobName + "/").build();
+        switch (type) {
+            case SENTIMENT:
+                return m_client.startSentimentDetectionJob(StartSentimentDetectionJobRequest.builder()
+                    .jobName(jobName).inputDataConfig(input).outputDataConfig(output).dataAccessRoleArn(m_roleArn)
+                    .languageCode(languageCode).build()).jobId();
+            case KEY_PHRASES:
+                return m_client.startKeyPhrasesDetectionJob(StartKeyPhrasesDetectionJobRequest.builder()
+                    .jobName(jobName).inputDataConfig(input).outputDataConfig(output).dataAccessRoleArn(m_roleArn)
+                    .languageCode(languageCode).build()).jobId();
+            case DOMINANT_LANGUAGE:
+                return m_client.startDominantLanguageDetectionJob(StartDominantLanguageDetectionJobRequest.builder()
+                    .jobName(jobName).inputDataConfig(input).outputDataConfig(output).dataAccessRoleArn(m_roleArn)
+                    .build()).jobId();
+            default:
+                throw new IllegalArgumentException("Unsupported job type: " + type);
+        }
+    }
+
+    @Override
+    public boolean isJobCompleted(final JobType type, final String jobId) {
+        final JobStatus status;
+        final String message;
+        final OutputDataConfig output;
+        switch (type) {
+            case SENTIMENT:
+                final SentimentDetectionJobProperties sentiment = m_client.describeSentimentDetectionJob(
+                    DescribeSentimentDetectionJobRequest.builder().jobId(jobId).build())
+                    .sentimentDetectionJobProperties();
+                status = sentiment.jobStatus();
+                message = sentiment.message();
+                output = sentiment.outputDataConfig();
+                break;
+            case KEY_PHRASES:
+                final KeyPhrasesDetectionJobProperties keyPhrases = m_client.describeKeyPhrasesDetectionJob(
+                    DescribeKeyPhrasesDetectionJobRequest.builder().jobId(jobId).build())
+                    .keyPhrasesDetectionJobProperties();
+                status = keyPhrases.jobStatus();
+                message = keyPhrases.message();
+                output = keyPhrases.outputDataConfig();
+                break;
+            case DOMINANT_LANGUAGE:
+                final DominantLanguageDetectionJobProperties language = m_client.describeDominantLanguageDetectionJob(
+                    DescribeDominantLanguageDetectionJobRequest.builder().jobId(jobId).build())
+                    .dominantLanguageDetectionJobProperties();
+                status = language.jobStatus();
+                message = language.message();
+                output = language.outputDataConfig();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported job type: " + type);
+        }
+        if (status == JobStatus.FAILED || status == JobStatus.STOPPED || status == JobStatus.STOP_REQUESTED) {
+            throw new IllegalStateException("The Amazon Comprehend job " + jobId + " did not complete (Status: "
+                + status + "). Reason: " + message);
+        }
+        if (status == JobStatus.COMPLETED) {
+            m_outputs.put(jobId, output.s3Uri());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void stopJob(final JobType type, final String jobId) {
+        switch (type) {
+            case SENTIMENT:
+                m_client.stopSentimentDetectionJob(StopSentimentDetectionJobRequest.builder().jobId(jobId).build());
+                break;
+            case KEY_PHRASES:
+                m_client.stopKeyPhrasesDetectionJob(StopKeyPhrasesDetectionJobRequest.builder().jobId(jobId).build());
+                break;
+            case DOMINANT_LANGUAGE:
+                m_client.stopDominantLanguageDetectionJob(
+                    StopDominantLanguageDetectionJobRequest.builder().jobId(jobId).build());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported job type: " + type);
+        }
+    }
+
+    @Override
+    public InputStream openJobOutput(final JobType type, final String jobId) throws Exception {
+        final String location = m_outputs.get(jobId);
+        if (location == null) {
+            throw new IllegalStateException("The Amazon Comprehend job " + jobId + " has not completed yet.");
+        }
+        // s3://bucket/key -> /bucket/key
+        final RemoteFile<Connection> archive = createRemoteFile(location.substring("s3:/".length()));
+        m_files.add(archive);
+        return archive.openInputStream();
+    }
+
+    @Override
+    public void close() {
+        for (final RemoteFile<Connection> file : m_files) {
+            try {
+                file.delete();
+            } catch (final Exception e) { // NOSONAR a file that cannot be removed must not fail the node
+                LOGGER.warn("Could not remove temporary file " + file.getURI() + ": " + e.getMessage(), e);
+            }
+        }
+        m_files.clear();
+        m_monitor.closeAll();
+    }
+
+    private RemoteFile<Connection> createRemoteFile(final String path) throws Exception {
+        final URI uri = new URI(m_cxnInfo.toURI().toString() + "/" + path);
+        return RemoteFileFactory.createRemoteFile(uri, m_cxnInfo, m_monitor);
+    }
+}
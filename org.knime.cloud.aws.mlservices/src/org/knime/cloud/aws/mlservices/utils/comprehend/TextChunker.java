@@ -0,0 +1,222 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.comprehend;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits texts that exceed the per-document size limit of Comprehend into chunks. Chunks end at sentence boundaries
+ * where possible, then at word boundaries, and only split within a word if a single word exceeds the limit. The size
+ * is measured in UTF-8 bytes, as enforced by the service.
+ *
+ * @author agent
+ */
+public final class TextChunker {
+
+    private TextChunker() {
+        // Utility class
+    }
+
+    /**
+     * A part of a text.
+     */
+    public static final class Chunk {
+
+        private final String m_text;
+
+        private final int m_offset;
+
+        private final int m_codePointOffset;
+
+        private Chunk(final String text, final int offset, final int codePointOffset) {
+            m_text = text;
+            m_offset = offset;
+            m_codePointOffset = codePointOffset;
+        }
+
+        /**
+         * @return the text of the chunk
+         */
+        public String getText() {
+            return m_text;
+        }
+
+        /**
+         * @return the offset of the chunk in the original text in chars
+         */
+        public int getOffset() {
+            return m_offset;
+        }
+
+        /**
+         * @return the offset of the chunk in the original text in code points, as used for the offsets returned by
+         *         Comprehend
+         */
+        public int getCodePointOffset() {
+            return m_codePointOffset;
+        }
+
+        /**
+         * @return the length of the chunk in chars
+         */
+        public int getLength() {
+            return m_text.length();
+        }
+    }
+
+    /**
+     * Splits the text into chunks of at most the given number of UTF-8 bytes.
+     *
+     * @param text the text to split
+     * @param maxBytes the maximum number of UTF-8 bytes per chunk
+     * @param locale the locale used to find sentence and word boundaries
+     * @return the chunks, a single chunk if the text does not exceed the limit
+     */
+    public static List<Chunk> split(final String text, final int maxBytes, final Locale locale) {
+        if (utf8Length(text, 0, text.length()) <= maxBytes) {
+            return Collections.singletonList(new Chunk(text, 0, 0));
+        }
+        // Boundaries of pieces that fit into a chunk, chunks are then packed greedily from these pieces
+        final List<Integer> bounds = new ArrayList<>();
+        final BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+        sentences.setText(text);
+        int start = sentences.first();
+        bounds.add(start);
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            if (utf8Length(text, start, end) > maxBytes) {
+                addWordBounds(text, start, end, maxBytes, locale, bounds);
+            }
+            bounds.add(end);
+        }
+
+        final List<Chunk> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int chunkBytes = 0;
+        int codePoints = 0;
+        for (int i = 1; i < bounds.size(); i++) {
+            final int pieceBytes = utf8Length(text, bounds.get(i - 1), bounds.get(i));
+            if (chunkBytes + pieceBytes > maxBytes && chunkBytes > 0) {
+                final int chunkEnd = bounds.get(i - 1);
+                chunks.add(new Chunk(text.substring(chunkStart, chunkEnd), chunkStart, codePoints));
+                codePoints += text.codePointCount(chunkStart, chunkEnd);
+                chunkStart = chunkEnd;
+                chunkBytes = 0;
+            }
+            chunkBytes += pieceBytes;
+        }
+        if (chunkStart < text.length()) {
+            chunks.add(new Chunk(text.substring(chunkStart), chunkStart, codePoints));
+        }
+        return chunks;
+    }
+
+    /**
+     * Adds the word boundaries of an oversize sentence, and code point boundaries within oversize words.
+     */
+    private static void addWordBounds(final String text, final int start, final int end, final int maxBytes,
+        final Locale locale, final List<Integer> bounds) {
+        final BreakIterator words = BreakIterator.getWordInstance(locale);
+        words.setText(text.substring(start, end));
+        int wordStart = words.first();
+        for (int wordEnd = words.next(); wordEnd != BreakIterator.DONE; wordStart = wordEnd, wordEnd = words.next()) {
+            int pos = start + wordStart;
+            final int limit = start + wordEnd;
+            if (utf8Length(text, pos, limit) > maxBytes) {
+                // Split the word itself, never within a surrogate pair
+                int bytes = 0;
+                while (pos < limit) {
+                    final int cp = text.codePointAt(pos);
+                    final int cpBytes = utf8Length(cp);
+                    if (bytes + cpBytes > maxBytes) {
+                        bounds.add(pos);
+                        bytes = 0;
+                    }
+                    bytes += cpBytes;
+                    pos += Character.charCount(cp);
+                }
+            }
+            if (limit < end) {
+                bounds.add(limit);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of a part of the text without encoding it.
+     *
+     * @param text the text
+     * @param start the index of the first char
+     * @param end the index after the last char
+     * @return the number of UTF-8 bytes
+     */
+    public static int utf8Length(final String text, final int start, final int end) {
+        int bytes = 0;
+        for (int i = start; i < end;) {
+            final int cp = text.codePointAt(i);
+            bytes += utf8Length(cp);
+            i += Character.charCount(cp);
+        }
+        return bytes;
+    }
+
+    private static int utf8Length(final int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        } else if (codePoint < 0x800) {
+            return 2;
+        } else if (codePoint < 0x10000) {
+            return 3;
+        }
+        return 4;
+    }
+}
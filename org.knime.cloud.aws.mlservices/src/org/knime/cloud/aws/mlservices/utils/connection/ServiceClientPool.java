@@ -0,0 +1,220 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.connection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.knime.cloud.core.util.port.CloudConnectionInformation;
+import org.knime.core.node.NodeLogger;
+
+import software.amazon.awssdk.core.SdkClient;
+
+/**
+ * Pool of the AWS SDK clients of the machine learning service nodes. Clients are thread-safe and expensive to create,
+ * since each one sets up its own HTTP connection pool and TLS sessions. The pool hands out one client per service,
+ * connection information and client options to all nodes, so nodes executed in a loop reuse the client and its open
+ * connections. A client is closed once it was not leased for {@link #IDLE_TIMEOUT_MS} milliseconds.
+ *
+ * @author agent
+ */
+public final class ServiceClientPool {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ServiceClientPool.class);
+
+    /** Time after which a client that is not leased is closed. */
+    static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
+    /** Interval in which idle clients are looked for. */
+    private static final long EVICTION_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    /** The pooled clients by service, connection information and client options. */
+    private static final Map<List<Object>, PooledClient> CLIENTS = new HashMap<>();
+
+    /** The pooled clients by client, to return leased clients. */
+    private static final Map<SdkClient, PooledClient> LEASED = new IdentityHashMap<>();
+
+    /** Closes idle clients, created with the first client. */
+    private static ScheduledExecutorService evictor;
+
+    private ServiceClientPool() {
+        // Utility class
+    }
+
+    private static final class PooledClient {
+
+        private final List<Object> m_key;
+
+        private final SdkClient m_client;
+
+        private int m_leases;
+
+        private long m_idleSince;
+
+        private PooledClient(final List<Object> key, final SdkClient client) {
+            m_key = key;
+            m_client = client;
+        }
+    }
+
+    /**
+     * Leases the client of a service for the given connection. If the pool holds no such client, a new one is created.
+     * Each leased client must be returned with {@link #release(SdkClient)} and must not be closed by the caller.
+     *
+     * @param <T> the type of the client
+     * @param service the name of the service, e.g. "comprehend"
+     * @param cxnInfo the connection information the client was created with
+     * @param options further options the client was created with that are not part of the connection information,
+     *            {@code null} if there are none
+     * @param factory creates a new client if none is pooled
+     * @return the leased client
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <T extends SdkClient> T acquire(final String service,
+        final CloudConnectionInformation cxnInfo, final Object options, final Supplier<T> factory) {
+        final List<Object> key = Arrays.asList(service, cxnInfo, options);
+        PooledClient pooled = CLIENTS.get(key);
+        if (pooled == null) {
+            pooled = new PooledClient(key, factory.get());
+            CLIENTS.put(key, pooled);
+            LEASED.put(pooled.m_client, pooled);
+            startEvictor();
+        } else {
+            LOGGER.debug("Reusing the " + service + " client for region \"" + cxnInfo.getHost() + "\"");
+        }
+        pooled.m_leases++;
+        return (T)pooled.m_client;
+    }
+
+    /**
+     * Returns a client leased by {@link #acquire(String, CloudConnectionInformation, Object, Supplier)}. The client
+     * stays open for other nodes until it was idle for {@link #IDLE_TIMEOUT_MS} milliseconds.
+     *
+     * @param client the leased client
+     */
+    public static synchronized void release(final SdkClient client) {
+        final PooledClient pooled = LEASED.get(client);
+        if (pooled == null) {
+            // The pool was closed while the client was leased
+            client.close();
+            return;
+        }
+        pooled.m_leases = Math.max(0, pooled.m_leases - 1);
+        if (pooled.m_leases == 0) {
+            pooled.m_idleSince = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Closes all clients that are not leased. Leased clients are closed when they are returned.
+     */
+    public static void closeAll() {
+        final List<SdkClient> closed = new ArrayList<>();
+        synchronized (ServiceClientPool.class) {
+            for (final PooledClient pooled : CLIENTS.values()) {
+                if (pooled.m_leases == 0) {
+                    closed.add(pooled.m_client);
+                }
+                LEASED.remove(pooled.m_client);
+            }
+            CLIENTS.clear();
+            if (evictor != null) {
+                evictor.shutdownNow();
+                evictor = null;
+            }
+        }
+        closed.forEach(ServiceClientPool::closeQuietly);
+    }
+
+    private static void startEvictor() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                final Thread thread = new Thread(r, "KNIME AWS ML service client eviction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(ServiceClientPool::evictIdleClients, EVICTION_INTERVAL_MS,
+                EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void evictIdleClients() {
+        final List<SdkClient> evicted = new ArrayList<>();
+        synchronized (ServiceClientPool.class) {
+            final long now = System.currentTimeMillis();
+            for (final Iterator<PooledClient> it = CLIENTS.values().iterator(); it.hasNext();) {
+                final PooledClient pooled = it.next();
+                if (pooled.m_leases == 0 && now - pooled.m_idleSince >= IDLE_TIMEOUT_MS) {
+                    it.remove();
+                    LEASED.remove(pooled.m_client);
+                    evicted.add(pooled.m_client);
+                    LOGGER.debug("Closing the idle " + pooled.m_key.get(0) + " client");
+                }
+            }
+        }
+        evicted.forEach(ServiceClientPool::closeQuietly);
+    }
+
+    private static void closeQuietly(final SdkClient client) {
+        try {
+            client.close();
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not close the client: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.connection;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+
+/**
+ * Settings of the client-side limits for the requests a node sends to an AWS machine learning service. The limits are
+ * enforced by the {@link ServiceRateLimiter} shared by all nodes calling the service in the same region.
+ *
+ * @author agent
+ */
+public final class ServiceLimitSettings {
+
+    /** Settings name for the maximum number of requests per second. */
+    public static final String CFG_KEY_REQUESTS_PER_SECOND = "service_requests_per_second";
+
+    /** Settings name for the maximum number of requests in flight. */
+    public static final String CFG_KEY_MAX_CONCURRENT = "service_max_concurrent_requests";
+
+    /** Settings name for the maximum number of retries of a failed request. */
+    public static final String CFG_KEY_MAX_RETRIES = "service_max_retries";
+
+    /** Default maximum number of requests per second. */
+    private static final double DEF_REQUESTS_PER_SECOND = 20;
+
+    /** Default maximum number of requests in flight. */
+    private static final int DEF_MAX_CONCURRENT = 16;
+
+    /** Default maximum number of retries of a failed request. */
+    private static final int DEF_MAX_RETRIES = 8;
+
+    /** Number of retries of the AWS SDK, used by workflows created before the limits could be configured. */
+    private static final int SDK_DEFAULT_RETRIES = 3;
+
+    private final SettingsModelDoubleBounded m_requestsPerSecond = getRequestsPerSecondModel();
+
+    private final SettingsModelIntegerBounded m_maxConcurrent = getMaxConcurrentModel();
+
+    private final SettingsModelIntegerBounded m_maxRetries = getMaxRetriesModel();
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelDoubleBounded} storing the maximum number of requests
+     * per second
+     *
+     * @return Returns a new instance of {@link SettingsModelDoubleBounded} storing the maximum number of requests per
+     *         second, 0 to not impose a limit
+     */
+    public static SettingsModelDoubleBounded getRequestsPerSecondModel() {
+        return new SettingsModelDoubleBounded(CFG_KEY_REQUESTS_PER_SECOND, DEF_REQUESTS_PER_SECOND, 0, 1000);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum number of requests
+     * in flight
+     *
+     * @return Returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum number of requests in
+     *         flight, 0 to not impose a limit
+     */
+    public static SettingsModelIntegerBounded getMaxConcurrentModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_MAX_CONCURRENT, DEF_MAX_CONCURRENT, 0, 256);
+    }
+
+    /**
+     * Creates and returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum number of retries
+     *
+     * @return Returns a new instance of {@link SettingsModelIntegerBounded} storing the maximum number of retries
+     */
+    public static SettingsModelIntegerBounded getMaxRetriesModel() {
+        return new SettingsModelIntegerBounded(CFG_KEY_MAX_RETRIES, DEF_MAX_RETRIES, 0, 30);
+    }
+
+    /**
+     * @return the maximum number of requests per second, 0 to not impose a limit
+     */
+    public double getRequestsPerSecond() {
+        return m_requestsPerSecond.getDoubleValue();
+    }
+
+    /**
+     * @return the maximum number of requests in flight, 0 to not impose a limit
+     */
+    public int getMaxConcurrent() {
+        return m_maxConcurrent.getIntValue();
+    }
+
+    /**
+     * @return the maximum number of retries of a failed request
+     */
+    public int getMaxRetries() {
+        return m_maxRetries.getIntValue();
+    }
+
+    /**
+     * Registers the limits with the shared limiter of the service in the region. The lowest limits of all registered
+     * nodes apply.
+     *
+     * @param service the name of the service, e.g. "comprehend"
+     * @param region the region of the client
+     * @return the registration to close once the requests are sent
+     */
+    public ServiceRateLimiter.Registration registerLimits(final String service, final String region) {
+        return ServiceRateLimiter.getInstance(service, region).register(getRequestsPerSecond(), getMaxConcurrent());
+    }
+
+    /**
+     * Adds the shared limiter of the service in the region and the retry policy to the configuration of a client. The
+     * limits themselves are applied by {@link #registerLimits(String, String)}, since a client is reused by all nodes
+     * with the same number of retries.
+     *
+     * @param config the configuration of the client
+     * @param service the name of the service, e.g. "comprehend"
+     * @param region the region of the client
+     * @return the given configuration builder
+     */
+    public ClientOverrideConfiguration.Builder applyTo(final ClientOverrideConfiguration.Builder config,
+        final String service, final String region) {
+        final ServiceRateLimiter limiter = ServiceRateLimiter.getInstance(service, region);
+        return config.addExecutionInterceptor(limiter.createInterceptor())
+            .retryPolicy(limiter.createRetryPolicy(getMaxRetries()));
+    }
+
+    /**
+     * Saves the settings.
+     *
+     * @param settings the settings to save to
+     */
+    public void saveSettingsTo(final NodeSettingsWO settings) {
+        m_requestsPerSecond.saveSettingsTo(settings);
+        m_maxConcurrent.saveSettingsTo(settings);
+        m_maxRetries.saveSettingsTo(settings);
+    }
+
+    /**
+     * Loads the settings. Nodes of workflows created before the limits could be configured do not impose limits, so
+     * they leave the limits of other nodes unchanged, and use the retries of the AWS SDK.
+     *
+     * @param settings the settings to load from
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
+        if (settings.containsKey(CFG_KEY_REQUESTS_PER_SECOND)) {
+            m_requestsPerSecond.loadSettingsFrom(settings);
+            m_maxConcurrent.loadSettingsFrom(settings);
+            m_maxRetries.loadSettingsFrom(settings);
+        } else {
+            m_requestsPerSecond.setDoubleValue(0);
+            m_maxConcurrent.setIntValue(0);
+            m_maxRetries.setIntValue(SDK_DEFAULT_RETRIES);
+        }
+    }
+
+    /**
+     * Validates the settings.
+     *
+     * @param settings the settings to validate
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    public void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        if (settings.containsKey(CFG_KEY_REQUESTS_PER_SECOND)) {
+            m_requestsPerSecond.validateSettings(settings);
+            m_maxConcurrent.validateSettings(settings);
+            m_maxRetries.validateSettings(settings);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   18 Oct 2026 (agent): created
+ */
+package org.knime.cloud.aws.mlservices.utils.connection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.node.NodeLogger;
+
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+
+/**
+ * Client-side limit for the requests sent to one AWS service in one region. All clients of the service in the region
+ * share the same instance, so nodes running in parallel stay below the account limits together. The limiter bounds
+ * the number of requests in flight and the number of requests started per second. The rate adapts to the service:
+ * it is halved whenever the service throttles a request and grows back in small steps with each successful request.
+ * Throttled requests are retried with jittered exponential backoff. Each attempt of a request, including its retries,
+ * takes a permit of the limiter, so retries count against the limits as well.
+ *
+ * @author agent
+ */
+public final class ServiceRateLimiter {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ServiceRateLimiter.class);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** The shared limiters by service and region. */
+    private static final Map<String, ServiceRateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    /** Marks API calls whose current attempt holds a permit of the limiter. */
+    private static final ExecutionAttribute<Boolean> PERMIT = new ExecutionAttribute<>("KNIMEServiceRateLimitPermit");
+
+    /** Lowest rate the adaptive rate is reduced to. */
+    private static final double MIN_RATE = 0.5;
+
+    /** Fraction of the configured rate the adaptive rate grows by with each successful request. */
+    private static final double RATE_INCREASE = 0.05;
+
+    /** Base delay of the backoff between retries. */
+    private static final Duration BASE_DELAY = Duration.ofMillis(100);
+
+    /** Base delay of the backoff between retries of throttled requests. */
+    private static final Duration THROTTLING_BASE_DELAY = Duration.ofMillis(500);
+
+    /** Maximum delay between two retries. */
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(20);
+
+    private final String m_name;
+
+    /** The limits of the nodes currently sending requests. */
+    private final List<Registration> m_registrations = new ArrayList<>();
+
+    /** Lowest configured requests per second, 0 if the rate is not limited. */
+    private double m_maxRate;
+
+    /** Lowest configured maximum number of requests in flight, 0 if not limited. */
+    private int m_maxConcurrent;
+
+    /** Current requests per second, lowered when the service throttles requests. */
+    private double m_rate;
+
+    /** Number of requests currently in flight. */
+    private int m_inFlight;
+
+    /** Point in time at which the next request may be started. */
+    private long m_nextFree = System.nanoTime();
+
+    /** Point in time of the last rate reduction, several throttled requests in a row reduce the rate only once. */
+    private long m_lastDecrease = System.nanoTime() - NANOS_PER_SECOND;
+
+    private ServiceRateLimiter(final String name) {
+        m_name = name;
+    }
+
+    /**
+     * Returns the limiter shared by all clients of a service in a region.
+     *
+     * @param service the name of the service, e.g. "comprehend"
+     * @param region the region the service is called in
+     * @return the shared limiter
+     */
+    public static ServiceRateLimiter getInstance(final String service, final String region) {
+        final String name = service + "@" + region;
+        return LIMITERS.computeIfAbsent(name, ServiceRateLimiter::new);
+    }
+
+    /**
+     * Registers the limits of a node for as long as it sends requests. The limiter is shared, so the lowest limits of
+     * all registered nodes apply to all clients of the service in the region. A limit of 0 does not limit the
+     * respective value, so nodes without limits do not change the limits of the other nodes.
+     *
+     * @param requestsPerSecond the number of requests started per second, 0 to not limit the rate
+     * @param maxConcurrent the number of requests in flight, 0 to not limit the number of requests in flight
+     * @return the registration to close once the node does not send requests anymore
+     */
+    public synchronized Registration register(final double requestsPerSecond, final int maxConcurrent) {
+        final Registration registration = new Registration(Math.max(0, requestsPerSecond), Math.max(0, maxConcurrent));
+        m_registrations.add(registration);
+        updateLimits();
+        return registration;
+    }
+
+    private synchronized void unregister(final Registration registration) {
+        if (m_registrations.remove(registration)) {
+            updateLimits();
+        }
+    }
+
+    /**
+     * Applies the lowest limits of the registered nodes.
+     */
+    private void updateLimits() {
+        double maxRate = 0;
+        int maxConcurrent = 0;
+        for (final Registration registration : m_registrations) {
+            if (registration.m_requestsPerSecond > 0) {
+                maxRate = maxRate > 0 ? Math.min(maxRate, registration.m_requestsPerSecond)
+                    : registration.m_requestsPerSecond;
+            }
+            if (registration.m_maxConcurrent > 0) {
+                maxConcurrent = maxConcurrent > 0 ? Math.min(maxConcurrent, registration.m_maxConcurrent)
+                    : registration.m_maxConcurrent;
+            }
+        }
+        if (maxRate != m_maxRate) {
+            // A reduced rate is kept when the limit is raised, it grows back with successful requests
+            m_rate = m_maxRate > 0 && maxRate > 0 ? Math.min(m_rate, maxRate) : maxRate;
+            m_maxRate = maxRate;
+        }
+        m_maxConcurrent = maxConcurrent;
+        // Waiting requests may proceed if the limit was raised or removed
+        notifyAll();
+    }
+
+    /**
+     * @return the current number of requests per second, 0 if the rate is not limited
+     */
+    public synchronized double getRate() {
+        return m_rate;
+    }
+
+    /**
+     * Waits until a request may be sent. Each call must be followed by a call to {@link #release(boolean)}.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long wait;
+        synchronized (this) {
+            while (m_maxConcurrent > 0 && m_inFlight >= m_maxConcurrent) {
+                wait();
+            }
+            m_inFlight++;
+            if (m_rate <= 0) {
+                return;
+            }
+            // Unused capacity is not saved up, so at most one second of requests is sent in a burst
+            final long now = System.nanoTime();
+            final long start = Math.max(m_nextFree, now - NANOS_PER_SECOND);
+            m_nextFree = start + (long)(NANOS_PER_SECOND / m_rate);
+            wait = start - now;
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                release(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a request obtained by {@link #acquire()}.
+     *
+     * @param succeeded whether the request succeeded, successful requests raise a reduced rate again
+     */
+    public synchronized void release(final boolean succeeded) {
+        m_inFlight--;
+        if (succeeded && m_rate < m_maxRate) {
+            m_rate = Math.min(m_maxRate, m_rate + m_maxRate * RATE_INCREASE);
+        }
+        notify();
+    }
+
+    /**
+     * Halves the rate after the service throttled a request. Throttled requests within one second reduce the rate
+     * only once since they were usually sent at the same rate.
+     */
+    public synchronized void throttled() {
+        final long now = System.nanoTime();
+        if (m_maxRate <= 0 || now - m_lastDecrease < NANOS_PER_SECOND) {
+            return;
+        }
+        m_lastDecrease = now;
+        m_rate = Math.max(Math.min(MIN_RATE, m_maxRate), m_rate / 2);
+        LOGGER.debug("Requests to " + m_name + " were throttled, reducing the rate to " + m_rate + " per second");
+    }
+
+    /**
+     * Creates an interceptor that holds a permit of this limiter while each attempt of an API call is transmitted. The
+     * permit is not held during the backoff between two attempts.
+     *
+     * @return the interceptor to add to the client configuration
+     */
+    public ExecutionInterceptor createInterceptor() {
+        return new ExecutionInterceptor() {
+
+            @Override
+            public void beforeTransmission(final Context.BeforeTransmission context,
+                final ExecutionAttributes executionAttributes) {
+                // The previous attempt failed without a response, e.g. because of a connection error
+                releasePermit(executionAttributes, false);
+                try {
+                    acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw AbortedException.builder().message("Interrupted while waiting for the rate limit.")
+                        .cause(e).build();
+                }
+                executionAttributes.putAttribute(PERMIT, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterTransmission(final Context.AfterTransmission context,
+                final ExecutionAttributes executionAttributes) {
+                releasePermit(executionAttributes, context.httpResponse().isSuccessful());
+            }
+
+            @Override
+            public void onExecutionFailure(final Context.FailedExecution context,
+                final ExecutionAttributes executionAttributes) {
+                releasePermit(executionAttributes, false);
+            }
+
+            private void releasePermit(final ExecutionAttributes executionAttributes, final boolean succeeded) {
+                if (Boolean.TRUE.equals(executionAttributes.getAttribute(PERMIT))) {
+                    executionAttributes.putAttribute(PERMIT, Boolean.FALSE);
+                    release(succeeded);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a retry policy that retries failed requests with jittered exponential backoff and reduces the rate of
+     * this limiter whenever the service throttles a request.
+     *
+     * @param maxRetries the maximum number of retries of one request
+     * @return the retry policy to add to the client configuration
+     */
+    public RetryPolicy createRetryPolicy(final int maxRetries) {
+        final RetryCondition defaultCondition = RetryCondition.defaultRetryCondition();
+        return RetryPolicy.builder()
+            .numRetries(maxRetries)
+            .retryCondition(context -> {
+                if (RetryUtils.isThrottlingException(context.exception())) {
+                    throttled();
+                }
+                return defaultCondition.shouldRetry(context);
+            })
+            .backoffStrategy(
+                FullJitterBackoffStrategy.builder().baseDelay(BASE_DELAY).maxBackoffTime(MAX_BACKOFF).build())
+            .throttlingBackoffStrategy(FullJitterBackoffStrategy.builder().baseDelay(THROTTLING_BASE_DELAY)
+                .maxBackoffTime(MAX_BACKOFF).build())
+            .build();
+    }
+
+    /**
+     * The limits of a node registered with a limiter, see {@link ServiceRateLimiter#register(double, int)}.
+     */
+    public final class Registration implements AutoCloseable {
+
+        private final double m_requestsPerSecond;
+
+        private final int m_maxConcurrent;
+
+        private Registration(final double requestsPerSecond, final int maxConcurrent) {
+            m_requestsPerSecond = requestsPerSecond;
+            m_maxConcurrent = maxConcurrent;
+        }
+
+        /**
+         * Removes the limits of the node from the limiter. Closing a registration twice has no effect.
+         */
+        @Override
+        public void close() {
+            unregister(this);
+        }
+    }
+}